@@ -109,12 +109,43 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
    */
   public static final String MAX_UNCOMPRESSED_RESPONSE_SIZE = "MAX_UNCOMPRESSED_RESPONSE_SIZE";
 
+  /**
+   * Connector param which is set by the service if the connector is invoked with response streaming.
+   */
+  public static final String RESPONSE_STREAMING = "responseStreaming";
+
+  /**
+   * Environment variable which has to be set to "true" if the function runs on another runtime than the {@link StreamingLambdaRuntime}
+   * which forwards the output stream to the caller while it is being written.
+   */
+  public static final String STREAMING_RESPONSE_RUNTIME = "STREAMING_RESPONSE_RUNTIME";
+
+  /**
+   * The prefix of the execution environments of the managed Java runtimes, which always buffer the whole response.
+   */
+  private static final String MANAGED_JAVA_RUNTIME_PREFIX = "AWS_Lambda_java";
+
+  /**
+   * Whether the connector runs on the {@link StreamingLambdaRuntime}.
+   */
+  static boolean streamingRuntime;
+
   /**
    * The maximal response size in bytes that can be sent back without relocating the response.
    */
   @SuppressWarnings("WeakerAccess")
   private static int RELOCATION_THRESHOLD_SIZE = 6 * 1024 * 1024;
 
+  /**
+   * The maximal response size in bytes that can be streamed back without relocating the response.
+   */
+  private static int STREAMING_RELOCATION_THRESHOLD_SIZE = 20 * 1024 * 1024;
+
+  /**
+   * The size of the chunks in which a streamed response is written out.
+   */
+  private static final int STREAMING_CHUNK_SIZE = 256 * 1024;
+
   /**
    * The maximal size of uncompressed bytes. Exceeding that limit leads to the response getting gzipped.
    */
@@ -152,6 +183,11 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
    */
   private long maxUncompressedResponseSize = Long.MAX_VALUE;
 
+  /**
+   * Whether the response of the current invocation is really streamed back to the caller
+   */
+  private boolean responseStreaming;
+
   private static final String DEFAULT_STORAGE_REGION_MAPPING = "DEFAULT_STORAGE_REGION_MAPPING";
   private static final Map<String, Set<String>> allowedEventTypes;
 
@@ -206,6 +242,7 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
   public void handleRequest(InputStream input, OutputStream output, Context context, String streamId) {
     try {
       start = System.currentTimeMillis();
+      responseStreaming = false;
       Typed dataOut;
       String ifNoneMatch = null;
       try {
@@ -219,6 +256,7 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
           connectorId = (String) event.getConnectorParams().get("connectorId");
 
         maxUncompressedResponseSize = getMaxUncompressedResponseSize(event);
+        responseStreaming = isStreamingResponseChannel(event);
         traceItem = new TraceItem(this.streamId, connectorId);
 
         ifNoneMatch = event.getIfNoneMatch();
@@ -289,6 +327,7 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
    * Write the output object to the output stream.
    *
    * If the serialized object is too large it will be relocated and a RelocatedEvent will be written instead.
+   * If the response is streamed, it is written in chunks and the larger limit of streamed responses applies for the relocation.
    */
   private void writeDataOut(OutputStream output, Typed dataOut, String ifNoneMatch) {
     try {
@@ -337,17 +376,47 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
       }
 
       //Relocate
-      if (!runningLocally && bytes.length > RELOCATION_THRESHOLD_SIZE)
+      if (!runningLocally && bytes.length > (responseStreaming ? STREAMING_RELOCATION_THRESHOLD_SIZE : RELOCATION_THRESHOLD_SIZE))
         bytes = relocationClient.relocate(streamId, Payload.isGzipped(bytes) ? bytes : Payload.compress(bytes));
 
       //Write result
-      output.write(bytes);
+      if (responseStreaming)
+        writeChunked(output, bytes);
+      else
+        output.write(bytes);
     }
     catch (Exception e) {
       logger.error("{} Unexpected exception occurred:", traceItem, e);
     }
   }
 
+  /**
+   * Writes the bytes in chunks and flushes the output after each chunk, so that the chunks can be sent to the caller immediately.
+   */
+  private static void writeChunked(OutputStream output, byte[] bytes) throws IOException {
+    for (int offset = 0; offset < bytes.length; offset += STREAMING_CHUNK_SIZE) {
+      output.write(bytes, offset, Math.min(STREAMING_CHUNK_SIZE, bytes.length - offset));
+      output.flush();
+    }
+  }
+
+  /**
+   * Checks whether the response of the invocation is really streamed back to the caller.
+   * That is only the case if the service invoked the function with response streaming and the runtime forwards the output stream
+   * incrementally (e.g., the {@link StreamingLambdaRuntime}). The managed Java runtimes buffer the whole response, so the limit of
+   * buffered responses applies there.
+   */
+  private static boolean isStreamingResponseChannel(Event event) {
+    if (event.getConnectorParams() == null || !Boolean.TRUE.equals(event.getConnectorParams().get(RESPONSE_STREAMING)))
+      return false;
+    if (streamingRuntime)
+      return true;
+    FunctionRuntime runtime = FunctionRuntime.getInstance();
+    String executionEnv = runtime.getEnvironmentVariable("AWS_EXECUTION_ENV");
+    return (executionEnv == null || !executionEnv.startsWith(MANAGED_JAVA_RUNTIME_PREFIX))
+        && Boolean.parseBoolean(runtime.getEnvironmentVariable(STREAMING_RESPONSE_RUNTIME));
+  }
+
   private static void checkEventTypeAllowed(Event event) throws ErrorResponseException {
     if (event.getSourceRegion() != null && allowedEventTypes != null
         && !Event.isAllowedEventType(allowedEventTypes, event.getClass().getSimpleName(), event.getSourceRegion()))
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.connectors;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * EXPERIMENTAL: A custom Lambda runtime which streams the output of a connector back to the caller while it is being written.
+ *
+ * The managed Java runtimes buffer the whole response of a function, even if it was invoked with response streaming.
+ * To stream responses, a connector has to be deployed on an OS-only runtime (e.g. provided.al2023) with a Java installation and a
+ * bootstrap script, which starts this class, e.g.:
+ * <pre>exec java -cp "$LAMBDA_TASK_ROOT/lib/*" com.here.xyz.connectors.StreamingLambdaRuntime</pre>
+ * The handler of the function has to be the class name of the connector.
+ *
+ * The runtime fetches the invocations from the Lambda runtime API and posts the responses in the streaming response mode.
+ * The connectors running on it are informed that their responses are streamed, see {@link AbstractConnectorHandler#RESPONSE_STREAMING}.
+ */
+public class StreamingLambdaRuntime {
+
+  private static final Logger logger = LogManager.getLogger();
+  private static final String API_VERSION = "2018-06-01";
+  private static final int CHUNK_SIZE = 256 * 1024;
+
+  private final String runtimeApi;
+  private final RequestStreamHandler handler;
+
+  StreamingLambdaRuntime(String runtimeApi, RequestStreamHandler handler) {
+    this.runtimeApi = runtimeApi;
+    this.handler = handler;
+    AbstractConnectorHandler.streamingRuntime = true;
+  }
+
+  public static void main(String[] args) throws Exception {
+    String runtimeApi = System.getenv("AWS_LAMBDA_RUNTIME_API");
+    RequestStreamHandler handler;
+    try {
+      String handlerClass = System.getenv("_HANDLER");
+      //Strip the method name, if the handler was specified as "Class::method"
+      if (handlerClass.contains("::"))
+        handlerClass = handlerClass.substring(0, handlerClass.indexOf("::"));
+      handler = (RequestStreamHandler) Class.forName(handlerClass).getDeclaredConstructor().newInstance();
+    }
+    catch (Exception e) {
+      logger.error("Error initializing the handler of the function.", e);
+      postError(new URL("http://" + runtimeApi + "/" + API_VERSION + "/runtime/init/error"), e);
+      throw e;
+    }
+
+    StreamingLambdaRuntime runtime = new StreamingLambdaRuntime(runtimeApi, handler);
+    while (true)
+      runtime.processNextInvocation();
+  }
+
+  /**
+   * Fetches the next invocation from the runtime API, invokes the handler and streams its output back as the response.
+   */
+  void processNextInvocation() throws IOException {
+    HttpURLConnection next = (HttpURLConnection) url("/runtime/invocation/next").openConnection();
+    //The runtime API blocks until there is an invocation
+    next.setReadTimeout(0);
+    InvocationContext context = new InvocationContext(next.getHeaderField("Lambda-Runtime-Aws-Request-Id"),
+        next.getHeaderField("Lambda-Runtime-Invoked-Function-Arn"), next.getHeaderFieldLong("Lambda-Runtime-Deadline-Ms", 0));
+
+    HttpURLConnection response = (HttpURLConnection) url("/runtime/invocation/" + context.requestId + "/response").openConnection();
+    response.setRequestMethod("POST");
+    response.setDoOutput(true);
+    response.setRequestProperty("Lambda-Runtime-Function-Response-Mode", "streaming");
+    response.setChunkedStreamingMode(CHUNK_SIZE);
+
+    try (InputStream input = next.getInputStream(); OutputStream output = response.getOutputStream()) {
+      handler.handleRequest(input, output, context);
+    }
+    catch (Exception e) {
+      logger.error("Error handling the invocation {}.", context.requestId, e);
+    }
+    if (response.getResponseCode() >= 300)
+      logger.error("Error posting the response of the invocation {}. Status code: {}", context.requestId, response.getResponseCode());
+    response.disconnect();
+  }
+
+  private URL url(String path) throws IOException {
+    return new URL("http://" + runtimeApi + "/" + API_VERSION + path);
+  }
+
+  private static void postError(URL url, Exception e) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setRequestMethod("POST");
+    connection.setDoOutput(true);
+    connection.setRequestProperty("Content-Type", "application/json");
+    try (OutputStream output = connection.getOutputStream()) {
+      output.write(("{\"errorMessage\":\"" + String.valueOf(e.getMessage()).replace("\"", "'") + "\",\"errorType\":\""
+          + e.getClass().getSimpleName() + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+    connection.getResponseCode();
+    connection.disconnect();
+  }
+
+  private static class InvocationContext implements Context, LambdaLogger {
+
+    private final String requestId;
+    private final String invokedFunctionArn;
+    private final long deadline;
+
+    private InvocationContext(String requestId, String invokedFunctionArn, long deadline) {
+      this.requestId = requestId;
+      this.invokedFunctionArn = invokedFunctionArn;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public String getAwsRequestId() {
+      return requestId;
+    }
+
+    @Override
+    public String getLogGroupName() {
+      return System.getenv("AWS_LAMBDA_LOG_GROUP_NAME");
+    }
+
+    @Override
+    public String getLogStreamName() {
+      return System.getenv("AWS_LAMBDA_LOG_STREAM_NAME");
+    }
+
+    @Override
+    public String getFunctionName() {
+      return System.getenv("AWS_LAMBDA_FUNCTION_NAME");
+    }
+
+    @Override
+    public String getFunctionVersion() {
+      return System.getenv("AWS_LAMBDA_FUNCTION_VERSION");
+    }
+
+    @Override
+    public String getInvokedFunctionArn() {
+      return invokedFunctionArn;
+    }
+
+    @Override
+    public CognitoIdentity getIdentity() {
+      return null;
+    }
+
+    @Override
+    public ClientContext getClientContext() {
+      return null;
+    }
+
+    @Override
+    public int getRemainingTimeInMillis() {
+      return (int) Math.max(deadline - System.currentTimeMillis(), 0);
+    }
+
+    @Override
+    public int getMemoryLimitInMB() {
+      String memorySize = System.getenv("AWS_LAMBDA_FUNCTION_MEMORY_SIZE");
+      return memorySize != null ? Integer.parseInt(memorySize) : 0;
+    }
+
+    @Override
+    public LambdaLogger getLogger() {
+      return this;
+    }
+
+    @Override
+    public void log(String message) {
+      System.out.println(message);
+    }
+
+    @Override
+    public void log(byte[] message) {
+      System.out.println(new String(message, StandardCharsets.UTF_8));
+    }
+  }
+}
@@ -19,6 +19,8 @@
 
 package com.here.xyz.connectors;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -46,7 +48,9 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -126,6 +130,73 @@ public class AbstractConnectorHandlerTest {
     assertTrue(!((FeatureCollection) result).getFeatures().isEmpty());
   }
 
+  @Test
+  public void testWriteStreamedDataOut() throws IOException {
+    SimulatedContext streamingContext = new SimulatedContext("test-function",
+        Map.of(AbstractConnectorHandler.STREAMING_RESPONSE_RUNTIME, "true"));
+    AtomicInteger flushes = new AtomicInteger();
+    XyzResponse result = handleStreamingRequest(streamingContext, flushes);
+
+    //Each written chunk gets flushed
+    assertTrue(flushes.get() > 0);
+    assertTrue(result instanceof FeatureCollection);
+    assertFalse(((FeatureCollection) result).getFeatures().isEmpty());
+  }
+
+  @Test
+  public void testWriteStreamedDataOutOnStreamingRuntime() throws IOException {
+    AbstractConnectorHandler.streamingRuntime = true;
+    try {
+      AtomicInteger flushes = new AtomicInteger();
+      XyzResponse result = handleStreamingRequest(TEST_CONTEXT, flushes);
+
+      assertTrue(flushes.get() > 0);
+      assertTrue(result instanceof FeatureCollection);
+    }
+    finally {
+      AbstractConnectorHandler.streamingRuntime = false;
+    }
+  }
+
+  @Test
+  public void testWriteBufferedDataOutOnJavaRuntime() throws IOException {
+    //The managed Java runtimes buffer the response, even if the function was invoked with response streaming
+    SimulatedContext javaRuntimeContext = new SimulatedContext("test-function",
+        Map.of(AbstractConnectorHandler.STREAMING_RESPONSE_RUNTIME, "true", "AWS_EXECUTION_ENV", "AWS_Lambda_java17"));
+    AtomicInteger flushes = new AtomicInteger();
+    XyzResponse result = handleStreamingRequest(javaRuntimeContext, flushes);
+
+    assertEquals(0, flushes.get());
+    assertTrue(result instanceof FeatureCollection);
+  }
+
+  @Test
+  public void testWriteBufferedDataOutWithoutStreamingRuntime() throws IOException {
+    AtomicInteger flushes = new AtomicInteger();
+    XyzResponse result = handleStreamingRequest(TEST_CONTEXT, flushes);
+
+    assertEquals(0, flushes.get());
+    assertTrue(result instanceof FeatureCollection);
+  }
+
+  private XyzResponse handleStreamingRequest(SimulatedContext context, AtomicInteger flushes) throws IOException {
+    TestStorageConnector testStorageConnector = new TestStorageConnector();
+    GetFeaturesByBBoxEvent event = new GetFeaturesByBBoxEvent();
+    event.setConnectorParams(Map.of(AbstractConnectorHandler.RESPONSE_STREAMING, true));
+    ByteArrayInputStream is = new ByteArrayInputStream(event.serialize().getBytes());
+    ByteArrayOutputStream os = new ByteArrayOutputStream() {
+      @Override
+      public void flush() {
+        flushes.incrementAndGet();
+      }
+    };
+
+    //Convert the event to output stream
+    testStorageConnector.handleRequest(is, os, context);
+
+    return XyzSerializable.deserialize(Payload.prepareInputStream(new ByteArrayInputStream(os.toByteArray())), XyzResponse.class);
+  }
+
   @Ignore("This is a test for the relocation client. To run it, an S3 bucket and valid credentials are required.")
   @Test
   public void testRelocatedEvent() throws Exception {
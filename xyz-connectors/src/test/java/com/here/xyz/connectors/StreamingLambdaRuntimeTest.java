@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.connectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StreamingLambdaRuntimeTest {
+
+  private static final String REQUEST_ID = "test-request-id";
+  private HttpServer runtimeApi;
+  private final Map<String, String> received = new ConcurrentHashMap<>();
+
+  @Before
+  public void startRuntimeApi() throws IOException {
+    runtimeApi = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    runtimeApi.createContext("/2018-06-01/runtime/invocation/next", exchange -> {
+      byte[] event = "{\"type\":\"HealthCheckEvent\"}".getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Lambda-Runtime-Aws-Request-Id", REQUEST_ID);
+      exchange.getResponseHeaders().add("Lambda-Runtime-Deadline-Ms", String.valueOf(System.currentTimeMillis() + 10_000));
+      exchange.getResponseHeaders().add("Lambda-Runtime-Invoked-Function-Arn", "arn:aws:lambda:eu-west-1:000000000000:function:test");
+      exchange.sendResponseHeaders(200, event.length);
+      exchange.getResponseBody().write(event);
+      exchange.close();
+    });
+    runtimeApi.createContext("/2018-06-01/runtime/invocation/" + REQUEST_ID + "/response", exchange -> {
+      received.put("responseMode", exchange.getRequestHeaders().getFirst("Lambda-Runtime-Function-Response-Mode"));
+      received.put("transferEncoding", exchange.getRequestHeaders().getFirst("Transfer-Encoding"));
+      received.put("body", new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+      exchange.sendResponseHeaders(202, -1);
+      exchange.close();
+    });
+    runtimeApi.start();
+  }
+
+  @After
+  public void stopRuntimeApi() {
+    runtimeApi.stop(0);
+    AbstractConnectorHandler.streamingRuntime = false;
+  }
+
+  @Test
+  public void streamResponse() throws IOException {
+    StreamingLambdaRuntime runtime = new StreamingLambdaRuntime("localhost:" + runtimeApi.getAddress().getPort(),
+        (InputStream input, OutputStream output, Context context) -> {
+          ByteArrayOutputStream event = new ByteArrayOutputStream();
+          input.transferTo(event);
+          output.write(("{\"requestId\":\"" + context.getAwsRequestId() + "\",\"event\":" + event + "}").getBytes());
+          assertTrue(context.getRemainingTimeInMillis() > 0);
+        });
+    assertTrue(AbstractConnectorHandler.streamingRuntime);
+
+    runtime.processNextInvocation();
+
+    assertEquals("streaming", received.get("responseMode"));
+    assertEquals("chunked", received.get("transferEncoding"));
+    assertEquals("{\"requestId\":\"" + REQUEST_ID + "\",\"event\":{\"type\":\"HealthCheckEvent\"}}", received.get("body"));
+  }
+}
@@ -30,6 +30,7 @@ import com.here.xyz.httpconnector.config.JDBCMaintainer;
 import com.here.xyz.httpconnector.rest.HApiParam.HQuery;
 import com.here.xyz.httpconnector.task.MaintenanceHandler;
 import com.here.xyz.hub.rest.Api;
+import com.here.xyz.psql.query.helpers.IndexAdvisor;
 import com.here.xyz.util.service.HttpException;
 import io.vertx.core.json.DecodeException;
 import io.vertx.ext.web.RoutingContext;
@@ -44,6 +45,7 @@ public class HttpMaintenanceApi extends Api {
     rb.operation("getStatus").handler(this::getConnectorStatus);
     rb.operation("postInitialization").handler(this::postDatabaseInitialization);
     rb.operation("postMaintainIndices").handler(this::postMaintainIndices);
+    rb.operation("getIndexAdvice").handler(this::getIndexAdvice);
     rb.operation("postPurgeVersions").handler(this::postPurgeVersions); //TODO: Move responsibility back to connector
 
     rb.operation("getMaintenanceStatusSpace").handler(this::getMaintenanceStatusSpace);
@@ -76,6 +78,11 @@ public class HttpMaintenanceApi extends Api {
             .onSuccess(j -> this.sendResponse(context, OK, j));
   }
 
+  private void getIndexAdvice(final RoutingContext context) {
+    final int limit = HQuery.getInteger(context, "limit", 10);
+    this.sendResponse(context, OK, IndexAdvisor.getReport(limit));
+  }
+
   private void postPurgeVersions(final RoutingContext context) {
     String spaceId = context.pathParam(HApiParam.Path.SPACE_ID);
     final Long minTagVersion = HQuery.getLong(context, "minTagVersion", null);
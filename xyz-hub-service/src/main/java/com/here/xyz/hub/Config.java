@@ -286,6 +286,12 @@ public class Config extends BaseConfig {
    */
   public int REMOTE_FUNCTION_MAX_CONNECTIONS;
 
+  /**
+   * The maximum number of features (or feature modifications) which may be contained in one write request. Requests
+   * exceeding the limit are rejected with status code 413. A value <= 0 means that there is no limit.
+   */
+  public int MAX_FEATURES_PER_REQUEST;
+
   /**
    * The amount of memory (in MB) which can be taken by incoming requests.
    */
@@ -299,6 +305,13 @@ public class Config extends BaseConfig {
    */
   public float REMOTE_FUNCTION_CONNECTION_HIGH_UTILIZATION_THRESHOLD;
 
+  /**
+   * If set to true, the number of concurrent requests per remote function gets adapted to the measured latencies and errors of the
+   * remote function. The limit is decreased as soon as the remote function shows signs of congestion and increased again while it keeps
+   * up. It never exceeds the maximum number of connections of the connector.
+   */
+  public boolean REMOTE_FUNCTION_ADAPTIVE_CONCURRENCY;
+
   /**
    * A value between 0 and 1 defining a threshold as percentage of utilized service memory for in-flight request after which to start
    * prioritizing more important connectors over less important ones.
@@ -457,4 +470,38 @@ public class Config extends BaseConfig {
   public ConnectorMapping DEFAULT_CONNECTOR_MAPPING_STRATEGY = RANDOM;
 
   public boolean USE_WRITE_FEATURES_EVENT = false;
+
+  /**
+   * If set to true, the configurations of all spaces are loaded into memory at startup and space reads & listings are answered
+   * from there. The snapshot is kept up to date by the space invalidation messages.
+   */
+  public boolean SPACE_CONFIG_SNAPSHOT;
+
+  /**
+   * The interval in seconds in which the space config snapshot gets fully reloaded. Set to 0 to disable the periodic reloads.
+   */
+  public int SPACE_CONFIG_SNAPSHOT_RELOAD_INTERVAL = 900;
+
+  /**
+   * If set to true, non-cacheable read requests are not forced to the primary database of the connector anymore. Instead, the connector
+   * decides by the replication lag of its read replica. Only the reads of requesters who wrote to the same space within the last
+   * {@link #READ_YOUR_WRITES_WINDOW} seconds are still forced to the primary.
+   */
+  public boolean LAG_AWARE_REPLICA_READS;
+
+  /**
+   * The time in seconds after a write in which the reads of the writing requester are directed to the primary database.
+   */
+  public int READ_YOUR_WRITES_WINDOW = 60;
+
+  /**
+   * If set to true, the most frequently requested tiles of a space are re-rendered in the background after modifications of the
+   * space's content, so that they are available in the volatile cache again before the next user requests them.
+   */
+  public boolean TILE_PREWARMING;
+
+  /**
+   * The maximum number of tiles per space which get re-rendered after a content modification, see {@link #TILE_PREWARMING}.
+   */
+  public int TILE_PREWARMING_TOP_N = 50;
 }
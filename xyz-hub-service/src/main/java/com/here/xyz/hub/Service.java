@@ -19,6 +19,8 @@
 
 package com.here.xyz.hub;
 
+import static com.here.xyz.hub.util.metrics.base.Metric.MetricUnit.MILLISECONDS;
+
 import com.here.xyz.hub.cache.CacheClient;
 import com.here.xyz.hub.cache.InMemoryCacheClient;
 import com.here.xyz.hub.cache.MultiLevelCacheClient;
@@ -36,8 +38,14 @@ import com.here.xyz.hub.rest.admin.Node;
 import com.here.xyz.hub.util.metrics.GcDurationMetric;
 import com.here.xyz.hub.util.metrics.GlobalInflightRequestMemory;
 import com.here.xyz.hub.util.metrics.GlobalUsedRfcConnections;
+import com.here.xyz.hub.util.metrics.JdbcTaskQueueWaitTime;
+import com.here.xyz.hub.util.metrics.JdbcTasksInflight;
 import com.here.xyz.hub.util.metrics.MajorGcCountMetric;
 import com.here.xyz.hub.util.metrics.MemoryMetric;
+import com.here.xyz.hub.util.metrics.StartupPhaseDuration;
+import com.here.xyz.hub.util.metrics.base.AttributedMetricCollection;
+import com.here.xyz.hub.util.metrics.base.AttributedMetricCollection.Attribute;
+import com.here.xyz.hub.util.metrics.base.CWAttributedMetricCollectionPublisher;
 import com.here.xyz.hub.util.metrics.base.CWBareValueMetricPublisher;
 import com.here.xyz.hub.util.metrics.base.MetricPublisher;
 import com.here.xyz.hub.util.metrics.net.ConnectionMetrics;
@@ -63,11 +71,13 @@ import java.net.URISyntaxException;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.Hashtable;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
@@ -155,6 +165,10 @@ public class Service extends Core {
 
   private static final List<MetricPublisher> metricPublishers = new LinkedList<>();
 
+  private static final String STARTUP_PHASE_DURATION = "StartupPhaseDuration";
+  private static final AttributedMetricCollection<Collection<Double>> startupPhaseDurations =
+      new AttributedMetricCollection<>(STARTUP_PHASE_DURATION, MILLISECONDS);
+
   private static Router globalRouter;
 
   /**
@@ -169,19 +183,34 @@ public class Service extends Core {
             .setEnabled(true)
             .setFactory(new HubMetricsFactory()));
 
-    initializeVertx(vertxOptions)
+    timed("Vertx", Core::initializeVertx).apply(vertxOptions)
         .compose(Service::initializeGlobalRouter)
-        .compose(Core::initializeConfig)
+        .compose(timed("Config", Core::initializeConfig))
         .compose(Core::initializeLogger)
         .compose(Service::parseConfiguration)
-        .compose(Service::initializeClients)
-        .compose(config -> Future.fromCompletionStage(ConfigUpdateThread.initialize()).map(config))
-        .compose(config -> Future.fromCompletionStage(WarmupRemoteFunctionThread.initialize()).map(config))
+        .compose(timed("Clients", Service::initializeClients))
+        .compose(timed("Connectors", config -> Future.fromCompletionStage(ConfigUpdateThread.initialize()).map(config)))
+        .compose(timed("Warmup", config -> Future.fromCompletionStage(WarmupRemoteFunctionThread.initialize()).map(config)))
         .compose(Service::initializeService)
         .onFailure(t -> logger.error("Service startup failed", t))
         .onSuccess(v -> logger.info("Service startup succeeded"));
   }
 
+  /**
+   * Wraps a startup phase, so that its duration gets logged and published as metric once it succeeded.
+   */
+  private static <T, R> Function<T, Future<R>> timed(String phase, Function<T, Future<R>> startupPhase) {
+    return input -> {
+      final long start = Core.currentTimeMillis();
+      return startupPhase.apply(input).onSuccess(result -> recordStartupPhase(phase, Core.currentTimeMillis() - start));
+    };
+  }
+
+  private static void recordStartupPhase(String phase, long durationMs) {
+    logger.info("Startup phase {} took {}ms", phase, durationMs);
+    startupPhaseDurations.addMetric(new StartupPhaseDuration(STARTUP_PHASE_DURATION, durationMs), new Attribute<>("Phase", phase));
+  }
+
   private static Future<Vertx> initializeGlobalRouter(Vertx vertx) {
     globalRouter = Router.router(vertx);
     return Future.succeededFuture(vertx);
@@ -216,13 +245,15 @@ public class Service extends Core {
         .setPipelining(Service.configuration.HTTP_CLIENT_PIPELINING)
     );
 
+    //The first clients to be initialized might create the shared storage (e.g., the DB schema), the others can be initialized in parallel
     return settingsConfigClient.init()
         .compose(v -> settingsConfigClient.insertLocalSettings())
         .compose(v -> spaceConfigClient.init())
-        .compose(v -> connectorConfigClient.init())
-        .compose(v -> Future.fromCompletionStage(connectorConfigClient.insertLocalConnectors()))
-        .compose(v -> subscriptionConfigClient.init())
-        .compose(v -> tagConfigClient.init())
+        .compose(v -> Future.all(
+            spaceConfigClient.initSnapshot(),
+            connectorConfigClient.init().compose(v2 -> Future.fromCompletionStage(connectorConfigClient.insertLocalConnectors())),
+            subscriptionConfigClient.init(),
+            tagConfigClient.init()))
         .map(config)
         .onFailure(t -> logger.error("initializeClients failed", t))
         .onSuccess(v -> logger.info("initializeClients succeeded"));
@@ -241,6 +272,7 @@ public class Service extends Core {
         .setWorker(false)
         .setInstances(numInstances);
 
+    final long deploymentStart = Core.currentTimeMillis();
     final Promise<Void> sharedDataPromise = Promise.promise();
     final Future<Void> sharedDataFuture = sharedDataPromise.future();
 
@@ -265,6 +297,10 @@ public class Service extends Core {
       //At this point all verticles were initiated and all routers added as subrouter of globalRouter.
       vertx.eventBus().publish(SHARED_DATA, GLOBAL_ROUTER);
 
+      recordStartupPhase("Verticles", Core.currentTimeMillis() - deploymentStart);
+      //The total duration includes the startup of the JVM itself
+      recordStartupPhase("Total", ManagementFactory.getRuntimeMXBean().getUptime());
+
       logger.info("XYZ Hub " + buildVersion() + " was started at " + new Date().toString());
       logger.info("Native transport enabled: " + vertx.isNativeTransportEnabled());
     });
@@ -324,6 +360,9 @@ public class Service extends Core {
       metricPublishers.add(new CWBareValueMetricPublisher(new GcDurationMetric("GcDuration")));
       metricPublishers.add(new CWBareValueMetricPublisher(new GlobalUsedRfcConnections("GlobalUsedRfcConnections")));
       metricPublishers.add(new CWBareValueMetricPublisher(new GlobalInflightRequestMemory("GlobalInflightRequestMemory")));
+      metricPublishers.add(new CWBareValueMetricPublisher(new JdbcTasksInflight("JdbcTasksInflight")));
+      metricPublishers.add(new CWBareValueMetricPublisher(new JdbcTaskQueueWaitTime("JdbcTaskQueueWaitTime")));
+      metricPublishers.add(new CWAttributedMetricCollectionPublisher<>(startupPhaseDurations));
       metricPublishers.addAll(ConnectionMetrics.startConnectionMetricPublishers());
     }
   }
@@ -57,10 +57,14 @@ import io.vertx.ext.web.openapi.router.OpenAPIRoute;
 import io.vertx.ext.web.openapi.router.RouterBuilder;
 import io.vertx.openapi.contract.OpenAPIContract;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -68,29 +72,48 @@ public class XYZHubRESTVerticle extends AbstractHttpServerVerticle {
 
   private static final Logger logger = LogManager.getLogger();
 
-  private static String FULL_API;
-  private static String STABLE_API;
-  private static String EXPERIMENTAL_API;
-  private static String CONTRACT_API;
+  private static final Map<String, String> API_SPECS = new ConcurrentHashMap<>();
   private static String CONTRACT_LOCATION;
 
-  static {
-    try {
-      final byte[] openapi = ByteStreams.toByteArray(Objects.requireNonNull(XYZHubRESTVerticle.class.getResourceAsStream("/openapi.yaml")));
-      final byte[] recipes = ByteStreams.toByteArray(
-          Objects.requireNonNull(XYZHubRESTVerticle.class.getResourceAsStream("/openapi-recipes.yaml")));
-
-      FULL_API = new String(openapi);
-      STABLE_API = new String(generate(openapi, recipes, "stable"));
-      EXPERIMENTAL_API = new String(generate(openapi, recipes, "experimental"));
-      CONTRACT_API = new String(generate(openapi, recipes, "contract"));
+  /**
+   * Returns the OpenAPI spec with the specified recipe name, or the full spec for the name "full".
+   * The specs are generated at build time and loaded on first access. If a spec was not generated at build time, it gets generated
+   * from the full spec now.
+   */
+  private static String getApiSpec(String name) {
+    return API_SPECS.computeIfAbsent(name, n -> {
+      try {
+        InputStream precomputed = XYZHubRESTVerticle.class.getResourceAsStream(n.equals("full") ? "/openapi.yaml" : "/openapi-" + n + ".yaml");
+        if (precomputed != null)
+          try (precomputed) {
+            return new String(ByteStreams.toByteArray(precomputed));
+          }
+
+        logger.info("No pre-generated OpenApi spec \"{}\" found, generating it.", n);
+        final byte[] openapi = ByteStreams.toByteArray(Objects.requireNonNull(XYZHubRESTVerticle.class.getResourceAsStream("/openapi.yaml")));
+        final byte[] recipes = ByteStreams.toByteArray(
+            Objects.requireNonNull(XYZHubRESTVerticle.class.getResourceAsStream("/openapi-recipes.yaml")));
+        //The generator keeps its state statically, so generations must not run concurrently
+        synchronized (XYZHubRESTVerticle.class) {
+          return new String(generate(openapi, recipes, n));
+        }
+      }
+      catch (Exception e) {
+        throw new RuntimeException("Unable to generate OpenApi spec " + n + ".", e);
+      }
+    });
+  }
 
+  /**
+   * Writes the contract spec to a temporary file once, so that all verticle instances can read it from there.
+   */
+  private static synchronized String getContractLocation() throws IOException {
+    if (CONTRACT_LOCATION == null) {
       final File tempFile = File.createTempFile("contract-", ".yaml");
-      Files.write(CONTRACT_API.getBytes(), tempFile);
+      Files.write(getApiSpec("contract").getBytes(), tempFile);
       CONTRACT_LOCATION = tempFile.getCanonicalPath();
-    } catch (Exception e) {
-      logger.error("Unable to generate OpenApi specs.", e);
     }
+    return CONTRACT_LOCATION;
   }
 
   public static <T extends FeatureTask> void addStreamInfo(RoutingContext context, String streamInfoKey, Object streamInfoValue) {
@@ -112,7 +135,15 @@ public class XYZHubRESTVerticle extends AbstractHttpServerVerticle {
 
   @Override
   public void start(Promise<Void> startPromise) throws Exception {
-    OpenAPIContract.from(vertx, CONTRACT_LOCATION)
+    vertx.<String>executeBlocking(promise -> {
+          try {
+            promise.complete(getContractLocation());
+          }
+          catch (Exception e) {
+            promise.fail(e);
+          }
+        })
+        .compose(contractLocation -> OpenAPIContract.from(vertx, contractLocation))
         .compose(this::buildRoutes)
         .onSuccess(none -> startPromise.complete())
         .onFailure(throwable -> {
@@ -151,18 +182,11 @@ public class XYZHubRESTVerticle extends AbstractHttpServerVerticle {
         final HttpServerResponse res = routingContext.response();
         res.putHeader("content-type", "application/yaml");
         final String path = routingContext.request().path();
-        if (path.endsWith("full.yaml")) {
-          res.headers().add(CONTENT_LENGTH, String.valueOf(FULL_API.getBytes().length));
-          res.write(FULL_API);
-        } else if (path.endsWith("stable.yaml")) {
-          res.headers().add(CONTENT_LENGTH, String.valueOf(STABLE_API.getBytes().length));
-          res.write(STABLE_API);
-        } else if (path.endsWith("experimental.yaml")) {
-          res.headers().add(CONTENT_LENGTH, String.valueOf(EXPERIMENTAL_API.getBytes().length));
-          res.write(EXPERIMENTAL_API);
-        } else if (path.endsWith("contract.yaml")) {
-          res.headers().add(CONTENT_LENGTH, String.valueOf(CONTRACT_API.getBytes().length));
-          res.write(CONTRACT_API);
+        final String name = path.substring(path.lastIndexOf('/') + 1).replace(".yaml", "");
+        if (path.endsWith(".yaml") && Set.of("full", "stable", "experimental", "contract").contains(name)) {
+          final String spec = getApiSpec(name);
+          res.headers().add(CONTENT_LENGTH, String.valueOf(spec.getBytes().length));
+          res.write(spec);
         } else {
           res.setStatusCode(HttpResponseStatus.NOT_FOUND.code());
         }
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.cache;
+
+import com.here.xyz.hub.Service;
+import com.here.xyz.hub.rest.admin.messages.RelayedMessage;
+import com.here.xyz.models.geojson.WebMercatorTile;
+import com.here.xyz.models.geojson.coordinates.BBox;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.jodah.expiringmap.ExpirationPolicy;
+import net.jodah.expiringmap.ExpiringMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Keeps track of the cache keys of cached tile responses per space and the area each of them covers.
+ * The area of a cached tile is addressed by the quadkey of the smallest web-mercator tile which fully contains the (margin-extended)
+ * bounding box of the tile request. That way tile requests of any tiling scheme can be indexed uniformly.
+ * Two quadtree tiles are either nested or disjoint. So the cached tiles which might be affected by a modification within some bounding
+ * box are exactly the ones of which the quadkey is an ancestor or a descendant of the quadkey of the modified bounding box.
+ * Each service node only indexes the tiles it has cached itself. To evict the tiles which were cached by other nodes (in their in-memory
+ * caches or in the shared remote cache), the affected quadkeys are broadcast to all other nodes.
+ */
+public class TileCacheIndex {
+
+  private static final Logger logger = LogManager.getLogger();
+
+  /**
+   * The level of the most detailed quadkeys being used for the index.
+   */
+  static final int MAX_LEVEL = 20;
+  /**
+   * The quadkey of the tile covering the whole world. All indexed tiles are its descendants.
+   */
+  static final String ROOT_QUADKEY = "";
+  private static final int MAX_ENTRIES_PER_SPACE = 10_000;
+  private static final double MAX_LATITUDE = 85.05112878;
+  private static final double MAX_LONGITUDE = 179.9999999;
+
+  private static final ExpiringMap<String, SpaceTileIndex> spaceIndexes = ExpiringMap.builder()
+      .maxSize(10_000)
+      .expirationPolicy(ExpirationPolicy.ACCESSED)
+      .expiration(1, TimeUnit.DAYS)
+      .build();
+
+  private TileCacheIndex() {}
+
+  /**
+   * Registers the cache key of a cached tile response.
+   *
+   * @param spaceId The space of which the tile was requested
+   * @param tileBBox The (margin-extended) bounding box of the requested tile
+   * @param cacheKey The key under which the response was written to the cache
+   */
+  public static void register(String spaceId, BBox tileBBox, String cacheKey) {
+    if (spaceId == null || tileBBox == null || cacheKey == null)
+      return;
+    spaceIndexes.computeIfAbsent(spaceId, k -> new SpaceTileIndex()).register(containingQuadkey(tileBBox), cacheKey);
+  }
+
+  /**
+   * Removes the cache keys of all cached tiles of the specified space, which might be affected by modifications within the provided
+   * bounding boxes, from the index and returns them.
+   *
+   * @param spaceId The space which was modified
+   * @param modifiedBBoxes The bounding boxes of the modified features (before and after the modification)
+   * @return The cache keys of the affected tiles
+   */
+  public static Set<String> removeAffected(String spaceId, Collection<BBox> modifiedBBoxes) {
+    return removeAffectedQuadkeys(spaceId, containingQuadkeys(modifiedBBoxes));
+  }
+
+  /**
+   * Removes the cache keys of all cached tiles of the specified space, which are an ancestor or a descendant of one of the provided
+   * quadkeys, from the index and returns them.
+   */
+  static Set<String> removeAffectedQuadkeys(String spaceId, Collection<String> modifiedQuadkeys) {
+    SpaceTileIndex index = spaceIndexes.get(spaceId);
+    Set<String> affectedCacheKeys = new HashSet<>();
+    if (index == null || modifiedQuadkeys == null)
+      return affectedCacheKeys;
+
+    for (String quadkey : modifiedQuadkeys)
+      affectedCacheKeys.addAll(index.removeAncestorsAndDescendants(quadkey));
+    return affectedCacheKeys;
+  }
+
+  /**
+   * Evicts all cached tiles of the specified space, which might be affected by modifications within the provided bounding boxes, from all
+   * levels of the volatile cache. The eviction is also performed by all other service nodes for the tiles which were cached by them.
+   *
+   * @param spaceId The space which was modified
+   * @param modifiedBBoxes The bounding boxes of the modified features (before and after the modification)
+   */
+  public static void evictAffected(String spaceId, Collection<BBox> modifiedBBoxes) {
+    evict(spaceId, containingQuadkeys(modifiedBBoxes));
+  }
+
+  /**
+   * Evicts all cached tiles of the specified space from all levels of the volatile cache on all service nodes.
+   * That is necessary for modifications of which the affected areas are not known.
+   */
+  public static void evictAll(String spaceId) {
+    evict(spaceId, Set.of(ROOT_QUADKEY));
+  }
+
+  private static void evict(String spaceId, Set<String> modifiedQuadkeys) {
+    if (spaceId == null || modifiedQuadkeys.isEmpty())
+      return;
+    try {
+      evictLocally(spaceId, modifiedQuadkeys);
+      if (Service.messageBroker != null)
+        new EvictTilesMessage().withSpaceId(spaceId).withQuadkeys(modifiedQuadkeys).broadcast();
+    }
+    catch (Exception e) {
+      logger.warn("Error evicting the modified tiles of space {} from the cache.", spaceId, e);
+    }
+  }
+
+  private static void evictLocally(String spaceId, Collection<String> modifiedQuadkeys) {
+    removeAffectedQuadkeys(spaceId, modifiedQuadkeys).forEach(cacheKey -> Service.volatileCacheClient.remove(cacheKey));
+  }
+
+  static Set<String> containingQuadkeys(Collection<BBox> bboxes) {
+    Set<String> quadkeys = new HashSet<>();
+    if (bboxes != null)
+      for (BBox bbox : bboxes)
+        if (bbox != null)
+          quadkeys.add(containingQuadkey(bbox));
+    return quadkeys;
+  }
+
+  /**
+   * Calculates the quadkey of the smallest web-mercator tile (up to {@link #MAX_LEVEL}), which fully contains the provided bounding box.
+   */
+  static String containingQuadkey(BBox bbox) {
+    //A bounding box crossing the antimeridian is only contained by the root tile
+    if (bbox.minLon() > bbox.maxLon())
+      return "";
+    String southWest = WebMercatorTile.getTileFromLatLonLev(clip(bbox.minLat(), MAX_LATITUDE), clip(bbox.minLon(), MAX_LONGITUDE),
+        MAX_LEVEL).asQuadkey();
+    String northEast = WebMercatorTile.getTileFromLatLonLev(clip(bbox.maxLat(), MAX_LATITUDE), clip(bbox.maxLon(), MAX_LONGITUDE),
+        MAX_LEVEL).asQuadkey();
+
+    int commonPrefixLength = 0;
+    while (commonPrefixLength < MAX_LEVEL && southWest.charAt(commonPrefixLength) == northEast.charAt(commonPrefixLength))
+      commonPrefixLength++;
+    return southWest.substring(0, commonPrefixLength);
+  }
+
+  private static double clip(double value, double max) {
+    return Math.max(-max, Math.min(max, value));
+  }
+
+  /**
+   * Tells the other service nodes to evict the cached tiles of a space, which are affected by a modification within the specified quadkeys.
+   */
+  public static class EvictTilesMessage extends RelayedMessage {
+
+    private String spaceId;
+    private Set<String> quadkeys;
+
+    public String getSpaceId() {
+      return spaceId;
+    }
+
+    public void setSpaceId(String spaceId) {
+      this.spaceId = spaceId;
+    }
+
+    public EvictTilesMessage withSpaceId(String spaceId) {
+      setSpaceId(spaceId);
+      return this;
+    }
+
+    public Set<String> getQuadkeys() {
+      return quadkeys;
+    }
+
+    public void setQuadkeys(Set<String> quadkeys) {
+      this.quadkeys = quadkeys;
+    }
+
+    public EvictTilesMessage withQuadkeys(Set<String> quadkeys) {
+      setQuadkeys(quadkeys);
+      return this;
+    }
+
+    @Override
+    protected void handleAtDestination() {
+      evictLocally(spaceId, quadkeys);
+    }
+  }
+
+  private static class SpaceTileIndex {
+
+    private final ConcurrentSkipListMap<String, Set<String>> cacheKeysByQuadkey = new ConcurrentSkipListMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    void register(String quadkey, String cacheKey) {
+      if (size.get() >= MAX_ENTRIES_PER_SPACE)
+        //The index is full, the tile will only expire by its TTL
+        return;
+      if (cacheKeysByQuadkey.computeIfAbsent(quadkey, k -> ConcurrentHashMap.newKeySet()).add(cacheKey))
+        size.incrementAndGet();
+    }
+
+    Set<String> removeAncestorsAndDescendants(String quadkey) {
+      Set<String> removed = new HashSet<>();
+      //Ancestors (and the tile itself)
+      for (int level = 0; level <= quadkey.length(); level++)
+        removeAll(cacheKeysByQuadkey.remove(quadkey.substring(0, level)), removed);
+      //Descendants (quadkeys only consist of the digits 0-3)
+      Map<String, Set<String>> descendants = cacheKeysByQuadkey.subMap(quadkey, false, quadkey + "4", false);
+      for (String descendant : descendants.keySet())
+        removeAll(cacheKeysByQuadkey.remove(descendant), removed);
+      return removed;
+    }
+
+    private void removeAll(Set<String> cacheKeys, Set<String> removed) {
+      if (cacheKeys != null) {
+        removed.addAll(cacheKeys);
+        size.addAndGet(-cacheKeys.size());
+      }
+    }
+  }
+}
@@ -19,10 +19,13 @@
 
 package com.here.xyz.hub.config;
 
+import static com.here.xyz.hub.Service.configuration;
+
 import com.google.common.util.concurrent.Monitor;
 import com.here.xyz.events.PropertiesQuery;
 import com.here.xyz.hub.connectors.models.Space;
 import com.here.xyz.hub.rest.admin.messages.RelayedMessage;
+import com.here.xyz.util.service.Core;
 import com.here.xyz.util.di.ImplementationProvider;
 import com.here.xyz.util.service.Initializable;
 import io.vertx.core.Future;
@@ -40,6 +43,7 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager.Log4jMarker;
 
 public abstract class SpaceConfigClient implements Initializable {
 
@@ -52,6 +56,8 @@ public abstract class SpaceConfigClient implements Initializable {
 
   private static final Map<String, ConcurrentLinkedQueue<Promise<Space>>> pendingGetCalls = new ConcurrentHashMap<>();
   private static final Map<String, Monitor> getSpaceLocks = new ConcurrentHashMap<>();
+  private static final SpaceConfigSnapshot snapshot = new SpaceConfigSnapshot();
+  private static final Marker SNAPSHOT_MARKER = new Log4jMarker("space-config-snapshot");
   private SpaceSelectionCondition emptySpaceCondition = new SpaceSelectionCondition();
 
   //Property keys for PropertyQuery
@@ -73,7 +79,48 @@ public abstract class SpaceConfigClient implements Initializable {
     }
   }
 
+  /**
+   * Loads the configurations of all spaces into an in-memory snapshot, if activated by {@link com.here.xyz.hub.Config#SPACE_CONFIG_SNAPSHOT}.
+   * Once loaded, single spaces and space selections are answered from the snapshot. The snapshot is kept up to date by the
+   * invalidations of changed spaces and is fully reloaded periodically to also reflect changes of which no invalidation was received.
+   * A failing load is not fatal, the client keeps reading from the backend in that case.
+   */
+  public Future<Void> initSnapshot() {
+    if (!configuration.SPACE_CONFIG_SNAPSHOT)
+      return Future.succeededFuture();
+
+    if (configuration.SPACE_CONFIG_SNAPSHOT_RELOAD_INTERVAL > 0)
+      Core.vertx.setPeriodic(TimeUnit.SECONDS.toMillis(configuration.SPACE_CONFIG_SNAPSHOT_RELOAD_INTERVAL), timerId -> loadSnapshot());
+    return loadSnapshot().otherwiseEmpty();
+  }
+
+  private Future<Void> loadSnapshot() {
+    final long token = snapshot.currentToken();
+    final long start = Core.currentTimeMillis();
+    return getAllSpaces(SNAPSHOT_MARKER)
+        .onSuccess(spaces -> {
+          snapshot.applyAll(spaces, token);
+          logger.info(SNAPSHOT_MARKER, "Loaded {} spaces into the space config snapshot in {}ms", spaces.size(),
+              Core.currentTimeMillis() - start);
+        })
+        .onFailure(t -> logger.error(SNAPSHOT_MARKER, "Failed to load the space config snapshot", t))
+        .mapEmpty();
+  }
+
+  private void refreshSnapshot(String spaceId) {
+    if (!snapshot.isReady())
+      return;
+    final long token = snapshot.invalidate(spaceId);
+    getSpace(SNAPSHOT_MARKER, spaceId)
+        .onSuccess(space -> snapshot.apply(spaceId, space, token))
+        .onFailure(t -> logger.warn(SNAPSHOT_MARKER, "space[{}]: Failed to refresh the space in the snapshot", spaceId, t));
+  }
+
   public Future<Space> get(Marker marker, String spaceId) {
+    Space fromSnapshot = snapshot.get(spaceId);
+    if (fromSnapshot != null)
+      return Future.succeededFuture(fromSnapshot);
+
     Space cached = cache.get(spaceId);
     if (cached != null) {
       logger.info(marker, "space[{}]: Loaded space with title \"{}\" from cache", spaceId, cached.getTitle());
@@ -98,6 +145,7 @@ public abstract class SpaceConfigClient implements Initializable {
       getSpaceLocks.get(spaceId).leave();
     }
 
+    final long token = snapshot.currentToken();
     getSpace(marker, spaceId).onComplete(ar -> {
       ConcurrentLinkedQueue<Promise<Space>> handlersToCall;
       try {
@@ -116,6 +164,8 @@ public abstract class SpaceConfigClient implements Initializable {
           logger.info(marker, "space[{}]: Space with this ID was not found", spaceId);
         }
         cache.put(spaceId, space);
+        if (snapshot.isReady())
+          snapshot.apply(spaceId, space, token);
         handlersToCall.forEach(h -> h.complete(ar.result()));
       }
       else {
@@ -149,6 +199,14 @@ public abstract class SpaceConfigClient implements Initializable {
 
   public Future<List<Space>> getSelected(Marker marker, SpaceAuthorizationCondition authorizedCondition,
       SpaceSelectionCondition selectedCondition, PropertiesQuery propsQuery) {
+    if (snapshot.isReady()) {
+      List<Space> selected = snapshot.select(authorizedCondition, selectedCondition, propsQuery);
+      if (selected != null) {
+        logger.info(marker, "Loaded spaces by condition from the snapshot");
+        return Future.succeededFuture(selected);
+      }
+    }
+
     return getSelectedSpaces(marker, authorizedCondition, selectedCondition, propsQuery)
         .onSuccess(spaces -> {
           spaces.forEach(s -> cache.put(s.getId(), s));
@@ -173,10 +231,25 @@ public abstract class SpaceConfigClient implements Initializable {
   protected abstract Future<List<Space>> getSelectedSpaces(Marker marker, SpaceAuthorizationCondition authorizedCondition,
       SpaceSelectionCondition selectedCondition, PropertiesQuery propsQuery);
 
-  public abstract Future<List<Space>> getSpacesFromSuper(Marker marker, String parentSpaceId);
+  public Future<List<Space>> getSpacesFromSuper(Marker marker, String parentSpaceId) {
+    if (snapshot.isReady())
+      return Future.succeededFuture(snapshot.getSpacesFromSuper(parentSpaceId));
+    return getSpacesFromSuperSpace(marker, parentSpaceId);
+  }
+
+  protected abstract Future<List<Space>> getSpacesFromSuperSpace(Marker marker, String parentSpaceId);
+
+  /**
+   * Loads all spaces at once. Used to fill the space config snapshot.
+   * Implementations should override this method, if there is a more efficient way to load all spaces than to select them.
+   */
+  protected Future<List<Space>> getAllSpaces(Marker marker) {
+    return getSelectedSpaces(marker, new SpaceAuthorizationCondition(), new SpaceSelectionCondition(), null);
+  }
 
   public void invalidateCache(String spaceId) {
     cache.remove(spaceId);
+    refreshSnapshot(spaceId);
     new InvalidateSpaceCacheMessage().withId(spaceId).withGlobalRelay(true).broadcast();
   }
 
@@ -216,6 +289,7 @@ public abstract class SpaceConfigClient implements Initializable {
     @Override
     protected void handleAtDestination() {
       cache.remove(id);
+      getInstance().refreshSnapshot(id);
     }
   }
 }
@@ -0,0 +1,357 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.config;
+
+import static com.here.xyz.hub.config.SpaceConfigClient.CONTENT_UPDATED_AT;
+import static com.here.xyz.hub.config.SpaceConfigClient.UPDATED_AT;
+
+import com.here.xyz.events.PropertiesQuery;
+import com.here.xyz.events.PropertyQuery;
+import com.here.xyz.events.PropertyQuery.QueryOperation;
+import com.here.xyz.events.PropertyQueryList;
+import com.here.xyz.hub.config.SpaceConfigClient.SpaceAuthorizationCondition;
+import com.here.xyz.hub.config.SpaceConfigClient.SpaceSelectionCondition;
+import com.here.xyz.hub.connectors.models.Space;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * An in-memory snapshot of all space configurations, indexed by the attributes which are used to select spaces.
+ * The snapshot is filled by a bulk load and kept up to date by applying the changes of single spaces afterwards.
+ * <p>
+ * To prevent that a slow load of a space overwrites the result of a change which happened in the meantime, each change of a space
+ * is registered by {@link #invalidate(String)} first. A load result is only applied, if no invalidation of the space happened after
+ * the load was started (see {@link #currentToken()}).
+ * Until the change of an invalidated space was applied, {@link #get(String)} does not return that space.
+ */
+class SpaceConfigSnapshot {
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final AtomicLong tokens = new AtomicLong();
+  private final Map<String, Long> lastInvalidations = new ConcurrentHashMap<>();
+  private final Set<String> invalidatedSpaceIds = ConcurrentHashMap.newKeySet();
+  private volatile boolean ready;
+
+  private Map<String, Space> spaces = new HashMap<>();
+  private Map<String, Set<String>> spaceIdsByOwner = new HashMap<>();
+  private Map<String, Set<String>> spaceIdsByPackage = new HashMap<>();
+  private Map<String, Set<String>> spaceIdsByRegion = new HashMap<>();
+  private Map<String, Set<String>> spaceIdsByExtendsFrom = new HashMap<>();
+  private Set<String> sharedSpaceIds = new HashSet<>();
+
+  boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * @return A token which has to be taken before loading data for this snapshot
+   */
+  long currentToken() {
+    return tokens.get();
+  }
+
+  /**
+   * Registers a change of the specified space. The space won't be returned by {@link #get(String)} until the result of a load which
+   * was started after this invalidation has been applied.
+   *
+   * @param spaceId The ID of the space which was changed
+   * @return The token to be used when applying the result of the space load which reflects the change
+   */
+  long invalidate(String spaceId) {
+    long token = tokens.incrementAndGet();
+    invalidatedSpaceIds.add(spaceId);
+    lastInvalidations.put(spaceId, token);
+    return token;
+  }
+
+  /**
+   * Applies the loaded state of a space to the snapshot.
+   *
+   * @param spaceId The ID of the space
+   * @param space The loaded space or null if the space does not exist
+   * @param token The token which was taken before loading the space
+   */
+  void apply(String spaceId, Space space, long token) {
+    lock.writeLock().lock();
+    try {
+      if (lastInvalidations.getOrDefault(spaceId, 0L) > token)
+        //The space was changed again in the meantime
+        return;
+      removeFromIndexes(spaceId);
+      if (space != null)
+        addToIndexes(space);
+      invalidatedSpaceIds.remove(spaceId);
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Replaces the whole content of the snapshot by the result of a bulk load.
+   * Spaces which have been invalidated after the load was started keep their current state in the snapshot.
+   *
+   * @param loadedSpaces All spaces
+   * @param token The token which was taken before starting the bulk load
+   */
+  void applyAll(Collection<Space> loadedSpaces, long token) {
+    lock.writeLock().lock();
+    try {
+      Map<String, Space> previousSpaces = spaces;
+      spaces = new HashMap<>();
+      spaceIdsByOwner = new HashMap<>();
+      spaceIdsByPackage = new HashMap<>();
+      spaceIdsByRegion = new HashMap<>();
+      spaceIdsByExtendsFrom = new HashMap<>();
+      sharedSpaceIds = new HashSet<>();
+
+      for (Space space : loadedSpaces)
+        if (lastInvalidations.getOrDefault(space.getId(), 0L) <= token)
+          addToIndexes(space);
+
+      lastInvalidations.forEach((spaceId, lastInvalidation) -> {
+        if (lastInvalidation > token && previousSpaces.containsKey(spaceId))
+          addToIndexes(previousSpaces.get(spaceId));
+      });
+      lastInvalidations.values().removeIf(lastInvalidation -> lastInvalidation <= token);
+      invalidatedSpaceIds.removeIf(spaceId -> !lastInvalidations.containsKey(spaceId));
+      ready = true;
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @param spaceId The ID of the space
+   * @return The space or null if the space is not part of the snapshot or has been invalidated
+   */
+  Space get(String spaceId) {
+    if (!ready || invalidatedSpaceIds.contains(spaceId))
+      return null;
+    lock.readLock().lock();
+    try {
+      return spaces.get(spaceId);
+    }
+    finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  List<Space> getSpacesFromSuper(String superSpaceId) {
+    lock.readLock().lock();
+    try {
+      return resolve(spaceIdsByExtendsFrom.getOrDefault(superSpaceId, Collections.emptySet()));
+    }
+    finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Selects the spaces matching the provided conditions from the snapshot.
+   * The semantics are the same as the ones of {@link SpaceConfigClient#getSelected}.
+   *
+   * @return The selected spaces or null if the provided properties query can not be evaluated by the snapshot
+   */
+  List<Space> select(SpaceAuthorizationCondition authorizedCondition, SpaceSelectionCondition selectedCondition,
+      PropertiesQuery propsQuery) {
+    Predicate<Space> propertiesFilter = toPredicate(propsQuery);
+    if (propertiesFilter == null)
+      return null;
+
+    lock.readLock().lock();
+    try {
+      Collection<String> candidateIds;
+      if (!isNullOrEmpty(selectedCondition.spaceIds))
+        candidateIds = selectedCondition.spaceIds;
+      else if (isNullOrEmpty(authorizedCondition.spaceIds) && isNullOrEmpty(authorizedCondition.ownerIds)
+          && isNullOrEmpty(authorizedCondition.packages))
+        //Full access
+        candidateIds = spaces.keySet();
+      else {
+        Set<String> authorizedIds = new HashSet<>();
+        if (authorizedCondition.spaceIds != null)
+          authorizedIds.addAll(authorizedCondition.spaceIds);
+        if (selectedCondition.shared)
+          authorizedIds.addAll(sharedSpaceIds);
+        lookup(spaceIdsByOwner, authorizedCondition.ownerIds, authorizedIds);
+        lookup(spaceIdsByPackage, authorizedCondition.packages, authorizedIds);
+        candidateIds = authorizedIds;
+      }
+
+      Predicate<Space> selectionFilter = space -> true;
+      if (selectedCondition.prefix != null)
+        selectionFilter = selectionFilter.and(space -> space.getId().startsWith(selectedCondition.prefix));
+      if (selectedCondition.region != null)
+        selectionFilter = selectionFilter.and(space -> selectedCondition.region.equals(space.getRegion()));
+      if (!isNullOrEmpty(selectedCondition.ownerIds))
+        selectionFilter = selectionFilter.and(space -> selectedCondition.negateOwnerIds
+            ^ selectedCondition.ownerIds.contains(space.getOwner()));
+      if (!isNullOrEmpty(selectedCondition.packages))
+        selectionFilter = selectionFilter.and(space -> space.getPackages() != null
+            && space.getPackages().stream().anyMatch(selectedCondition.packages::contains));
+
+      return resolve(candidateIds).stream()
+          .filter(selectionFilter.and(propertiesFilter))
+          .collect(Collectors.toList());
+    }
+    finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  int size() {
+    lock.readLock().lock();
+    try {
+      return spaces.size();
+    }
+    finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private List<Space> resolve(Collection<String> spaceIds) {
+    return spaceIds.stream().map(spaces::get).filter(Objects::nonNull).collect(Collectors.toList());
+  }
+
+  private static void lookup(Map<String, Set<String>> index, Collection<String> keys, Set<String> result) {
+    if (keys != null)
+      keys.forEach(key -> result.addAll(index.getOrDefault(key, Collections.emptySet())));
+  }
+
+  private void addToIndexes(Space space) {
+    spaces.put(space.getId(), space);
+    addToIndex(spaceIdsByOwner, space.getOwner(), space.getId());
+    addToIndex(spaceIdsByRegion, space.getRegion(), space.getId());
+    if (space.getExtension() != null)
+      addToIndex(spaceIdsByExtendsFrom, space.getExtension().getSpaceId(), space.getId());
+    if (space.getPackages() != null)
+      space.getPackages().forEach(packageName -> addToIndex(spaceIdsByPackage, packageName, space.getId()));
+    if (space.isShared())
+      sharedSpaceIds.add(space.getId());
+  }
+
+  private void removeFromIndexes(String spaceId) {
+    Space space = spaces.remove(spaceId);
+    if (space == null)
+      return;
+    removeFromIndex(spaceIdsByOwner, space.getOwner(), spaceId);
+    removeFromIndex(spaceIdsByRegion, space.getRegion(), spaceId);
+    if (space.getExtension() != null)
+      removeFromIndex(spaceIdsByExtendsFrom, space.getExtension().getSpaceId(), spaceId);
+    if (space.getPackages() != null)
+      space.getPackages().forEach(packageName -> removeFromIndex(spaceIdsByPackage, packageName, spaceId));
+    sharedSpaceIds.remove(spaceId);
+  }
+
+  private static void addToIndex(Map<String, Set<String>> index, String key, String spaceId) {
+    if (key != null)
+      index.computeIfAbsent(key, k -> new HashSet<>()).add(spaceId);
+  }
+
+  private static void removeFromIndex(Map<String, Set<String>> index, String key, String spaceId) {
+    if (key == null)
+      return;
+    Set<String> spaceIds = index.get(key);
+    if (spaceIds != null && spaceIds.remove(spaceId) && spaceIds.isEmpty())
+      index.remove(key);
+  }
+
+  private static boolean isNullOrEmpty(Collection<?> collection) {
+    return collection == null || collection.isEmpty();
+  }
+
+  /**
+   * Translates the properties query into a predicate. The query is a disjunction of conjunctions, whereas the values of each
+   * {@link PropertyQuery} are again combined disjunctively.
+   *
+   * @return The predicate or null if the query contains keys or operations which are not supported for space selection
+   */
+  private static Predicate<Space> toPredicate(PropertiesQuery propsQuery) {
+    if (propsQuery == null || propsQuery.isEmpty())
+      return space -> true;
+
+    Predicate<Space> disjunction = space -> false;
+    for (PropertyQueryList conjunctions : propsQuery) {
+      Predicate<Space> conjunction = space -> true;
+      for (PropertyQuery propertyQuery : conjunctions) {
+        Predicate<Space> predicate = toPredicate(propertyQuery);
+        if (predicate == null)
+          return null;
+        conjunction = conjunction.and(predicate);
+      }
+      disjunction = disjunction.or(conjunction);
+    }
+    return disjunction;
+  }
+
+  private static Predicate<Space> toPredicate(PropertyQuery propertyQuery) {
+    Function<Space, Long> property;
+    if (CONTENT_UPDATED_AT.equals(propertyQuery.getKey()))
+      property = Space::getContentUpdatedAt;
+    else if (UPDATED_AT.equals(propertyQuery.getKey()))
+      property = Space::getUpdatedAt;
+    else
+      return null;
+
+    if (propertyQuery.getOperation() == null || propertyQuery.getOperation() == QueryOperation.CONTAINS
+        || propertyQuery.getValues() == null)
+      return null;
+
+    Predicate<Space> predicate = space -> false;
+    for (Object value : propertyQuery.getValues()) {
+      final long operand;
+      try {
+        operand = value instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(value));
+      }
+      catch (NumberFormatException e) {
+        return null;
+      }
+      predicate = predicate.or(space -> compare(property.apply(space), propertyQuery.getOperation(), operand));
+    }
+    return predicate;
+  }
+
+  private static boolean compare(long value, QueryOperation operation, long operand) {
+    return switch (operation) {
+      case EQUALS -> value == operand;
+      case NOT_EQUALS -> value != operand;
+      case LESS_THAN -> value < operand;
+      case GREATER_THAN -> value > operand;
+      case LESS_THAN_OR_EQUALS -> value <= operand;
+      case GREATER_THAN_OR_EQUALS -> value >= operand;
+      default -> false;
+    };
+  }
+}
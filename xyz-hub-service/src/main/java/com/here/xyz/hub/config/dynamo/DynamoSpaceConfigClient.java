@@ -28,6 +28,7 @@ import com.amazonaws.services.dynamodbv2.document.Item;
 import com.amazonaws.services.dynamodbv2.document.Table;
 import com.amazonaws.services.dynamodbv2.document.TableKeysAndAttributes;
 import com.amazonaws.services.dynamodbv2.document.spec.QuerySpec;
+import com.amazonaws.services.dynamodbv2.document.spec.ScanSpec;
 import com.amazonaws.services.dynamodbv2.model.AmazonDynamoDBException;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
@@ -73,6 +74,7 @@ import org.apache.logging.log4j.Marker;
 public class DynamoSpaceConfigClient extends SpaceConfigClient {
 
   private static final Logger logger = LogManager.getLogger();
+  private static final int SCAN_SEGMENTS = 8;
 
   private final DynamoClient dynamoClient;
   private Table spaces;
@@ -363,7 +365,7 @@ public class DynamoSpaceConfigClient extends SpaceConfigClient {
   }
 
   @Override
-  public Future<List<Space>> getSpacesFromSuper(Marker marker, String superSpaceId) {
+  protected Future<List<Space>> getSpacesFromSuperSpace(Marker marker, String superSpaceId) {
     return dynamoClient.executeQueryAsync(() -> {
       final List<Space> resultSpaces = new ArrayList<>();
       spaces.getIndex("extendsFrom-index")
@@ -374,6 +376,37 @@ public class DynamoSpaceConfigClient extends SpaceConfigClient {
     });
   }
 
+  /**
+   * Loads all spaces using a parallel scan of the spaces table.
+   */
+  @Override
+  protected Future<List<Space>> getAllSpaces(Marker marker) {
+    logger.info(marker, "Scanning all spaces using {} segments", SCAN_SEGMENTS);
+    List<Future<List<Space>>> segments = new ArrayList<>();
+    for (int segment = 0; segment < SCAN_SEGMENTS; segment++) {
+      final int currentSegment = segment;
+      //NOTE: The scans have to run unordered, to be executed in parallel
+      segments.add(DynamoClient.dynamoWorkers.executeBlocking(promise -> {
+        try {
+          final List<Space> resultSpaces = new ArrayList<>();
+          spaces.scan(new ScanSpec().withSegment(currentSegment).withTotalSegments(SCAN_SEGMENTS))
+              .pages()
+              .forEach(page -> page.forEach(spaceItem -> resultSpaces.add(mapItemToSpace(spaceItem))));
+          promise.complete(resultSpaces);
+        }
+        catch (Exception e) {
+          promise.fail(e);
+        }
+      }, false));
+    }
+
+    return Future.all(segments).map(cf -> {
+      List<Space> allSpaces = new ArrayList<>();
+      cf.<List<Space>>list().forEach(allSpaces::addAll);
+      return allSpaces;
+    });
+  }
+
   private Future<List<Space>> getSelectedSpacesSync(Marker marker, SpaceAuthorizationCondition authorizedCondition,
       SpaceSelectionCondition selectedCondition, PropertiesQuery propsQuery) {
 
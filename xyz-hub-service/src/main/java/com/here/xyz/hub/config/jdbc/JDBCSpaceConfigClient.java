@@ -148,7 +148,7 @@ public class JDBCSpaceConfigClient extends SpaceConfigClient {
   }
 
   @Override
-  public Future<List<Space>> getSpacesFromSuper(Marker marker, String superSpaceId) {
+  protected Future<List<Space>> getSpacesFromSuperSpace(Marker marker, String superSpaceId) {
     return client.run(client.getQuery("SELECT config FROM ${schema}.${table} WHERE config->'extends'->>'spaceId' = #{superSpaceId}").withNamedParameter("superSpaceId", superSpaceId), configListParser(Space.class));
   }
 
@@ -97,7 +97,7 @@ public class InMemSpaceConfigClient extends SpaceConfigClient {
   }
 
   @Override
-  public Future<List<Space>> getSpacesFromSuper(Marker marker, String superSpaceId) {
+  protected Future<List<Space>> getSpacesFromSuperSpace(Marker marker, String superSpaceId) {
     final List<Space> result = new ArrayList<>();
     spaceMap.forEach((id, space) -> {
       if (space.getExtension() != null && superSpaceId.equals(space.getExtension().getSpaceId())) {
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.xyz.hub.connectors;
+
+/**
+ * An AIMD (additive increase / multiplicative decrease) limit for the number of concurrent requests to one remote function.
+ * The limit is increased slowly as long as the remote function keeps up and is using the current limit. It is decreased quickly
+ * once the remote function shows signs of congestion, which are:
+ * <ul>
+ *   <li>Requests failing with a timeout or a throttling error</li>
+ *   <li>Requests coming close to the request timeout</li>
+ *   <li>The short-term average latency growing significantly above the long-term average latency</li>
+ * </ul>
+ * That way the client backs off before requests start timing out and ramps up again if the remote function has headroom.
+ */
+class AdaptiveConcurrencyLimit {
+
+  private static final double BACKOFF_RATIO = 0.9;
+  /**
+   * The ratio of the request timeout above which a latency is considered to be a congestion signal.
+   */
+  private static final double TIMEOUT_RATIO = 0.8;
+  /**
+   * The factor by which the short-term average latency has to exceed the long-term average latency to be considered as a congestion
+   * signal. Comparing averages (rather than single latencies) prevents single slow requests from decreasing the limit.
+   */
+  private static final double LATENCY_TOLERANCE = 2;
+  /**
+   * The weights of a single sample for the short-term and the long-term average latencies.
+   */
+  private static final double SHORT_TERM_SMOOTHING = 0.1;
+  private static final double LONG_TERM_SMOOTHING = 0.01;
+  /**
+   * The minimum time in milliseconds between two decreases, so that a burst of congestion signals (all caused by the same overload)
+   * does not decrease the limit multiple times.
+   */
+  private static final long MIN_BACKOFF_INTERVAL = 500;
+
+  private final int minLimit;
+  private int maxLimit;
+  private double limit;
+  private double shortTermLatency = -1;
+  private double longTermLatency = -1;
+  private long lastBackoff;
+
+  AdaptiveConcurrencyLimit(int minLimit, int maxLimit) {
+    this.minLimit = minLimit;
+    this.maxLimit = Math.max(minLimit, maxLimit);
+    limit = this.maxLimit;
+  }
+
+  /**
+   * Updates the upper bound of the limit, e.g., after the connector configuration has changed.
+   *
+   * @param maxLimit The new upper bound
+   */
+  synchronized void setMaxLimit(int maxLimit) {
+    this.maxLimit = Math.max(minLimit, maxLimit);
+    limit = Math.min(limit, this.maxLimit);
+  }
+
+  /**
+   * Records the result of a request and adjusts the limit accordingly.
+   *
+   * @param latency The latency of the request in milliseconds
+   * @param timeout The timeout of the request in milliseconds
+   * @param congested Whether the request failed in a way indicating an overload (e.g., timeout or throttling)
+   * @param inflight The number of requests which were in flight when the request completed
+   * @param now The current time in milliseconds
+   */
+  synchronized void onSample(long latency, long timeout, boolean congested, int inflight, long now) {
+    if (!congested) {
+      shortTermLatency = smooth(shortTermLatency, latency, SHORT_TERM_SMOOTHING);
+      longTermLatency = smooth(longTermLatency, latency, LONG_TERM_SMOOTHING);
+      congested = latency > TIMEOUT_RATIO * timeout || shortTermLatency > LATENCY_TOLERANCE * longTermLatency;
+    }
+
+    if (congested) {
+      if (now - lastBackoff >= MIN_BACKOFF_INTERVAL) {
+        lastBackoff = now;
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+      }
+    }
+    //Only grow the limit if it's actually being used
+    else if (inflight * 2 >= limit)
+      limit = Math.min(maxLimit, limit + 1 / limit);
+  }
+
+  private static double smooth(double average, long sample, double weight) {
+    return average < 0 ? sample : average * (1 - weight) + sample * weight;
+  }
+
+  /**
+   * @return The current limit of concurrent requests
+   */
+  synchronized int get() {
+    return (int) limit;
+  }
+}
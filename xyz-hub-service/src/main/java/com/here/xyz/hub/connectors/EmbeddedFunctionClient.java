@@ -61,9 +61,13 @@ public class EmbeddedFunctionClient extends RemoteFunctionClient {
     if (!(getConnectorConfig().getRemoteFunction() instanceof RemoteFunctionConfig.Embedded)) {
       throw new IllegalArgumentException("Invalid remoteFunctionConfig argument, must be an instance of Embedded");
     }
-    int maxConnections = getMaxConnections();
-    embeddedExecutor = new ThreadPoolExecutor(8, maxConnections, 10, TimeUnit.MINUTES,
-        new SynchronousQueue<>(), Core.newThreadFactory("embeddedRfc-" + connectorId));
+    //The number of concurrent invocations is limited by the connection handling of the RemoteFunctionClient already
+    embeddedExecutor = Core.newVirtualThreadExecutor();
+    if (embeddedExecutor == null) {
+      int maxConnections = getMaxConnections();
+      embeddedExecutor = new ThreadPoolExecutor(8, maxConnections, 10, TimeUnit.MINUTES,
+          new SynchronousQueue<>(), Core.newThreadFactory("embeddedRfc-" + connectorId));
+    }
   }
 
   @Override
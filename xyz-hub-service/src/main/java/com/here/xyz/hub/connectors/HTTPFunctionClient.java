@@ -42,6 +42,7 @@ import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpVersion;
 import io.vertx.core.http.RequestOptions;
 import io.vertx.core.net.impl.ConnectionBase;
 import java.net.URL;
@@ -56,8 +57,28 @@ import org.apache.logging.log4j.Marker;
 public class HTTPFunctionClient extends RemoteFunctionClient {
 
   private static final Logger logger = LogManager.getLogger();
+  /**
+   * The maximum number of HTTP/2 connections per connector. Each connection multiplexes many concurrent requests.
+   */
+  private static final int HTTP2_MAX_POOL_SIZE = 4;
+  /**
+   * The lower bound for adapted timeouts in milliseconds.
+   */
+  private static final long MIN_ADAPTIVE_TIMEOUT = 2_000;
+  /**
+   * The factor by which the adapted timeout exceeds the 99th percentile of the recent latencies.
+   */
+  private static final int ADAPTIVE_TIMEOUT_FACTOR = 4;
+  /**
+   * The maximum share of calls for which a hedged request may be sent.
+   */
+  private static final double MAX_HEDGE_RATIO = 0.05;
   private volatile String url;
   private int requestTimeout;
+  private boolean adaptiveTimeouts;
+  private LatencyTracker latencies;
+  private HedgingBudget hedgingBudget;
+  private HttpClient http2Client;
 
   private static HttpClient httpClient = Core.vertx.createHttpClient(
       new HttpClientOptions()
@@ -82,12 +103,62 @@ public class HTTPFunctionClient extends RemoteFunctionClient {
     final Http remoteFunction = (Http) getConnectorConfig().getRemoteFunction();
     url = remoteFunction.url.toString();
     requestTimeout = remoteFunction.getTimeout();
+    adaptiveTimeouts = remoteFunction.adaptiveTimeouts;
+    latencies = new LatencyTracker();
+    hedgingBudget = new HedgingBudget(MAX_HEDGE_RATIO);
+    if (!remoteFunction.http2)
+      closeHttp2Client();
+    else if (http2Client == null)
+      http2Client = createHttp2Client();
     HttpFunctionRegistry.register(getConnectorConfig());
   }
 
+  private static HttpClient createHttp2Client() {
+    return Core.vertx.createHttpClient(new HttpClientOptions()
+        .setProtocolVersion(HttpVersion.HTTP_2)
+        .setHttp2ClearTextUpgrade(false)
+        .setHttp2MaxPoolSize(HTTP2_MAX_POOL_SIZE)
+        .setTcpKeepAlive(Service.configuration.HTTP_CLIENT_TCP_KEEPALIVE)
+        .setIdleTimeout(Service.configuration.HTTP_CLIENT_IDLE_TIMEOUT)
+        .setTcpQuickAck(true)
+        .setTcpFastOpen(true));
+  }
+
+  private void closeHttp2Client() {
+    if (http2Client != null) {
+      http2Client.close();
+      http2Client = null;
+    }
+  }
+
   @Override
-  void destroy() {
+  synchronized void destroy() {
     super.destroy();
+    closeHttp2Client();
+  }
+
+  private HttpClient client() {
+    HttpClient http2Client = this.http2Client;
+    return http2Client != null ? http2Client : httpClient;
+  }
+
+  /**
+   * Returns the request timeout to be used for the next call.
+   * If adaptive timeouts are activated, the timeout is derived from the 99th percentile of the recent latencies,
+   * but it never exceeds the configured timeout of the connector.
+   */
+  private long getEffectiveTimeout() {
+    long p99 = adaptiveTimeouts ? latencies.getP99() : -1;
+    return p99 < 0 ? requestTimeout : Math.min(requestTimeout, Math.max(MIN_ADAPTIVE_TIMEOUT, p99 * ADAPTIVE_TIMEOUT_FACTOR));
+  }
+
+  /**
+   * Returns the delay after which a hedged request should be sent for the specified call.
+   *
+   * @return The delay in milliseconds or -1 if no hedged request should be sent
+   */
+  private long getHedgingDelay(FunctionCall fc) {
+    return adaptiveTimeouts && fc.idempotent && !fc.fireAndForget ? latencies.getP95() : -1;
   }
 
   protected void invoke(FunctionCall fc, Handler<AsyncResult<byte[]>> callback) {
@@ -95,13 +166,48 @@ public class HTTPFunctionClient extends RemoteFunctionClient {
     logger.info(fc.marker, "Invoke http remote function '{}' URL is: {} Event size is: {}",
         remoteFunction.id, url, fc.getByteSize());
 
+    final long timeout = getEffectiveTimeout();
+    final HedgedCall call = new HedgedCall(fc.marker, r -> {
+      if (r.failed())
+        handleFailure(fc.marker, callback, r.cause());
+      else
+        callback.handle(r);
+    }, latencies);
+    fc.setCancelHandler(call::cancel);
+    send(fc, call, call.startAttempt(), timeout);
+
+    hedgingBudget.recordCall(Core.currentTimeMillis());
+    final long hedgingDelay = getHedgingDelay(fc);
+    if (hedgingDelay > 0)
+      call.setHedgingTimer(Core.vertx.setTimer(hedgingDelay, timerId -> sendHedgedRequest(fc, call, timeout, hedgingDelay)));
+  }
+
+  /**
+   * Sends a hedged request for a call which did not complete yet.
+   * The hedged request needs a connection slot of its own and is only sent if the {@link HedgingBudget} was not used up yet.
+   */
+  private void sendHedgedRequest(FunctionCall fc, HedgedCall call, long timeout, long hedgingDelay) {
+    if (call.isCompleted() || !tryAcquireConnection())
+      return;
+    if (!hedgingBudget.tryAcquire(Core.currentTimeMillis())) {
+      releaseConnection();
+      return;
+    }
+    logger.info(fc.marker, "Sending hedged request to http remote function '{}' after {}ms",
+        getConnectorConfig().getRemoteFunction().id, hedgingDelay);
+    send(fc, call, call.startAttempt(this::releaseConnection), timeout);
+  }
+
+  private void send(FunctionCall fc, HedgedCall call, HedgedCall.Attempt attempt, long timeout) {
+    if (attempt == null)
+      return;
     try {
       //The BodyHolder makes sure that our "onSuccess-lambda" below won't keep a reference to the body itself
       BodyHolder bh = new BodyHolder(Buffer.buffer(fc.bytes));
 
-      httpClient.request(new RequestOptions()
+      client().request(new RequestOptions()
           .setMethod(HttpMethod.POST)
-          .setTimeout(requestTimeout)
+          .setTimeout(timeout)
           .putHeader(CONTENT_TYPE, "application/json; charset=" + Charset.defaultCharset().name())
           .putHeader(STREAM_ID, fc.marker.getName())
           .putHeader(ACCEPT_ENCODING, "gzip")
@@ -109,7 +215,8 @@ public class HTTPFunctionClient extends RemoteFunctionClient {
           .setAbsoluteURI(url)
       )
           .onSuccess(req -> {
-            req.exceptionHandler(t -> handleFailure(fc.marker, callback, t));
+            call.addCancelHandler(req::reset);
+            req.exceptionHandler(t -> call.fail(attempt, t));
             req.send(bh.body)
                 .onSuccess(response -> {
                   if (fc.fireAndForget) return;
@@ -117,31 +224,31 @@ public class HTTPFunctionClient extends RemoteFunctionClient {
                     validateHttpStatus(response.statusCode(), response.statusMessage());
                     response.body(ar -> {
                       if (ar.failed())
-                        handleFailure(fc.marker, callback, ar.cause());
+                        call.fail(attempt, ar.cause());
                       else {
                         try {
                           byte[] responseBytes = ar.result().getBytes();
                           if (responseBytes == null || responseBytes.length == 0)
                             throw new HttpException(BAD_GATEWAY, "Response body from remote HTTP connector service was empty.");
-                          callback.handle(Future.succeededFuture(responseBytes));
+                          call.succeed(attempt, responseBytes);
                         }
                         catch (Exception e) {
-                          handleFailure(fc.marker, callback, new HttpException(BAD_GATEWAY, "Error while handling response of HTTP connector.", e));
+                          call.fail(attempt, new HttpException(BAD_GATEWAY, "Error while handling response of HTTP connector.", e));
                         }
                       }
                     });
                   }
                   catch (Exception e) {
-                    handleFailure(fc.marker, callback, e);
+                    call.fail(attempt, e);
                   }
                 })
-                .onFailure(t -> handleFailure(fc.marker, callback, t));
+                .onFailure(t -> call.fail(attempt, t));
             bh.body = null; //Make sure this lambda-expression is not referencing the request-body anymore
           })
-          .onFailure(t -> handleFailure(fc.marker, callback, t));
+          .onFailure(t -> call.fail(attempt, t));
     }
     catch (Exception e) {
-      handleFailure(fc.marker, callback, e);
+      call.fail(attempt, e);
     }
   }
 
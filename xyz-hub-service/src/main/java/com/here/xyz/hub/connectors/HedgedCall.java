@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.connectors;
+
+import com.here.xyz.util.service.Core;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+
+/**
+ * Keeps the state of a call which might consist of multiple (hedged) requests.
+ * The callback is called exactly once, either with the first successful response or with the failure of the last failing request.
+ * Once the call is completed, all requests which are still running get cancelled and the connection slots of all hedged requests
+ * get released.
+ */
+class HedgedCall {
+
+  private static final Logger logger = LogManager.getLogger();
+  private final Marker marker;
+  private final Handler<AsyncResult<byte[]>> callback;
+  private final LatencyTracker latencies;
+  private final List<Runnable> cancelHandlers = new ArrayList<>();
+  private final List<Attempt> attempts = new ArrayList<>();
+  private int pendingAttempts;
+  private boolean completed;
+  private long hedgingTimer = -1;
+
+  HedgedCall(Marker marker, Handler<AsyncResult<byte[]>> callback, LatencyTracker latencies) {
+    this.marker = marker;
+    this.callback = callback;
+    this.latencies = latencies;
+  }
+
+  /**
+   * Starts the first request of the call, which is using the connection slot of the call itself.
+   */
+  Attempt startAttempt() {
+    return startAttempt(null);
+  }
+
+  /**
+   * Starts an additional (hedged) request of the call.
+   *
+   * @param releaseSlot Releases the connection slot which was acquired for the request
+   * @return The attempt or null if the call was already completed, in which case the slot was released already
+   */
+  Attempt startAttempt(Runnable releaseSlot) {
+    synchronized (this) {
+      if (!completed) {
+        Attempt attempt = new Attempt(releaseSlot);
+        attempts.add(attempt);
+        pendingAttempts++;
+        return attempt;
+      }
+    }
+    if (releaseSlot != null)
+      releaseSlot.run();
+    return null;
+  }
+
+  synchronized void setHedgingTimer(long hedgingTimer) {
+    this.hedgingTimer = hedgingTimer;
+  }
+
+  synchronized boolean isCompleted() {
+    return completed;
+  }
+
+  /**
+   * Registers a handler to cancel a running request of this call. If the call is already completed, the request gets cancelled
+   * immediately.
+   */
+  void addCancelHandler(Runnable cancelHandler) {
+    synchronized (this) {
+      if (!completed) {
+        cancelHandlers.add(cancelHandler);
+        return;
+      }
+    }
+    cancelHandler.run();
+  }
+
+  void succeed(Attempt attempt, byte[] responseBytes) {
+    latencies.record(Core.currentTimeMillis() - attempt.start);
+    if (complete())
+      callback.handle(Future.succeededFuture(responseBytes));
+  }
+
+  void fail(Attempt attempt, Throwable t) {
+    boolean lastAttempt;
+    synchronized (this) {
+      if (completed || attempt.failed)
+        return;
+      attempt.failed = true;
+      //Also take timed out requests into account, so that the adapted timeout grows again if the endpoint gets slower
+      if (t instanceof TimeoutException)
+        latencies.record(Core.currentTimeMillis() - attempt.start);
+      lastAttempt = --pendingAttempts == 0;
+    }
+    if (!lastAttempt) {
+      logger.warn(marker, "Error in one of the hedged requests to remote HTTP service", t);
+      attempt.releaseSlot();
+    }
+    else if (complete())
+      callback.handle(Future.failedFuture(t));
+  }
+
+  void cancel() {
+    complete();
+  }
+
+  /**
+   * Marks the call as completed, cancels all requests which are still running and releases the slots of the hedged requests.
+   *
+   * @return true if the call was completed by this invocation, false if it was already completed before
+   */
+  private boolean complete() {
+    List<Runnable> runningRequests;
+    List<Attempt> finishedAttempts;
+    synchronized (this) {
+      if (completed)
+        return false;
+      completed = true;
+      if (hedgingTimer != -1)
+        Core.vertx.cancelTimer(hedgingTimer);
+      runningRequests = new ArrayList<>(cancelHandlers);
+      cancelHandlers.clear();
+      finishedAttempts = new ArrayList<>(attempts);
+      attempts.clear();
+    }
+    //NOTE: Cancelling the request of a response which was already received completely has no effect
+    runningRequests.forEach(Runnable::run);
+    finishedAttempts.forEach(Attempt::releaseSlot);
+    return true;
+  }
+
+  static class Attempt {
+    private final long start = Core.currentTimeMillis();
+    private boolean failed;
+    private Runnable releaseSlot;
+
+    private Attempt(Runnable releaseSlot) {
+      this.releaseSlot = releaseSlot;
+    }
+
+    private void releaseSlot() {
+      Runnable releaseSlot;
+      synchronized (this) {
+        releaseSlot = this.releaseSlot;
+        this.releaseSlot = null;
+      }
+      if (releaseSlot != null)
+        releaseSlot.run();
+    }
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.connectors;
+
+/**
+ * Limits the share of calls for which a hedged request may be sent within a sliding time window.
+ * That way hedging can't multiply the load on a remote function which became slow because it is overloaded.
+ * The window consists of {@link #BUCKETS} buckets of {@link #BUCKET_DURATION} milliseconds each.
+ */
+class HedgingBudget {
+
+  static final int BUCKETS = 10;
+  static final long BUCKET_DURATION = 1_000;
+
+  private final double maxHedgeRatio;
+  private final long[] bucketEpochs = new long[BUCKETS];
+  private final long[] calls = new long[BUCKETS];
+  private final long[] hedges = new long[BUCKETS];
+
+  /**
+   * @param maxHedgeRatio The maximum number of hedged requests in relation to the number of calls within the window
+   */
+  HedgingBudget(double maxHedgeRatio) {
+    this.maxHedgeRatio = maxHedgeRatio;
+  }
+
+  /**
+   * Records a call to the remote function.
+   *
+   * @param now The current time in milliseconds
+   */
+  synchronized void recordCall(long now) {
+    calls[bucket(now)]++;
+  }
+
+  /**
+   * Takes a hedged request from the budget if there is budget left within the current window.
+   *
+   * @param now The current time in milliseconds
+   * @return true if the hedged request may be sent
+   */
+  synchronized boolean tryAcquire(long now) {
+    int bucket = bucket(now);
+    long epoch = now / BUCKET_DURATION;
+    long windowCalls = 0, windowHedges = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      if (epoch - bucketEpochs[i] < BUCKETS) {
+        windowCalls += calls[i];
+        windowHedges += hedges[i];
+      }
+    }
+    if (windowHedges + 1 > windowCalls * maxHedgeRatio)
+      return false;
+    hedges[bucket]++;
+    return true;
+  }
+
+  private int bucket(long now) {
+    long epoch = now / BUCKET_DURATION;
+    int bucket = (int) (epoch % BUCKETS);
+    if (bucketEpochs[bucket] != epoch) {
+      bucketEpochs[bucket] = epoch;
+      calls[bucket] = 0;
+      hedges[bucket] = 0;
+    }
+    return bucket;
+  }
+}
@@ -27,7 +27,9 @@ import static io.netty.handler.codec.http.HttpResponseStatus.REQUEST_ENTITY_TOO_
 import com.amazonaws.AbortedException;
 import com.amazonaws.ClientConfiguration;
 import com.amazonaws.SdkClientException;
+import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.auth.AWSSessionCredentials;
 import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
 import com.amazonaws.auth.STSAssumeRoleSessionCredentialsProvider;
 import com.amazonaws.handlers.AsyncHandler;
@@ -53,20 +55,40 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
 import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.lambda.LambdaAsyncClient;
+import software.amazon.awssdk.services.lambda.LambdaAsyncClientBuilder;
+import software.amazon.awssdk.services.lambda.model.InvokeWithResponseStreamRequest;
+import software.amazon.awssdk.services.lambda.model.InvokeWithResponseStreamResponseHandler;
+import software.amazon.awssdk.services.lambda.model.LambdaException;
 
 public class LambdaFunctionClient extends RemoteFunctionClient {
 
@@ -77,7 +99,13 @@ public class LambdaFunctionClient extends RemoteFunctionClient {
   private static final int MIN_THREADS_PER_CLIENT = 5;
 
   private AWSLambdaAsync asyncClient;
+  private LambdaAsyncClient streamingClient;
   private static ConcurrentHashMap<String, AWSLambdaAsync> lambdaClients = new ConcurrentHashMap<>();
+  /**
+   * The clients for the invocations with response streaming, which is only supported by the AWS SDK v2.
+   * They share the client keys and the references with the {@link #lambdaClients}.
+   */
+  private static ConcurrentHashMap<String, LambdaAsyncClient> streamingClients = new ConcurrentHashMap<>();
   private static Map<AWSLambdaAsync, List<String>> clientReferences = new HashMap<>();
   private static ExecutorService executors = new ForwardingExecutorService() {
     private ExecutorService threadPool = new ThreadPoolExecutor(
@@ -121,6 +149,7 @@ public class LambdaFunctionClient extends RemoteFunctionClient {
       lambdaClients.remove(clientKey);
       clientReferences.remove(client);
       shutdownLambdaClient(client);
+      shutdownStreamingClient(streamingClients.remove(clientKey));
     }
   }
 
@@ -130,6 +159,7 @@ public class LambdaFunctionClient extends RemoteFunctionClient {
       throw new IllegalArgumentException("Invalid remoteFunctionConfig argument, must be an instance of AWSLambda");
     }
     asyncClient = getLambdaClient((AWSLambda) remoteFunction, getConnectorConfig().id);
+    streamingClient = ((AWSLambda) remoteFunction).responseStreaming ? getStreamingClient((AWSLambda) remoteFunction) : null;
     if (oldConnectorConfig != null)
       releaseClient(getClientKey((AWSLambda) oldConnectorConfig.getRemoteFunction()));
   }
@@ -154,18 +184,48 @@ public class LambdaFunctionClient extends RemoteFunctionClient {
         .build();
   }
 
+  private static LambdaAsyncClient createStreamingClient(AWSLambda remoteFunction) {
+    logger.info("Creating streaming Lambda Function Client for function {} lambda ARN {}, role ARN: {}",
+        remoteFunction.id, remoteFunction.lambdaARN(), remoteFunction.roleARN);
+
+    AWSCredentialsProvider credentialsProvider = getAWSCredentialsProvider(remoteFunction);
+    LambdaAsyncClientBuilder builder = LambdaAsyncClient.builder()
+        .region(Region.of(ARN.fromString(remoteFunction.lambdaARN()).getRegion()))
+        .credentialsProvider(() -> {
+          AWSCredentials credentials = credentialsProvider.getCredentials();
+          return credentials instanceof AWSSessionCredentials sessionCredentials
+              ? AwsSessionCredentials.create(sessionCredentials.getAWSAccessKeyId(), sessionCredentials.getAWSSecretKey(),
+                  sessionCredentials.getSessionToken())
+              : AwsBasicCredentials.create(credentials.getAWSAccessKeyId(), credentials.getAWSSecretKey());
+        })
+        .overrideConfiguration(ClientOverrideConfiguration.builder()
+            .apiCallTimeout(Duration.ofMillis(remoteFunction.getTimeout()))
+            .retryPolicy(RetryPolicy.none())
+            .build());
+
+    if (Service.configuration.LOCALSTACK_ENDPOINT != null)
+      builder.endpointOverride(URI.create(Service.configuration.LOCALSTACK_ENDPOINT))
+          .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("localstack", "localstack")));
+
+    return builder.build();
+  }
+
+  private static LambdaAsyncClient getStreamingClient(AWSLambda remoteFunction) {
+    return streamingClients.computeIfAbsent(getClientKey(remoteFunction), clientKey -> createStreamingClient(remoteFunction));
+  }
+
+  private static void shutdownStreamingClient(LambdaAsyncClient streamingClient) {
+    if (streamingClient == null)
+      return;
+    //Shutdown the streaming client after the request timeout
+    CompletableFuture.delayedExecutor(MAX_REQUEST_TIMEOUT, TimeUnit.MILLISECONDS).execute(streamingClient::close);
+  }
+
   private static void shutdownLambdaClient(AWSLambdaAsync lambdaClient) {
     if (lambdaClient == null)
       return;
     //Shutdown the lambda client after the request timeout
-    //TODO: Use CompletableFuture.delayedExecutor() after switching to Java 9
-    new Thread(() -> {
-      try {
-        Thread.sleep(MAX_REQUEST_TIMEOUT);
-      }
-      catch (InterruptedException ignored) {}
-      lambdaClient.shutdown();
-    }).start();
+    CompletableFuture.delayedExecutor(MAX_REQUEST_TIMEOUT, TimeUnit.MILLISECONDS).execute(lambdaClient::shutdown);
   }
 
   @Override
@@ -184,6 +244,11 @@ public class LambdaFunctionClient extends RemoteFunctionClient {
     Context context = fc.context;
     logger.debug(marker, "Invoking remote lambda function with id '{}' Event size is: {}", remoteFunction.id, fc.getByteSize());
 
+    if (streamingClient != null && !fc.fireAndForget) {
+      invokeWithResponseStream(fc, callback);
+      return;
+    }
+
     InvokeRequest invokeReq = new InvokeRequest()
         .withFunctionName(((AWSLambda) remoteFunction).lambdaARN())
         .withPayload(ByteBuffer.wrap(fc.bytes))
@@ -211,6 +276,47 @@ public class LambdaFunctionClient extends RemoteFunctionClient {
     fc.setCancelHandler(() -> future.cancel(true));
   }
 
+  /**
+   * EXPERIMENTAL: Invokes the remote lambda function with response streaming.
+   * The chunks of the response are collected as they arrive and the complete response is passed to the callback.
+   * Responses of connectors running on the StreamingLambdaRuntime may be larger than the payload limit of synchronous invocations,
+   * so they don't have to be relocated.
+   */
+  private void invokeWithResponseStream(final FunctionCall fc, final Handler<AsyncResult<byte[]>> callback) {
+    Marker marker = fc.marker;
+    ByteArrayOutputStream responseBytes = new ByteArrayOutputStream();
+    AtomicReference<String> streamError = new AtomicReference<>();
+
+    InvokeWithResponseStreamRequest invokeReq = InvokeWithResponseStreamRequest.builder()
+        .functionName(((AWSLambda) getConnectorConfig().getRemoteFunction()).lambdaARN())
+        .payload(SdkBytes.fromByteArrayUnsafe(fc.bytes))
+        .build();
+
+    CompletableFuture<Void> future = streamingClient.invokeWithResponseStream(invokeReq, InvokeWithResponseStreamResponseHandler.builder()
+        .subscriber(InvokeWithResponseStreamResponseHandler.Visitor.builder()
+            .onPayloadChunk(chunk -> responseBytes.writeBytes(chunk.payload().asByteArrayUnsafe()))
+            .onInvokeComplete(complete -> {
+              if (complete.errorCode() != null)
+                streamError.set(complete.errorCode() + ": " + complete.errorDetails());
+            })
+            .build())
+        .build());
+
+    future.whenComplete((v, t) -> fc.context.runOnContext(v2 -> {
+      if (t != null)
+        callback.handle(Future.failedFuture(getHttpException(marker, t instanceof CompletionException && t.getCause() != null
+            ? t.getCause() : t)));
+      else if (streamError.get() != null) {
+        logger.warn(marker, "Error while streaming the response of the lambda function: {}", streamError.get());
+        callback.handle(Future.failedFuture(new HttpException(BAD_GATEWAY, "Error while contacting lambda function.")));
+      }
+      else
+        callback.handle(Future.succeededFuture(responseBytes.toByteArray()));
+    }));
+
+    fc.setCancelHandler(() -> future.cancel(true));
+  }
+
   /**
    * Returns the AWS credentials provider for this lambda executor service.
    *
@@ -242,9 +348,18 @@ public class LambdaFunctionClient extends RemoteFunctionClient {
         return new HttpException(BAD_GATEWAY, "Error while contacting lambda function.", t);
       }
     }
-    if (t instanceof HttpRequestTimeoutException || t instanceof SdkClientException && t.getCause() instanceof HttpRequestTimeoutException)
+    if (t instanceof LambdaException le) {
+      if (le.statusCode() == 413)
+        return new HttpException(REQUEST_ENTITY_TOO_LARGE, "The compressed request must be smaller than 6291456 bytes.", t);
+      else if (t instanceof software.amazon.awssdk.services.lambda.model.ResourceNotFoundException) {
+        logger.warn(marker, "Lambda function does not exist.", t);
+        return new HttpException(BAD_GATEWAY, "Error while contacting lambda function.", t);
+      }
+    }
+    if (t instanceof HttpRequestTimeoutException || t instanceof SdkClientException && t.getCause() instanceof HttpRequestTimeoutException
+        || t instanceof ApiCallTimeoutException)
       return new HttpException(GATEWAY_TIMEOUT, "The connector did not respond in time.", t);
-    if (t instanceof AbortedException) {
+    if (t instanceof AbortedException || t instanceof CancellationException) {
       String msg = "Lambda function call was aborted.";
       logger.warn(marker, "Lambda function call was aborted.", t);
       return new HttpException(CLIENT_CLOSED_REQUEST, msg, t);
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.xyz.hub.connectors;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of the latencies of the most recent calls to a remote function and provides their high percentiles.
+ * The percentiles are re-calculated periodically rather than on each call to keep the overhead of recording low.
+ */
+class LatencyTracker {
+
+  private static final int WINDOW_SIZE = 512;
+  private static final int MIN_SAMPLES = 50;
+  private static final int RECALCULATION_INTERVAL = 32;
+
+  private final long[] latencies = new long[WINDOW_SIZE];
+  private long count;
+  private volatile long p95 = -1;
+  private volatile long p99 = -1;
+
+  /**
+   * Records the latency of a successful call.
+   *
+   * @param latency The latency in milliseconds
+   */
+  synchronized void record(long latency) {
+    latencies[(int) (count++ % WINDOW_SIZE)] = latency;
+    if (count >= MIN_SAMPLES && count % RECALCULATION_INTERVAL == 0)
+      recalculate();
+  }
+
+  private void recalculate() {
+    long[] sorted = Arrays.copyOf(latencies, (int) Math.min(count, WINDOW_SIZE));
+    Arrays.sort(sorted);
+    p95 = percentile(sorted, 0.95);
+    p99 = percentile(sorted, 0.99);
+  }
+
+  private static long percentile(long[] sorted, double quantile) {
+    return sorted[(int) Math.ceil(quantile * sorted.length) - 1];
+  }
+
+  /**
+   * @return The 95th percentile of the recent latencies in milliseconds or -1 if not enough calls have been recorded yet
+   */
+  long getP95() {
+    return p95;
+  }
+
+  /**
+   * @return The 99th percentile of the recent latencies in milliseconds or -1 if not enough calls have been recorded yet
+   */
+  long getP99() {
+    return p99;
+  }
+}
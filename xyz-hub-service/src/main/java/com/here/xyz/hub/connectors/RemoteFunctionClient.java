@@ -21,17 +21,22 @@ package com.here.xyz.hub.connectors;
 
 import static com.here.xyz.hub.util.AtomicUtils.compareAndDecrement;
 import static com.here.xyz.hub.util.AtomicUtils.compareAndIncrementUpTo;
+import static io.netty.handler.codec.http.HttpResponseStatus.GATEWAY_TIMEOUT;
+import static io.netty.handler.codec.http.HttpResponseStatus.SERVICE_UNAVAILABLE;
+import static io.netty.handler.codec.http.HttpResponseStatus.TOO_MANY_REQUESTS;
 import static com.here.xyz.util.service.rest.TooManyRequestsException.ThrottlingReason.QUOTA;
 import static com.here.xyz.util.service.rest.TooManyRequestsException.ThrottlingReason.STORAGE_QUEUE_FULL;
 
 import com.google.common.io.ByteStreams;
 import com.here.xyz.Payload;
+import com.here.xyz.hub.Config;
 import com.here.xyz.hub.Service;
 import com.here.xyz.hub.connectors.RpcClient.RpcContext;
 import com.here.xyz.hub.connectors.models.Connector;
 import com.here.xyz.hub.util.ByteSizeAware;
 import com.here.xyz.hub.util.LimitedQueue;
 import com.here.xyz.util.service.Core;
+import com.here.xyz.util.service.HttpException;
 import com.here.xyz.util.service.rest.TooManyRequestsException;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
@@ -87,6 +92,7 @@ public abstract class RemoteFunctionClient {
   private final AtomicLong lastThroughputMeasurement = new AtomicLong(Core.currentTimeMillis());
   private final LimitedQueue<FunctionCall> queue = new LimitedQueue<>(0, 0);
   private final AtomicInteger usedConnections = new AtomicInteger(0);
+  private final AdaptiveConcurrencyLimit concurrencyLimit = new AdaptiveConcurrencyLimit(MIN_CONNECTIONS_PER_NODE, Integer.MAX_VALUE);
   private static final ConcurrentHashMap<String, AtomicInteger> usedConnectionsByRequester =  new ConcurrentHashMap<>();
 
 //  /**
@@ -165,19 +171,20 @@ public abstract class RemoteFunctionClient {
       }
       callback.handle(Future.succeededFuture(r.result()));
     });
-
+    fc.idempotent = context != null && context.isIdempotent();
+    fc.rpcContext = context;
 
     if (!hasPriority){
       if(checkRequesterThrottling(marker, callback, context)) {
         return fc;
       }
-      if (!compareAndIncrementUpTo(getWeightedMaxConnections(), usedConnections)) {
+      if (!compareAndIncrementUpTo(getConnectionLimit(), usedConnections)) {
         enqueue(fc);
         return fc;
       }
     }
 
-    _invoke(fc, context);
+    _invoke(fc);
     return fc;
   }
 
@@ -281,6 +288,7 @@ public abstract class RemoteFunctionClient {
     final int oldMinConnections = getMinConnections();
     final int oldMaxConnections = getMaxConnections();
     this.connectorConfig = connectorConfig;
+    concurrencyLimit.setMaxLimit(getMaxConnections());
     globalMinConnectionSum.add(getMinConnections() - oldMinConnections);
     globalMaxConnectionSum.add(getMaxConnections() - oldMaxConnections);
     adjustQueueByteSizes();
@@ -354,21 +362,22 @@ public abstract class RemoteFunctionClient {
     return Collections.unmodifiableSet(clientInstances);
   }
 
-  private void _invoke(final FunctionCall fc, RpcClient.RpcContext context) {
-    //long start = System.nanoTime();
+  private void _invoke(final FunctionCall fc) {
+    final long start = Core.currentTimeMillis();
     invoke(fc, r -> {
-      //long end = System.nanoTime();
-      //TODO: Activate performance calculation once it's implemented completely
-      //recalculatePerformance(end - start, TimeUnit.NANOSECONDS);
-      //Look into queue if there is something further to do
-      FunctionCall nextFc = queue.remove();
-      if (nextFc == null && !fc.hasPriority) {
-        if(usedConnections.intValue() > 0) {
+      if (!fc.cancelled)
+        concurrencyLimit.onSample(Core.currentTimeMillis() - start, connectorConfig.getRemoteFunction().getTimeout(),
+            r.failed() && isCongestionSignal(r.cause()), usedConnections.intValue(), Core.currentTimeMillis());
+      //Look into queue if there is something further to do, unless the connection limit was decreased in the meantime
+      FunctionCall nextFc = usedConnections.intValue() <= getConnectionLimit() ? queue.remove() : null;
+      if (!fc.hasPriority) {
+        if (nextFc == null && usedConnections.intValue() > 0)
           usedConnections.getAndDecrement(); //Free the connection only in case it's not needed for the next invocation
-          Optional.ofNullable(context.getRequesterId())
-                  .map(usedConnectionsByRequester::get)
-                  .ifPresent(connectionCount -> compareAndDecrement(0, connectionCount));
-        }
+        //The requester's connection is always freed, as the next invocation might belong to another requester
+        Optional.ofNullable(fc.rpcContext)
+                .map(RpcContext::getRequesterId)
+                .map(usedConnectionsByRequester::get)
+                .ifPresent(connectionCount -> compareAndDecrement(0, connectionCount));
       }
       try {
         if (!fc.cancelled)
@@ -379,11 +388,19 @@ public abstract class RemoteFunctionClient {
       }
       //In case there has been an enqueued element invoke it
       if (nextFc != null) {
-        _invoke(nextFc, context);
+        _invoke(nextFc);
       }
     });
   }
 
+  /**
+   * Checks whether the failure of a request indicates that the remote function is overloaded.
+   */
+  private static boolean isCongestionSignal(Throwable t) {
+    return t instanceof HttpException e && (e.status == GATEWAY_TIMEOUT || e.status == TOO_MANY_REQUESTS
+        || e.status == SERVICE_UNAVAILABLE);
+  }
+
 //  private void recalculatePerformance(long executionTime, TimeUnit timeUnit) {
 //    recalculateSARET(executionTime, timeUnit);
 //    recalculateRateOfService();
@@ -422,10 +439,58 @@ public abstract class RemoteFunctionClient {
     }
   }
 
+  /**
+   * Returns the number of connections which may currently be used by this client.
+   * If {@link Config#REMOTE_FUNCTION_ADAPTIVE_CONCURRENCY} is activated, the weighted maximum is further limited by the adaptive
+   * concurrency limit, which is derived from the measured latencies and errors of the remote function.
+   */
+  public int getConnectionLimit() {
+    final int weightedMaxConnections = getWeightedMaxConnections();
+    return Service.configuration.REMOTE_FUNCTION_ADAPTIVE_CONCURRENCY
+        ? Math.min(weightedMaxConnections, concurrencyLimit.get())
+        : weightedMaxConnections;
+  }
+
+  public int getConcurrencyLimit() {
+    return concurrencyLimit.get();
+  }
+
   public int getUsedConnections() {
     return usedConnections.intValue();
   }
 
+  /**
+   * Returns whether background requests may be submitted without competing with the requests of users.
+   * That is the case if no request is waiting in the queue and less than the specified share of the connection limit is in use.
+   *
+   * @param maxUtilization The maximum share of the connection limit which may be in use
+   */
+  public boolean hasSpareCapacity(double maxUtilization) {
+    return queue.getSize() == 0 && usedConnections.intValue() < getConnectionLimit() * maxUtilization;
+  }
+
+  /**
+   * Tries to acquire a connection slot for an additional request of a call which is already running (e.g., a hedged request).
+   * Additional requests are never queued, so no slot is acquired if the connection limit is reached or if calls are waiting in the queue.
+   *
+   * @return true if a slot was acquired, it has to be freed again using {@link #releaseConnection()}
+   */
+  protected boolean tryAcquireConnection() {
+    return queue.getSize() == 0 && compareAndIncrementUpTo(getConnectionLimit(), usedConnections);
+  }
+
+  /**
+   * Frees a connection slot which was acquired using {@link #tryAcquireConnection()}.
+   * If a call is waiting in the queue in the meantime, the slot is handed over to it.
+   */
+  protected void releaseConnection() {
+    FunctionCall nextFc = usedConnections.intValue() <= getConnectionLimit() ? queue.remove() : null;
+    if (nextFc != null)
+      _invoke(nextFc);
+    else
+      compareAndDecrement(0, usedConnections);
+  }
+
   public ConcurrentHashMap<String, AtomicInteger> getUsedConnectionsByRequester() {
     return usedConnectionsByRequester;
   }
@@ -482,6 +547,11 @@ public abstract class RemoteFunctionClient {
     final boolean fireAndForget;
     final boolean hasPriority;
     final Context context = Core.vertx.getOrCreateContext();
+    boolean idempotent;
+    /**
+     * The context of the RPC this call belongs to, it's used to free the requester's connection once the call completed
+     */
+    RpcContext rpcContext;
 
     private final Handler<AsyncResult<byte[]>> callback;
     private Runnable cancelHandler;
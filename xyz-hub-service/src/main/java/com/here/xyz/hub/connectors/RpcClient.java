@@ -42,11 +42,15 @@ import com.here.xyz.XyzSerializable;
 import com.here.xyz.connectors.RelocationClient;
 import com.here.xyz.events.Event;
 import com.here.xyz.events.GetFeaturesByTileEvent;
+import com.here.xyz.events.GetStatisticsEvent;
+import com.here.xyz.events.LoadFeaturesEvent;
 import com.here.xyz.events.RelocatedEvent;
+import com.here.xyz.events.SelectiveEvent;
 import com.here.xyz.hub.Service;
 import com.here.xyz.hub.connectors.RemoteFunctionClient.FunctionCall;
 import com.here.xyz.hub.connectors.models.Connector;
 import com.here.xyz.hub.connectors.models.Connector.RemoteFunctionConfig;
+import com.here.xyz.hub.connectors.models.Connector.RemoteFunctionConfig.AWSLambda;
 import com.here.xyz.hub.connectors.models.Connector.RemoteFunctionConfig.Http;
 import com.here.xyz.hub.connectors.models.Space;
 import com.here.xyz.hub.rest.Api;
@@ -285,6 +289,7 @@ public class RpcClient {
             preview(eventJson, 4092));
 
     context.setRequesterId(requesterId);
+    context.setIdempotent(event instanceof SelectiveEvent || event instanceof LoadFeaturesEvent || event instanceof GetStatisticsEvent);
 
     invokeWithRelocation(marker, context, eventBytes, false, hasPriority, bytesResult -> {
       if (functionClient == null) {
@@ -317,6 +322,9 @@ public class RpcClient {
   private static void injectConnectorParams(Event event, Connector connector) {
     Map<String, Object> connectorParams = new HashMap<>(connector.params);
     connectorParams.put("connectorId", connector.id);
+    //Inform the connector that its response doesn't have to be relocated as it will be streamed
+    if (connector.getRemoteFunction() instanceof AWSLambda lambda && lambda.responseStreaming)
+      connectorParams.put("responseStreaming", true);
     event.setConnectorParams(connectorParams);
   }
 
@@ -633,6 +641,7 @@ public class RpcClient {
     private int requestSize = -1;
     private int responseSize = -1;
     private String requesterId;
+    private boolean idempotent;
     private volatile boolean cancelled = false;
 
     private final Connector connector;
@@ -647,6 +656,17 @@ public class RpcClient {
       functionCall.cancel(requesterId);
     }
 
+    /**
+     * @return Whether the request is not modifying any data and thus can safely be sent more than once
+     */
+    public boolean isIdempotent() {
+      return idempotent;
+    }
+
+    public void setIdempotent(boolean idempotent) {
+      this.idempotent = idempotent;
+    }
+
     public int getRequestSize() {
       return requestSize;
     }
@@ -256,6 +256,15 @@ public class Connector extends com.here.xyz.models.hub.Connector {
        */
       public String roleARN;
 
+      /**
+       * EXPERIMENTAL: Whether the lambda function should be invoked with response streaming.
+       * Streamed responses are transferred in chunks and may be larger than the payload limit of synchronous invocations,
+       * so that large responses don't have to be relocated. That only applies if the connector is deployed with the
+       * StreamingLambdaRuntime, the managed Java runtimes still buffer the response.
+       */
+      @JsonInclude(Include.NON_DEFAULT)
+      public boolean responseStreaming;
+
       public String lambdaARN() {
         if (!lambdaARN.contains("$version"))
           return lambdaARN;
@@ -275,12 +284,13 @@ public class Connector extends com.here.xyz.models.hub.Connector {
         if (!super.equals(o)) return false;
         AWSLambda awsLambda = (AWSLambda) o;
         return lambdaARN.equals(awsLambda.lambdaARN) &&
-            Objects.equals(roleARN, awsLambda.roleARN);
+            Objects.equals(roleARN, awsLambda.roleARN) &&
+            responseStreaming == awsLambda.responseStreaming;
       }
 
       @Override
       public int hashCode() {
-        return Objects.hash(lambdaARN, roleARN);
+        return Objects.hash(lambdaARN, roleARN, responseStreaming);
       }
     }
 
@@ -314,18 +324,35 @@ public class Connector extends com.here.xyz.models.hub.Connector {
        */
       public URL url;
 
+      /**
+       * Whether the endpoint should be called using HTTP/2 over cleartext (h2c) with prior knowledge.
+       * The requests to the connector are multiplexed over the connections of a connection pool which is dedicated to the connector.
+       */
+      @JsonInclude(Include.NON_DEFAULT)
+      public boolean http2;
+
+      /**
+       * Whether the request timeout should be adapted to the observed latencies of the endpoint.
+       * If activated, the timeout gets reduced based on the 99th percentile of the recent latencies and a second (hedged) request is
+       * sent for read requests which take longer than the 95th percentile. The first response of both requests is used.
+       * Hedged requests need a free connection slot and are sent for at most 5% of the calls.
+       */
+      @JsonInclude(Include.NON_DEFAULT)
+      public boolean adaptiveTimeouts;
+
       @Override
       public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Http)) return false;
         if (!super.equals(o)) return false;
         Http http = (Http) o;
-        return metricsActive == http.metricsActive && url.toString().equals(http.url.toString());
+        return metricsActive == http.metricsActive && url.toString().equals(http.url.toString()) && http2 == http.http2
+            && adaptiveTimeouts == http.adaptiveTimeouts;
       }
 
       @Override
       public int hashCode() {
-        return Objects.hash(url, metricsActive);
+        return Objects.hash(url, metricsActive, http2, adaptiveTimeouts);
       }
 
       public boolean metricsActive = false;
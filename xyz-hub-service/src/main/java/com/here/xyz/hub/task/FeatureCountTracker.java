@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.task;
+
+import com.here.xyz.util.service.Core;
+import io.vertx.core.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import net.jodah.expiringmap.ExpirationPolicy;
+import net.jodah.expiringmap.ExpiringMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Tracks the approximate number of features per space for the enforcement of the feature quota.
+ * The count of a space is fetched from the storage once and is kept up to date afterwards by applying the numbers of inserted & deleted
+ * features of all writes being performed through this service instance.
+ * To also reflect the writes of other service instances, the count is refreshed from the storage regularly. Once the refresh interval
+ * passed, the current count is still returned immediately while the refresh takes place in the background.
+ * So only the very first quota check for a space has to wait for the storage.
+ */
+class FeatureCountTracker {
+
+  private static final Logger logger = LogManager.getLogger();
+  private static final long RELAXED_REFRESH_INTERVAL = 30_000; //30s
+  private static final long STRICT_REFRESH_INTERVAL = 500;
+  /**
+   * If the remaining number of features until the quota is reached falls below this value, the count is refreshed more often.
+   */
+  private static final long STRICT_REFRESH_THRESHOLD = 100_000;
+
+  private static final ExpiringMap<String, TrackedCount> counts = ExpiringMap.builder()
+      .maxSize(10_000)
+      .expirationPolicy(ExpirationPolicy.ACCESSED)
+      .expiration(1, TimeUnit.HOURS)
+      .build();
+
+  private FeatureCountTracker() {}
+
+  /**
+   * Returns the approximate count of features for the specified space.
+   *
+   * @param spaceId The ID of the space
+   * @param maxFeaturesPerSpace The feature quota of the space, used to decide how often the count gets refreshed
+   * @param countFetcher Fetches the count of features from the storage
+   * @return A future which is already completed, unless the count of the space is not known yet
+   */
+  static Future<Long> getCount(String spaceId, long maxFeaturesPerSpace, Supplier<Future<Long>> countFetcher) {
+    return counts.computeIfAbsent(spaceId, k -> new TrackedCount()).get(spaceId, maxFeaturesPerSpace, countFetcher);
+  }
+
+  /**
+   * Applies the result of a write to the tracked count of the specified space (if it is tracked at all).
+   *
+   * @param spaceId The ID of the space which was written to
+   * @param inserted The number of inserted features
+   * @param deleted The number of deleted features
+   */
+  static void applyWrite(String spaceId, long inserted, long deleted) {
+    if (inserted == deleted)
+      return;
+    TrackedCount trackedCount = counts.get(spaceId);
+    if (trackedCount != null)
+      trackedCount.add(inserted - deleted);
+  }
+
+  private static class TrackedCount {
+
+    private long count;
+    private long refreshedAt;
+    /**
+     * The delta of all writes which have been applied while a refresh was in progress
+     */
+    private long deltaSinceRefresh;
+    private Future<Long> inflightRefresh;
+
+    synchronized Future<Long> get(String spaceId, long maxFeaturesPerSpace, Supplier<Future<Long>> countFetcher) {
+      if (refreshedAt == 0)
+        //The count was never fetched successfully, so the caller has to wait for it
+        return refresh(spaceId, countFetcher);
+
+      long refreshInterval = maxFeaturesPerSpace - count > STRICT_REFRESH_THRESHOLD ? RELAXED_REFRESH_INTERVAL : STRICT_REFRESH_INTERVAL;
+      if (Core.currentTimeMillis() - refreshedAt > refreshInterval)
+        refresh(spaceId, countFetcher);
+      return Future.succeededFuture(count);
+    }
+
+    synchronized void add(long delta) {
+      count = Math.max(0, count + delta);
+      if (inflightRefresh != null)
+        deltaSinceRefresh += delta;
+    }
+
+    private Future<Long> refresh(String spaceId, Supplier<Future<Long>> countFetcher) {
+      if (inflightRefresh != null)
+        return inflightRefresh;
+
+      deltaSinceRefresh = 0;
+      Future<Long> refresh = countFetcher.get()
+          .map(this::onRefreshed)
+          .onFailure(t -> onRefreshFailed(spaceId, t));
+      //The fetcher might have completed synchronously already
+      if (!refresh.isComplete())
+        inflightRefresh = refresh;
+      return refresh;
+    }
+
+    private synchronized long onRefreshed(long fetchedCount) {
+      /*
+      The fetched count might not reflect the writes which took place during the refresh yet.
+      Rather over-estimate the count than to allow exceeding the quota.
+       */
+      count = Math.max(0, fetchedCount + deltaSinceRefresh);
+      refreshedAt = Core.currentTimeMillis();
+      inflightRefresh = null;
+      return count;
+    }
+
+    private synchronized void onRefreshFailed(String spaceId, Throwable t) {
+      inflightRefresh = null;
+      if (refreshedAt != 0)
+        logger.warn("Unable to refresh the feature count of space {}. Keeping the previous count {}.", spaceId, count, t);
+    }
+  }
+}
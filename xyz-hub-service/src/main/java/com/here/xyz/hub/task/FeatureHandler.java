@@ -28,7 +28,6 @@ import static io.netty.handler.codec.http.HttpResponseStatus.INTERNAL_SERVER_ERR
 import static io.netty.handler.codec.http.HttpResponseStatus.METHOD_NOT_ALLOWED;
 import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
 import static io.netty.handler.codec.http.HttpResponseStatus.PRECONDITION_REQUIRED;
-import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import com.here.xyz.events.ContextAwareEvent;
 import com.here.xyz.events.ContextAwareEvent.SpaceContext;
@@ -37,6 +36,7 @@ import com.here.xyz.events.GetStatisticsEvent;
 import com.here.xyz.events.WriteFeaturesEvent;
 import com.here.xyz.events.WriteFeaturesEvent.Modification;
 import com.here.xyz.hub.Service;
+import com.here.xyz.hub.cache.TileCacheIndex;
 import com.here.xyz.hub.connectors.RpcClient;
 import com.here.xyz.hub.connectors.RpcClient.RpcContext;
 import com.here.xyz.hub.connectors.models.Connector;
@@ -63,19 +63,12 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.LongAdder;
-import net.jodah.expiringmap.ExpirationPolicy;
-import net.jodah.expiringmap.ExpiringMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
 
 public class FeatureHandler {
   private static final Logger logger = LogManager.getLogger();
-  private static final ExpiringMap<String, Long> countCache = ExpiringMap.builder()
-      .maxSize(1024)
-      .variableExpiration()
-      .expirationPolicy(ExpirationPolicy.CREATED)
-      .build();
   /**
    * Contains the number of all in-flight requests for each storage ID.
    */
@@ -102,8 +95,12 @@ public class FeatureHandler {
           .execute(marker, event, ar -> {
             if (ar.failed())
               promise.fail(ar.cause());
-            else if (ar.result() instanceof FeatureCollection featureCollection)
+            else if (ar.result() instanceof FeatureCollection featureCollection) {
+              applyWriteToFeatureCount(space.getId(), featureCollection);
+              //The previous geometries of the modified features are not known here, so all cached tiles of the space are affected
+              TileCacheIndex.evictAll(space.getId());
               promise.complete(featureCollection);
+            }
             else
               promise.fail(new RuntimeException("Received unexpected response from storage connector: " + ar.result().getClass().getSimpleName()));
           });
@@ -164,10 +161,11 @@ public class FeatureHandler {
 
   public static Future<Long> getCountForSpace(Marker marker, Space space, SpaceContext spaceContext, String requesterId,
       long maxFeaturesPerSpace) {
-    Long cachedCount = countCache.get(space.getId());
-    if (cachedCount != null)
-      return Future.succeededFuture(cachedCount);
+    return FeatureCountTracker.getCount(space.getId(), maxFeaturesPerSpace,
+        () -> fetchCountForSpace(marker, space, spaceContext, requesterId));
+  }
 
+  private static Future<Long> fetchCountForSpace(Marker marker, Space space, SpaceContext spaceContext, String requesterId) {
     GetStatisticsEvent countEvent = new GetStatisticsEvent()
         .withSpace(space.getId())
         .withContext(spaceContext);
@@ -180,17 +178,11 @@ public class FeatureHandler {
               promise.fail(eventHandler.cause());
               return;
             }
-            long count;
             XyzResponse response = eventHandler.result();
             if (response instanceof StatisticsResponse)
-              count = ((StatisticsResponse) response).getCount().getValue();
-            else {
+              promise.complete(((StatisticsResponse) response).getCount().getValue());
+            else
               promise.fail(Api.responseToHttpException(response));
-              return;
-            }
-            long ttl = maxFeaturesPerSpace - count > 100_000 ? 30_000 : 500;
-            countCache.put(space.getId(), count, ttl, MILLISECONDS);
-            promise.complete(count);
           }, space, requesterId);
       return promise.future();
     }
@@ -199,6 +191,15 @@ public class FeatureHandler {
     }
   }
 
+  /**
+   * Keeps the tracked feature count of the space in sync with the features which have been inserted / deleted by a write.
+   */
+  static void applyWriteToFeatureCount(String spaceId, FeatureCollection writeResult) {
+    FeatureCountTracker.applyWrite(spaceId,
+        writeResult.getInserted() == null ? 0 : writeResult.getInserted().size(),
+        writeResult.getDeleted() == null ? 0 : writeResult.getDeleted().size());
+  }
+
   public static void checkFeaturesPerSpaceQuota(String spaceId, long maxFeaturesPerSpace, long currentSpaceCount, boolean isDeleteOnly)
       throws HttpException {
     if (!isDeleteOnly && currentSpaceCount >= maxFeaturesPerSpace)
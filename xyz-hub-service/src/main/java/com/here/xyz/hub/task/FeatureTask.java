@@ -55,6 +55,7 @@ import com.here.xyz.hub.task.FeatureTaskHandler.InvalidStorageException;
 import com.here.xyz.hub.task.TaskPipeline.C1;
 import com.here.xyz.hub.task.TaskPipeline.C2;
 import com.here.xyz.hub.task.TaskPipeline.Callback;
+import com.here.xyz.models.geojson.coordinates.BBox;
 import com.here.xyz.models.geojson.implementation.Feature;
 import com.here.xyz.models.geojson.implementation.FeatureCollection;
 import com.here.xyz.models.geojson.implementation.Geometry;
@@ -149,18 +150,7 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
       return cacheKey;
 
     try {
-      //noinspection UnstableApiUsage
-      Hasher hasher = Hashing.murmur3_128().newHasher()
-          .putString(getEvent().getCacheString(), Charset.defaultCharset())
-          .putString(responseType.toString(), Charset.defaultCharset());
-
-      if (!readOnlyAccess) {
-        hasher.putLong(space.getContentUpdatedAt());
-        if (space.getExtension() != null && extendedSpaces != null)
-          extendedSpaces.forEach(extendedSpace -> hasher.putLong(extendedSpace.getContentUpdatedAt()));
-      }
-
-      return cacheKey = hasher.hash().toString();
+      return cacheKey = buildCacheKey(getEvent(), responseType, readOnlyAccess, space, extendedSpaces);
     }
     catch (JsonProcessingException e) {
       logger.error(getMarker(), "Error creating cache key.", e);
@@ -168,6 +158,27 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
     }
   }
 
+  /**
+   * Calculates the cache key for the response of an event.
+   * Unless the access is read-only, the key contains the content-update timestamps of the space and all spaces it extends, so that
+   * modified content never gets answered from outdated cache entries.
+   */
+  static String buildCacheKey(Event event, ApiResponseType responseType, boolean readOnlyAccess, Space space,
+      Collection<Space> extendedSpaces) throws JsonProcessingException {
+    //noinspection UnstableApiUsage
+    Hasher hasher = Hashing.murmur3_128().newHasher()
+        .putString(event.getCacheString(), Charset.defaultCharset())
+        .putString(responseType.toString(), Charset.defaultCharset());
+
+    if (!readOnlyAccess) {
+      hasher.putLong(space.getContentUpdatedAt());
+      if (space.getExtension() != null && extendedSpaces != null)
+        extendedSpaces.forEach(extendedSpace -> hasher.putLong(extendedSpace.getContentUpdatedAt()));
+    }
+
+    return hasher.hash().toString();
+  }
+
   /**
    * The hook which will be called once all pre-processors have been called. The hook will get the pre-processed event as parameter. The
    * hook will *not* be called if no pre-processors have been defined for the space. The hook may be overridden in sub-classes.
@@ -413,9 +424,16 @@ public abstract class FeatureTask<T extends Event<?>, X extends FeatureTask<T, ?
      */
     TransformationContext transformationContext;
 
+    /**
+     * The (margin-extended) bounding box of the requested tile.
+     * It's used to index the cached response by its area, see {@link com.here.xyz.hub.cache.TileCacheIndex}.
+     */
+    final BBox tileBBox;
+
     public TileQuery(GetFeaturesByTileEvent event, RoutingContext context, ApiResponseType apiResponseTypeType, boolean skipCache) {
       super(event, context, apiResponseTypeType, skipCache);
       transformationContext = new TransformationContext(event.getX(), event.getY(), event.getLevel(), event.getMargin());
+      tileBBox = event.getBbox();
     }
 
     @Override
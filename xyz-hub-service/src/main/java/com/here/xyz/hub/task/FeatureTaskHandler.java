@@ -38,6 +38,7 @@ import static io.netty.handler.codec.http.HttpResponseStatus.INTERNAL_SERVER_ERR
 import static io.netty.handler.codec.http.HttpResponseStatus.METHOD_NOT_ALLOWED;
 import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
 import static io.netty.handler.codec.http.HttpResponseStatus.PRECONDITION_REQUIRED;
+import static io.netty.handler.codec.http.HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.here.xyz.Payload;
@@ -56,9 +57,11 @@ import com.here.xyz.events.ModifyFeaturesEvent;
 import com.here.xyz.events.ModifySpaceEvent;
 import com.here.xyz.events.ModifySubscriptionEvent;
 import com.here.xyz.events.SelectiveEvent;
+import com.here.xyz.hub.Config;
 import com.here.xyz.hub.Service;
 import com.here.xyz.hub.XYZHubRESTVerticle;
 import com.here.xyz.hub.cache.CacheClient;
+import com.here.xyz.hub.cache.TileCacheIndex;
 import com.here.xyz.hub.config.TagConfigClient;
 import com.here.xyz.hub.connectors.RpcClient;
 import com.here.xyz.hub.connectors.RpcClient.RpcContext;
@@ -80,9 +83,11 @@ import com.here.xyz.hub.task.ModifyFeatureOp.FeatureEntry;
 import com.here.xyz.hub.task.ModifyOp.Entry;
 import com.here.xyz.hub.task.ModifyOp.ModifyOpError;
 import com.here.xyz.hub.task.TaskPipeline.Callback;
+import com.here.xyz.hub.util.CoalescingTimerWheel;
 import com.here.xyz.hub.util.geo.MapBoxVectorTileBuilder;
 import com.here.xyz.hub.util.geo.MapBoxVectorTileFlattenedBuilder;
 import com.here.xyz.models.geojson.WebMercatorTile;
+import com.here.xyz.models.geojson.coordinates.BBox;
 import com.here.xyz.models.geojson.exceptions.InvalidGeometryException;
 import com.here.xyz.models.geojson.implementation.Feature;
 import com.here.xyz.models.geojson.implementation.FeatureCollection;
@@ -131,6 +136,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import net.jodah.expiringmap.ExpirationPolicy;
@@ -146,18 +152,27 @@ public class FeatureTaskHandler {
 
   private static final Logger logger = LogManager.getLogger();
 
-  private static final ExpiringMap<String, Long> countCache = ExpiringMap.builder()
-      .maxSize(1024)
-      .variableExpiration()
-      .expirationPolicy(ExpirationPolicy.CREATED)
-      .build();
   private static final byte JSON_VALUE = 1;
   private static final byte BINARY_VALUE = 2;
   private static SnsAsyncClient snsClient;
-  private static final ConcurrentHashMap<String, Long> contentModificationTimers = new ConcurrentHashMap<>();
-  private static final ConcurrentHashMap<String, Long> contentModificationAdminTimers = new ConcurrentHashMap<>();
   private static final long CONTENT_MODIFICATION_INTERVAL = 1_000; //1s
   private static final long CONTENT_MODIFICATION_ADMIN_INTERVAL = 300_000; //5min
+  private static final int CONTENT_MODIFICATION_SLOTS = 10;
+  private static final int CONTENT_MODIFICATION_ADMIN_SLOTS = 60;
+  private static final int CONTENT_MODIFICATION_MAX_PENDING = 100_000;
+  /**
+   * The timer wheels which coalesce the content modification notifications per space. They're driven by one periodic timer each
+   * (instead of one timer per space), see {@link #startContentModificationTimers()}.
+   */
+  private static final CoalescingTimerWheel<String, NotificationContext> contentModificationTimers = new CoalescingTimerWheel<>(
+      CONTENT_MODIFICATION_SLOTS, CONTENT_MODIFICATION_MAX_PENDING, (spaceId, nc) -> {
+        sendContentModifiedNotification(nc, false);
+        //Re-render the hot tiles of the space, as their cached responses became outdated
+        TilePrewarmer.prewarm(spaceId);
+      });
+  private static final CoalescingTimerWheel<String, NotificationContext> contentModificationAdminTimers = new CoalescingTimerWheel<>(
+      CONTENT_MODIFICATION_ADMIN_SLOTS, CONTENT_MODIFICATION_MAX_PENDING, (spaceId, nc) -> sendContentModifiedNotification(nc, true));
+  private static final AtomicBoolean contentModificationTimersStarted = new AtomicBoolean();
 
   /**
    * The latest versions of the space contents as it has been seen on this service node. The key is the space ID and the value is the
@@ -169,6 +184,16 @@ public class FeatureTaskHandler {
    */
   private static final ConcurrentHashMap<String, Long> latestSeenContentVersions = new ConcurrentHashMap<>();
 
+  /**
+   * The combinations of space ID and requester which wrote to the space recently on this service node.
+   * The following reads of these requesters are directed to the primary database to make sure they can read their own writes.
+   * See {@link Config#LAG_AWARE_REPLICA_READS}.
+   */
+  private static final ExpiringMap<String, Boolean> recentWrites = ExpiringMap.builder()
+      .expirationPolicy(ExpirationPolicy.CREATED)
+      .variableExpiration()
+      .build();
+
   /**
    * Contains the amount of all in-flight requests for each storage ID.
    */
@@ -276,8 +301,15 @@ public class FeatureTaskHandler {
               //Set the latest version as it has been seen on this node, after the modification
               if (responseToSend instanceof FeatureCollection && ((FeatureCollection) responseToSend).getVersion() != null)
                 setLatestSeenContentVersion(task.space, ((FeatureCollection) responseToSend).getVersion());
+              if (Service.configuration.LAG_AWARE_REPLICA_READS)
+                recentWrites.put(recentWriteKey(task), true, Service.configuration.READ_YOUR_WRITES_WINDOW, TimeUnit.SECONDS);
+              //Keep the tracked feature count in sync for the quota checks
+              if (responseToSend instanceof FeatureCollection)
+                FeatureHandler.applyWriteToFeatureCount(task.space.getId(), (FeatureCollection) responseToSend);
               //Send an additional ContentModifiedNotification to all components which are interested
               scheduleContentModifiedNotification(task);
+              //Evict the cached tiles which are affected by the modification
+              evictModifiedTiles(task);
             }
           });
         }, task.space, task.getRequesterId());
@@ -377,10 +409,16 @@ public class FeatureTaskHandler {
         callback.call(task);
         return;
       }
+      if (task instanceof TileQuery)
+        TilePrewarmer.recordAccess((TileQuery) task);
     }
     else {
-      //If the request should is not cacheable, it should always use the primary data source of the connector.
-      task.getEvent().setPreferPrimaryDataSource(true);
+      /*
+      If the request is not cacheable, it should use the primary data source of the connector.
+      If lag aware replica reads are active, that is only necessary if the requester wrote to the space recently.
+       */
+      if (!Service.configuration.LAG_AWARE_REPLICA_READS || recentWrites.containsKey(recentWriteKey(task)))
+        task.getEvent().setPreferPrimaryDataSource(true);
       callback.call(task);
       return;
     }
@@ -434,7 +472,6 @@ public class FeatureTaskHandler {
       return;
 
     String cacheKey = null;
-    byte[] cacheValue = null;
     if (cacheProfile.serviceTTL > 0 || cacheProfile.staticTTL > 0) {
       cacheKey = task.getCacheKey();
       if (cacheKey == null) {
@@ -442,16 +479,59 @@ public class FeatureTaskHandler {
         logger.error(task.getMarker(), npe);
         throw new NullPointerException(npe);
       }
-      cacheValue = transformCacheValue(response);
     }
+    writeCacheEntry(task.getMarker(), cacheProfile, cacheKey, response, task.space.getId(),
+        task instanceof TileQuery ? ((TileQuery) task).tileBBox : null);
+  }
+
+  /**
+   * Writes a response to the cache being defined by the cache profile.
+   *
+   * @param tileBBox The bounding box of the tile, if the response is a tile response, otherwise null
+   */
+  static void writeCacheEntry(Marker marker, CacheProfile cacheProfile, String cacheKey, XyzResponse response, String spaceId,
+      BBox tileBBox) {
     //Prefer the static cache over the volatile cache for values which are immutable
     if (cacheProfile.staticTTL > 0) {
-      logger.debug(task.getMarker(), "Writing entry with cache key {} to static cache", cacheKey);
-      Service.staticCacheClient.set(cacheKey, cacheValue, TimeUnit.MILLISECONDS.toSeconds(cacheProfile.staticTTL));
+      logger.debug(marker, "Writing entry with cache key {} to static cache", cacheKey);
+      Service.staticCacheClient.set(cacheKey, transformCacheValue(response), TimeUnit.MILLISECONDS.toSeconds(cacheProfile.staticTTL));
     }
     else if (cacheProfile.serviceTTL > 0) {
-      logger.debug(task.getMarker(), "Writing entry with cache key {} to volatile cache", cacheKey);
-      Service.volatileCacheClient.set(cacheKey, cacheValue, TimeUnit.MILLISECONDS.toSeconds(cacheProfile.serviceTTL));
+      logger.debug(marker, "Writing entry with cache key {} to volatile cache", cacheKey);
+      Service.volatileCacheClient.set(cacheKey, transformCacheValue(response), TimeUnit.MILLISECONDS.toSeconds(cacheProfile.serviceTTL));
+      //Index tile responses by their area, so they can be evicted selectively once features within that area get modified
+      if (tileBBox != null)
+        TileCacheIndex.register(spaceId, tileBBox, cacheKey);
+    }
+  }
+
+  /**
+   * Evicts all cached tiles of the space, which might contain one of the features modified by the provided task, from all levels of the
+   * volatile cache of all service nodes.
+   */
+  private static <T extends FeatureTask> void evictModifiedTiles(T task) {
+    if (!(task instanceof ConditionalOperation) || ((ConditionalOperation) task).modifyOp == null)
+      return;
+    try {
+      List<BBox> modifiedBBoxes = new ArrayList<>();
+      for (FeatureEntry entry : ((ConditionalOperation) task).modifyOp.entries) {
+        if (!entry.isModified)
+          continue;
+        addGeometryBBox(entry.head, modifiedBBoxes);
+        addGeometryBBox(entry.result, modifiedBBoxes);
+      }
+      TileCacheIndex.evictAffected(task.space.getId(), modifiedBBoxes);
+    }
+    catch (Exception e) {
+      logger.warn(task.getMarker(), "Error evicting the modified tiles from the cache.", e);
+    }
+  }
+
+  private static void addGeometryBBox(Feature feature, List<BBox> bboxes) {
+    if (feature != null && feature.getGeometry() != null) {
+      BBox bbox = feature.getGeometry().calculateBBox();
+      if (bbox != null)
+        bboxes.add(bbox);
     }
   }
 
@@ -553,6 +633,10 @@ public class FeatureTaskHandler {
     }
   }
 
+  private static String recentWriteKey(FeatureTask task) {
+    return task.space.getId() + ":" + task.getRequesterId();
+  }
+
   static void setLatestSeenContentVersion(Space space, long version) {
     if (version > -1)
       latestSeenContentVersions.compute(space.getId(), (spaceId, currentVersion) -> Math.max(currentVersion != null ? currentVersion : 0L,
@@ -561,39 +645,49 @@ public class FeatureTaskHandler {
 
   /**
    * Schedules the sending of a {@link ContentModifiedNotification} to the modification SNS topic and all listeners registered for it.
-   * If some notification was already scheduled in the last time interval (specified by {@link #CONTENT_MODIFICATION_INTERVAL}), no further
-   * notification will be scheduled for the current task.
+   * If some notification is already scheduled for the space in the current time interval (specified by
+   * {@link #CONTENT_MODIFICATION_INTERVAL}), no further notification will be scheduled for the current task.
    * @param task The {@link FeatureTask} which triggers the notification
    * @param <T>
    */
   private static <T extends FeatureTask> void scheduleContentModifiedNotification(T task) {
+    startContentModificationTimers();
     NotificationContext nc = new NotificationContext(task, false);
-    scheduleContentModificationNotificationIfAbsent(nc, contentModificationTimers, CONTENT_MODIFICATION_INTERVAL, false);
-    scheduleContentModificationNotificationIfAbsent(nc, contentModificationAdminTimers, CONTENT_MODIFICATION_ADMIN_INTERVAL, true);
-  }
-
-  private static void scheduleContentModificationNotificationIfAbsent(NotificationContext nc, ConcurrentHashMap<String, Long> timerMap,
-      long interval, boolean adminNotification) {
-    if (!timerMap.containsKey(nc.space.getId())) {
-      //Schedule a new notification
-      long timerId = Core.vertx.setTimer(interval, tId -> {
-        timerMap.remove(nc.space.getId());
-        ContentModifiedNotification cmn = new ContentModifiedNotification().withSpace(nc.space.getId());
-        Long spaceVersion = latestSeenContentVersions.get(nc.space.getId());
-        if (spaceVersion != null) cmn.setSpaceVersion(spaceVersion);
-        if (adminNotification) {
-          //Send it to the modification SNS topic
-          sendSpaceModificationNotification(nc.marker, cmn);
-        }
-        else {
-          //Send the notification to all registered listeners
-          notifyConnectors(nc, ConnectorType.LISTENER, ContentModifiedNotification.class.getSimpleName(), cmn, null);
-        }
-      });
-      //Check whether some other thread also just scheduled a new timer
-      if (timerMap.putIfAbsent(nc.space.getId(), timerId) != null)
-        //Another thread scheduled a new timer in the meantime. Cancelling this one ...
-        Core.vertx.cancelTimer(timerId);
+    scheduleContentModificationNotificationIfAbsent(nc, contentModificationTimers);
+    scheduleContentModificationNotificationIfAbsent(nc, contentModificationAdminTimers);
+  }
+
+  private static void scheduleContentModificationNotificationIfAbsent(NotificationContext nc,
+      CoalescingTimerWheel<String, NotificationContext> timers) {
+    if (!timers.scheduleIfAbsent(nc.space.getId(), nc) && timers.getPendingCount() >= CONTENT_MODIFICATION_MAX_PENDING)
+      logger.warn(nc.marker, "Too many pending content modification notifications. Skipping notification for space {}.",
+          nc.space.getId());
+  }
+
+  private static void startContentModificationTimers() {
+    if (contentModificationTimersStarted.compareAndSet(false, true)) {
+      Core.vertx.setPeriodic(CONTENT_MODIFICATION_INTERVAL / CONTENT_MODIFICATION_SLOTS, tId -> contentModificationTimers.tick());
+      Core.vertx.setPeriodic(CONTENT_MODIFICATION_ADMIN_INTERVAL / CONTENT_MODIFICATION_ADMIN_SLOTS,
+          tId -> contentModificationAdminTimers.tick());
+    }
+  }
+
+  private static void sendContentModifiedNotification(NotificationContext nc, boolean adminNotification) {
+    try {
+      ContentModifiedNotification cmn = new ContentModifiedNotification().withSpace(nc.space.getId());
+      Long spaceVersion = latestSeenContentVersions.get(nc.space.getId());
+      if (spaceVersion != null) cmn.setSpaceVersion(spaceVersion);
+      if (adminNotification) {
+        //Send it to the modification SNS topic
+        sendSpaceModificationNotification(nc.marker, cmn);
+      }
+      else {
+        //Send the notification to all registered listeners
+        notifyConnectors(nc, ConnectorType.LISTENER, ContentModifiedNotification.class.getSimpleName(), cmn, null);
+      }
+    }
+    catch (Exception e) {
+      logger.error(nc.marker, "Error sending content modification notification for space {}.", nc.space.getId(), e);
     }
   }
 
@@ -1069,17 +1163,32 @@ public class FeatureTaskHandler {
    * Parses the body of the request as a FeatureCollection, Feature or a FeatureModificationList object and returns the features as a list.
    */
   private static List<Map<String, Object>> getObjectsAsList(final RoutingContext context) throws HttpException {
-    final Marker logMarker = LogUtil.getMarker(context);
     try {
-      JsonObject json = context.body().asJsonObject();
-      return getJsonObjects(json, context);
+      return getObjectsAsList(context.body().buffer(), LogUtil.getMarker(context));
+    }
+    finally {
+      context.setBody(null);
+      context.data().remove("requestParameters");
+      context.data().remove("parsedParameters");
+    }
+  }
+
+  /**
+   * Parses the provided body as a FeatureCollection, Feature or a FeatureModificationList object and returns the features as a list.
+   * Bodies containing more than {@link Config#MAX_FEATURES_PER_REQUEST} features are rejected with status code 413.
+   */
+  static List<Map<String, Object>> getObjectsAsList(final Buffer body, final Marker logMarker) throws HttpException {
+    List<Map<String, Object>> objects;
+    try {
+      JsonObject json = body != null ? body.toJsonObject() : null;
+      objects = getJsonObjects(json, logMarker);
     }
     catch (DecodeException e) {
       logger.warn(logMarker, "Invalid input encoding.", e);
       try {
         //Some types of exceptions could be avoided by reading the entire string.
-        JsonObject json = new JsonObject(context.body().asString());
-        return getJsonObjects(json, context);
+        JsonObject json = new JsonObject(body.toString());
+        objects = getJsonObjects(json, logMarker);
       }
       catch (DecodeException ex) {
         logger.info(logMarker, "Error in the provided content", ex.getCause());
@@ -1090,14 +1199,17 @@ public class FeatureTaskHandler {
       logger.info(logMarker, "Error in the provided content", e);
       throw new HttpException(BAD_REQUEST, "Cannot read input JSON string.");
     }
-    finally {
-      context.setBody(null);
-      context.data().remove("requestParameters");
-      context.data().remove("parsedParameters");
+
+    final int limit = Service.configuration != null ? Service.configuration.MAX_FEATURES_PER_REQUEST : 0;
+    if (limit > 0 && objects.size() > limit) {
+      logger.info(logMarker, "The request contains {} features, the maximum is {}.", objects.size(), limit);
+      throw new HttpException(REQUEST_ENTITY_TOO_LARGE, "The request contains more than the maximum allowed number of " + limit
+          + " features.");
     }
+    return objects;
   }
 
-  private static List<Map<String, Object>> getJsonObjects(JsonObject json, RoutingContext context) throws HttpException {
+  private static List<Map<String, Object>> getJsonObjects(JsonObject json, Marker logMarker) throws HttpException {
     try {
       if (json == null) {
         throw new HttpException(BAD_REQUEST, "Missing content");
@@ -1119,7 +1231,7 @@ public class FeatureTaskHandler {
       }
     }
     catch (Exception e) {
-      logger.info(LogUtil.getMarker(context), "Error in the provided content", e);
+      logger.info(logMarker, "Error in the provided content", e);
       throw new HttpException(BAD_REQUEST, "Cannot read input JSON string.");
     }
   }
@@ -1335,23 +1447,15 @@ public class FeatureTaskHandler {
       return;
     }
 
-    Long cachedCount = countCache.get(task.space.getId());
-    if (cachedCount != null) {
-      checkFeaturesPerSpaceQuota(task, callback, maxFeaturesPerSpace, cachedCount);
-      return;
-    }
-
-    getCountForSpace(task, countResult -> {
-      if (countResult.failed()) {
-        callback.exception(new Exception(countResult.cause()));
-        return;
-      }
-      // Check the quota
-      Long count = countResult.result();
-      long ttl = (maxFeaturesPerSpace - count > 100_000) ? 60 : 10;
-      countCache.put(task.space.getId(), count, ttl, TimeUnit.SECONDS);
-      checkFeaturesPerSpaceQuota(task, callback, maxFeaturesPerSpace, count);
-    });
+    FeatureCountTracker.getCount(task.space.getId(), maxFeaturesPerSpace, () -> getCountForSpace(task))
+        .onComplete(countResult -> {
+          if (countResult.failed()) {
+            callback.exception(new Exception(countResult.cause()));
+            return;
+          }
+          // Check the quota
+          checkFeaturesPerSpaceQuota(task, callback, maxFeaturesPerSpace, countResult.result());
+        });
   }
 
   static <X extends FeatureTask> void injectSpaceParams(final X task, final Callback<X> callback) {
@@ -1389,31 +1493,29 @@ public class FeatureTaskHandler {
     }
   }
 
-  private static <X extends FeatureTask<?, X>>void getCountForSpace(X task, Handler<AsyncResult<Long>> handler) {
+  private static <X extends FeatureTask<?, X>> Future<Long> getCountForSpace(X task) {
     final GetStatisticsEvent countEvent = new GetStatisticsEvent();
     countEvent.setSpace(task.getEvent().getSpace());
     countEvent.setParams(task.getEvent().getParams());
 
     try {
+      Promise<Long> promise = Promise.promise();
       getRpcClient(task.storage)
           .execute(task.getMarker(), countEvent, (AsyncResult<XyzResponse> eventHandler) -> {
             if (eventHandler.failed()) {
-              handler.handle(Future.failedFuture((eventHandler.cause())));
+              promise.fail(eventHandler.cause());
               return;
             }
-            Long count;
             final XyzResponse response = eventHandler.result();
             if (response instanceof StatisticsResponse)
-              count = ((StatisticsResponse) response).getCount().getValue();
-            else {
-              handler.handle(Future.failedFuture(Api.responseToHttpException(response)));
-              return;
-            }
-            handler.handle(Future.succeededFuture(count));
+              promise.complete(((StatisticsResponse) response).getCount().getValue());
+            else
+              promise.fail(Api.responseToHttpException(response));
           }, task.space, task.getRequesterId());
+      return promise.future();
     }
     catch (Exception e) {
-      handler.handle(Future.failedFuture((e)));
+      return Future.failedFuture(e);
     }
   }
 
@@ -1427,23 +1529,9 @@ public class FeatureTaskHandler {
       return;
     }
 
-    TransformationContext tc = task.transformationContext;
     try {
-      byte[] mvt;
-      if (MVT == task.responseType) {
-        mvt = new MapBoxVectorTileBuilder()
-            .build(WebMercatorTile.forWeb(tc.level, tc.x, tc.y), tc.margin, task.space.getId(),
-                ((FeatureCollection) task.getResponse()).getFeatures());
-      }
-      else {
-        mvt = new MapBoxVectorTileFlattenedBuilder()
-            .build(WebMercatorTile.forWeb(tc.level, tc.x, tc.y), tc.margin, task.space.getId(),
-                ((FeatureCollection) task.getResponse()).getFeatures());
-      }
-      task.setResponse(new BinaryResponse()
-              .withMimeType(APPLICATION_VND_MAPBOX_VECTOR_TILE)
-              .withBytes(mvt)
-              .withEtag(task.getResponse().getEtag()));
+      task.setResponse(transformToMvt(task.responseType, task.transformationContext, task.space.getId(),
+          (FeatureCollection) task.getResponse()));
       callback.call(task);
     }
     catch (Exception e) {
@@ -1452,6 +1540,26 @@ public class FeatureTaskHandler {
     }
   }
 
+  /**
+   * Transforms the feature collection of a tile response into a vector tile of the specified response type.
+   */
+  static BinaryResponse transformToMvt(ApiResponseType responseType, TransformationContext tc, String spaceId,
+      FeatureCollection featureCollection) throws Exception {
+    byte[] mvt;
+    if (MVT == responseType) {
+      mvt = new MapBoxVectorTileBuilder()
+          .build(WebMercatorTile.forWeb(tc.level, tc.x, tc.y), tc.margin, spaceId, featureCollection.getFeatures());
+    }
+    else {
+      mvt = new MapBoxVectorTileFlattenedBuilder()
+          .build(WebMercatorTile.forWeb(tc.level, tc.x, tc.y), tc.margin, spaceId, featureCollection.getFeatures());
+    }
+    return new BinaryResponse()
+        .withMimeType(APPLICATION_VND_MAPBOX_VECTOR_TILE)
+        .withBytes(mvt)
+        .withEtag(featureCollection.getEtag());
+  }
+
   public static <X extends FeatureTask<?, X>> void checkImmutability(X task, Callback<X> callback) {
     if (task.getEvent() instanceof SelectiveEvent selectiveEvent) {
       Ref ref = selectiveEvent.getRef();
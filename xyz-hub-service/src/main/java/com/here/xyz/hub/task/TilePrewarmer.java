@@ -0,0 +1,381 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.task;
+
+import static com.here.xyz.hub.rest.ApiResponseType.FEATURE_COLLECTION;
+import static com.here.xyz.hub.rest.ApiResponseType.MVT;
+import static com.here.xyz.hub.rest.ApiResponseType.MVT_FLATTENED;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.here.xyz.events.GetFeaturesByTileEvent;
+import com.here.xyz.hub.Service;
+import com.here.xyz.hub.connectors.RemoteFunctionClient;
+import com.here.xyz.hub.connectors.RpcClient;
+import com.here.xyz.hub.connectors.models.Connector;
+import com.here.xyz.hub.connectors.models.Space;
+import com.here.xyz.hub.connectors.models.Space.CacheProfile;
+import com.here.xyz.hub.rest.ApiResponseType;
+import com.here.xyz.hub.task.FeatureTask.TileQuery;
+import com.here.xyz.hub.task.FeatureTask.TileQuery.TransformationContext;
+import com.here.xyz.hub.util.CountMinSketch;
+import com.here.xyz.models.geojson.coordinates.BBox;
+import com.here.xyz.models.geojson.implementation.FeatureCollection;
+import com.here.xyz.models.hub.Space.Extension;
+import com.here.xyz.responses.XyzResponse;
+import com.here.xyz.util.service.Core;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.jodah.expiringmap.ExpirationPolicy;
+import net.jodah.expiringmap.ExpiringMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager.Log4jMarker;
+
+/**
+ * Re-renders the most frequently requested tiles of a space in the background once the content of the space was modified, so that the
+ * first users requesting a hot tile afterwards get it from the volatile cache instead of waiting for the storage connector.
+ * The request frequencies of the tiles are estimated per space using a {@link CountMinSketch}. Alongside, a copy of the requests of the
+ * top {@link com.here.xyz.hub.Config#TILE_PREWARMING_TOP_N} tiles is kept, which get replayed after a content modification.
+ * The prewarming requests are sent one by one and only while the storage connector has spare capacity, so they never compete with the
+ * requests of users.
+ * Only the requests and modifications being processed by this service node are taken into account.
+ *
+ * The prewarming does not run through the task pipeline of the tile requests. Instead, only those tile requests are tracked, for which
+ * the cache key fully covers the processing of the pipeline, so that a prewarmed response equals the one the pipeline would create:
+ * <ul>
+ *   <li>Only GeoJSON and MVT responses, which get transformed by the prewarmer just like by the pipeline</li>
+ *   <li>No spaces with processors and no trusted connectors, as their responses depend on the processing of the original request</li>
+ *   <li>No read-only access, as the pipeline pins such requests to an immutable version</li>
+ * </ul>
+ * No authorization is done for the prewarming requests, as they only write cache entries. Every user reading such an entry gets
+ * authorized by the pipeline before the cache is read.
+ */
+class TilePrewarmer {
+
+  private static final Logger logger = LogManager.getLogger();
+  private static final Marker MARKER = new Log4jMarker("tile-prewarming");
+  private static final int SKETCH_DEPTH = 4;
+  private static final int SKETCH_WIDTH = 512;
+  /**
+   * The interval in which the request counts are halved, so that the tiles being hot recently are preferred
+   */
+  private static final long DECAY_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+  private static final long CAPACITY_CHECK_INTERVAL = 500;
+  /**
+   * The maximum time the prewarming of a space waits for spare capacity of the connector, before the remaining tiles get skipped
+   */
+  private static final long MAX_WAIT_TIME = 60_000;
+  /**
+   * The maximum share of the connector's connection limit which may be in use to still send a prewarming request
+   */
+  private static final double MAX_CONNECTOR_UTILIZATION = 0.5;
+  private static final int MAX_PENDING_SPACES = 1_000;
+  private static final int MAX_EXTENSION_LEVELS = 2;
+  /**
+   * The response types, which can be re-rendered by the prewarmer exactly like by the tile pipeline
+   */
+  static final Set<ApiResponseType> PREWARMABLE_RESPONSE_TYPES = EnumSet.of(FEATURE_COLLECTION, MVT, MVT_FLATTENED);
+
+  private static final ExpiringMap<String, SpaceTiles> spaceTiles = ExpiringMap.builder()
+      .maxSize(1_000)
+      .expirationPolicy(ExpirationPolicy.ACCESSED)
+      .expiration(1, TimeUnit.HOURS)
+      .build();
+  private static final Queue<String> pendingSpaces = new ConcurrentLinkedQueue<>();
+  private static final Set<String> pendingSpaceIds = ConcurrentHashMap.newKeySet();
+  private static final AtomicBoolean running = new AtomicBoolean();
+  private static final AtomicBoolean decayTimerStarted = new AtomicBoolean();
+
+  private TilePrewarmer() {}
+
+  /**
+   * Counts a request of a tile, which is about to be read from the volatile cache.
+   * Only requests, for which the prewarmer can create the same response as the tile pipeline, are tracked.
+   */
+  static void recordAccess(TileQuery task) {
+    if (!Service.configuration.TILE_PREWARMING || task.space == null || task.storage == null || task.storage.trusted
+        || task.readOnlyAccess || !PREWARMABLE_RESPONSE_TYPES.contains(task.responseType))
+      return;
+    CacheProfile cacheProfile = task.getCacheProfile();
+    if (cacheProfile.serviceTTL <= 0 || cacheProfile.staticTTL > 0
+        || task.space.getProcessors() != null && !task.space.getProcessors().isEmpty())
+      return;
+
+    try {
+      startDecayTimer();
+      spaceTiles.computeIfAbsent(task.space.getId(), k -> new SpaceTiles()).record(task);
+    }
+    catch (Exception e) {
+      logger.warn(task.getMarker(), "Error recording the tile access for prewarming.", e);
+    }
+  }
+
+  /**
+   * Schedules the re-rendering of the hot tiles of a space after its content was modified.
+   */
+  static void prewarm(String spaceId) {
+    if (!Service.configuration.TILE_PREWARMING || !spaceTiles.containsKey(spaceId))
+      return;
+    if (pendingSpaceIds.size() >= MAX_PENDING_SPACES || !pendingSpaceIds.add(spaceId))
+      return;
+    pendingSpaces.add(spaceId);
+    processNext();
+  }
+
+  private static void startDecayTimer() {
+    if (decayTimerStarted.compareAndSet(false, true))
+      Core.vertx.setPeriodic(DECAY_INTERVAL, timerId -> spaceTiles.values().forEach(SpaceTiles::decay));
+  }
+
+  /**
+   * Processes the pending spaces one after another.
+   */
+  private static void processNext() {
+    if (!running.compareAndSet(false, true))
+      return;
+    String spaceId = pendingSpaces.poll();
+    if (spaceId == null) {
+      running.set(false);
+      //Some space might have been added in the meantime
+      if (!pendingSpaces.isEmpty())
+        processNext();
+      return;
+    }
+    //A modification which happens from now on must lead to another prewarming of the space
+    pendingSpaceIds.remove(spaceId);
+    prewarmSpace(spaceId).onComplete(ar -> {
+      running.set(false);
+      processNext();
+    });
+  }
+
+  private static Future<Void> prewarmSpace(String spaceId) {
+    SpaceTiles tiles = spaceTiles.get(spaceId);
+    if (tiles == null)
+      return Future.succeededFuture();
+    List<HotTile> hotTiles = tiles.getHotTiles();
+    long deadline = Core.currentTimeMillis() + MAX_WAIT_TIME;
+
+    return resolve(spaceId)
+        .compose(resolved -> {
+          Future<Void> chain = Future.succeededFuture();
+          for (HotTile tile : hotTiles)
+            chain = chain.compose(v -> prewarmTile(resolved, tile, deadline));
+          return chain;
+        })
+        .onSuccess(v -> logger.debug(MARKER, "Prewarmed up to {} tiles of space {}.", hotTiles.size(), spaceId))
+        .recover(t -> {
+          logger.info(MARKER, "Stopped prewarming the tiles of space {}: {}", spaceId, t.getMessage());
+          return Future.succeededFuture();
+        });
+  }
+
+  private static Future<ResolvedSpace> resolve(String spaceId) {
+    return Space.resolveSpace(MARKER, spaceId)
+        .compose(space -> {
+          if (space == null || !space.isActive())
+            return Future.failedFuture("The space does not exist or is not active.");
+          return Space.resolveConnector(MARKER, space.getStorage().getId())
+              .compose(connector -> resolveExtendedSpaces(space.getExtension(), new ArrayList<>())
+                  .compose(extendedSpaces -> resolveStorageParams(space)
+                      .map(storageParams -> new ResolvedSpace(space, connector, extendedSpaces, storageParams))));
+        });
+  }
+
+  /**
+   * Resolves the params of the storage request, just like the tile pipeline does when resolving the space.
+   */
+  private static Future<Map<String, Object>> resolveStorageParams(Space space) {
+    return space.resolveCompositeParams(MARKER)
+        .map(resolvedExtensions -> {
+          Map<String, Object> storageParams = new HashMap<>();
+          if (space.getStorage().getParams() != null)
+            storageParams.putAll(space.getStorage().getParams());
+          storageParams.putAll(resolvedExtensions);
+          return storageParams;
+        });
+  }
+
+  private static Future<List<Space>> resolveExtendedSpaces(Extension extension, List<Space> extendedSpaces) {
+    if (extension == null || extendedSpaces.size() >= MAX_EXTENSION_LEVELS)
+      return Future.succeededFuture(extendedSpaces);
+    return Space.resolveSpace(MARKER, extension.getSpaceId())
+        .compose(extendedSpace -> {
+          if (extendedSpace == null)
+            return Future.succeededFuture(extendedSpaces);
+          extendedSpaces.add(extendedSpace);
+          return resolveExtendedSpaces(extendedSpace.getExtension(), extendedSpaces);
+        });
+  }
+
+  private static Future<Void> prewarmTile(ResolvedSpace resolved, HotTile tile, long deadline) {
+    CacheProfile cacheProfile = resolved.space.getCacheProfile(false, resolved.connector.capabilities.enableAutoCache,
+        tile.readOnlyAccess);
+    //Processors or read-only access might have been configured in the meantime
+    if (cacheProfile.serviceTTL <= 0 || cacheProfile.staticTTL > 0
+        || resolved.space.isReadOnly() && resolved.space.getReadOnlyHeadVersion() > -1
+        || resolved.space.getProcessors() != null && !resolved.space.getProcessors().isEmpty())
+      return Future.succeededFuture();
+
+    //Apply the current space config to the request, just like the tile pipeline does when resolving the space
+    GetFeaturesByTileEvent event = tile.event.copy();
+    event.setMinVersion(resolved.space.getMinVersion());
+    event.setVersionsToKeep(resolved.space.getVersionsToKeep());
+    event.setParams(resolved.storageParams);
+    event.setStreamId(MARKER.getName());
+
+    final String cacheKey;
+    final RpcClient rpcClient;
+    try {
+      cacheKey = FeatureTask.buildCacheKey(event, tile.responseType, tile.readOnlyAccess, resolved.space, resolved.extendedSpaces);
+      rpcClient = RpcClient.getInstanceFor(resolved.connector);
+    }
+    catch (JsonProcessingException | IllegalStateException e) {
+      return Future.failedFuture(e);
+    }
+
+    return Service.volatileCacheClient.get(cacheKey)
+        .otherwiseEmpty()
+        .compose(cachedValue -> {
+          if (cachedValue != null)
+            //The tile was requested by some user already
+            return Future.<Void>succeededFuture();
+          return awaitSpareCapacity(rpcClient.getFunctionClient(), deadline)
+              .compose(v -> render(resolved, tile, event, cacheProfile, cacheKey, rpcClient));
+        });
+  }
+
+  private static Future<Void> awaitSpareCapacity(RemoteFunctionClient functionClient, long deadline) {
+    if (functionClient.hasSpareCapacity(MAX_CONNECTOR_UTILIZATION))
+      return Future.succeededFuture();
+    if (Core.currentTimeMillis() > deadline)
+      return Future.failedFuture("The connector had no spare capacity.");
+
+    Promise<Void> promise = Promise.promise();
+    Core.vertx.setTimer(CAPACITY_CHECK_INTERVAL, timerId -> awaitSpareCapacity(functionClient, deadline).onComplete(promise));
+    return promise.future();
+  }
+
+  private static Future<Void> render(ResolvedSpace resolved, HotTile tile, GetFeaturesByTileEvent event, CacheProfile cacheProfile,
+      String cacheKey, RpcClient rpcClient) {
+    Promise<Void> promise = Promise.promise();
+    String spaceId = resolved.space.getId();
+    rpcClient.execute(MARKER, event, false, ar -> {
+      try {
+        if (ar.failed())
+          logger.warn(MARKER, "Error prewarming a tile of space {}.", spaceId, ar.cause());
+        else if (ar.result() instanceof FeatureCollection featureCollection) {
+          XyzResponse response = tile.responseType == MVT || tile.responseType == MVT_FLATTENED
+              ? FeatureTaskHandler.transformToMvt(tile.responseType, tile.transformationContext, spaceId, featureCollection)
+              : featureCollection;
+          FeatureTaskHandler.writeCacheEntry(MARKER, cacheProfile, cacheKey, response, spaceId, tile.tileBBox);
+        }
+      }
+      catch (Exception e) {
+        logger.warn(MARKER, "Error writing a prewarmed tile of space {} to the cache.", spaceId, e);
+      }
+      promise.complete();
+    }, resolved.space, null);
+    return promise.future();
+  }
+
+  private record ResolvedSpace(Space space, Connector connector, List<Space> extendedSpaces, Map<String, Object> storageParams) {}
+
+  /**
+   * A copy of a tile request, which is sufficient to replay it.
+   */
+  private static class HotTile {
+
+    final GetFeaturesByTileEvent event;
+    final ApiResponseType responseType;
+    final boolean readOnlyAccess;
+    final TransformationContext transformationContext;
+    final BBox tileBBox;
+    int estimatedCount;
+
+    HotTile(TileQuery task, int estimatedCount) {
+      event = task.getEvent().copy();
+      //Only keep the properties which are relevant for the response
+      event.setIfNoneMatch(null);
+      event.setPreferPrimaryDataSource(false);
+      responseType = task.responseType;
+      readOnlyAccess = task.readOnlyAccess;
+      transformationContext = task.transformationContext;
+      tileBBox = task.tileBBox;
+      this.estimatedCount = estimatedCount;
+    }
+  }
+
+  private static class SpaceTiles {
+
+    private final CountMinSketch sketch = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+    private final Map<String, HotTile> hotTiles = new HashMap<>();
+
+    void record(TileQuery task) throws JsonProcessingException {
+      String requestKey = task.getEvent().getCacheString() + "|" + task.responseType + "|" + task.readOnlyAccess;
+      int estimatedCount = sketch.add(requestKey);
+
+      synchronized (this) {
+        HotTile hotTile = hotTiles.get(requestKey);
+        if (hotTile != null) {
+          hotTile.estimatedCount = estimatedCount;
+          return;
+        }
+        if (hotTiles.size() >= Service.configuration.TILE_PREWARMING_TOP_N) {
+          //Replace the coldest of the hot tiles, if the requested tile is hotter
+          Map.Entry<String, HotTile> coldest = hotTiles.entrySet().stream()
+              .min(Comparator.comparingInt(entry -> entry.getValue().estimatedCount))
+              .orElse(null);
+          if (coldest == null || coldest.getValue().estimatedCount >= estimatedCount)
+            return;
+          hotTiles.remove(coldest.getKey());
+        }
+        hotTiles.put(requestKey, new HotTile(task, estimatedCount));
+      }
+    }
+
+    synchronized void decay() {
+      sketch.halve();
+      hotTiles.values().forEach(hotTile -> hotTile.estimatedCount >>>= 1);
+    }
+
+    /**
+     * @return The hot tiles, the hottest one first
+     */
+    synchronized List<HotTile> getHotTiles() {
+      List<HotTile> tiles = new ArrayList<>(hotTiles.values());
+      tiles.sort(Comparator.comparingInt((HotTile hotTile) -> hotTile.estimatedCount).reversed());
+      return tiles;
+    }
+  }
+}
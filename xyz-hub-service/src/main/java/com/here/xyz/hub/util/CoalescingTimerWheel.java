@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * A hashed timer wheel which coalesces multiple schedule-requests for the same key into one single expiration.
+ * The wheel consists of a fixed number of slots. Each call of {@link #tick()} advances the wheel by one slot and expires all keys of
+ * that slot. A newly scheduled key is placed into the slot which is reached again after one full revolution of the wheel, so the delay of
+ * an expiration is the duration of one revolution (minus at most one tick).
+ * That way only one single periodic timer is necessary to drive any number of keys, and the expiration work is spread evenly across all
+ * ticks of a revolution.
+ * The number of pending keys is limited. If the limit is reached, further schedule-requests for new keys will be rejected.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values being handed to the expiration handler
+ */
+public class CoalescingTimerWheel<K, V> {
+
+  private final Set<K>[] slots;
+  private final ConcurrentHashMap<K, V> pending = new ConcurrentHashMap<>();
+  private final AtomicInteger currentSlot = new AtomicInteger();
+  private final BiConsumer<K, V> expirationHandler;
+  private final int maxPending;
+  private final LongAdder rejected = new LongAdder();
+
+  @SuppressWarnings("unchecked")
+  public CoalescingTimerWheel(int slotCount, int maxPending, BiConsumer<K, V> expirationHandler) {
+    if (slotCount < 1)
+      throw new IllegalArgumentException("The slot count of a timer wheel must be at least 1.");
+    if (maxPending < 1)
+      throw new IllegalArgumentException("The maximum number of pending keys of a timer wheel must be at least 1.");
+    slots = new Set[slotCount];
+    for (int i = 0; i < slotCount; i++)
+      slots[i] = ConcurrentHashMap.newKeySet();
+    this.maxPending = maxPending;
+    this.expirationHandler = expirationHandler;
+  }
+
+  /**
+   * Schedules the expiration of the specified key if it is not already pending.
+   *
+   * @param key The key to be scheduled
+   * @param value The value to be handed to the expiration handler once the key expires
+   * @return true if the key was newly scheduled, false if it was already pending or if it was rejected because the wheel is full
+   */
+  public boolean scheduleIfAbsent(K key, V value) {
+    if (pending.containsKey(key))
+      return false;
+    if (pending.size() >= maxPending) {
+      rejected.increment();
+      return false;
+    }
+    if (pending.putIfAbsent(key, value) != null)
+      //Another thread scheduled the key in the meantime
+      return false;
+    slots[currentSlot.get()].add(key);
+    return true;
+  }
+
+  /**
+   * Advances the wheel by one slot and expires all keys of the reached slot.
+   * This method is expected to be called periodically by one single thread.
+   */
+  public void tick() {
+    int slot = currentSlot.updateAndGet(i -> (i + 1) % slots.length);
+    //The iterator is weakly consistent, so keys being added concurrently are expired now or after the next revolution
+    for (Iterator<K> it = slots[slot].iterator(); it.hasNext(); ) {
+      K key = it.next();
+      it.remove();
+      V value = pending.remove(key);
+      if (value != null)
+        expirationHandler.accept(key, value);
+    }
+  }
+
+  /**
+   * @return The number of keys which are currently pending for expiration
+   */
+  public int getPendingCount() {
+    return pending.size();
+  }
+
+  /**
+   * @return The number of schedule-requests which have been rejected because the maximum number of pending keys was reached
+   */
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  public int getSlotCount() {
+    return slots.length;
+  }
+}
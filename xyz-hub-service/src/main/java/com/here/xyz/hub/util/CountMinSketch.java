@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util;
+
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A count-min sketch which estimates the access frequencies of an unbounded number of keys within a fixed amount of memory.
+ * Each key is counted in one counter per row. As different keys may share counters, the estimate of a key (the minimum of its counters)
+ * never underestimates the actual count, but it may overestimate it.
+ * The counters can be halved to let the estimates reflect the recent accesses rather than all accesses ever seen.
+ * This class is thread-safe.
+ */
+public class CountMinSketch {
+
+  private final int depth;
+  private final int width;
+  private final AtomicIntegerArray counters;
+
+  /**
+   * @param depth The number of rows, each one using an independent hash function
+   * @param width The number of counters per row
+   */
+  public CountMinSketch(int depth, int width) {
+    if (depth < 1 || width < 1)
+      throw new IllegalArgumentException("The depth and the width of a count-min sketch must be at least 1.");
+    this.depth = depth;
+    this.width = width;
+    counters = new AtomicIntegerArray(depth * width);
+  }
+
+  /**
+   * Counts one access of the specified key.
+   *
+   * @return The new estimated count of the key
+   */
+  public int add(String key) {
+    long hash = hash(key);
+    int estimate = Integer.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      int i = index(hash, row);
+      int count = counters.updateAndGet(i, c -> c == Integer.MAX_VALUE ? c : c + 1);
+      estimate = Math.min(estimate, count);
+    }
+    return estimate;
+  }
+
+  /**
+   * @return The estimated count of the specified key
+   */
+  public int estimate(String key) {
+    long hash = hash(key);
+    int estimate = Integer.MAX_VALUE;
+    for (int row = 0; row < depth; row++)
+      estimate = Math.min(estimate, counters.get(index(hash, row)));
+    return estimate;
+  }
+
+  /**
+   * Halves all counters, so that older accesses lose weight against the upcoming ones.
+   */
+  public void halve() {
+    for (int i = 0; i < counters.length(); i++)
+      counters.updateAndGet(i, c -> c >>> 1);
+  }
+
+  private static long hash(String key) {
+    return Hashing.murmur3_128().hashString(key, StandardCharsets.UTF_8).asLong();
+  }
+
+  /**
+   * Derives the counter of a row from the two halves of the key's hash (double hashing).
+   */
+  private int index(long hash, int row) {
+    int combined = (int) hash + row * (int) (hash >>> 32);
+    return row * width + (combined & Integer.MAX_VALUE) % width;
+  }
+}
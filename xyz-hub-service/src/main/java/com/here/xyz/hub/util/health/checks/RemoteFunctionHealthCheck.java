@@ -176,6 +176,7 @@ public class RemoteFunctionHealthCheck extends ExecutableCheck {
       rfcData.put("minConnections", rfc.getMinConnections());
       rfcData.put("maxConnections", rfc.getMaxConnections());
       rfcData.put("weightedMaxConnections", rfc.getWeightedMaxConnections());
+      rfcData.put("concurrencyLimit", rfc.getConcurrencyLimit());
       rfcData.put("usedConnections", rfc.getUsedConnections());
       rfcData.put("rateOfService", rfc.getRateOfService());
       rfcData.put("arrivalRate", rfc.getArrivalRate());
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util.metrics;
+
+import static com.here.xyz.hub.util.metrics.base.Metric.MetricUnit.MILLISECONDS;
+
+import com.here.xyz.hub.util.metrics.base.BareValuesMetric;
+import com.here.xyz.util.db.datasource.ConcurrencyLimiter;
+import java.util.Collection;
+import java.util.Collections;
+
+public class JdbcTaskQueueWaitTime extends BareValuesMetric {
+
+  public JdbcTaskQueueWaitTime(String metricName) {
+    super(metricName, MILLISECONDS);
+  }
+
+  @Override
+  protected Collection<Double> gatherValues() {
+    double averageWaitTime = ConcurrencyLimiter.pollAverageQueueWaitTime();
+    return averageWaitTime < 0 ? Collections.emptyList() : Collections.singleton(averageWaitTime);
+  }
+}
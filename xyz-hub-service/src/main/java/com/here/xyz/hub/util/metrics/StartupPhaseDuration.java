@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.xyz.hub.util.metrics;
+
+import static com.here.xyz.hub.util.metrics.base.Metric.MetricUnit.MILLISECONDS;
+
+import com.here.xyz.hub.util.metrics.base.BareValuesMetric;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The duration of one phase of the service startup.
+ * As every phase runs only once, its duration is published only once as well.
+ */
+public class StartupPhaseDuration extends BareValuesMetric {
+
+  private final AtomicReference<Collection<Double>> duration;
+
+  public StartupPhaseDuration(String metricName, long durationMs) {
+    super(metricName, MILLISECONDS);
+    duration = new AtomicReference<>(Collections.singleton((double) durationMs));
+  }
+
+  @Override
+  protected Collection<Double> gatherValues() {
+    return duration.getAndSet(Collections.emptyList());
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.here.xyz.models.geojson.WebMercatorTile;
+import com.here.xyz.models.geojson.coordinates.BBox;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import org.junit.Test;
+
+public class TileCacheIndexTest {
+
+  private static BBox tileBBox(String quadkey) {
+    return WebMercatorTile.forQuadkey(quadkey).getBBox(false);
+  }
+
+  @Test
+  public void containingQuadkeyOfTile() {
+    //Shrink the bbox of the tile slightly to not touch any neighbouring tiles
+    BBox bbox = tileBBox("120203");
+    BBox inner = new BBox(bbox.minLon() + 1e-6, bbox.minLat() + 1e-6, bbox.maxLon() - 1e-6, bbox.maxLat() - 1e-6);
+    assertEquals("120203", TileCacheIndex.containingQuadkey(inner));
+  }
+
+  @Test
+  public void containingQuadkeyOfAntimeridianBBox() {
+    assertEquals("", TileCacheIndex.containingQuadkey(new BBox(170, 10, -170, 20)));
+  }
+
+  @Test
+  public void removeAncestorsAndDescendants() {
+    String spaceId = "TileCacheIndexTest-" + System.nanoTime();
+    BBox parent = tileBBox("1202");
+    BBox inner = new BBox(parent.minLon() + 1e-6, parent.minLat() + 1e-6, parent.maxLon() - 1e-6, parent.maxLat() - 1e-6);
+    TileCacheIndex.register(spaceId, inner, "parent");
+
+    BBox child = tileBBox("120203");
+    TileCacheIndex.register(spaceId, new BBox(child.minLon() + 1e-6, child.minLat() + 1e-6, child.maxLon() - 1e-6,
+        child.maxLat() - 1e-6), "child");
+
+    BBox other = tileBBox("0313");
+    TileCacheIndex.register(spaceId, new BBox(other.minLon() + 1e-6, other.minLat() + 1e-6, other.maxLon() - 1e-6,
+        other.maxLat() - 1e-6), "other");
+
+    //A point modification within the child tile affects the child and its ancestors, but not the unrelated tile
+    double lon = (child.minLon() + child.maxLon()) / 2, lat = (child.minLat() + child.maxLat()) / 2;
+    Set<String> affected = TileCacheIndex.removeAffected(spaceId, Collections.singleton(new BBox(lon, lat, lon, lat)));
+    assertEquals(Set.of("parent", "child"), affected);
+
+    assertTrue("Removed keys must not be returned twice.",
+        TileCacheIndex.removeAffected(spaceId, Collections.singleton(new BBox(lon, lat, lon, lat))).isEmpty());
+
+    //A modification covering the whole world affects all remaining tiles
+    assertEquals(Set.of("other"), TileCacheIndex.removeAffected(spaceId, Collections.singleton(new BBox(-180, -85, 180, 85))));
+  }
+
+  @Test
+  public void removeAllByRootQuadkey() {
+    String spaceId = "TileCacheIndexTest-" + System.nanoTime();
+    TileCacheIndex.register(spaceId, tileBBox("1202"), "a");
+    TileCacheIndex.register(spaceId, tileBBox("0313"), "b");
+    TileCacheIndex.register(spaceId, new BBox(170, 10, -170, 20), "c");
+
+    assertEquals(Set.of("a", "b", "c"), TileCacheIndex.removeAffectedQuadkeys(spaceId, Set.of(TileCacheIndex.ROOT_QUADKEY)));
+    assertTrue(TileCacheIndex.removeAffectedQuadkeys(spaceId, Set.of(TileCacheIndex.ROOT_QUADKEY)).isEmpty());
+  }
+
+  @Test
+  public void containingQuadkeysSkipsMissingBBoxes() {
+    BBox bbox = tileBBox("120203");
+    BBox inner = new BBox(bbox.minLon() + 1e-6, bbox.minLat() + 1e-6, bbox.maxLon() - 1e-6, bbox.maxLat() - 1e-6);
+    assertEquals(Set.of("120203"), TileCacheIndex.containingQuadkeys(Arrays.asList(inner, null, inner)));
+    assertTrue(TileCacheIndex.containingQuadkeys(null).isEmpty());
+  }
+}
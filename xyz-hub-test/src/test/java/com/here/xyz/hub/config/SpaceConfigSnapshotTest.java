@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.config;
+
+import static com.here.xyz.events.PropertyQuery.QueryOperation.GREATER_THAN;
+import static com.here.xyz.hub.config.SpaceConfigClient.CONTENT_UPDATED_AT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.here.xyz.events.PropertiesQuery;
+import com.here.xyz.events.PropertyQuery;
+import com.here.xyz.events.PropertyQueryList;
+import com.here.xyz.hub.config.SpaceConfigClient.SpaceAuthorizationCondition;
+import com.here.xyz.hub.config.SpaceConfigClient.SpaceSelectionCondition;
+import com.here.xyz.hub.connectors.models.Space;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class SpaceConfigSnapshotTest {
+
+  private static Space space(String id, String owner, boolean shared, long contentUpdatedAt) {
+    Space space = new Space();
+    space.setId(id);
+    space.setOwner(owner);
+    space.setShared(shared);
+    space.setContentUpdatedAt(contentUpdatedAt);
+    return space;
+  }
+
+  private static Set<String> ids(List<Space> spaces) {
+    return spaces.stream().map(Space::getId).collect(Collectors.toSet());
+  }
+
+  private static SpaceConfigSnapshot loadedSnapshot() {
+    SpaceConfigSnapshot snapshot = new SpaceConfigSnapshot();
+    snapshot.applyAll(List.of(
+        space("a", "owner1", false, 10),
+        space("b", "owner1", true, 20),
+        space("c", "owner2", false, 30),
+        space("d", "owner3", true, 40)
+    ), snapshot.currentToken());
+    return snapshot;
+  }
+
+  @Test
+  public void selectAuthorized() {
+    SpaceConfigSnapshot snapshot = loadedSnapshot();
+
+    SpaceAuthorizationCondition authorizedCondition = new SpaceAuthorizationCondition();
+    authorizedCondition.spaceIds = Set.of();
+    authorizedCondition.ownerIds = Set.of("owner1");
+    authorizedCondition.packages = Set.of();
+
+    assertEquals(Set.of("a", "b", "d"), ids(snapshot.select(authorizedCondition, new SpaceSelectionCondition(), null)));
+
+    SpaceSelectionCondition selectedCondition = new SpaceSelectionCondition();
+    selectedCondition.shared = false;
+    selectedCondition.ownerIds = Set.of("owner1");
+    assertEquals(Set.of("a", "b"), ids(snapshot.select(authorizedCondition, selectedCondition, null)));
+
+    selectedCondition.negateOwnerIds = true;
+    assertEquals(Set.of(), ids(snapshot.select(authorizedCondition, selectedCondition, null)));
+  }
+
+  @Test
+  public void selectByContentUpdatedAt() {
+    SpaceConfigSnapshot snapshot = loadedSnapshot();
+
+    PropertyQueryList conjunctions = new PropertyQueryList();
+    conjunctions.add(new PropertyQuery().withKey(CONTENT_UPDATED_AT).withOperation(GREATER_THAN).withValues(List.of(25L)));
+    PropertiesQuery propsQuery = new PropertiesQuery();
+    propsQuery.add(conjunctions);
+
+    assertEquals(Set.of("c", "d"), ids(snapshot.select(new SpaceAuthorizationCondition(), new SpaceSelectionCondition(), propsQuery)));
+
+    conjunctions.add(new PropertyQuery().withKey("title").withOperation(GREATER_THAN).withValues(List.of(1)));
+    assertNull("Unsupported queries must not be answered by the snapshot.",
+        snapshot.select(new SpaceAuthorizationCondition(), new SpaceSelectionCondition(), propsQuery));
+  }
+
+  @Test
+  public void applyChanges() {
+    SpaceConfigSnapshot snapshot = loadedSnapshot();
+
+    long token = snapshot.invalidate("a");
+    assertNull("An invalidated space must not be returned.", snapshot.get("a"));
+
+    //A load which was started before the invalidation must be ignored
+    snapshot.apply("a", space("a", "owner1", false, 10), token - 1);
+    assertNull(snapshot.get("a"));
+
+    snapshot.apply("a", space("a", "owner2", false, 50), token);
+    assertEquals("owner2", snapshot.get("a").getOwner());
+
+    snapshot.apply("c", null, snapshot.invalidate("c"));
+    assertNull(snapshot.get("c"));
+    assertEquals(3, snapshot.size());
+  }
+
+  @Test
+  public void bulkLoadKeepsNewerChanges() {
+    SpaceConfigSnapshot snapshot = loadedSnapshot();
+
+    long bulkLoadToken = snapshot.currentToken();
+    snapshot.apply("b", space("b", "owner5", true, 60), snapshot.invalidate("b"));
+
+    snapshot.applyAll(List.of(space("a", "owner1", false, 10), space("b", "owner1", true, 20)), bulkLoadToken);
+    assertNotNull(snapshot.get("a"));
+    assertEquals("owner5", snapshot.get("b").getOwner());
+    assertNull(snapshot.get("c"));
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.connectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class AdaptiveConcurrencyLimitTest {
+
+  private static final long TIMEOUT = 10_000;
+
+  /**
+   * Decreases the limit once by sending a congestion signal after the minimum backoff interval.
+   */
+  private static long backOff(AdaptiveConcurrencyLimit limit, long now) {
+    now += 1_000;
+    limit.onSample(TIMEOUT, TIMEOUT, true, 0, now);
+    return now;
+  }
+
+  @Test
+  public void startAtMaxLimit() {
+    assertEquals(100, new AdaptiveConcurrencyLimit(4, 100).get());
+    //The max limit can't be lower than the min limit
+    assertEquals(4, new AdaptiveConcurrencyLimit(4, 2).get());
+  }
+
+  @Test
+  public void increaseOnSuccess() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 100);
+    long now = 0;
+    for (int i = 0; i < 5; i++)
+      now = backOff(limit, now);
+    assertEquals(59, limit.get());
+
+    //Each successful request increases the limit by 1 / limit, so one full round of requests increases it by 1
+    for (int i = 0; i < 60; i++)
+      limit.onSample(100, TIMEOUT, false, 59, now);
+    assertEquals(60, limit.get());
+  }
+
+  @Test
+  public void noIncreaseIfLimitIsNotUsed() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 100);
+    backOff(limit, 0);
+    assertEquals(90, limit.get());
+
+    for (int i = 0; i < 1_000; i++)
+      limit.onSample(100, TIMEOUT, false, 10, 2_000);
+    assertEquals(90, limit.get());
+  }
+
+  @Test
+  public void decreaseOnCongestionSignal() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 100);
+    limit.onSample(100, TIMEOUT, true, 100, 1_000);
+    assertEquals(90, limit.get());
+    limit.onSample(100, TIMEOUT, true, 100, 2_000);
+    assertEquals(81, limit.get());
+  }
+
+  @Test
+  public void decreaseOnlyOncePerBackoffInterval() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 100);
+    for (int i = 0; i < 10; i++)
+      limit.onSample(100, TIMEOUT, true, 100, 1_000 + i * 10);
+    assertEquals(90, limit.get());
+  }
+
+  @Test
+  public void decreaseOnLatencyCloseToTimeout() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 100);
+    limit.onSample(9_000, TIMEOUT, false, 100, 1_000);
+    assertEquals(90, limit.get());
+  }
+
+  @Test
+  public void decreaseOnLatencyGrowth() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 100);
+    long now = 1_000;
+    for (int i = 0; i < 100; i++)
+      limit.onSample(100, TIMEOUT, false, 100, now);
+    assertEquals(100, limit.get());
+
+    //The short-term average grows faster than the long-term average
+    for (int i = 0; i < 3; i++)
+      limit.onSample(1_000, TIMEOUT, false, 100, now += 1_000);
+    assertTrue(limit.get() < 100);
+  }
+
+  @Test
+  public void clampToMinLimit() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 100);
+    long now = 0;
+    for (int i = 0; i < 100; i++)
+      now = backOff(limit, now);
+    assertEquals(4, limit.get());
+  }
+
+  @Test
+  public void clampToMaxLimit() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 10);
+    for (int i = 0; i < 1_000; i++)
+      limit.onSample(100, TIMEOUT, false, 10, 1_000);
+    assertEquals(10, limit.get());
+
+    //Lowering the max limit also lowers the current limit
+    limit.setMaxLimit(6);
+    assertEquals(6, limit.get());
+    limit.setMaxLimit(2);
+    assertEquals(4, limit.get());
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.connectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.here.xyz.hub.Config;
+import com.here.xyz.hub.Service;
+import com.here.xyz.hub.connectors.RpcClient.RpcContext;
+import com.here.xyz.hub.connectors.models.Connector;
+import com.here.xyz.hub.connectors.models.Connector.RemoteFunctionConfig;
+import com.here.xyz.util.service.Core;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.jackson.DatabindCodec;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager.Log4jMarker;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests the invocation of HTTP connectors via HTTP/2 over cleartext (h2c) against a local h2c server.
+ */
+public class HTTPFunctionClientTest {
+
+  private static final Marker MARKER = new Log4jMarker("test");
+  private static final int MAX_CONNECTIONS = 4;
+  private static HttpServer connectorEndpoint;
+  private static final Set<HttpVersion> requestVersions = ConcurrentHashMap.newKeySet();
+  private HTTPFunctionClient client;
+
+  @BeforeClass
+  public static void setupClass() throws Exception {
+    Core.vertx = Vertx.vertx();
+    Service.configuration = new Config();
+    Service.configuration.REMOTE_FUNCTION_REQUEST_TIMEOUT = 26;
+    Service.configuration.INSTANCE_COUNT = 1;
+    Service.configuration.REMOTE_FUNCTION_MAX_CONNECTIONS = 256;
+    Service.configuration.REMOTE_FUNCTION_CONNECTION_HIGH_UTILIZATION_THRESHOLD = 0.75f;
+    Service.configuration.GLOBAL_MAX_QUEUE_SIZE = 1024;
+    Service.configuration.MAX_GLOBAL_HTTP_CLIENT_CONNECTIONS = 16;
+
+    //Echoes the request body after a short delay, so that concurrent calls overlap
+    connectorEndpoint = Core.vertx.createHttpServer(new HttpServerOptions().setHttp2ClearTextEnabled(true))
+        .requestHandler(req -> {
+          requestVersions.add(req.version());
+          req.body().onSuccess(body -> Core.vertx.setTimer(100, timerId -> req.response().end(body)));
+        });
+    connectorEndpoint.listen(0, "localhost").toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+
+  @AfterClass
+  public static void tearDownClass() throws Exception {
+    connectorEndpoint.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    Core.vertx.close();
+  }
+
+  @Before
+  public void setup() {
+    requestVersions.clear();
+    Connector connector = new Connector();
+    connector.id = "test-h2c-connector";
+    connector.connectionSettings = new Connector.ConnectionSettings();
+    connector.connectionSettings.maxConnections = MAX_CONNECTIONS;
+    connector.setRemoteFunction(DatabindCodec.mapper().convertValue(Map.of(
+        "type", "Http",
+        "id", "test-h2c-function",
+        "url", "http://localhost:" + connectorEndpoint.actualPort() + "/",
+        "http2", true), RemoteFunctionConfig.class));
+    client = new HTTPFunctionClient(connector);
+  }
+
+  @After
+  public void tearDown() {
+    client.destroy();
+  }
+
+  @Test
+  public void invokeWithH2c() throws Exception {
+    byte[] payload = "{\"type\":\"GetFeaturesByBBoxEvent\"}".getBytes(UTF_8);
+    CompletableFuture<AsyncResult<byte[]>> result = new CompletableFuture<>();
+    client.invoke(client.new FunctionCall(MARKER, payload, false, false, result::complete), result::complete);
+
+    AsyncResult<byte[]> response = result.get(10, TimeUnit.SECONDS);
+    assertTrue(response.succeeded());
+    assertArrayEquals(payload, response.result());
+    //The request was sent with prior knowledge, without an upgrade from HTTP/1.1
+    assertEquals(Set.of(HttpVersion.HTTP_2), requestVersions);
+  }
+
+  @Test
+  public void freeRequesterConnectionsOfQueuedCalls() throws Exception {
+    String requesterId = UUID.randomUUID().toString();
+    List<CompletableFuture<AsyncResult<byte[]>>> results = new ArrayList<>();
+    //Send more calls than the connection limit, so that some of them get queued
+    for (int i = 0; i < 3 * MAX_CONNECTIONS; i++) {
+      CompletableFuture<AsyncResult<byte[]>> result = new CompletableFuture<>();
+      RpcContext context = new RpcContext(client.getConnectorConfig());
+      context.setRequesterId(requesterId);
+      Core.vertx.runOnContext(v -> client.submit(MARKER, "{}".getBytes(UTF_8), false, false, result::complete, context));
+      results.add(result);
+    }
+
+    for (CompletableFuture<AsyncResult<byte[]>> result : results)
+      assertTrue(result.get(10, TimeUnit.SECONDS).succeeded());
+
+    assertEquals(Set.of(HttpVersion.HTTP_2), requestVersions);
+    assertEquals(0, client.getUsedConnections());
+    AtomicInteger requesterConnections = client.getUsedConnectionsByRequester().get(requesterId);
+    assertEquals(0, requesterConnections.get());
+  }
+}
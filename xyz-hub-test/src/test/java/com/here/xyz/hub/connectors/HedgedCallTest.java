@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.connectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.here.xyz.hub.connectors.HedgedCall.Attempt;
+import io.vertx.core.AsyncResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HedgedCallTest {
+
+  private final List<AsyncResult<byte[]>> results = new ArrayList<>();
+  private final AtomicInteger cancelledRequests = new AtomicInteger();
+  private final AtomicInteger releasedSlots = new AtomicInteger();
+  private HedgedCall call;
+
+  @Before
+  public void setup() {
+    call = new HedgedCall(null, results::add, new LatencyTracker());
+  }
+
+  @Test
+  public void firstResponseWins() {
+    Attempt first = call.startAttempt();
+    call.addCancelHandler(cancelledRequests::incrementAndGet);
+    Attempt hedge = call.startAttempt(releasedSlots::incrementAndGet);
+    call.addCancelHandler(cancelledRequests::incrementAndGet);
+
+    call.succeed(hedge, new byte[]{2});
+    call.succeed(first, new byte[]{1});
+
+    assertEquals(1, results.size());
+    assertArrayEquals(new byte[]{2}, results.get(0).result());
+    //The running requests were cancelled and the slot of the hedged request was released
+    assertEquals(2, cancelledRequests.get());
+    assertEquals(1, releasedSlots.get());
+    assertTrue(call.isCompleted());
+  }
+
+  @Test
+  public void failureOfOneAttemptIsIgnored() {
+    Attempt first = call.startAttempt();
+    Attempt hedge = call.startAttempt(releasedSlots::incrementAndGet);
+
+    call.fail(hedge, new RuntimeException("hedge failed"));
+    //The slot of the failed hedged request is released immediately
+    assertEquals(1, releasedSlots.get());
+    assertTrue(results.isEmpty());
+
+    call.succeed(first, new byte[]{1});
+    assertEquals(1, results.size());
+    assertTrue(results.get(0).succeeded());
+    assertEquals(1, releasedSlots.get());
+  }
+
+  @Test
+  public void failWithLastFailure() {
+    Attempt first = call.startAttempt();
+    Attempt hedge = call.startAttempt(releasedSlots::incrementAndGet);
+    RuntimeException lastFailure = new RuntimeException("first failed");
+
+    call.fail(hedge, new RuntimeException("hedge failed"));
+    call.fail(first, lastFailure);
+    //Further failures of the same attempt are ignored
+    call.fail(first, new RuntimeException("first failed again"));
+
+    assertEquals(1, results.size());
+    assertSame(lastFailure, results.get(0).cause());
+    assertEquals(1, releasedSlots.get());
+  }
+
+  @Test
+  public void cancel() {
+    call.startAttempt();
+    call.addCancelHandler(cancelledRequests::incrementAndGet);
+    Attempt hedge = call.startAttempt(releasedSlots::incrementAndGet);
+
+    call.cancel();
+    assertEquals(1, cancelledRequests.get());
+    assertEquals(1, releasedSlots.get());
+
+    //Requests which get started after the cancellation are cancelled immediately
+    call.addCancelHandler(cancelledRequests::incrementAndGet);
+    assertEquals(2, cancelledRequests.get());
+    assertNull(call.startAttempt(releasedSlots::incrementAndGet));
+    assertEquals(2, releasedSlots.get());
+
+    call.succeed(hedge, new byte[]{1});
+    assertTrue(results.isEmpty());
+  }
+}
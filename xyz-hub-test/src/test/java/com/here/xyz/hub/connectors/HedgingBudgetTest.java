@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.connectors;
+
+import static com.here.xyz.hub.connectors.HedgingBudget.BUCKETS;
+import static com.here.xyz.hub.connectors.HedgingBudget.BUCKET_DURATION;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HedgingBudgetTest {
+
+  private static final long NOW = 1_700_000_000_000L;
+
+  @Test
+  public void noBudgetWithoutCalls() {
+    assertFalse(new HedgingBudget(0.05).tryAcquire(NOW));
+  }
+
+  @Test
+  public void limitHedgesToShareOfCalls() {
+    HedgingBudget budget = new HedgingBudget(0.05);
+    for (int i = 0; i < 100; i++)
+      budget.recordCall(NOW + i);
+
+    for (int i = 0; i < 5; i++)
+      assertTrue(budget.tryAcquire(NOW + 100));
+    assertFalse(budget.tryAcquire(NOW + 100));
+
+    //More calls increase the budget again
+    for (int i = 0; i < 20; i++)
+      budget.recordCall(NOW + 200);
+    assertTrue(budget.tryAcquire(NOW + 200));
+    assertFalse(budget.tryAcquire(NOW + 200));
+  }
+
+  @Test
+  public void slidingWindow() {
+    HedgingBudget budget = new HedgingBudget(0.05);
+    for (int i = 0; i < 20; i++)
+      budget.recordCall(NOW);
+    assertTrue(budget.tryAcquire(NOW));
+    assertFalse(budget.tryAcquire(NOW + (BUCKETS - 1) * BUCKET_DURATION));
+
+    //Once the calls left the window, there is no budget anymore
+    assertFalse(budget.tryAcquire(NOW + BUCKETS * BUCKET_DURATION));
+
+    //New calls within the window make budget available again, as the old hedge left the window as well
+    for (int i = 0; i < 20; i++)
+      budget.recordCall(NOW + BUCKETS * BUCKET_DURATION);
+    assertTrue(budget.tryAcquire(NOW + BUCKETS * BUCKET_DURATION));
+  }
+}
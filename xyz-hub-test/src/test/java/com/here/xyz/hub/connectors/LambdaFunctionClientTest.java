@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.connectors;
+
+import static io.netty.handler.codec.http.HttpResponseStatus.BAD_GATEWAY;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.here.xyz.hub.Config;
+import com.here.xyz.hub.Service;
+import com.here.xyz.hub.connectors.models.Connector;
+import com.here.xyz.hub.connectors.models.Connector.RemoteFunctionConfig;
+import com.here.xyz.util.service.Core;
+import com.here.xyz.util.service.HttpException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.jackson.DatabindCodec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.eventstream.HeaderValue;
+import software.amazon.eventstream.Message;
+
+/**
+ * Tests the invocation with response streaming against a local stand-in for the Lambda endpoint.
+ */
+public class LambdaFunctionClientTest {
+
+  private static final String LAMBDA_ARN = "arn:aws:lambda:eu-west-1:000000000000:function:test-streaming-connector";
+  private HttpServer lambdaEndpoint;
+  private final List<String> requestedPaths = new ArrayList<>();
+  private volatile List<byte[]> responseChunks;
+  private volatile String invokeCompletePayload;
+  private LambdaFunctionClient client;
+
+  @Before
+  public void setup() throws IOException {
+    lambdaEndpoint = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    lambdaEndpoint.createContext("/", this::respondWithStream);
+    lambdaEndpoint.start();
+
+    Core.vertx = Vertx.vertx();
+    Service.configuration = new Config();
+    Service.configuration.REMOTE_FUNCTION_REQUEST_TIMEOUT = 26;
+    Service.configuration.INSTANCE_COUNT = 1;
+    Service.configuration.REMOTE_FUNCTION_MAX_CONNECTIONS = 256;
+    Service.configuration.REMOTE_FUNCTION_CONNECTION_HIGH_UTILIZATION_THRESHOLD = 0.75f;
+    Service.configuration.GLOBAL_MAX_QUEUE_SIZE = 1024;
+    Service.configuration.LOCALSTACK_ENDPOINT = "http://localhost:" + lambdaEndpoint.getAddress().getPort();
+
+    Connector connector = new Connector();
+    connector.id = "test-streaming-connector";
+    connector.connectionSettings = new Connector.ConnectionSettings();
+    connector.setRemoteFunction(DatabindCodec.mapper().convertValue(Map.of(
+        "type", "AWSLambda",
+        "id", "test-streaming-function",
+        "lambdaARN", LAMBDA_ARN,
+        "responseStreaming", true), RemoteFunctionConfig.class));
+    client = new LambdaFunctionClient(connector);
+  }
+
+  @After
+  public void tearDown() {
+    client.destroy();
+    lambdaEndpoint.stop(0);
+    Core.vertx.close();
+  }
+
+  @Test
+  public void collectStreamedChunks() throws Exception {
+    responseChunks = List.of("{\"type\":\"FeatureCollection\",".getBytes(UTF_8), "\"features\":[]}".getBytes(UTF_8));
+    invokeCompletePayload = "{}";
+
+    AsyncResult<byte[]> result = invoke("{\"type\":\"GetFeaturesByBBoxEvent\"}".getBytes(UTF_8));
+
+    assertTrue(result.succeeded());
+    assertArrayEquals("{\"type\":\"FeatureCollection\",\"features\":[]}".getBytes(UTF_8), result.result());
+    assertEquals(1, requestedPaths.size());
+    assertTrue(requestedPaths.get(0).endsWith("/response-streaming-invocations"));
+  }
+
+  @Test
+  public void failOnStreamError() throws Exception {
+    responseChunks = List.of("{\"type\":\"FeatureColl".getBytes(UTF_8));
+    invokeCompletePayload = "{\"ErrorCode\":\"Runtime.ExitError\",\"ErrorDetails\":\"The function exited unexpectedly.\"}";
+
+    AsyncResult<byte[]> result = invoke("{\"type\":\"GetFeaturesByBBoxEvent\"}".getBytes(UTF_8));
+
+    assertTrue(result.failed());
+    assertTrue(result.cause() instanceof HttpException);
+    assertEquals(BAD_GATEWAY, ((HttpException) result.cause()).status);
+  }
+
+  private AsyncResult<byte[]> invoke(byte[] payload) throws Exception {
+    CompletableFuture<AsyncResult<byte[]>> result = new CompletableFuture<>();
+    RemoteFunctionClient.FunctionCall fc = client.new FunctionCall(null, payload, false, false, result::complete);
+    client.invoke(fc, result::complete);
+    return result.get(10, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Writes the configured response chunks as event stream messages, the same way the Lambda service does for InvokeWithResponseStream.
+   */
+  private void respondWithStream(HttpExchange exchange) throws IOException {
+    requestedPaths.add(exchange.getRequestURI().getPath());
+    exchange.getRequestBody().readAllBytes();
+    exchange.getResponseHeaders().add("Content-Type", "application/vnd.amazon.eventstream");
+    exchange.getResponseHeaders().add("X-Amz-Executed-Version", "$LATEST");
+    exchange.sendResponseHeaders(200, 0);
+
+    try (OutputStream os = exchange.getResponseBody()) {
+      for (byte[] chunk : responseChunks) {
+        os.write(event("PayloadChunk", "application/octet-stream", chunk));
+        os.flush();
+      }
+      os.write(event("InvokeComplete", "application/json", invokeCompletePayload.getBytes(UTF_8)));
+    }
+  }
+
+  private static byte[] event(String eventType, String contentType, byte[] payload) {
+    Map<String, HeaderValue> headers = new LinkedHashMap<>();
+    headers.put(":message-type", HeaderValue.fromString("event"));
+    headers.put(":event-type", HeaderValue.fromString(eventType));
+    headers.put(":content-type", HeaderValue.fromString(contentType));
+    ByteBuffer message = new Message(headers, payload).toByteBuffer();
+    byte[] bytes = new byte[message.remaining()];
+    message.get(bytes);
+    return bytes;
+  }
+}
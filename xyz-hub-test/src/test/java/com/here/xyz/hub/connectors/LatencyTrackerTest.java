@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.connectors;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LatencyTrackerTest {
+
+  @Test
+  public void noPercentilesWithoutEnoughSamples() {
+    LatencyTracker latencies = new LatencyTracker();
+    for (int i = 0; i < 49; i++)
+      latencies.record(100);
+    assertEquals(-1, latencies.getP95());
+    assertEquals(-1, latencies.getP99());
+  }
+
+  @Test
+  public void percentiles() {
+    LatencyTracker latencies = new LatencyTracker();
+    //Latencies 1 .. 128ms, the percentiles are re-calculated every 32 samples
+    for (int round = 0; round < 4; round++)
+      for (int latency = 1; latency <= 128; latency++)
+        latencies.record(latency);
+    assertEquals(122, latencies.getP95());
+    assertEquals(127, latencies.getP99());
+  }
+
+  @Test
+  public void slidingWindow() {
+    LatencyTracker latencies = new LatencyTracker();
+    for (int i = 0; i < 512; i++)
+      latencies.record(1_000);
+    assertEquals(1_000, latencies.getP95());
+
+    //After a full window of faster calls the old latencies are not taken into account anymore
+    for (int i = 0; i < 512; i++)
+      latencies.record(10);
+    assertEquals(10, latencies.getP95());
+    assertEquals(10, latencies.getP99());
+  }
+}
@@ -25,6 +25,7 @@ import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
 import static io.netty.handler.codec.http.HttpResponseStatus.NO_CONTENT;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.notNullValue;
@@ -193,6 +194,53 @@ public class ChangesetCollectionApiIT extends TestSpaceWithFeature {
   }
 
 
+  @Test
+  public void validateCollectionPaging() {
+    addChangeSets();
+
+    //The rows are paged by version and ID, so the changeset of version 2 is split across the first two pages
+    String pageToken = given()
+        .get("/spaces/" + cleanUpSpaceId + "/changesets?limit=3")
+        .then()
+        .statusCode(OK.code())
+        .body("startVersion", equalTo(1))
+        .body("endVersion", equalTo(2))
+        .body("versions.1.inserted.features.id", contains("A", "B"))
+        .body("versions.1.inserted.features[0].properties.name", equalTo("A1"))
+        .body("versions.1.inserted.features[0].properties.'@ns:com:here:xyz'.version", equalTo(1))
+        //Features without a geometry carry "geometry": null
+        .body("versions.1.inserted.features[0]", hasKey("geometry"))
+        .body("versions.1.inserted.features[0].geometry", nullValue())
+        .body("versions.2.inserted.features.size()", equalTo(0))
+        .body("versions.2.updated.features.id", contains("A"))
+        .body("versions.2.updated.features[0].properties.name", equalTo("A2"))
+        .body("nextPageToken", notNullValue())
+        .extract().path("nextPageToken");
+
+    pageToken = given()
+        .get("/spaces/" + cleanUpSpaceId + "/changesets?limit=3&pageToken=" + pageToken)
+        .then()
+        .statusCode(OK.code())
+        .body("startVersion", equalTo(2))
+        .body("endVersion", equalTo(3))
+        .body("versions.2.inserted.features.id", contains("C"))
+        .body("versions.2.updated.features.size()", equalTo(0))
+        .body("versions.3.updated.features.id", contains("B", "C"))
+        .body("versions.3.updated.features.properties.name", contains("B2", "C2"))
+        .body("nextPageToken", notNullValue())
+        .extract().path("nextPageToken");
+
+    given()
+        .get("/spaces/" + cleanUpSpaceId + "/changesets?limit=3&pageToken=" + pageToken)
+        .then()
+        .statusCode(OK.code())
+        .body("startVersion", equalTo(4))
+        .body("endVersion", equalTo(4))
+        .body("versions.4.updated.features.id", contains("A", "C"))
+        .body("versions.4.updated.features.properties.'@ns:com:here:xyz'.version", contains(4, 4))
+        .body("nextPageToken", nullValue());
+  }
+
   @Test
   public void validateCollectionWhenNoChangetsetPresent() {
    
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.rest;
+
+import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static io.restassured.RestAssured.given;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
+import com.here.xyz.hub.XYZHubRESTVerticle;
+import com.here.xyz.util.openapi.OpenApiGenerator;
+import java.util.Set;
+import org.junit.Test;
+
+/**
+ * Checks that the service serves the OpenAPI specs, which are generated at build time, with the same paths as the ones generated from
+ * the full spec.
+ */
+public class OpenApiSpecIT extends RestAssuredTest {
+
+  private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
+
+  @Test
+  public void getStableSpec() throws Exception {
+    assertEquals(paths(generateSpec("stable")), paths(getSpec("stable")));
+  }
+
+  @Test
+  public void getExperimentalSpec() throws Exception {
+    assertEquals(paths(generateSpec("experimental")), paths(getSpec("experimental")));
+  }
+
+  @Test
+  public void getContractSpec() throws Exception {
+    assertEquals(paths(generateSpec("contract")), paths(getSpec("contract")));
+  }
+
+  @Test
+  public void getFullSpec() throws Exception {
+    JsonNode fullSpec = YAML_MAPPER.readTree(XYZHubRESTVerticle.class.getResourceAsStream("/openapi.yaml"));
+    assertEquals(paths(fullSpec), paths(getSpec("full")));
+  }
+
+  @Test
+  public void getUnknownSpec() {
+    given()
+        .get("/static/openapi/unknown.yaml")
+        .then()
+        .statusCode(NOT_FOUND.code());
+  }
+
+  private static JsonNode getSpec(String name) throws Exception {
+    String spec = given()
+        .get("/static/openapi/" + name + ".yaml")
+        .then()
+        .statusCode(OK.code())
+        .header("content-type", "application/yaml")
+        .extract().asString();
+
+    JsonNode root = YAML_MAPPER.readTree(spec);
+    assertTrue(root.has("openapi"));
+    return root;
+  }
+
+  private static JsonNode generateSpec(String name) throws Exception {
+    byte[] source = ByteStreams.toByteArray(XYZHubRESTVerticle.class.getResourceAsStream("/openapi.yaml"));
+    byte[] recipes = ByteStreams.toByteArray(XYZHubRESTVerticle.class.getResourceAsStream("/openapi-recipes.yaml"));
+    return YAML_MAPPER.readTree(OpenApiGenerator.generate(source, recipes, name));
+  }
+
+  private static Set<String> paths(JsonNode spec) {
+    Set<String> paths = ImmutableSet.copyOf(spec.get("paths").fieldNames());
+    assertFalse(paths.isEmpty());
+    return paths;
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.task;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class FeatureCountTrackerTest {
+
+  private static String newSpaceId() {
+    return "FeatureCountTrackerTest-" + System.nanoTime();
+  }
+
+  @Test
+  public void fetchOnlyOnce() {
+    String spaceId = newSpaceId();
+    AtomicInteger fetches = new AtomicInteger();
+
+    assertEquals(10L, (long) FeatureCountTracker.getCount(spaceId, 1_000_000, () -> {
+      fetches.incrementAndGet();
+      return Future.succeededFuture(10L);
+    }).result());
+    assertEquals(10L, (long) FeatureCountTracker.getCount(spaceId, 1_000_000, () -> {
+      fetches.incrementAndGet();
+      return Future.succeededFuture(20L);
+    }).result());
+    assertEquals("The count must not be fetched again within the refresh interval.", 1, fetches.get());
+  }
+
+  @Test
+  public void applyWrites() {
+    String spaceId = newSpaceId();
+    FeatureCountTracker.getCount(spaceId, 1_000_000, () -> Future.succeededFuture(10L));
+
+    FeatureCountTracker.applyWrite(spaceId, 5, 2);
+    assertEquals(13L, (long) FeatureCountTracker.getCount(spaceId, 1_000_000, () -> Future.succeededFuture(0L)).result());
+
+    FeatureCountTracker.applyWrite(spaceId, 0, 100);
+    assertEquals("The count must never become negative.", 0L,
+        (long) FeatureCountTracker.getCount(spaceId, 1_000_000, () -> Future.succeededFuture(0L)).result());
+  }
+
+  @Test
+  public void concurrentInitialFetches() {
+    String spaceId = newSpaceId();
+    Promise<Long> fetch = Promise.promise();
+    AtomicInteger fetches = new AtomicInteger();
+
+    Future<Long> first = FeatureCountTracker.getCount(spaceId, 1_000_000, () -> {
+      fetches.incrementAndGet();
+      return fetch.future();
+    });
+    Future<Long> second = FeatureCountTracker.getCount(spaceId, 1_000_000, () -> {
+      fetches.incrementAndGet();
+      return Future.succeededFuture(0L);
+    });
+    assertFalse(first.isComplete());
+    assertEquals("Concurrent requests must share one fetch.", 1, fetches.get());
+
+    //A write taking place during the fetch must not get lost
+    FeatureCountTracker.applyWrite(spaceId, 3, 0);
+    fetch.complete(10L);
+    assertTrue(second.isComplete());
+    assertEquals(13L, (long) second.result());
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.task;
+
+import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
+import static io.netty.handler.codec.http.HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.here.xyz.hub.Config;
+import com.here.xyz.hub.Service;
+import com.here.xyz.util.service.HttpException;
+import io.vertx.core.buffer.Buffer;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FeatureTaskHandlerTest {
+
+  private static final String FEATURE = "{\"type\":\"Feature\",\"id\":\"F%d\",\"properties\":{}}";
+
+  @Before
+  public void setup() {
+    Service.configuration = new Config();
+    Service.configuration.MAX_FEATURES_PER_REQUEST = 3;
+  }
+
+  @After
+  public void tearDown() {
+    Service.configuration = null;
+  }
+
+  private static String features(int count) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < count; i++)
+      sb.append(i > 0 ? "," : "").append(String.format(FEATURE, i));
+    return sb.toString();
+  }
+
+  private static List<Map<String, Object>> parse(String body) throws HttpException {
+    return FeatureTaskHandler.getObjectsAsList(Buffer.buffer(body), null);
+  }
+
+  private static void assertRejected(String body, int expectedStatus) {
+    try {
+      parse(body);
+      fail("The body must be rejected.");
+    }
+    catch (HttpException e) {
+      assertEquals(expectedStatus, e.status.code());
+    }
+  }
+
+  @Test
+  public void parseFeatureCollection() throws HttpException {
+    List<Map<String, Object>> objects = parse("{\"type\":\"FeatureCollection\",\"features\":[" + features(3) + "]}");
+    assertEquals(3, objects.size());
+    assertEquals("F2", objects.get(2).get("id"));
+  }
+
+  @Test
+  public void parseFeatureCollectionWithoutFeatures() throws HttpException {
+    assertEquals(0, parse("{\"type\":\"FeatureCollection\"}").size());
+  }
+
+  @Test
+  public void parseFeature() throws HttpException {
+    List<Map<String, Object>> objects = parse(String.format(FEATURE, 7));
+    assertEquals(1, objects.size());
+    assertEquals("F7", objects.get(0).get("id"));
+  }
+
+  @Test
+  public void parseFeatureModificationList() throws HttpException {
+    List<Map<String, Object>> objects = parse("{\"type\":\"FeatureModificationList\",\"modifications\":[{\"featureData\":"
+        + "{\"type\":\"FeatureCollection\",\"features\":[" + features(1) + "]}},{\"featureIds\":[\"F1\"]}]}");
+    assertEquals(2, objects.size());
+  }
+
+  @Test
+  public void rejectArray() {
+    assertRejected("[" + features(2) + "]", BAD_REQUEST.code());
+  }
+
+  @Test
+  public void rejectUnknownType() {
+    assertRejected("{\"type\":\"Point\",\"coordinates\":[1,2]}", BAD_REQUEST.code());
+  }
+
+  @Test
+  public void rejectInvalidJson() {
+    assertRejected("{\"type\":\"FeatureCollection\",\"features\":[", BAD_REQUEST.code());
+  }
+
+  @Test
+  public void rejectMissingBody() {
+    try {
+      FeatureTaskHandler.getObjectsAsList(null, null);
+      fail("A missing body must be rejected.");
+    }
+    catch (HttpException e) {
+      assertEquals(BAD_REQUEST.code(), e.status.code());
+    }
+  }
+
+  @Test
+  public void rejectTooManyFeatures() {
+    assertRejected("{\"type\":\"FeatureCollection\",\"features\":[" + features(4) + "]}", REQUEST_ENTITY_TOO_LARGE.code());
+  }
+
+  @Test
+  public void rejectTooManyModifications() {
+    String modification = "{\"featureIds\":[\"F1\"]}";
+    assertRejected("{\"type\":\"FeatureModificationList\",\"modifications\":[" + String.join(",", modification, modification,
+        modification, modification) + "]}", REQUEST_ENTITY_TOO_LARGE.code());
+  }
+
+  @Test
+  public void noLimit() throws HttpException {
+    Service.configuration.MAX_FEATURES_PER_REQUEST = 0;
+    assertEquals(10, parse("{\"type\":\"FeatureCollection\",\"features\":[" + features(10) + "]}").size());
+  }
+
+  @Test
+  public void retryWithStringOnInvalidEncoding() throws HttpException {
+    //The invalid UTF-8 byte can't be decoded from the buffer directly, but is replaced when reading the body as a string
+    Buffer body = Buffer.buffer()
+        .appendString("{\"type\":\"Feature\",\"id\":\"F1\",\"properties\":{\"name\":\"")
+        .appendByte((byte) 0xff)
+        .appendString("\"}}");
+    List<Map<String, Object>> objects = FeatureTaskHandler.getObjectsAsList(body, null);
+    assertEquals(1, objects.size());
+    //noinspection unchecked
+    assertEquals("\uFFFD", ((Map<String, Object>) objects.get(0).get("properties")).get("name"));
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.task;
+
+import static com.here.xyz.hub.rest.ApiResponseType.FEATURE_COLLECTION;
+import static com.here.xyz.hub.rest.ApiResponseType.MVT;
+import static com.here.xyz.hub.rest.ApiResponseType.MVT_FLATTENED;
+import static org.junit.Assert.assertEquals;
+
+import java.util.EnumSet;
+import org.junit.Test;
+
+public class TilePrewarmerTest {
+
+  @Test
+  public void prewarmOnlyTileResponseTypes() {
+    //All response types of the tile endpoint, for which the prewarmer reproduces the transformation of the tile pipeline
+    assertEquals(EnumSet.of(FEATURE_COLLECTION, MVT, MVT_FLATTENED), TilePrewarmer.PREWARMABLE_RESPONSE_TYPES);
+  }
+}
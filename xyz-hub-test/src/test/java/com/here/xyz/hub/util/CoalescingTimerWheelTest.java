@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class CoalescingTimerWheelTest {
+
+  @Test
+  public void expireAfterOneRevolution() {
+    List<String> expired = new ArrayList<>();
+    CoalescingTimerWheel<String, String> wheel = new CoalescingTimerWheel<>(3, 10, (k, v) -> expired.add(v));
+
+    assertTrue(wheel.scheduleIfAbsent("a", "valueA"));
+    wheel.tick();
+    wheel.tick();
+    assertEquals("The key must not expire before one full revolution.", 0, expired.size());
+    wheel.tick();
+    assertEquals(1, expired.size());
+    assertEquals("valueA", expired.get(0));
+    assertEquals(0, wheel.getPendingCount());
+  }
+
+  @Test
+  public void coalesceSameKey() {
+    List<String> expired = new ArrayList<>();
+    CoalescingTimerWheel<String, String> wheel = new CoalescingTimerWheel<>(2, 10, (k, v) -> expired.add(v));
+
+    assertTrue(wheel.scheduleIfAbsent("a", "first"));
+    wheel.tick();
+    assertFalse("A pending key must not be scheduled twice.", wheel.scheduleIfAbsent("a", "second"));
+    wheel.tick();
+    assertEquals(1, expired.size());
+    assertEquals("first", expired.get(0));
+
+    assertTrue("An expired key must be schedulable again.", wheel.scheduleIfAbsent("a", "third"));
+  }
+
+  @Test
+  public void rejectWhenFull() {
+    CoalescingTimerWheel<String, String> wheel = new CoalescingTimerWheel<>(2, 2, (k, v) -> {});
+
+    assertTrue(wheel.scheduleIfAbsent("a", "a"));
+    assertTrue(wheel.scheduleIfAbsent("b", "b"));
+    assertFalse(wheel.scheduleIfAbsent("c", "c"));
+    assertEquals(2, wheel.getPendingCount());
+    assertEquals(1, wheel.getRejectedCount());
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CountMinSketchTest {
+
+  @Test
+  public void neverUnderestimate() {
+    CountMinSketch sketch = new CountMinSketch(4, 64);
+    for (int i = 0; i < 1_000; i++)
+      for (int j = 0; j <= i % 10; j++)
+        sketch.add("key" + i);
+
+    for (int i = 0; i < 1_000; i++)
+      assertTrue(sketch.estimate("key" + i) >= i % 10 + 1);
+  }
+
+  @Test
+  public void estimateHotKey() {
+    CountMinSketch sketch = new CountMinSketch(4, 1024);
+    for (int i = 0; i < 100; i++)
+      sketch.add("cold" + i);
+    int estimate = 0;
+    for (int i = 0; i < 500; i++)
+      estimate = sketch.add("hot");
+
+    assertEquals(estimate, sketch.estimate("hot"));
+    assertTrue("The estimate of the hot key must be close to its actual count.", estimate >= 500 && estimate < 520);
+  }
+
+  @Test
+  public void halve() {
+    CountMinSketch sketch = new CountMinSketch(2, 16);
+    for (int i = 0; i < 10; i++)
+      sketch.add("a");
+
+    sketch.halve();
+    assertEquals(5, sketch.estimate("a"));
+    sketch.halve();
+    sketch.halve();
+    sketch.halve();
+    assertEquals(0, sketch.estimate("a"));
+  }
+}
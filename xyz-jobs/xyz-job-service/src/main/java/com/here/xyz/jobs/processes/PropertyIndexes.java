@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.jobs.processes;
+
+import com.here.xyz.util.db.pg.PropertyIndex;
+import java.util.List;
+
+/**
+ * Describes the creation of a set of property indices on the target space, e.g., the top candidates of the index advisor.
+ */
+public class PropertyIndexes extends ProcessDescription {
+  private List<PropertyIndex> indexes;
+
+  public List<PropertyIndex> getIndexes() {
+    return indexes;
+  }
+
+  public void setIndexes(List<PropertyIndex> indexes) {
+    this.indexes = indexes;
+  }
+
+  public PropertyIndexes withIndexes(List<PropertyIndex> indexes) {
+    setIndexes(indexes);
+    return this;
+  }
+}
@@ -20,6 +20,7 @@
 package com.here.xyz.jobs.steps;
 
 import com.here.xyz.jobs.Job;
+import com.here.xyz.jobs.steps.compiler.CreatePropertyIndexes;
 import com.here.xyz.jobs.steps.compiler.ExportToFiles;
 import com.here.xyz.jobs.steps.compiler.ImportFromFiles;
 import com.here.xyz.jobs.steps.compiler.JobCompilationInterceptor;
@@ -42,6 +43,7 @@ public class JobCompiler {
     registerCompilationInterceptor(ImportFromFiles.class);
     registerCompilationInterceptor(ExportToFiles.class);
     registerCompilationInterceptor(SpaceCopy.class);
+    registerCompilationInterceptor(CreatePropertyIndexes.class);
   }
 
   public Future<StepGraph> compile(Job job) {
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.jobs.steps.compiler;
+
+import com.here.xyz.jobs.Job;
+import com.here.xyz.jobs.datasets.DatasetDescription;
+import com.here.xyz.jobs.processes.PropertyIndexes;
+import com.here.xyz.jobs.steps.CompilationStepGraph;
+import com.here.xyz.jobs.steps.JobCompiler.CompilationError;
+import com.here.xyz.jobs.steps.StepExecution;
+import com.here.xyz.jobs.steps.impl.AnalyzeSpaceTable;
+import com.here.xyz.jobs.steps.impl.CreateIndex;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles jobs which create property indices on a space.
+ * The indices are created sequentially, to keep the additional load on the database low.
+ */
+public class CreatePropertyIndexes implements JobCompilationInterceptor {
+
+  @Override
+  public boolean chooseMe(Job job) {
+    return job.getProcess() instanceof PropertyIndexes && job.getTarget() instanceof DatasetDescription.Space;
+  }
+
+  @Override
+  public CompilationStepGraph compile(Job job) {
+    String spaceId = ((DatasetDescription.Space) job.getTarget()).getId();
+    PropertyIndexes process = (PropertyIndexes) job.getProcess();
+
+    if (process.getIndexes() == null || process.getIndexes().isEmpty())
+      throw new CompilationError("No property indexes were specified.");
+
+    List<StepExecution> indexSteps = process.getIndexes().stream()
+        .map(index -> (StepExecution) new CreateIndex().withPropertyIndex(index).withSpaceId(spaceId))
+        .collect(Collectors.toList());
+
+    return (CompilationStepGraph) new CompilationStepGraph()
+        .addExecution(new CompilationStepGraph().withExecutions(indexSteps))
+        .addExecution(new AnalyzeSpaceTable().withSpaceId(spaceId));
+  }
+}
@@ -86,4 +86,9 @@ public class Config extends BaseConfig {
   public List<String> forbiddenSourceRegions() {
     return fromCommaSeparatedList(FORBIDDEN_SOURCE_REGIONS);
   }
+
+  /**
+   * The size in bytes above which data being produced by steps for an upload gets spilled from memory into a local temporary file
+   */
+  public long SPILL_THRESHOLD_BYTES = 32 * 1024 * 1024;
 }
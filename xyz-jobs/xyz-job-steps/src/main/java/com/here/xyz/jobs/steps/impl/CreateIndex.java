@@ -26,6 +26,7 @@ import com.here.xyz.jobs.steps.impl.tools.ResourceAndTimeCalculator;
 import com.here.xyz.jobs.steps.resources.Load;
 import com.here.xyz.jobs.steps.resources.TooManyResourcesClaimed;
 import com.here.xyz.models.hub.Space;
+import com.here.xyz.util.db.pg.PropertyIndex;
 import com.here.xyz.util.db.pg.XyzSpaceTableHelper.Index;
 import com.here.xyz.util.web.XyzWebClient.WebClientException;
 import java.sql.SQLException;
@@ -37,6 +38,10 @@ import org.apache.logging.log4j.Logger;
 public class CreateIndex extends SpaceBasedStep<CreateIndex> {
   private static final Logger logger = LogManager.getLogger();
   private Index index;
+  /**
+   * A property index to be created instead of one of the system indices, e.g., as suggested by the index advisor of the connector
+   */
+  private PropertyIndex propertyIndex;
   private Space space;
 
   @JsonView({Internal.class, Static.class})
@@ -45,8 +50,8 @@ public class CreateIndex extends SpaceBasedStep<CreateIndex> {
   @Override
   public List<Load> getNeededResources() {
     try{
-      double acus = ResourceAndTimeCalculator.getInstance().calculateNeededIndexAcus(getUncompressedUploadBytesEstimation(), index);
-      logger.info("[{}] {} neededACUs {}", getGlobalStepId(), index, acus);
+      double acus = calculateNeededAcus();
+      logger.info("[{}] {} neededACUs {}", getGlobalStepId(), getIndexDescription(), acus);
 
       return Collections.singletonList(new Load().withResource(db()).withEstimatedVirtualUnits(acus));
     }
@@ -68,22 +73,36 @@ public class CreateIndex extends SpaceBasedStep<CreateIndex> {
   @Override
   public int getEstimatedExecutionSeconds() {
     if (estimatedSeconds < 0) {
-      estimatedSeconds = ResourceAndTimeCalculator.getInstance().calculateIndexCreationTimeInSeconds(getSpaceId(), getUncompressedUploadBytesEstimation() , index);
-      logger.info("[{}] {} estimatedSeconds {}", getGlobalStepId(), index, estimatedSeconds);
+      estimatedSeconds = propertyIndex != null
+          ? ResourceAndTimeCalculator.getInstance().calculateIndexCreationTimeInSeconds(getSpaceId(), getUncompressedUploadBytesEstimation(), propertyIndex)
+          : ResourceAndTimeCalculator.getInstance().calculateIndexCreationTimeInSeconds(getSpaceId(), getUncompressedUploadBytesEstimation() , index);
+      logger.info("[{}] {} estimatedSeconds {}", getGlobalStepId(), getIndexDescription(), estimatedSeconds);
     }
     return estimatedSeconds;
   }
 
   @Override
   public String getDescription() {
-    return "Creates the " + index + " index on space " + getSpaceId();
+    return "Creates the " + getIndexDescription() + " index on space " + getSpaceId();
   }
 
   @Override
   public void execute() throws SQLException, TooManyResourcesClaimed, WebClientException {
-    logger.info("Creating the index " + index + " for space " + getSpaceId() + " ...");
-    runWriteQueryAsync(buildSpaceTableIndexQuery(getSchema(db()), getRootTableName(space()), index), db(),
-            ResourceAndTimeCalculator.getInstance().calculateNeededIndexAcus(getUncompressedUploadBytesEstimation(), index));
+    logger.info("Creating the index " + getIndexDescription() + " for space " + getSpaceId() + " ...");
+    final String schema = getSchema(db());
+    final String table = getRootTableName(space());
+    runWriteQueryAsync(propertyIndex != null ? propertyIndex.buildCreateQuery(schema, table) : buildSpaceTableIndexQuery(schema, table, index),
+        db(), calculateNeededAcus());
+  }
+
+  private double calculateNeededAcus() {
+    return propertyIndex != null
+        ? ResourceAndTimeCalculator.getInstance().calculateNeededIndexAcus(getUncompressedUploadBytesEstimation(), propertyIndex)
+        : ResourceAndTimeCalculator.getInstance().calculateNeededIndexAcus(getUncompressedUploadBytesEstimation(), index);
+  }
+
+  private String getIndexDescription() {
+    return propertyIndex != null ? propertyIndex.toString() : String.valueOf(index);
   }
 
   @Override
@@ -107,4 +126,17 @@ public class CreateIndex extends SpaceBasedStep<CreateIndex> {
     setIndex(index);
     return this;
   }
+
+  public PropertyIndex getPropertyIndex() {
+    return propertyIndex;
+  }
+
+  public void setPropertyIndex(PropertyIndex propertyIndex) {
+    this.propertyIndex = propertyIndex;
+  }
+
+  public CreateIndex withPropertyIndex(PropertyIndex propertyIndex) {
+    setPropertyIndex(propertyIndex);
+    return this;
+  }
 }
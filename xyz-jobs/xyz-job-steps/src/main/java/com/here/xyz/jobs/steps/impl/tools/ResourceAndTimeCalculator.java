@@ -21,6 +21,7 @@ package com.here.xyz.jobs.steps.impl.tools;
 
 import com.here.xyz.jobs.steps.Config;
 import com.here.xyz.jobs.steps.execution.LambdaBasedStep;
+import com.here.xyz.util.db.pg.PropertyIndex;
 import com.here.xyz.util.db.pg.XyzSpaceTableHelper;
 import com.here.xyz.util.di.ImplementationProvider;
 import com.here.xyz.util.service.Initializable;
@@ -207,6 +208,30 @@ public class ResourceAndTimeCalculator implements Initializable {
         };
     }
 
+    public int calculateIndexCreationTimeInSeconds(String spaceId, long byteSize, PropertyIndex index){
+        int warmUpTime = 1;
+        double bytesPerBillion = byteSize  / 1_000_000_000d;
+        double fact = byteSize < 100_000_000_000l ? 0.5 : 1;
+
+        double importTimeInMin = switch (index.getMethod()){
+            case BTREE -> 0.02 * bytesPerBillion;
+            case GIN -> 0.05 * bytesPerBillion;
+        };
+
+        return (int)(warmUpTime + (importTimeInMin * fact * 60));
+    }
+
+    public double calculateNeededIndexAcus(long byteSize, PropertyIndex index) {
+        double minACUs = 0.01;
+        //Threshold which defines when we scale to maximum
+        double globalMax = 200d * 1024 * 1024 * 1024;
+
+        return switch (index.getMethod()){
+            case BTREE -> interpolate(globalMax, 10, byteSize, minACUs);
+            case GIN -> interpolate(globalMax, 20, byteSize, minACUs);
+        };
+    }
+
     public int calculateIndexTimeoutSeconds(String spaceId, long byteSize, XyzSpaceTableHelper.Index index) {
         int t = calculateIndexCreationTimeInSeconds(spaceId, byteSize, index) * 3;
         return Math.min(Math.max(t, MIN_IDX_CREATION_TIME_IN_SECONDS), MAX_IDX_CREATION_TIME_IN_SECONDS);
@@ -25,9 +25,9 @@ import com.here.xyz.jobs.steps.inputs.Input;
 import com.here.xyz.jobs.steps.inputs.UploadUrl;
 import com.here.xyz.jobs.steps.outputs.DownloadUrl;
 import com.here.xyz.jobs.util.S3Client;
+import com.here.xyz.jobs.util.SpillBuffer;
 import com.here.xyz.util.service.BaseHttpServerVerticle;
 import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashSet;
@@ -79,9 +79,9 @@ public class CompressFiles extends SyncLambdaStep {
 
   @Override
   public void execute() throws Exception {
-    // stores all data in memory, which may need optimization for large data sets
-    try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        ZipOutputStream zipStream = new ZipOutputStream(outputStream)) {
+    //Data exceeding the spill threshold is written to a local file instead of being kept in memory
+    SpillBuffer zipBuffer = new SpillBuffer();
+    try (ZipOutputStream zipStream = new ZipOutputStream(zipBuffer)) {
 
       for (InputSet inputSet : getInputSets()) {
         for (Input input : loadInputs(inputSet, UploadUrl.class)) {
@@ -91,12 +91,10 @@ public class CompressFiles extends SyncLambdaStep {
 
       zipStream.finish();
 
-      byte[] byteArray = outputStream.toByteArray();
-
       registerOutputs(List.of(new DownloadUrl()
-          .withContent(byteArray)
+          .withContent(zipBuffer)
           .withContentType(ZIP_CONTENT_TYPE)
-          .withByteSize(byteArray.length)
+          .withByteSize(zipBuffer.size())
       ), COMPRESSED_DATA);
 
       logger.info("ZIP successfully written to S3");
@@ -24,6 +24,7 @@ import com.fasterxml.jackson.annotation.JsonView;
 import com.here.xyz.jobs.steps.Config;
 import com.here.xyz.jobs.steps.S3DataFile;
 import com.here.xyz.jobs.util.S3Client;
+import com.here.xyz.jobs.util.SpillBuffer;
 import java.io.IOException;
 import java.net.URL;
 
@@ -32,10 +33,19 @@ public class DownloadUrl extends Output<DownloadUrl> implements S3DataFile {
   private long byteSize;
   @JsonIgnore
   private byte[] content;
+  @JsonIgnore
+  private SpillBuffer spilledContent;
   private String contentType = "application/octet-stream";
 
   @Override
   public void store(String s3Key) throws IOException {
+    if (spilledContent != null) {
+      try (SpillBuffer buffer = spilledContent) {
+        S3Client.getInstance().putObject(s3Key, contentType, buffer);
+      }
+      spilledContent = null;
+      return;
+    }
     if (content == null)
       throw new IllegalStateException("No content was provided for the output to be stored.");
     S3Client.getInstance().putObject(s3Key, contentType, content);
@@ -64,6 +74,19 @@ public class DownloadUrl extends Output<DownloadUrl> implements S3DataFile {
     return this;
   }
 
+  /**
+   * Sets the content of this output from a buffer which might have been spilled to a local file.
+   * The buffer will be closed after the output has been stored.
+   */
+  public void setContent(SpillBuffer content) {
+    this.spilledContent = content;
+  }
+
+  public DownloadUrl withContent(SpillBuffer content) {
+    setContent(content);
+    return this;
+  }
+
   public void setContentType(String contentType) {
     this.contentType = contentType;
   }
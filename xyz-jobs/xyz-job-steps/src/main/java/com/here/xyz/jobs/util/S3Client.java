@@ -44,6 +44,11 @@ public class S3Client {
   private static Map<String, S3Client> instances = new ConcurrentHashMap<>();
   private final String bucketName;
   protected static final int PRESIGNED_URL_EXPIRATION_SECONDS = 7 * 24 * 60 * 60;
+  /**
+   * The minimum size of the parts of multipart uploads
+   */
+  private static final int PART_SIZE = 16 * 1024 * 1024;
+  private static final int MAX_PARTS = 10_000;
 
   //TODO: Switch to AWS SDK2
 
@@ -174,6 +179,47 @@ public class S3Client {
     }
   }
 
+  /**
+   * Uploads the content of a {@link SpillBuffer}.
+   * Spilled content is uploaded as multipart upload, reading each part from a mapped region of the spill file.
+   *
+   * @param s3Key The key of the object to be written
+   * @param contentType The content type of the object
+   * @param content The buffer holding the content, it will not be closed by this method
+   */
+  public void putObject(String s3Key, String contentType, SpillBuffer content) throws IOException {
+    ObjectMetadata metadata = new ObjectMetadata();
+    metadata.setContentType(contentType);
+
+    if (!content.isSpilled()) {
+      metadata.setContentLength(content.size());
+      client.putObject(new PutObjectRequest(bucketName, s3Key, content.openInputStream(), metadata));
+      return;
+    }
+
+    long partSize = Math.max(PART_SIZE, (content.size() + MAX_PARTS - 1) / MAX_PARTS);
+    String uploadId = client.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucketName, s3Key, metadata)).getUploadId();
+    try {
+      List<PartETag> partETags = new ArrayList<>();
+      int partNumber = 1;
+      for (long offset = 0; offset < content.size(); offset += partSize) {
+        int length = (int) Math.min(partSize, content.size() - offset);
+        partETags.add(client.uploadPart(new UploadPartRequest()
+            .withBucketName(bucketName)
+            .withKey(s3Key)
+            .withUploadId(uploadId)
+            .withPartNumber(partNumber++)
+            .withPartSize(length)
+            .withInputStream(content.openInputStream(offset, length))).getPartETag());
+      }
+      client.completeMultipartUpload(new CompleteMultipartUploadRequest(bucketName, s3Key, uploadId, partETags));
+    }
+    catch (IOException | RuntimeException e) {
+      client.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, s3Key, uploadId));
+      throw e;
+    }
+  }
+
   public ObjectMetadata loadMetadata(String key) {
     return client.getObjectMetadata(bucketName, key);
   }
@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.jobs.util;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import com.here.xyz.jobs.steps.Config;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A buffer for data being produced by job steps before it gets uploaded to S3 (e.g. the archive of {@code CompressFiles}), which
+ * might be larger than the heap of the Lambda or container running the step.
+ * It's only used for uploads, see {@link S3Client#putObject(String, String, SpillBuffer)}. Downloads are not spilled, as the steps
+ * read their inputs as streams.
+ * Data is kept in memory until it exceeds a threshold, then it gets spilled to a local temporary file.
+ * Spilled data is read back through memory mapped regions of the file, so it never has to be copied into the heap as a whole.
+ * The temporary file gets deleted when the buffer is closed.
+ * NOTE: This class is not thread-safe.
+ */
+public class SpillBuffer extends OutputStream {
+
+  public static final long DEFAULT_SPILL_THRESHOLD = 32 * 1024 * 1024;
+  /**
+   * The maximum size of a region which is mapped at once when reading the buffer sequentially
+   */
+  private static final int MAX_REGION_SIZE = 64 * 1024 * 1024;
+  private static final int FILE_WRITE_BUFFER_SIZE = 256 * 1024;
+  private final long threshold;
+  private final int maxRegionSize;
+  private MemoryBuffer memory = new MemoryBuffer();
+  private Path spillFile;
+  private FileChannel channel;
+  private OutputStream fileOut;
+  private long size;
+  private boolean closed;
+
+  public SpillBuffer() {
+    this(Config.instance != null ? Config.instance.SPILL_THRESHOLD_BYTES : DEFAULT_SPILL_THRESHOLD);
+  }
+
+  public SpillBuffer(long threshold) {
+    this(threshold, MAX_REGION_SIZE);
+  }
+
+  SpillBuffer(long threshold, int maxRegionSize) {
+    this.threshold = threshold;
+    this.maxRegionSize = maxRegionSize;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    ensureOpen();
+    if (memory != null && memory.size() + 1 > threshold)
+      spill();
+    (memory != null ? memory : fileOut).write(b);
+    size++;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    ensureOpen();
+    if (memory != null && memory.size() + len > threshold)
+      spill();
+    (memory != null ? memory : fileOut).write(b, off, len);
+    size += len;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (fileOut != null)
+      fileOut.flush();
+  }
+
+  /**
+   * @return The number of bytes which have been written to this buffer
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * @return true if the data of this buffer has been spilled to a local file
+   */
+  public boolean isSpilled() {
+    return spillFile != null;
+  }
+
+  /**
+   * Returns a read-only view on a region of this buffer.
+   * For spilled data, the region is mapped from the spill file.
+   *
+   * @param offset The offset of the region
+   * @param length The length of the region
+   * @return The read-only region
+   */
+  public ByteBuffer map(long offset, int length) throws IOException {
+    ensureOpen();
+    if (offset < 0 || length < 0 || offset + length > size)
+      throw new IndexOutOfBoundsException("Region " + offset + "+" + length + " is out of the buffer's bounds (" + size + ").");
+    if (memory != null)
+      return memory.region((int) offset, length);
+    flush();
+    return channel.map(READ_ONLY, offset, length);
+  }
+
+  /**
+   * Opens a stream reading the specified region of this buffer.
+   * The stream supports mark & reset, so that it can be re-read, e.g., on retries of uploads.
+   */
+  public InputStream openInputStream(long offset, int length) throws IOException {
+    return new ByteBufferInputStream(map(offset, length));
+  }
+
+  /**
+   * Opens a stream reading the whole content of this buffer.
+   * Spilled data is mapped region by region while the stream is being read.
+   */
+  public InputStream openInputStream() throws IOException {
+    ensureOpen();
+    return new InputStream() {
+      private long position;
+      private ByteBuffer region = ByteBuffer.allocate(0);
+
+      @Override
+      public int read() throws IOException {
+        if (!nextRegion())
+          return -1;
+        return region.get() & 0xFF;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0)
+          return 0;
+        if (!nextRegion())
+          return -1;
+        int bytesRead = Math.min(len, region.remaining());
+        region.get(b, off, bytesRead);
+        return bytesRead;
+      }
+
+      private boolean nextRegion() throws IOException {
+        if (region.hasRemaining())
+          return true;
+        if (position >= size)
+          return false;
+        int length = (int) Math.min(maxRegionSize, size - position);
+        region = map(position, length);
+        position += length;
+        return true;
+      }
+    };
+  }
+
+  private void spill() throws IOException {
+    spillFile = Files.createTempFile("xyz-spill-", ".tmp");
+    channel = FileChannel.open(spillFile, READ, WRITE);
+    fileOut = new BufferedOutputStream(Channels.newOutputStream(channel), FILE_WRITE_BUFFER_SIZE);
+    memory.writeTo(fileOut);
+    memory = null;
+  }
+
+  Path getSpillFile() {
+    return spillFile;
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed)
+      throw new IOException("The spill buffer has already been closed.");
+  }
+
+  /**
+   * Releases the memory of this buffer and deletes the spill file if existing.
+   * NOTE: Regions which have been mapped before stay valid until they get garbage collected.
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed)
+      return;
+    closed = true;
+    memory = null;
+    if (channel != null) {
+      try {
+        channel.close();
+      }
+      finally {
+        //NOTE: DELETE_ON_CLOSE is not used, as it unlinks the file already when opening it on some platforms
+        Files.deleteIfExists(spillFile);
+      }
+    }
+  }
+
+  private static class MemoryBuffer extends ByteArrayOutputStream {
+
+    private ByteBuffer region(int offset, int length) {
+      return ByteBuffer.wrap(buf, offset, length).slice().asReadOnlyBuffer();
+    }
+  }
+
+  private static class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    private ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+      buffer.mark();
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len == 0)
+        return 0;
+      if (!buffer.hasRemaining())
+        return -1;
+      int bytesRead = Math.min(len, buffer.remaining());
+      buffer.get(b, off, bytesRead);
+      return bytesRead;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+
+    @Override
+    public boolean markSupported() {
+      return true;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit) {
+      buffer.mark();
+    }
+
+    @Override
+    public synchronized void reset() {
+      buffer.reset();
+    }
+  }
+}
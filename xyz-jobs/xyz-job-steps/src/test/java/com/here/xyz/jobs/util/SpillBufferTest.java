@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.jobs.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class SpillBufferTest {
+
+  private static byte[] testData(int length) {
+    byte[] data = new byte[length];
+    for (int i = 0; i < length; i++)
+      data[i] = (byte) (i * 31 + 7);
+    return data;
+  }
+
+  private static byte[] readAll(InputStream in, int chunkSize) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] chunk = new byte[chunkSize];
+    int bytesRead;
+    while ((bytesRead = in.read(chunk, 0, chunkSize)) != -1)
+      out.write(chunk, 0, bytesRead);
+    return out.toByteArray();
+  }
+
+  private static byte[] toBytes(ByteBuffer region) {
+    byte[] bytes = new byte[region.remaining()];
+    region.get(bytes);
+    return bytes;
+  }
+
+  @Test
+  public void keepSmallContentInMemory() throws IOException {
+    byte[] data = testData(10);
+    try (SpillBuffer buffer = new SpillBuffer(10)) {
+      buffer.write(data, 0, data.length);
+      assertFalse(buffer.isSpilled());
+      assertEquals(10, buffer.size());
+      assertArrayEquals(data, readAll(buffer.openInputStream(), 4));
+    }
+  }
+
+  @Test
+  public void spillOnThresholdCrossingArrayWrite() throws IOException {
+    byte[] data = testData(25);
+    try (SpillBuffer buffer = new SpillBuffer(10)) {
+      buffer.write(data, 0, 6);
+      assertFalse(buffer.isSpilled());
+      //The write which would exceed the threshold moves the content written so far into the spill file
+      buffer.write(data, 6, 5);
+      assertTrue(buffer.isSpilled());
+      assertTrue(Files.exists(buffer.getSpillFile()));
+      buffer.write(data, 11, 14);
+      assertEquals(25, buffer.size());
+      assertArrayEquals(data, readAll(buffer.openInputStream(), 8));
+    }
+  }
+
+  @Test
+  public void spillOnThresholdCrossingSingleByteWrite() throws IOException {
+    byte[] data = testData(12);
+    try (SpillBuffer buffer = new SpillBuffer(10)) {
+      for (int i = 0; i < 10; i++)
+        buffer.write(data[i]);
+      assertFalse(buffer.isSpilled());
+      buffer.write(data[10]);
+      buffer.write(data[11]);
+      assertTrue(buffer.isSpilled());
+      assertArrayEquals(data, readAll(buffer.openInputStream(), 5));
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 3, 7, 100})
+  public void readAcrossRegionBoundaries(int chunkSize) throws IOException {
+    byte[] data = testData(100);
+    //Regions of 7 bytes, so that neither the chunks nor the end of the content align with the region boundaries
+    try (SpillBuffer buffer = new SpillBuffer(16, 7)) {
+      buffer.write(data);
+      assertTrue(buffer.isSpilled());
+
+      assertArrayEquals(data, readAll(buffer.openInputStream(), chunkSize));
+
+      InputStream in = buffer.openInputStream();
+      for (byte b : data)
+        assertEquals(b & 0xFF, in.read());
+      assertEquals(-1, in.read());
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  public void mapRegions(boolean spilled) throws IOException {
+    byte[] data = testData(100);
+    try (SpillBuffer buffer = new SpillBuffer(spilled ? 16 : 1000, 7)) {
+      buffer.write(data);
+      assertEquals(spilled, buffer.isSpilled());
+
+      //Mapped regions are not bound to the region size which is used for sequential reading
+      assertArrayEquals(Arrays.copyOfRange(data, 5, 95), toBytes(buffer.map(5, 90)));
+      assertArrayEquals(Arrays.copyOfRange(data, 99, 100), toBytes(buffer.map(99, 1)));
+      assertTrue(buffer.map(0, 10).isReadOnly());
+      assertThrows(IndexOutOfBoundsException.class, () -> buffer.map(95, 6));
+      assertThrows(IndexOutOfBoundsException.class, () -> buffer.map(-1, 6));
+
+      InputStream in = buffer.openInputStream(20, 30);
+      assertTrue(in.markSupported());
+      assertEquals(30, in.available());
+      assertArrayEquals(Arrays.copyOfRange(data, 20, 50), readAll(in, 8));
+      //Re-reading the region, e.g., on a retry of an upload
+      in.reset();
+      assertArrayEquals(Arrays.copyOfRange(data, 20, 50), readAll(in, 8));
+    }
+  }
+
+  @Test
+  public void readWrittenDataAfterSpilling() throws IOException {
+    byte[] data = testData(50);
+    try (SpillBuffer buffer = new SpillBuffer(16)) {
+      buffer.write(data, 0, 20);
+      //Data still being buffered for the file must be flushed before mapping
+      assertArrayEquals(Arrays.copyOfRange(data, 0, 20), toBytes(buffer.map(0, 20)));
+      buffer.write(data, 20, 30);
+      assertArrayEquals(data, toBytes(buffer.map(0, 50)));
+    }
+  }
+
+  @Test
+  public void deleteSpillFileOnClose() throws IOException {
+    SpillBuffer buffer = new SpillBuffer(16);
+    buffer.write(testData(20));
+    Path spillFile = buffer.getSpillFile();
+    assertTrue(Files.exists(spillFile));
+
+    buffer.close();
+    assertFalse(Files.exists(spillFile));
+    //Closing again has no effect
+    buffer.close();
+
+    assertThrows(IOException.class, () -> buffer.write(1));
+    assertThrows(IOException.class, () -> buffer.map(0, 1));
+    assertThrows(IOException.class, () -> buffer.openInputStream());
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.jobs.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.here.xyz.jobs.util.test.StepTestBase;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the upload of {@link SpillBuffer} contents against the local S3.
+ */
+public class SpillBufferUploadTest extends StepTestBase {
+
+  private static final String TEST_PREFIX = "spill-buffer-test/";
+
+  @AfterEach
+  public void cleanUp() {
+    cleanS3Files(TEST_PREFIX);
+  }
+
+  private static byte[] randomData(int length) {
+    byte[] data = new byte[length];
+    new Random(42).nextBytes(data);
+    return data;
+  }
+
+  @Test
+  public void uploadInMemoryContent() throws IOException {
+    byte[] data = randomData(1024);
+    String s3Key = TEST_PREFIX + "in-memory";
+
+    try (SpillBuffer buffer = new SpillBuffer(4096)) {
+      buffer.write(data);
+      assertFalse(buffer.isSpilled());
+      S3Client.getInstance().putObject(s3Key, "application/octet-stream", buffer);
+    }
+
+    assertArrayEquals(data, S3Client.getInstance().loadObjectContent(s3Key));
+  }
+
+  @Test
+  public void uploadSpilledContentAsMultipartUpload() throws IOException {
+    //Larger than one part (16 MB), so that the upload consists of a full part and a smaller last part
+    byte[] data = randomData(20 * 1024 * 1024 + 123);
+    String s3Key = TEST_PREFIX + "spilled";
+
+    try (SpillBuffer buffer = new SpillBuffer(1024 * 1024)) {
+      buffer.write(data);
+      assertTrue(buffer.isSpilled());
+      S3Client.getInstance().putObject(s3Key, "application/octet-stream", buffer);
+    }
+
+    ObjectMetadata metadata = S3Client.getInstance().loadMetadata(s3Key);
+    assertEquals(data.length, metadata.getContentLength());
+    assertEquals("application/octet-stream", metadata.getContentType());
+    //The ETag of multipart uploads is suffixed with the number of parts
+    assertTrue(metadata.getETag().endsWith("-2"), "Unexpected ETag " + metadata.getETag());
+    assertArrayEquals(data, S3Client.getInstance().loadObjectContent(s3Key));
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz;
+
+import static com.here.xyz.XyzSerializable.Mappers.DEFAULT_MAPPER;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.here.xyz.models.geojson.implementation.Feature;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An index on the raw JSON of a feature array.
+ * The array is scanned once, recording the position and the ID of each feature, without creating any feature objects.
+ * That allows answering the feature count and the feature IDs, as well as parsing single features on demand.
+ * Features which have not been parsed can be written as they are, without being serialized again.
+ */
+class LazyFeatureArray {
+
+  private static final String FEATURE_TYPE = "Feature";
+  private final String source;
+  private int size;
+  private int[] starts = new int[16];
+  private int[] ends = new int[16];
+  private String[] ids = new String[16];
+  /**
+   * Marks features without a type property, which has to be added for backwards compatibility
+   */
+  private boolean[] missingType = new boolean[16];
+  private Feature[] parsed;
+  private boolean anyParsed;
+
+  private LazyFeatureArray(String source) {
+    this.source = source;
+  }
+
+  /**
+   * Scans the raw JSON of a feature array.
+   *
+   * @param source The JSON array
+   * @return The index on the array
+   */
+  static LazyFeatureArray index(String source) throws JsonProcessingException {
+    LazyFeatureArray array = new LazyFeatureArray(source);
+    try (JsonParser parser = DEFAULT_MAPPER.get().getFactory().createParser(source)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY)
+        throw MismatchedInputException.from(parser, List.class, "The features must be a JSON array.");
+
+      JsonToken token;
+      while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+        int start = (int) parser.getTokenLocation().getCharOffset();
+        String id = null;
+        boolean hasType = token != JsonToken.START_OBJECT;
+        if (token == JsonToken.START_OBJECT) {
+          while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken valueToken = parser.nextToken();
+            if ("id".equals(fieldName) && valueToken.isScalarValue() && valueToken != JsonToken.VALUE_NULL)
+              id = parser.getValueAsString();
+            else if ("type".equals(fieldName))
+              hasType = true;
+            parser.skipChildren();
+          }
+        }
+        else
+          parser.skipChildren();
+        array.add(start, (int) parser.getCurrentLocation().getCharOffset(), id, !hasType);
+      }
+    }
+    catch (JsonProcessingException e) {
+      throw e;
+    }
+    catch (IOException e) {
+      //Can not happen when reading from a string
+      throw new IllegalStateException(e);
+    }
+    array.parsed = new Feature[array.size];
+    return array;
+  }
+
+  private void add(int start, int end, String id, boolean missingType) {
+    if (size == starts.length) {
+      int newLength = size * 2;
+      starts = Arrays.copyOf(starts, newLength);
+      ends = Arrays.copyOf(ends, newLength);
+      ids = Arrays.copyOf(ids, newLength);
+      this.missingType = Arrays.copyOf(this.missingType, newLength);
+    }
+    starts[size] = start;
+    ends[size] = end;
+    ids[size] = id;
+    this.missingType[size] = missingType;
+    size++;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * @return The ID of the feature at the specified position or null, if the feature has no ID
+   */
+  String getId(int index) {
+    checkIndex(index);
+    return parsed[index] != null ? parsed[index].getId() : ids[index];
+  }
+
+  List<String> getIds() {
+    List<String> featureIds = new ArrayList<>(size);
+    for (int i = 0; i < size; i++)
+      featureIds.add(getId(i));
+    return featureIds;
+  }
+
+  /**
+   * Returns the feature at the specified position.
+   * The feature is parsed on first access, later accesses return the same instance.
+   */
+  Feature get(int index) throws JsonProcessingException {
+    checkIndex(index);
+    if (parsed[index] == null) {
+      parsed[index] = DEFAULT_MAPPER.get().readValue(getRaw(index), Feature.class);
+      anyParsed = true;
+    }
+    return parsed[index];
+  }
+
+  /**
+   * Parses all features which have not been parsed yet.
+   * @return A new mutable list of all features
+   */
+  List<Feature> toList() throws JsonProcessingException {
+    List<Feature> features = new ArrayList<>(size);
+    for (int i = 0; i < size; i++)
+      features.add(get(i));
+    return features;
+  }
+
+  /**
+   * @return Whether any of the features has been parsed, and thus might have been modified
+   */
+  boolean isAnyParsed() {
+    return anyParsed;
+  }
+
+  private String getRaw(int index) {
+    String raw = source.substring(starts[index], ends[index]);
+    if (!missingType[index])
+      return raw;
+    //Add the type property right after the opening brace
+    String remainder = raw.substring(1).trim();
+    return "{\"type\":\"" + FEATURE_TYPE + "\"" + (remainder.equals("}") ? "" : ",") + remainder;
+  }
+
+  /**
+   * Writes the feature array. Parsed features are serialized, all others are written as raw JSON.
+   */
+  void writeTo(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+    gen.writeStartArray();
+    for (int i = 0; i < size; i++) {
+      if (parsed[i] != null)
+        serializers.defaultSerializeValue(parsed[i], gen);
+      else
+        gen.writeRawValue(getRaw(i));
+    }
+    gen.writeEndArray();
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size)
+      throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for " + size + " features.");
+  }
+}
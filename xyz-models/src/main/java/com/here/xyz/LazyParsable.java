@@ -19,15 +19,13 @@
 
 package com.here.xyz;
 
-
-import static com.here.xyz.XyzSerializable.Mappers.DEFAULT_MAPPER;
-
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonCreator.Mode;
 import com.fasterxml.jackson.annotation.JsonValue;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
@@ -39,6 +37,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.here.xyz.models.geojson.implementation.Feature;
 import java.io.IOException;
 import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.List;
 
 public class LazyParsable<T> {
@@ -47,6 +46,7 @@ public class LazyParsable<T> {
   };
   private static final String FEATURE_TYPE = "Feature";
   private String valueString;
+  private LazyFeatureArray index;
   private T value;
 
   public LazyParsable() {
@@ -61,8 +61,9 @@ public class LazyParsable<T> {
   public T get() throws JsonProcessingException {
     if (valueString != null) {
       //TODO: Make generic
-      value = (T) DEFAULT_MAPPER.get().readValue(valueString, FEATURE_LIST);
+      value = (T) index().toList();
       valueString = null;
+      index = null;
     }
     return value;
   }
@@ -71,9 +72,43 @@ public class LazyParsable<T> {
     this.value = value;
     if (valueString != null) {
       valueString = null;
+      index = null;
     }
   }
 
+  private LazyFeatureArray index() throws JsonProcessingException {
+    if (index == null)
+      index = LazyFeatureArray.index(valueString);
+    return index;
+  }
+
+  /**
+   * Returns the number of features without parsing them.
+   */
+  public int getFeatureCount() throws JsonProcessingException {
+    if (valueString != null)
+      return index().size();
+    return value == null ? 0 : ((List<?>) value).size();
+  }
+
+  /**
+   * Returns the IDs of all features without parsing them.
+   */
+  public List<String> getFeatureIds() throws JsonProcessingException {
+    if (valueString != null)
+      return index().getIds();
+    return value == null ? List.of() : ((List<Feature>) value).stream().map(Feature::getId).toList();
+  }
+
+  /**
+   * Returns the feature at the specified position, only that feature gets parsed.
+   */
+  public Feature getFeature(int position) throws JsonProcessingException {
+    if (valueString != null)
+      return index().get(position);
+    return ((List<Feature>) value).get(position);
+  }
+
   private String getValueString() {
     return valueString;
   }
@@ -88,12 +123,6 @@ public class LazyParsable<T> {
     public Object deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
       int start = (int) jp.getCurrentLocation().getCharOffset();
 
-      //TODO: Currently the object is parsed, in few cases when this could be avoided.
-      // 1. If getTokenLocation()/getCurrentLocation().getCharOffset() returns -1, the source reference is not a string, but an input
-      //  stream, byte array, etc. and the value could be still extracted as a string efficiently.
-      // 2.  If getTokenLocation()/getCurrentLocation().getCharOffset() larger than 0, but the location doesn't point to the position of
-      // the token, then it is possible to extract the value in some cases. For the rest (e.g. input stream without mark support, etc.)
-      // the value must be parsed.
       final Object sourceRef = jp.getCurrentLocation().getSourceRef();
       String source = (sourceRef instanceof String) ? (String) sourceRef
           : (sourceRef instanceof ProxyStringReader) ? ((ProxyStringReader) sourceRef).source : null;
@@ -104,6 +133,15 @@ public class LazyParsable<T> {
         return source.substring(start - 1, end);
       }
 
+      if (jp.currentToken() == JsonToken.START_ARRAY) {
+        //The source is not a string (e.g., a byte array or a stream), so copy the array as it is, without creating the features
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator gen = jp.getCodec().getFactory().createGenerator(writer)) {
+          gen.copyCurrentStructure(jp);
+        }
+        return writer.toString();
+      }
+
       // necessary to allow Feature objects which has no type attribute (for backward compatibility)
       final JsonNode node = jp.readValueAsTree();
       for (JsonNode currNode : node) {
@@ -123,9 +161,12 @@ public class LazyParsable<T> {
     @Override
     public void serialize(Object value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
       if (value instanceof LazyParsable) {
-        final String valueString = ((LazyParsable) value).valueString;
-        if (valueString != null) {
-          gen.writeRawValue(valueString);
+        final LazyParsable lazyParsable = (LazyParsable) value;
+        if (lazyParsable.index != null && lazyParsable.index.isAnyParsed()) {
+          //Some features have been parsed and might have been modified, all others can be written as they are
+          lazyParsable.index.writeTo(gen, serializers);
+        } else if (lazyParsable.valueString != null) {
+          gen.writeRawValue(lazyParsable.valueString);
         } else {
           //TODO: Make generic
           serializers.findTypedValueSerializer(serializers.getTypeFactory().constructType(FEATURE_LIST), true, null)
@@ -26,54 +26,55 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.here.xyz.LazyParsable.ProxyStringReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
-import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public interface XyzSerializable {
 
+  /**
+   * Holds one shared set of {@link ObjectMapper}s for all threads.
+   * The mappers are never re-configured after they have been created, which makes them safe to be used concurrently.
+   * Whenever subtypes or mix-ins are registered, a new set of mappers is created and replaces the current one atomically.
+   * Additionally, the {@link ObjectReader}s per target type and the {@link ObjectWriter}s per view are cached, so that the
+   * (de)serializers resolved for them are shared by all threads as well.
+   * If the Jackson Blackbird module is available on the classpath, it gets registered on all mappers to use generated accessors
+   * instead of reflection.
+   */
   class Mappers {
-    public static final ThreadLocal<ObjectMapper> DEFAULT_MAPPER = ThreadLocal.withInitial(
-        () -> registerNewMapper(new ObjectMapper().setSerializationInclusion(Include.NON_NULL)));
-    private static final ThreadLocal<ObjectMapper> PUBLIC_MAPPER = ThreadLocal.withInitial(
-        () -> registerNewMapper(new ObjectMapper().setConfig(DEFAULT_MAPPER.get().getSerializationConfig().withView(Public.class))));
-    private static final ThreadLocal<ObjectMapper> STATIC_MAPPER = ThreadLocal.withInitial(
-        () -> registerNewMapper(new ObjectMapper().setConfig(DEFAULT_MAPPER.get().getSerializationConfig().withView(Static.class))));
-    protected static final ThreadLocal<ObjectMapper> SORTED_MAPPER = ThreadLocal.withInitial(
-        () -> registerNewMapper(new ObjectMapper().configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
-            .setSerializationInclusion(Include.NON_NULL)));
+    public static final SharedMapper DEFAULT_MAPPER = new SharedMapper(mappers -> mappers.defaultMapper);
+    private static final SharedMapper PUBLIC_MAPPER = new SharedMapper(mappers -> mappers.publicMapper);
+    private static final SharedMapper STATIC_MAPPER = new SharedMapper(mappers -> mappers.staticMapper);
+    protected static final SharedMapper SORTED_MAPPER = new SharedMapper(mappers -> mappers.sortedMapper);
+    private static final String BLACKBIRD_MODULE = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
     private static final Collection<Class<?>> REGISTERED_SUBTYPES = new ConcurrentLinkedQueue<>();
     private static final Map<Class<?>, Class<?>> ALL_MIX_INS = new ConcurrentHashMap<>();
-    private static final Collection<ObjectMapper> ALL_MAPPERS = Collections.newSetFromMap(Collections.synchronizedMap(new WeakHashMap<>()));
+    private static volatile MapperSet mappers = new MapperSet();
     private static boolean alwaysSerializePretty = false;
 
-    private static ObjectMapper registerNewMapper(ObjectMapper om) {
-      ALL_MAPPERS.add(om);
-      om.registerSubtypes(REGISTERED_SUBTYPES.toArray(Class<?>[]::new));
-      om.setMixIns(ALL_MIX_INS);
-      return om;
-    }
-
-    private static void registerSubtypes(Class<?>... classes) {
-      //Add the new subtypes to the list of registered subtypes so that they will be registered on new ObjectMappers
+    private static synchronized void registerSubtypes(Class<?>... classes) {
+      //Add the new subtypes to the list of registered subtypes and replace the existing mappers
       REGISTERED_SUBTYPES.addAll(Arrays.asList(classes));
-      //Register the new subtypes on all existing mappers
-      ALL_MAPPERS.forEach(om -> om.registerSubtypes(classes));
+      mappers = new MapperSet();
     }
 
-    private static void registerMixIn(Class<?> target, Class<?> mixinSource) {
+    private static synchronized void registerMixIn(Class<?> target, Class<?> mixinSource) {
       ALL_MIX_INS.put(target, mixinSource);
-      ALL_MAPPERS.forEach(om -> om.addMixIn(target, mixinSource));
+      mappers = new MapperSet();
     }
 
     /**
@@ -83,16 +84,82 @@ public interface XyzSerializable {
      * @return the {@link ObjectMapper} for the given view, the "default mapper" if <code>null</code> is passed as view
      */
     protected static ObjectMapper getMapperForView(Class<? extends SerializationView> view) {
-      if (view == null)
-        return DEFAULT_MAPPER.get();
+      return mappers.forView(view);
+    }
+
+    private static ObjectWriter getWriterForView(Class<? extends SerializationView> view, boolean pretty) {
+      MapperSet currentMappers = mappers;
+      ObjectMapper mapper = currentMappers.forView(view);
+      return pretty
+          ? currentMappers.prettyWriters.computeIfAbsent(mapper, ObjectMapper::writerWithDefaultPrettyPrinter)
+          : currentMappers.writers.computeIfAbsent(mapper, ObjectMapper::writer);
+    }
+
+    private static ObjectReader getReaderFor(Type type) {
+      MapperSet currentMappers = mappers;
+      return currentMappers.readers.computeIfAbsent(type,
+          t -> currentMappers.defaultMapper.readerFor(currentMappers.defaultMapper.getTypeFactory().constructType(t)));
+    }
 
-      if (Static.class.isAssignableFrom(view))
-        return STATIC_MAPPER.get();
+    private static ObjectMapper configure(ObjectMapper om) {
+      om.registerSubtypes(REGISTERED_SUBTYPES.toArray(Class<?>[]::new));
+      om.setMixIns(ALL_MIX_INS);
+      Module blackbird = loadBlackbirdModule();
+      if (blackbird != null)
+        om.registerModule(blackbird);
+      return om;
+    }
+
+    private static Module loadBlackbirdModule() {
+      try {
+        return (Module) Class.forName(BLACKBIRD_MODULE).getDeclaredConstructor().newInstance();
+      }
+      catch (ReflectiveOperationException | LinkageError e) {
+        return null;
+      }
+    }
+
+    private static class MapperSet {
+      private final ObjectMapper defaultMapper = configure(new ObjectMapper().setSerializationInclusion(Include.NON_NULL));
+      private final ObjectMapper publicMapper = configure(new ObjectMapper()
+          .setConfig(defaultMapper.getSerializationConfig().withView(Public.class)));
+      private final ObjectMapper staticMapper = configure(new ObjectMapper()
+          .setConfig(defaultMapper.getSerializationConfig().withView(Static.class)));
+      private final ObjectMapper sortedMapper = configure(new ObjectMapper().configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+          .setSerializationInclusion(Include.NON_NULL));
+      private final Map<ObjectMapper, ObjectWriter> writers = new ConcurrentHashMap<>();
+      private final Map<ObjectMapper, ObjectWriter> prettyWriters = new ConcurrentHashMap<>();
+      private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+      private ObjectMapper forView(Class<? extends SerializationView> view) {
+        if (view == null)
+          return defaultMapper;
+
+        if (Static.class.isAssignableFrom(view))
+          return staticMapper;
+
+        if (Public.class.isAssignableFrom(view))
+          return publicMapper;
+
+        return defaultMapper;
+      }
+    }
+
+    /**
+     * Provides access to one of the shared mappers.
+     * The mapper must not be re-configured by the caller.
+     */
+    public static class SharedMapper implements Supplier<ObjectMapper> {
+      private final Function<MapperSet, ObjectMapper> selector;
 
-      if (Public.class.isAssignableFrom(view))
-        return PUBLIC_MAPPER.get();
+      private SharedMapper(Function<MapperSet, ObjectMapper> selector) {
+        this.selector = selector;
+      }
 
-      return DEFAULT_MAPPER.get();
+      @Override
+      public ObjectMapper get() {
+        return selector.apply(mappers);
+      }
     }
   }
 
@@ -155,9 +222,8 @@ public interface XyzSerializable {
   }
 
   private static String serialize(Object object, Class<? extends SerializationView> view, boolean pretty) {
-    ObjectMapper mapper = getMapperForView(view);
     try {
-      return pretty || Mappers.alwaysSerializePretty ? mapper.writerWithDefaultPrettyPrinter().writeValueAsString(object) : mapper.writeValueAsString(object);
+      return Mappers.getWriterForView(view, pretty || Mappers.alwaysSerializePretty).writeValueAsString(object);
     }
     catch (JsonProcessingException e) {
       throw new RuntimeException("Failed to encode as JSON: " + e.getMessage(), e);
@@ -301,7 +367,7 @@ public interface XyzSerializable {
     To circumvent that, wrap the source string with a custom string reader, which provides access to the input string.
      */
     try {
-      return DEFAULT_MAPPER.get().readValue(new ProxyStringReader(string), klass);
+      return Mappers.getReaderFor(klass).readValue(new ProxyStringReader(string));
     }
     catch (JsonProcessingException e) {
       //NOTE: This catch block must stay, because JsonProcessingException extends IOException
@@ -314,7 +380,7 @@ public interface XyzSerializable {
 
   @SuppressWarnings("unused")
   static <T> T deserialize(String string, TypeReference<T> type) throws JsonProcessingException {
-    return DEFAULT_MAPPER.get().readerFor(type).readValue(string);
+    return Mappers.getReaderFor(type.getType()).readValue(string);
   }
 
   static <T extends Typed> T fromMap(Map<String, Object> map) {
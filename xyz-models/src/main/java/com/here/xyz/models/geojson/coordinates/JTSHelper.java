@@ -23,6 +23,8 @@ import com.here.xyz.models.geojson.implementation.GeometryItem;
 import java.util.ArrayList;
 import java.util.List;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
 import org.locationtech.jts.geom.GeometryFactory;
@@ -34,6 +36,9 @@ import org.locationtech.jts.geom.MultiPolygon;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+import org.locationtech.jts.geom.util.GeometryEditor;
+import org.locationtech.jts.geom.util.GeometryEditor.CoordinateSequenceOperation;
 
 public class JTSHelper {
 
@@ -82,13 +87,13 @@ public class JTSHelper {
       return null;
     }
 
-    Coordinate[] jtsCoords = new Coordinate[coords.size()];
-
-    for (int i = 0; i < jtsCoords.length; i++) {
-      jtsCoords[i] = toCoordinate(coords.get(i));
+    //The packed coordinate sequence shares the backing array with the GeoJSON coordinates
+    CoordinateSequence sequence = coords.toCoordinateSequence();
+    if (sequence != null) {
+      return JTSHelper.factory.createLineString(sequence);
     }
 
-    return JTSHelper.factory.createLineString(jtsCoords);
+    return JTSHelper.factory.createLineString(toCoordinates(coords));
   }
 
   /**
@@ -154,13 +159,23 @@ public class JTSHelper {
       return null;
     }
 
+    //The packed coordinate sequence shares the backing array with the GeoJSON coordinates
+    CoordinateSequence sequence = coords.toCoordinateSequence();
+    if (sequence != null) {
+      return factory.createLinearRing(sequence);
+    }
+
+    return factory.createLinearRing(toCoordinates(coords));
+  }
+
+  private static Coordinate[] toCoordinates(PositionList coords) {
     Coordinate[] jtsCoords = new Coordinate[coords.size()];
 
     for (int i = 0; i < jtsCoords.length; i++) {
       jtsCoords[i] = toCoordinate(coords.get(i));
     }
 
-    return factory.createLinearRing(jtsCoords);
+    return jtsCoords;
   }
 
   /**
@@ -221,6 +236,54 @@ public class JTSHelper {
 
   }
 
+  /**
+   * Returns a geometry of which all coordinates have a Z ordinate. Missing Z ordinates are set to 0.
+   * If all coordinates of the provided geometry already have a Z ordinate, the geometry itself is returned.
+   * The provided geometry is never modified, as its coordinates might be shared with the according GeoJSON geometry.
+   */
+  public static Geometry assure3d(Geometry geometry) {
+    if (geometry == null || has3dCoordinates(geometry)) {
+      return geometry;
+    }
+
+    return new GeometryEditor(geometry.getFactory()).edit(geometry, new CoordinateSequenceOperation() {
+      @Override
+      public CoordinateSequence edit(CoordinateSequence sequence, Geometry geometry) {
+        CoordinateSequence sequence3d = new PackedCoordinateSequence.Double(sequence.size(), 3, 0);
+        for (int i = 0; i < sequence.size(); i++) {
+          double z = sequence.getDimension() > 2 ? sequence.getZ(i) : Double.NaN;
+          sequence3d.setOrdinate(i, CoordinateSequence.X, sequence.getX(i));
+          sequence3d.setOrdinate(i, CoordinateSequence.Y, sequence.getY(i));
+          sequence3d.setOrdinate(i, CoordinateSequence.Z, Double.isNaN(z) ? 0 : z);
+        }
+        return sequence3d;
+      }
+    });
+  }
+
+  private static boolean has3dCoordinates(Geometry geometry) {
+    boolean[] has3dCoordinates = {true};
+    geometry.apply(new CoordinateSequenceFilter() {
+      @Override
+      public void filter(CoordinateSequence sequence, int i) {
+        if (sequence.getDimension() < 3 || Double.isNaN(sequence.getZ(i))) {
+          has3dCoordinates[0] = false;
+        }
+      }
+
+      @Override
+      public boolean isDone() {
+        return !has3dCoordinates[0];
+      }
+
+      @Override
+      public boolean isGeometryChanged() {
+        return false;
+      }
+    });
+    return has3dCoordinates[0];
+  }
+
   // ############## Methods to convert from JTS to GeoJSON ##############
 
   /**
@@ -19,29 +19,79 @@
 
 package com.here.xyz.models.geojson.coordinates;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.ClassUtil;
 import com.here.xyz.models.geojson.declaration.IBoundedCoordinates;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
 
-public class Position extends ArrayList<Double> implements IBoundedCoordinates {
+/**
+ * A position consisting of longitude, latitude and optionally altitude.
+ * The ordinates are stored as primitive doubles. A position which was retrieved from a {@link PositionList} is a flyweight view on the
+ * packed array of that list, so it does not hold any ordinates itself and writes to it are reflected in the list.
+ */
+@JsonSerialize(using = Position.Serializer.class)
+@JsonDeserialize(using = Position.Deserializer.class)
+public class Position extends AbstractList<Double> implements RandomAccess, IBoundedCoordinates {
 
   private static final int LONGITUDE = 0;
   private static final int LATITUDE = 1;
   private static final int ALTITUDE = 2;
 
+  private final PositionList list;
+  private final int index;
+  private double[] values;
+  private int size;
+
   public Position() {
-    super();
+    list = null;
+    index = -1;
+    values = new double[3];
   }
 
   public Position(double longitude, double latitude) {
     this();
-    this.add(LONGITUDE, longitude);
-    this.add(LATITUDE, latitude);
+    values[LONGITUDE] = longitude;
+    values[LATITUDE] = latitude;
+    size = 2;
   }
 
   public Position(double longitude, double latitude, double altitude) {
     this(longitude, latitude);
-    this.add(ALTITUDE, altitude);
+    values[ALTITUDE] = altitude;
+    size = 3;
+  }
+
+  Position(double[] values, int size) {
+    list = null;
+    index = -1;
+    this.values = values;
+    this.size = size;
+  }
+
+  /**
+   * Creates a view on the position with the specified index within the packed array of the specified list.
+   */
+  Position(PositionList list, int index) {
+    this.list = list;
+    this.index = index;
   }
 
   /**
@@ -89,14 +139,79 @@ public class Position extends ArrayList<Double> implements IBoundedCoordinates {
     return null;
   }
 
+  @Override
+  public Double get(int index) {
+    Objects.checkIndex(index, size());
+    double value = getOrdinate(index);
+    return Double.isNaN(value) ? null : value;
+  }
+
+  @Override
+  public Double set(int index, Double value) {
+    Objects.checkIndex(index, size());
+    Double old = get(index);
+    if (list != null)
+      list.setOrdinate(this.index, index, value == null ? Double.NaN : value);
+    else
+      values[index] = value == null ? Double.NaN : value;
+    return old;
+  }
+
+  @Override
+  public void add(int index, Double value) {
+    Objects.checkIndex(index, size() + 1);
+    double[] ordinates = toOrdinates(size() + 1);
+    int count = size();
+    System.arraycopy(ordinates, index, ordinates, index + 1, count - index);
+    ordinates[index] = value == null ? Double.NaN : value;
+    setOrdinates(ordinates, count + 1);
+    modCount++;
+  }
+
+  @Override
+  public Double remove(int index) {
+    Objects.checkIndex(index, size());
+    Double old = get(index);
+    double[] ordinates = toOrdinates(size());
+    int count = size();
+    System.arraycopy(ordinates, index + 1, ordinates, index, count - index - 1);
+    setOrdinates(ordinates, count - 1);
+    modCount++;
+    return old;
+  }
+
+  @Override
+  public int size() {
+    return list != null ? list.getOrdinateCount(index) : size;
+  }
+
+  double getOrdinate(int index) {
+    return list != null ? list.getOrdinate(this.index, index) : values[index];
+  }
+
+  private double[] toOrdinates(int capacity) {
+    int count = size();
+    double[] ordinates = new double[Math.max(capacity, count)];
+    for (int i = 0; i < count; i++)
+      ordinates[i] = getOrdinate(i);
+    return ordinates;
+  }
+
+  private void setOrdinates(double[] ordinates, int count) {
+    if (list != null)
+      list.setOrdinates(index, ordinates, count);
+    else {
+      values = ordinates.length < 3 ? Arrays.copyOf(ordinates, 3) : ordinates;
+      size = count;
+    }
+  }
+
   public Double getLongitude() {
     return this.get(LONGITUDE);
   }
 
   public Double setLongitude(Double longitude) {
-    Double old = this.remove(LONGITUDE);
-    this.add(LONGITUDE, longitude);
-    return old;
+    return this.set(LONGITUDE, longitude);
   }
 
   public Double getLatitude() {
@@ -104,9 +219,7 @@ public class Position extends ArrayList<Double> implements IBoundedCoordinates {
   }
 
   public Double setLatitude(Double latitude) {
-    Double old = this.remove(LATITUDE);
-    this.add(LATITUDE, latitude);
-    return old;
+    return this.set(LATITUDE, latitude);
   }
 
   public Double getAltitude() {
@@ -114,9 +227,10 @@ public class Position extends ArrayList<Double> implements IBoundedCoordinates {
   }
 
   public Double setAltitude(Double altitude) {
-    Double old = this.size() > 2 ? this.remove(ALTITUDE) : null;
+    if (this.size() > 2)
+      return this.set(ALTITUDE, altitude);
     this.add(ALTITUDE, altitude);
-    return old;
+    return null;
   }
 
   public BBox calculateBBox() {
@@ -127,4 +241,81 @@ public class Position extends ArrayList<Double> implements IBoundedCoordinates {
     }
     return null;
   }
+
+  static void writeOrdinate(JsonGenerator gen, double value) throws IOException {
+    if (Double.isNaN(value))
+      gen.writeNull();
+    else
+      gen.writeNumber(value);
+  }
+
+  static double readOrdinate(JsonParser p, DeserializationContext ctxt) throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT)
+      return p.getDoubleValue();
+    //Use the default number handling for all other tokens (e.g. coercion of strings & error handling)
+    Double value = ctxt.readValue(p, Double.class);
+    return value == null ? Double.NaN : value;
+  }
+
+  /**
+   * Writes the ordinates directly without boxing them.
+   */
+  public static class Serializer extends StdSerializer<Position> {
+
+    public Serializer() {
+      super(Position.class);
+    }
+
+    @Override
+    public void serialize(Position position, JsonGenerator gen, SerializerProvider provider) throws IOException {
+      int count = position.size();
+      gen.writeStartArray(position, count);
+      for (int i = 0; i < count; i++)
+        writeOrdinate(gen, position.getOrdinate(i));
+      gen.writeEndArray();
+    }
+  }
+
+  /**
+   * Reads the ordinates directly without boxing them.
+   * The concrete position type is resolved from the deserialization context, so this deserializer is used for all subclasses as well.
+   */
+  public static class Deserializer extends StdDeserializer<Position> implements ContextualDeserializer {
+
+    public Deserializer() {
+      this(Position.class);
+    }
+
+    private Deserializer(Class<?> type) {
+      super(type);
+    }
+
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) {
+      JavaType type = ctxt.getContextualType() != null ? ctxt.getContextualType() : property != null ? property.getType() : null;
+      return type == null || type.getRawClass() == handledType() ? this : new Deserializer(type.getRawClass());
+    }
+
+    @Override
+    public Position deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+      if (!p.isExpectedStartArrayToken())
+        return (Position) ctxt.handleUnexpectedToken(handledType(), p);
+
+      Position position;
+      try {
+        position = (Position) ClassUtil.createInstance(handledType(), true);
+      }
+      catch (IllegalArgumentException e) {
+        throw JsonMappingException.from(p, "Unable to create " + handledType().getSimpleName(), e);
+      }
+
+      while (p.nextToken() != JsonToken.END_ARRAY) {
+        if (position.size == position.values.length)
+          position.values = Arrays.copyOf(position.values, position.size + 1);
+        position.values[position.size++] = readOrdinate(p, ctxt);
+      }
+      return position;
+    }
+  }
 }
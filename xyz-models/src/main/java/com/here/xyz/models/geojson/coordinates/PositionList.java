@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2017-2019 HERE Europe B.V.
+ * Copyright (C) 2017-2024 HERE Europe B.V.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,23 +19,323 @@
 
 package com.here.xyz.models.geojson.coordinates;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.ClassUtil;
 import com.here.xyz.models.geojson.declaration.IBoundedCoordinates;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
 
 /**
  * A list of positions.
+ * The ordinates of all positions are stored in one packed double array using a fixed stride (the dimension of the list).
+ * Positions having fewer ordinates than the dimension of the list are padded with {@link Double#NaN}.
+ * The positions returned by {@link #get(int)} are flyweight views on the packed array, so writes to them are reflected in the list.
+ * Positions which are added to the list are copied into the packed array.
  */
-public class PositionList extends ArrayList<Position> implements IBoundedCoordinates {
+@JsonSerialize(using = PositionList.Serializer.class)
+@JsonDeserialize(using = PositionList.Deserializer.class)
+public class PositionList extends AbstractList<Position> implements RandomAccess, IBoundedCoordinates {
+
+  private static final int DEFAULT_DIMENSION = 2;
+  private static final double[] EMPTY = new double[0];
+
+  private double[] coordinates;
+  private int dimension = DEFAULT_DIMENSION;
+  private int size;
 
   public PositionList() {
-    super();
+    coordinates = EMPTY;
   }
 
   public PositionList(int size) {
-    super(size);
+    coordinates = size == 0 ? EMPTY : new double[size * DEFAULT_DIMENSION];
+  }
+
+  /**
+   * Creates a list which is backed by the provided packed coordinates.
+   *
+   * @param packedCoordinates The ordinates of all positions, one position after the other
+   * @param dimension The number of ordinates per position
+   */
+  public PositionList(double[] packedCoordinates, int dimension) {
+    if (dimension < DEFAULT_DIMENSION)
+      throw new IllegalArgumentException("The dimension of a position list must be at least " + DEFAULT_DIMENSION + ".");
+    if (packedCoordinates.length % dimension != 0)
+      throw new IllegalArgumentException("The length of the packed coordinates must be a multiple of the dimension.");
+    coordinates = packedCoordinates;
+    this.dimension = dimension;
+    size = packedCoordinates.length / dimension;
+  }
+
+  @Override
+  public Position get(int index) {
+    Objects.checkIndex(index, size);
+    return new Position(this, index);
+  }
+
+  @Override
+  public Position set(int index, Position position) {
+    Objects.checkIndex(index, size);
+    Position old = copyOf(index);
+    writeOrdinates(index, position);
+    return old;
+  }
+
+  @Override
+  public void add(int index, Position position) {
+    Objects.checkIndex(index, size + 1);
+    ensureDimension(position == null ? 0 : position.size());
+    ensureCapacity(size + 1);
+    System.arraycopy(coordinates, index * dimension, coordinates, (index + 1) * dimension, (size - index) * dimension);
+    size++;
+    modCount++;
+    writeOrdinates(index, position);
+  }
+
+  @Override
+  public Position remove(int index) {
+    Objects.checkIndex(index, size);
+    Position old = copyOf(index);
+    System.arraycopy(coordinates, (index + 1) * dimension, coordinates, index * dimension, (size - index - 1) * dimension);
+    size--;
+    modCount++;
+    return old;
+  }
+
+  @Override
+  public void clear() {
+    size = 0;
+    modCount++;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return The number of ordinates which are stored per position
+   */
+  public int getDimension() {
+    return dimension;
+  }
+
+  /**
+   * Returns the packed ordinates of all positions. The returned array is the backing array of this list, so changes to it are reflected
+   * in this list and vice versa, as long as the list is not structurally modified.
+   *
+   * @return The packed ordinates with the stride of {@link #getDimension()}
+   */
+  public double[] getPackedCoordinates() {
+    if (coordinates.length != size * dimension)
+      coordinates = Arrays.copyOf(coordinates, size * dimension);
+    return coordinates;
+  }
+
+  /**
+   * Creates a JTS coordinate sequence which shares the backing array with this list.
+   *
+   * @return The coordinate sequence or null, if the positions can not be represented as JTS coordinates
+   */
+  CoordinateSequence toCoordinateSequence() {
+    if (dimension > 3)
+      return null;
+    return new PackedCoordinateSequence.Double(getPackedCoordinates(), dimension, 0);
   }
 
   public BBox calculateBBox() {
-    return IBoundedCoordinates.calculate(this);
+    double minLon = Double.POSITIVE_INFINITY;
+    double minLat = Double.POSITIVE_INFINITY;
+    double maxLon = Double.NEGATIVE_INFINITY;
+    double maxLat = Double.NEGATIVE_INFINITY;
+
+    for (int i = 0; i < size * dimension; i += dimension) {
+      double lon = coordinates[i];
+      double lat = coordinates[i + 1];
+      if (Double.isNaN(lon) || Double.isNaN(lat))
+        continue;
+      minLon = Math.min(minLon, lon);
+      minLat = Math.min(minLat, lat);
+      maxLon = Math.max(maxLon, lon);
+      maxLat = Math.max(maxLat, lat);
+    }
+
+    return minLon == Double.POSITIVE_INFINITY ? null : new BBox(minLon, minLat, maxLon, maxLat);
+  }
+
+  double getOrdinate(int index, int ordinateIndex) {
+    Objects.checkIndex(index, size);
+    return ordinateIndex < dimension ? coordinates[index * dimension + ordinateIndex] : Double.NaN;
+  }
+
+  void setOrdinate(int index, int ordinateIndex, double value) {
+    Objects.checkIndex(index, size);
+    if (ordinateIndex >= dimension)
+      ensureDimension(ordinateIndex + 1);
+    coordinates[index * dimension + ordinateIndex] = value;
+  }
+
+  /**
+   * Returns the number of ordinates of the position at the specified index, which is the index of its last ordinate, which is not
+   * {@link Double#NaN} plus one.
+   */
+  int getOrdinateCount(int index) {
+    Objects.checkIndex(index, size);
+    int offset = index * dimension;
+    int count = dimension;
+    while (count > 0 && Double.isNaN(coordinates[offset + count - 1]))
+      count--;
+    return count;
+  }
+
+  void setOrdinates(int index, double[] values, int count) {
+    Objects.checkIndex(index, size);
+    ensureDimension(count);
+    int offset = index * dimension;
+    System.arraycopy(values, 0, coordinates, offset, count);
+    Arrays.fill(coordinates, offset + count, offset + dimension, Double.NaN);
+  }
+
+  private void addOrdinates(double[] values, int count) {
+    ensureDimension(count);
+    ensureCapacity(size + 1);
+    size++;
+    modCount++;
+    setOrdinates(size - 1, values, count);
+  }
+
+  private void writeOrdinates(int index, Position position) {
+    if (position == null) {
+      setOrdinates(index, EMPTY, 0);
+      return;
+    }
+    int count = position.size();
+    double[] values = new double[count];
+    for (int i = 0; i < count; i++)
+      values[i] = position.getOrdinate(i);
+    setOrdinates(index, values, count);
+  }
+
+  private Position copyOf(int index) {
+    int count = getOrdinateCount(index);
+    return new Position(Arrays.copyOfRange(coordinates, index * dimension, index * dimension + count), count);
+  }
+
+  private void ensureCapacity(int minSize) {
+    if (coordinates.length < minSize * dimension) {
+      int newSize = Math.max(minSize, size + (size >> 1) + 1);
+      coordinates = Arrays.copyOf(coordinates, newSize * dimension);
+    }
+  }
+
+  /**
+   * Increases the stride of the packed array if a position with more ordinates than the current dimension has to be stored.
+   */
+  private void ensureDimension(int ordinateCount) {
+    if (ordinateCount <= dimension)
+      return;
+    double[] restrided = new double[Math.max(size, coordinates.length / dimension) * ordinateCount];
+    Arrays.fill(restrided, Double.NaN);
+    for (int i = 0; i < size; i++)
+      System.arraycopy(coordinates, i * dimension, restrided, i * ordinateCount, dimension);
+    coordinates = restrided;
+    dimension = ordinateCount;
+  }
+
+  /**
+   * Writes the packed ordinates directly without creating any {@link Position} instances.
+   */
+  public static class Serializer extends StdSerializer<PositionList> {
+
+    public Serializer() {
+      super(PositionList.class);
+    }
+
+    @Override
+    public void serialize(PositionList positions, JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeStartArray(positions, positions.size);
+      for (int i = 0; i < positions.size; i++) {
+        int count = positions.getOrdinateCount(i);
+        int offset = i * positions.dimension;
+        gen.writeStartArray(null, count);
+        for (int j = 0; j < count; j++)
+          Position.writeOrdinate(gen, positions.coordinates[offset + j]);
+        gen.writeEndArray();
+      }
+      gen.writeEndArray();
+    }
+  }
+
+  /**
+   * Reads the ordinates directly into the packed array of the list without creating any {@link Position} instances.
+   * The concrete list type is resolved from the deserialization context, so this deserializer is used for all subclasses as well.
+   */
+  public static class Deserializer extends StdDeserializer<PositionList> implements ContextualDeserializer {
+
+    public Deserializer() {
+      this(PositionList.class);
+    }
+
+    private Deserializer(Class<?> type) {
+      super(type);
+    }
+
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) {
+      JavaType type = ctxt.getContextualType() != null ? ctxt.getContextualType() : property != null ? property.getType() : null;
+      return type == null || type.getRawClass() == handledType() ? this : new Deserializer(type.getRawClass());
+    }
+
+    @Override
+    public PositionList deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+      if (!p.isExpectedStartArrayToken())
+        return (PositionList) ctxt.handleUnexpectedToken(handledType(), p);
+
+      PositionList positions;
+      try {
+        positions = (PositionList) ClassUtil.createInstance(handledType(), true);
+      }
+      catch (IllegalArgumentException e) {
+        throw JsonMappingException.from(p, "Unable to create " + handledType().getSimpleName(), e);
+      }
+
+      double[] values = new double[3];
+      JsonToken token;
+      while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+        if (token == JsonToken.VALUE_NULL) {
+          positions.addOrdinates(values, 0);
+          continue;
+        }
+        if (token != JsonToken.START_ARRAY)
+          return (PositionList) ctxt.handleUnexpectedToken(handledType(), p);
+
+        int count = 0;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+          if (count == values.length)
+            values = Arrays.copyOf(values, count + 1);
+          values[count++] = Position.readOrdinate(p, ctxt);
+        }
+        positions.addOrdinates(values, count);
+      }
+      return positions;
+    }
   }
 }
@@ -19,6 +19,7 @@
 
 package com.here.xyz.models.geojson.implementation;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
@@ -120,6 +121,38 @@ public class FeatureCollection extends XyzResponse<FeatureCollection> {
     return features != null ? this.features.get() : null;
   }
 
+  /**
+   * Returns the number of features.
+   * If the features have not been parsed yet, they are only scanned, but not parsed.
+   */
+  @JsonIgnore
+  public int getFeatureCount() throws JsonProcessingException {
+    return features != null ? features.getFeatureCount() : 0;
+  }
+
+  /**
+   * Returns the IDs of all features.
+   * If the features have not been parsed yet, they are only scanned, but not parsed.
+   */
+  @JsonIgnore
+  public List<String> getFeatureIds() throws JsonProcessingException {
+    return features != null ? features.getFeatureIds() : List.of();
+  }
+
+  /**
+   * Returns the feature at the specified position.
+   * If the features have not been parsed yet, only the requested feature gets parsed. Features which have not been parsed, will be
+   * serialized from their original JSON representation.
+   *
+   * @param position The position of the feature in the collection
+   * @return The feature
+   */
+  public Feature getFeature(int position) throws JsonProcessingException {
+    if (features == null)
+      throw new IndexOutOfBoundsException("The feature collection contains no features.");
+    return features.getFeature(position);
+  }
+
   public void setFeatures(List<Feature> features) {
     if (this.features == null) {
       this.features = new LazyParsable<>();
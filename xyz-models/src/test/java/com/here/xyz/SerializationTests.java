@@ -19,11 +19,17 @@
 
 package com.here.xyz;
 
+import static com.here.xyz.XyzSerializable.Mappers.DEFAULT_MAPPER;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.here.xyz.XyzSerializable.Public;
 import java.util.Map;
 import org.junit.Test;
@@ -64,6 +70,32 @@ public class SerializationTests {
 
 
 
+  @Test
+  public void testMappersAreSharedAcrossThreads() throws Exception {
+    ObjectMapper[] otherThreadMapper = new ObjectMapper[1];
+    Thread otherThread = new Thread(() -> otherThreadMapper[0] = DEFAULT_MAPPER.get());
+    otherThread.start();
+    otherThread.join();
+
+    assertSame(DEFAULT_MAPPER.get(), otherThreadMapper[0]);
+  }
+
+  @Test
+  public void testRegisterSubtypesAfterUsage() throws JsonProcessingException {
+    final String serialized = "{\"type\":\"LateRegisteredModel\"}";
+    //Use the current mappers & readers before the registration
+    assertThrows(JsonProcessingException.class, () -> XyzSerializable.deserialize(serialized));
+
+    ObjectMapper mapperBeforeRegistration = DEFAULT_MAPPER.get();
+    XyzSerializable.registerSubtypes(LateRegisteredModel.class);
+
+    assertNotSame(mapperBeforeRegistration, DEFAULT_MAPPER.get());
+    assertTrue(XyzSerializable.deserialize(serialized) instanceof LateRegisteredModel);
+  }
+
+  @JsonTypeName("LateRegisteredModel")
+  public static class LateRegisteredModel implements Typed {}
+
   private static class TestModel implements Typed {
 
     private int somePrivateIntWithDefaultValue = 23;
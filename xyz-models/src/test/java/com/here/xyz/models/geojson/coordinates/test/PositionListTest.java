@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.models.geojson.coordinates.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.here.xyz.models.geojson.coordinates.JTSHelper;
+import com.here.xyz.models.geojson.coordinates.LineStringCoordinates;
+import com.here.xyz.models.geojson.coordinates.PointCoordinates;
+import com.here.xyz.models.geojson.coordinates.Position;
+import com.here.xyz.models.geojson.implementation.LineString;
+import java.util.Arrays;
+import org.junit.Test;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+
+public class PositionListTest {
+
+  @Test
+  public void roundTrip() throws Exception {
+    String json = "{\"type\":\"LineString\",\"coordinates\":[[1.0,2.0],[3.0,4.0,5.0],[6.0,7.0]]}";
+    LineString lineString = new ObjectMapper().readValue(json, LineString.class);
+
+    LineStringCoordinates coordinates = lineString.getCoordinates();
+    assertEquals(3, coordinates.size());
+    assertEquals(3, coordinates.getDimension());
+    assertEquals(Arrays.asList(1.0, 2.0), coordinates.get(0));
+    assertEquals(Arrays.asList(3.0, 4.0, 5.0), coordinates.get(1));
+    assertNull(coordinates.get(2).getAltitude());
+
+    assertEquals(json, new ObjectMapper().writeValueAsString(lineString));
+  }
+
+  @Test
+  public void writeThroughView() {
+    LineStringCoordinates coordinates = new LineStringCoordinates();
+    coordinates.add(new Position(1, 2));
+    coordinates.add(new Position(3, 4));
+
+    Position position = coordinates.get(1);
+    position.setLongitude(10d);
+    position.setAltitude(20d);
+
+    assertEquals(Arrays.asList(10.0, 4.0, 20.0), coordinates.get(1));
+    assertEquals(Arrays.asList(1.0, 2.0), coordinates.get(0));
+    assertEquals(3, coordinates.getDimension());
+  }
+
+  @Test
+  public void modifyList() {
+    LineStringCoordinates coordinates = new LineStringCoordinates();
+    coordinates.add(new Position(1, 2));
+    coordinates.add(new Position(5, 6));
+    coordinates.add(1, new Position(3, 4));
+
+    assertEquals(Arrays.asList(3.0, 4.0), coordinates.remove(1));
+    assertEquals(2, coordinates.size());
+    assertArrayEquals(new double[]{1, 2, 5, 6}, coordinates.getPackedCoordinates(), 0);
+    assertEquals(Arrays.asList(5.0, 6.0), coordinates.set(1, new Position(7, 8)));
+    assertEquals(Arrays.asList(7.0, 8.0), coordinates.get(1));
+  }
+
+  @Test
+  public void shareWithJTS() {
+    LineStringCoordinates coordinates = new LineStringCoordinates();
+    coordinates.add(new Position(1, 2));
+    coordinates.add(new Position(3, 4));
+
+    org.locationtech.jts.geom.LineString jtsLineString = JTSHelper.toLineString(coordinates);
+    PackedCoordinateSequence.Double sequence = (PackedCoordinateSequence.Double) jtsLineString.getCoordinateSequence();
+    assertSame(coordinates.getPackedCoordinates(), sequence.getRawCoordinates());
+    assertEquals(3, jtsLineString.getCoordinateN(1).x, 0);
+  }
+
+  @Test
+  public void assure3d() {
+    LineStringCoordinates coordinates = new LineStringCoordinates();
+    coordinates.add(new Position(1, 2));
+    coordinates.add(new Position(3, 4, 5));
+
+    org.locationtech.jts.geom.Geometry geometry3d = JTSHelper.assure3d(JTSHelper.toLineString(coordinates));
+    assertEquals(0, geometry3d.getCoordinates()[0].getZ(), 0);
+    assertEquals(5, geometry3d.getCoordinates()[1].getZ(), 0);
+    //The original coordinates must not have been modified
+    assertNull(coordinates.get(0).getAltitude());
+  }
+
+  @Test
+  public void pointCoordinates() throws Exception {
+    PointCoordinates point = new ObjectMapper().readValue("[1.5,2.5]", PointCoordinates.class);
+    assertEquals(Arrays.asList(1.5, 2.5), point);
+    assertEquals("[1.5,2.5]", new ObjectMapper().writeValueAsString(point));
+  }
+}
@@ -217,4 +217,53 @@ public class LazyParsedFeatureCollectionTest {
       assertEquals("1234", fc.getFeatures().get(0).getId());
     }
   }
+
+  @Test
+  public void testIndexedAccess() throws Exception {
+    final String json = "{\"type\":\"FeatureCollection\",\"features\":["
+        + "{\"type\":\"Feature\",\"id\":\"a\",\"properties\":{\"name\":\"first\",\"nested\":{\"id\":\"x\"}}},"
+        + "{\"id\":\"b\",\"properties\":{\"name\":\"second\"}},"
+        + "{\"type\":\"Feature\",\"properties\":{\"name\":\"third\"},\"id\":\"c\"}]}";
+    final FeatureCollection fc = XyzSerializable.deserialize(json);
+
+    assertEquals(3, fc.getFeatureCount());
+    assertEquals(List.of("a", "b", "c"), fc.getFeatureIds());
+    assertNull(lazyValue(fc));
+
+    //Only the accessed features get parsed
+    assertEquals("second", fc.getFeature(1).getProperties().get("name"));
+    fc.getFeature(2).getProperties().put("name", "modified");
+    assertNull(lazyValue(fc));
+
+    final FeatureCollection reparsed = XyzSerializable.deserialize(fc.serialize());
+    assertEquals(List.of("a", "b", "c"), reparsed.getFeatureIds());
+    assertEquals("first", reparsed.getFeature(0).getProperties().get("name"));
+    assertEquals("modified", reparsed.getFeature(2).getProperties().get("name"));
+
+    //Parsing all features re-uses the features which have been parsed already
+    final Feature modified = fc.getFeature(2);
+    assertEquals(3, fc.getFeatures().size());
+    assertTrue(modified == fc.getFeatures().get(2));
+  }
+
+  @Test
+  public void testDeserializeFromBytesWithoutParsing() throws Exception {
+    final byte[] json = ("{\"type\":\"FeatureCollection\",\"features\":["
+        + "{\"type\":\"Feature\",\"id\":\"a\"},{\"type\":\"Feature\",\"id\":\"b\"}]}").getBytes();
+    final FeatureCollection fc = XyzSerializable.Mappers.DEFAULT_MAPPER.get().readValue(json, FeatureCollection.class);
+
+    assertEquals(2, fc.getFeatureCount());
+    assertEquals(List.of("a", "b"), fc.getFeatureIds());
+    assertNull(lazyValue(fc));
+    assertEquals("b", fc.getFeatures().get(1).getId());
+  }
+
+  private static Object lazyValue(FeatureCollection fc) throws ReflectiveOperationException {
+    Field features = FeatureCollection.class.getDeclaredField("features");
+    features.setAccessible(true);
+    Object lp = features.get(fc);
+    Field value = LazyParsable.class.getDeclaredField("value");
+    value.setAccessible(true);
+    return value.get(lp);
+  }
 }
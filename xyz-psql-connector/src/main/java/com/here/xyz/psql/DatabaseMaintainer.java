@@ -50,7 +50,7 @@ public class DatabaseMaintainer {
     private static final Logger logger = LogManager.getLogger();
 
     /** Is used to check against xyz_ext_version() */
-    public static final int XYZ_EXT_VERSION = 205;
+    public static final int XYZ_EXT_VERSION = 206;
 
     public static final int H3_CORE_VERSION = 108;
 
@@ -155,6 +155,7 @@ public class DatabaseMaintainer {
                 final boolean space_meta_table = rs.getBoolean("space_meta_table");
                 final boolean tag_table = rs.getBoolean("tag_table");
                 final boolean subscription_table = rs.getBoolean("subscription_table");
+                final boolean space_statistics_table = rs.getBoolean("space_statistics_table");
 
                 try {
                     // Set the default compression algorithm
@@ -190,6 +191,10 @@ public class DatabaseMaintainer {
                     if (!subscription_table)
                         //Create Missing Tag Table
                         stmt.execute(MaintenanceSQL.createSubscriptionTable);
+
+                    if (!space_statistics_table)
+                        //Create Missing Space Statistics Table
+                        stmt.execute(MaintenanceSQL.createSpaceStatisticsTable);
                 }
                 catch (Exception e) {
                     logger.warn("{} Failed to create missing Schema(s) on database: {} / {}@{} '{}'", traceItem, dbSettings.getDb(), dbSettings.getUser(), dbSettings.getHost(), e);
@@ -32,6 +32,7 @@ import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.TABLE;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.here.xyz.XyzSerializable.Static;
 import com.here.xyz.events.ModifyFeaturesEvent;
+import com.here.xyz.models.geojson.coordinates.JTSHelper;
 import com.here.xyz.models.geojson.implementation.Feature;
 import com.here.xyz.models.geojson.implementation.FeatureCollection;
 import com.here.xyz.models.geojson.implementation.Geometry;
@@ -50,7 +51,6 @@ import java.util.List;
 import java.util.Map.Entry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.io.WKBWriter;
 import org.postgresql.util.PGobject;
 
@@ -219,8 +219,7 @@ public class DatabaseWriter {
         Geometry geo = feature.getGeometry();
         if (geo != null) {
             //Avoid NaN values
-            assure3d(geo.getJTSGeometry().getCoordinates());
-            query.setNamedParameter("geo", new WKBWriter(3).write(geo.getJTSGeometry()));
+            query.setNamedParameter("geo", new WKBWriter(3).write(JTSHelper.assure3d(geo.getJTSGeometry())));
         }
         else
             query.setNamedParameter("geo", null);
@@ -367,13 +366,6 @@ public class DatabaseWriter {
         }
     }
 
-    private static void assure3d(Coordinate[] coords){
-        for (Coordinate coord : coords){
-            if(Double.valueOf(coord.z).isNaN())
-                coord.z= 0;
-        }
-    }
-
     private static void logException(Exception e, ModificationType action, ModifyFeaturesEvent event){
         String table = XyzEventBasedQueryRunner.readTableFromEvent(event);
         String message = e != null && e.getMessage() != null && e.getMessage().contains("does not exist")
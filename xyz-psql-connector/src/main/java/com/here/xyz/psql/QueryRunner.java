@@ -72,7 +72,7 @@ public abstract class QueryRunner<E extends Object, R extends Object> implements
   }
 
   protected R run(DataSourceProvider dataSourceProvider) throws SQLException, ErrorResponseException {
-    return prepareQuery().run(dataSourceProvider, this, isUseReadReplica());
+    return prepareReadQuery(dataSourceProvider).run(dataSourceProvider, this, chooseReadReplica(dataSourceProvider));
   }
 
   public final R run() throws SQLException, ErrorResponseException {
@@ -97,6 +97,16 @@ public abstract class QueryRunner<E extends Object, R extends Object> implements
         .withMaximumRetries(2);
   }
 
+  /**
+   * Prepares a query for reading. If {@link DatabaseSettings#isDbLabelReadQueries()} is disabled, the request specific labels
+   * (e.g., the query ID) are not injected into the texts of read queries. That way the same statement text is re-used across requests,
+   * so that the prepared statements (and their plans) can be cached, but the queries can't be cancelled by their labels.
+   */
+  private SQLQuery prepareReadQuery(DataSourceProvider dataSourceProvider) throws SQLException, ErrorResponseException {
+    DatabaseSettings dbSettings = dataSourceProvider.getDatabaseSettings();
+    return prepareQuery().withLabelsEnabled(dbSettings == null || dbSettings.isDbLabelReadQueries());
+  }
+
   protected abstract SQLQuery buildQuery(E input) throws SQLException, ErrorResponseException;
 
   @Override
@@ -126,6 +136,18 @@ public abstract class QueryRunner<E extends Object, R extends Object> implements
     return useReadReplica;
   }
 
+  /**
+   * Decides whether this query should be executed on the read replica of the provided data sources.
+   * By default, that is the case if {@link #isUseReadReplica()} is true.
+   * Subclasses may override this method to take the state of the replica into account.
+   *
+   * @param dataSourceProvider The data sources to run the query on
+   * @return true if the query should be executed on the read replica
+   */
+  protected boolean chooseReadReplica(DataSourceProvider dataSourceProvider) {
+    return isUseReadReplica();
+  }
+
   public void setUseReadReplica(boolean useReadReplica) {
     this.useReadReplica = useReadReplica;
   }
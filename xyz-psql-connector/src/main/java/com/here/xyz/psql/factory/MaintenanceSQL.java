@@ -34,6 +34,7 @@ public class MaintenanceSQL {
     private static String XYZ_CONFIG_SPACE_TABLE = "xyz_space";
     private static String XYZ_CONFIG_SUBSCRIPTION_TABLE = "xyz_subscription";
     private static String XYZ_CONFIG_TAG_TABLE = "xyz_tags";
+    public static String XYZ_CONFIG_SPACE_STATISTICS_TABLE = "space_statistics";
 
     /**
      * Check if all required database extensions are installed
@@ -61,7 +62,8 @@ public class MaintenanceSQL {
                 + "(SELECT (to_regclass('" + XYZ_CONFIG_SCHEMA + "."+ XYZ_CONFIG_DB_STATUS_TABLE +"') IS NOT NULL) as db_status_table), "
                 + "(SELECT (to_regclass('" + XYZ_CONFIG_SCHEMA + "."+XYZ_CONFIG_SPACE_META_TABLE+"') IS NOT NULL) as space_meta_table), "
                 + "(SELECT (to_regclass('" + XYZ_CONFIG_SCHEMA + "."+XYZ_CONFIG_SUBSCRIPTION_TABLE+"') IS NOT NULL) as subscription_table), "
-                + "(SELECT (to_regclass('" + XYZ_CONFIG_SCHEMA + "."+ XYZ_CONFIG_TAG_TABLE +"') IS NOT NULL) as tag_table) "
+                + "(SELECT (to_regclass('" + XYZ_CONFIG_SCHEMA + "."+ XYZ_CONFIG_TAG_TABLE +"') IS NOT NULL) as tag_table), "
+                + "(SELECT (to_regclass('" + XYZ_CONFIG_SCHEMA + "."+ XYZ_CONFIG_SPACE_STATISTICS_TABLE +"') IS NOT NULL) as space_statistics_table) "
                 + "FROM( "
                 + "	SELECT nspname::text FROM pg_catalog.pg_namespace "
                 + "		WHERE nspowner <> 1 "
@@ -228,4 +230,22 @@ public class MaintenanceSQL {
                     "  meta jsonb," +
                     "  CONSTRAINT xyz_space_meta_pkey PRIMARY KEY (id,schem)"+
                     "); ";
+
+    /**
+     * Holds the incrementally maintained statistics of the spaces (see xyz_enable_space_statistics()).
+     * Each writing transaction adds its own row (txid), which are compacted into the baseline row (txid = 0) from time to time.
+     */
+    public static String createSpaceStatisticsTable =
+            "CREATE TABLE IF NOT EXISTS " + XYZ_CONFIG_SCHEMA + "."+ XYZ_CONFIG_SPACE_STATISTICS_TABLE +
+                    "( " +
+                    "  schem text NOT NULL," +
+                    "  tbl text NOT NULL," +
+                    "  txid bigint NOT NULL," +
+                    "  count bigint NOT NULL," +
+                    "  geometrytypes jsonb NOT NULL," +
+                    "  properties jsonb NOT NULL," +
+                    "  bbox box2d," +
+                    "  bbox_exact boolean NOT NULL," +
+                    "  CONSTRAINT xyz_space_statistics_pkey PRIMARY KEY (schem,tbl,txid)"+
+                    "); ";
 }
@@ -49,6 +49,7 @@ public abstract class GetFeatures<E extends ContextAwareEvent, R extends XyzResp
   protected static final long MAX_RESULT_SIZE = 100 * 1024 * 1024;
   public static final long GEOMETRY_DECIMAL_DIGITS = 8;
   public static long MAX_BIGINT = Long.MAX_VALUE;
+  private static final String FEATURES_PREFIX = "[";
   private boolean historyEnabled;
 
   public GetFeatures(E event) throws SQLException, ErrorResponseException {
@@ -63,7 +64,9 @@ public abstract class GetFeatures<E extends ContextAwareEvent, R extends XyzResp
     SQLQuery filterWhereClause = buildFilterWhereClause(event);
 
     SQLQuery query;
-    if (isCompositeQuery(event)) {
+    if (isCompositeQuery(event) && event.getContext() == DEFAULT)
+      query = buildFlatCompositeQuery(event, filterWhereClause, versionCheckFragment);
+    else if (isCompositeQuery(event)) {
       int dataset = compositeDatasetNo(event, CompositeDataset.EXTENSION);
       query = new SQLQuery(
           "SELECT * FROM (SELECT * FROM ("
@@ -190,6 +193,59 @@ public abstract class GetFeatures<E extends ContextAwareEvent, R extends XyzResp
         .withNamedParameter("author", selectiveEvent.getAuthor());
   }
 
+  /**
+   * Builds the query reading the composite content of an extended space.
+   * Each layer is read by one branch of a flat UNION ALL, which only returns the features that are not overridden by any of the
+   * upper layers. As the branches neither contain an ORDER BY nor a LIMIT, the planner can pull them up into one append relation.
+   * That way, no layer has to be sorted or scanned twice. If an ordering is requested (e.g., "dataset, i" for iterations), the
+   * ordered scans of the layers can be merged (Merge Append) instead of sorting the whole union, and the limit can stop the scans early.
+   */
+  private SQLQuery buildFlatCompositeQuery(E event, SQLQuery filterWhereClause, SQLQuery versionCheckFragment) {
+    SQLQuery notInExtension = new SQLQuery("AND NOT exists(SELECT 1 FROM ${schema}.${table} WHERE ${{idComparison}})")
+        .withQueryFragment("idComparison", buildIdComparisonFragment(event, "l.", versionCheckFragment));
+
+    List<SQLQuery> layers = new ArrayList<>();
+    int dataset = compositeDatasetNo(event, CompositeDataset.EXTENSION);
+    layers.add(buildLayerQuery(event, "${table}", dataset, buildFiltersFragment(event, true, filterWhereClause, dataset),
+        versionCheckFragment, new SQLQuery("")));
+
+    SQLQuery superOverrideChecks = notInExtension;
+    if (is2LevelExtendedSpace(event)) {
+      SQLQuery base2VersionCheck = buildBaseVersionCheckFragment("base2Version");
+      dataset = compositeDatasetNo(event, CompositeDataset.INTERMEDIATE);
+      //NOTE: We know that the intermediate space is an extended one
+      layers.add(buildLayerQuery(event, "${intermediateExtensionTable}", dataset,
+          buildFiltersFragment(event, false, filterWhereClause, dataset), base2VersionCheck, notInExtension));
+
+      superOverrideChecks = new SQLQuery("${{notInExtension}} "
+          + "AND NOT exists(SELECT 1 FROM ${schema}.${intermediateExtensionTable} WHERE ${{idComparison}})")
+          .withQueryFragment("notInExtension", notInExtension)
+          .withQueryFragment("idComparison", buildIdComparisonFragment(event, "l.", base2VersionCheck));
+    }
+
+    dataset = compositeDatasetNo(event, CompositeDataset.SUPER);
+    //NOTE: We know that the base space is not an extended one
+    layers.add(buildLayerQuery(event, "${extendedTable}", dataset, buildFiltersFragment(event, false, filterWhereClause, dataset),
+        buildBaseVersionCheckFragment("base1Version"), superOverrideChecks));
+
+    SQLQuery query = new SQLQuery("SELECT * FROM (${{layers}}) composite ${{outerOrderBy}} ${{limit}}")
+        .withQueryFragment("layers", SQLQuery.join(layers, " UNION ALL "))
+        .withVariable("extendedTable", getExtendedTable(event));
+    if (is2LevelExtendedSpace(event))
+      query.setVariable("intermediateExtensionTable", getIntermediateTable(event));
+    return query;
+  }
+
+  private SQLQuery buildLayerQuery(E event, String table, int dataset, SQLQuery filters, SQLQuery versionCheck,
+      SQLQuery overrideChecks) {
+    return new SQLQuery("SELECT ${{selectClause}} FROM ${schema}." + table + " l "
+        + "WHERE ${{filters}} ${{versionCheck}} ${{overrideChecks}}")
+        .withQueryFragment("selectClause", buildSelectClause(event, dataset))
+        .withQueryFragment("filters", filters)
+        .withQueryFragment("versionCheck", versionCheck)
+        .withQueryFragment("overrideChecks", overrideChecks);
+  }
+
   private SQLQuery build1LevelBaseQuery(E event, SQLQuery filterWhereClause) {
     int dataset = compositeDatasetNo(event, CompositeDataset.SUPER);
     return new SQLQuery("SELECT ${{selectClause}} FROM ${schema}.${extendedTable} WHERE ${{filters}} ${{versionCheck}} ${{orderBy}}")
@@ -253,13 +309,22 @@ public abstract class GetFeatures<E extends ContextAwareEvent, R extends XyzResp
   @Override
   public R handle(ResultSet rs) throws SQLException {
     StringBuilder result = new StringBuilder();
-    String prefix = "[";
-    result.append(prefix);
+    result.append(FEATURES_PREFIX);
 
     while (rs.next() && MAX_RESULT_SIZE > result.length())
       handleFeature(rs, result);
 
-    if (result.length() > prefix.length())
+    return handleFeatures(result);
+  }
+
+  /**
+   * Creates the response from the serialized features.
+   *
+   * @param result The serialized features, each one followed by a comma
+   * @return The feature collection or an error response if the result is too large
+   */
+  protected R handleFeatures(StringBuilder result) {
+    if (result.length() > FEATURES_PREFIX.length())
       result.setLength(result.length() - 1);
 
     result.append("]");
@@ -275,8 +340,11 @@ public abstract class GetFeatures<E extends ContextAwareEvent, R extends XyzResp
   }
 
   protected void handleFeature(ResultSet rs, StringBuilder result) throws SQLException {
-    String geom = rs.getString("geo");
-    result.append(rs.getString("jsondata"));
+    appendFeature(result, rs.getString("jsondata"), rs.getString("geo"));
+  }
+
+  static void appendFeature(StringBuilder result, String jsondata, String geom) {
+    result.append(jsondata);
     result.setLength(result.length() - 1);
     result.append(",\"geometry\":");
     result.append(geom == null ? "null" : geom);
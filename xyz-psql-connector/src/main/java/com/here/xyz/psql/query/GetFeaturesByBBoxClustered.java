@@ -25,20 +25,30 @@ import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.HEAD_TABLE_SUFFIX;
 import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.SCHEMA;
 
 import com.google.common.collect.Streams;
+import com.here.xyz.XyzSerializable;
 import com.here.xyz.connectors.ErrorResponseException;
 import com.here.xyz.events.GetFeaturesByBBoxEvent;
 import com.here.xyz.events.GetFeaturesByTileEvent;
 import com.here.xyz.models.geojson.WebMercatorTile;
 import com.here.xyz.models.geojson.coordinates.BBox;
+import com.here.xyz.models.geojson.implementation.FeatureCollection;
 import com.here.xyz.psql.factory.TweaksSQL;
+import com.here.xyz.psql.query.bbox.ClusteringResultCache;
+import com.here.xyz.psql.query.helpers.versioning.GetVersionState;
 import com.here.xyz.psql.tools.DhString;
+import com.here.xyz.responses.BinaryResponse;
 import com.here.xyz.responses.XyzResponse;
 import com.here.xyz.util.db.SQLQuery;
+import com.here.xyz.util.db.datasource.DataSourceProvider;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 public class GetFeaturesByBBoxClustered<E extends GetFeaturesByBBoxEvent, R extends XyzResponse> extends GetFeaturesByBBox<E, R> {
 
@@ -46,11 +56,93 @@ public class GetFeaturesByBBoxClustered<E extends GetFeaturesByBBoxEvent, R exte
   public static final String COUNTMODE_ESTIMATED = "estimated"; // Estimated counts, determined with _postgis_selectivity() or EXPLAIN Plan analyze
   public static final String COUNTMODE_MIXED     = "mixed"; // Combination of real and estimated.
   public static final String COUNTMODE_BOOL      = "bool"; // no counts but test [0|1] if data exists int tile.
+  private static final Logger logger = LogManager.getLogger();
   private boolean isMvtRequested;
+  private final String resultCacheKey;
+  private GetVersionState<E> versionStateQuery;
+  private String versionState;
 
   public GetFeaturesByBBoxClustered(E event)
       throws SQLException, ErrorResponseException {
     super(event);
+    //The version state of a space does not reflect changes of the spaces it extends
+    if (ClusteringResultCache.isEnabled(event.getParams()) && !isExtendedSpace(event)) {
+      resultCacheKey = buildResultCacheKey(event);
+      versionStateQuery = new GetVersionState<>(event);
+    }
+    else
+      resultCacheKey = null;
+  }
+
+  /**
+   * Builds the key for the {@link ClusteringResultCache} from all parameters of the event which have an influence on the result.
+   */
+  private static String buildResultCacheKey(GetFeaturesByBBoxEvent event) {
+    StringBuilder key = new StringBuilder()
+        .append(readTableFromEvent(event)).append('|')
+        .append(event.getClusteringType()).append('|')
+        .append(event.getClusteringParams() == null ? null : new TreeMap<>(event.getClusteringParams())).append('|')
+        .append(event.getPropertiesQuery() == null ? null : XyzSerializable.serialize(event.getPropertiesQuery())).append('|')
+        .append(event.getBbox()).append('|')
+        .append(event.getClip()).append('|')
+        .append(event.getSelection()).append('|')
+        .append(event.isForce2D()).append('|')
+        .append(event.getLimit());
+    if (event instanceof GetFeaturesByTileEvent tileEvent)
+      key.append('|').append(tileEvent.getLevel()).append('/').append(tileEvent.getX()).append('/').append(tileEvent.getY())
+          .append('|').append(tileEvent.getMargin())
+          .append('|').append(tileEvent.getResponseType());
+    return key.toString();
+  }
+
+  @Override
+  protected R run(DataSourceProvider dataSourceProvider) throws SQLException, ErrorResponseException {
+    if (versionStateQuery == null)
+      return super.run(dataSourceProvider);
+
+    try {
+      versionStateQuery.setUseReadReplica(true);
+      versionState = versionStateQuery.withDataSourceProvider(dataSourceProvider).run();
+    }
+    catch (SQLException e) {
+      logger.warn("Unable to retrieve the version state, the clustering result will not be cached.", e);
+    }
+    finally {
+      versionStateQuery = null;
+    }
+
+    if (versionState != null) {
+      Object cachedResult = ClusteringResultCache.get(getResultCacheKey(), versionState);
+      if (cachedResult instanceof String features) {
+        FeatureCollection featureCollection = new FeatureCollection();
+        featureCollection._setFeatures(features);
+        return (R) featureCollection;
+      }
+      if (cachedResult instanceof byte[] bytes)
+        return (R) new BinaryResponse().withMimeType(APPLICATION_VND_MAPBOX_VECTOR_TILE).withBytes(bytes);
+    }
+    return super.run(dataSourceProvider);
+  }
+
+  private String getResultCacheKey() {
+    //The schema is only known at execution time
+    return getSchema() + "." + resultCacheKey;
+  }
+
+  @Override
+  public R handle(ResultSet rs) throws SQLException {
+    R response = super.handle(rs);
+    if (versionState != null && response instanceof BinaryResponse binaryResponse && binaryResponse.getBytes() != null)
+      ClusteringResultCache.put(getResultCacheKey(), versionState, binaryResponse.getBytes());
+    return response;
+  }
+
+  @Override
+  protected R handleFeatures(StringBuilder result) {
+    R response = super.handleFeatures(result);
+    if (versionState != null && response instanceof FeatureCollection)
+      ClusteringResultCache.put(getResultCacheKey(), versionState, result);
+    return response;
   }
 
   @Override
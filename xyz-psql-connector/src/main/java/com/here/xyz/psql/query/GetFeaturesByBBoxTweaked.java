@@ -254,10 +254,11 @@ public class GetFeaturesByBBoxTweaked<E extends GetFeaturesByBBoxEvent, R extend
 
    float tblSampleRatio = ( (strength > 0 && bDistribution2) ? TweaksSQL.tableSampleRatio(strength) : -1f);
 
-   final String sCondition = ( ((bEnsureMode && strength == 0) || (tblSampleRatio >= 0.0)) ? "1 = 1" : TweaksSQL.strengthSql(strength,bDistribution)  ),
-                twqry = DhString.format(DhString.format("ST_Intersects(geo, ST_MakeEnvelope(%%.%1$df,%%.%1$df,%%.%1$df,%%.%1$df, 4326) ) and %%s", 14 /*GEOMETRY_DECIMAL_DIGITS*/), bbox.minLon(), bbox.minLat(), bbox.maxLon(), bbox.maxLat(), sCondition );
+   final String sCondition = ( ((bEnsureMode && strength == 0) || (tblSampleRatio >= 0.0)) ? "1 = 1" : TweaksSQL.strengthSql(strength,bDistribution)  );
 
-   final SQLQuery tweakQuery = new SQLQuery(twqry);
+   final SQLQuery tweakQuery = new SQLQuery("${{bboxQuery}} and ${{samplingCondition}}")
+       .withQueryFragment("bboxQuery", buildBBoxIntersectionQuery(bbox))
+       .withQueryFragment("samplingCondition", sCondition);
 
    if( !bEnsureMode || !bConvertGeo2Geojson ) {
      SQLQuery combinedQuery = generateCombinedQuery(event, tweakQuery);
@@ -426,10 +427,10 @@ public class GetFeaturesByBBoxTweaked<E extends GetFeaturesByBBoxEvent, R extend
                                           : DhString.format( getForceMode(event.isForce2D()) + "( %s )",tweaksGeoSql) );
    }
 
-     final String bboxqry = DhString.format( DhString.format("ST_Intersects(geo, ST_MakeEnvelope(%%.%1$df,%%.%1$df,%%.%1$df,%%.%1$df, 4326) )", 14 /*GEOMETRY_DECIMAL_DIGITS*/), bbox.minLon(), bbox.minLat(), bbox.maxLon(), bbox.maxLat() );
+     final SQLQuery bboxqry = buildBBoxIntersectionQuery(bbox);
 
      if (iMerge == 0)
-       return generateCombinedQueryTweaks(event, new SQLQuery(bboxqry), tweaksGeoSql, bTestTweaksGeoIfNull, -1.0f, false );
+       return generateCombinedQueryTweaks(event, bboxqry, tweaksGeoSql, bTestTweaksGeoIfNull, -1.0f, false );
 
      // Merge Algorithm - only using low, med, high
 
@@ -456,7 +457,7 @@ public class GetFeaturesByBBoxTweaked<E extends GetFeaturesByBBoxEvent, R extend
      return query;
 }
 
-  private SQLQuery buildSimplificationTweaksMergeQuery(GetFeaturesByBBoxEvent event, int iMerge, String tweaksGeoSql, int minGeoHashLenToMerge, int minGeoHashLenForLineMerge, String bboxQuery, boolean convertGeo2Geojson) {
+  private SQLQuery buildSimplificationTweaksMergeQuery(GetFeaturesByBBoxEvent event, int iMerge, String tweaksGeoSql, int minGeoHashLenToMerge, int minGeoHashLenForLineMerge, SQLQuery bboxQuery, boolean convertGeo2Geojson) {
       SQLQuery query;
       if (iMerge == 1) {
         query = new SQLQuery("select jsondata, geo "
@@ -559,6 +560,18 @@ public class GetFeaturesByBBoxTweaked<E extends GetFeaturesByBBoxEvent, R extend
 
   }
 
+  /**
+   * Creates the bbox condition using bind parameters, so that the statement text does not depend on the requested bbox.
+   * The parameter names differ from the ones of the geo filter, as the bbox of the event might differ from the tile bbox.
+   */
+  private static SQLQuery buildBBoxIntersectionQuery(BBox bbox) {
+    return new SQLQuery("ST_Intersects(geo, ST_MakeEnvelope(#{bboxMinLon}, #{bboxMinLat}, #{bboxMaxLon}, #{bboxMaxLat}, 4326))")
+        .withNamedParameter("bboxMinLon", bbox.minLon())
+        .withNamedParameter("bboxMinLat", bbox.minLat())
+        .withNamedParameter("bboxMaxLon", bbox.maxLon())
+        .withNamedParameter("bboxMaxLat", bbox.maxLat());
+  }
+
   /** ###################################################################################### */
 
   private SQLQuery generateCombinedQueryTweaks(GetFeaturesByBBoxEvent event, SQLQuery indexedQuery, String tweaksgeo, boolean testTweaksGeoIfNull, float sampleRatio, boolean sortByHashedValue)
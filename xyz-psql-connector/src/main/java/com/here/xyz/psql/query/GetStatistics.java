@@ -19,6 +19,7 @@
 
 package com.here.xyz.psql.query;
 
+import static com.here.xyz.psql.query.ExtendedSpace.isExtendedSpace;
 import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.SCHEMA;
 import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.TABLE;
 
@@ -56,7 +57,15 @@ public class GetStatistics extends XyzQueryRunner<GetStatisticsEvent, Statistics
 
   @Override
   protected SQLQuery buildQuery(GetStatisticsEvent event) throws SQLException, ErrorResponseException {
-    return new SQLQuery("SELECT * FROM ${schema}.xyz_statistic_space(#{schema}, #{table}, #{isExtension} )")
+    String query = "SELECT * FROM ${schema}.xyz_statistic_space(#{schema}, #{table}, #{isExtension} )";
+    if (event.getContext() == SpaceContext.EXTENSION || !isExtendedSpace(event))
+      /*
+      Prefer the statistics which are maintained incrementally by the writes to the space table.
+      The full scan is only executed as a fallback, if no incremental statistics exist for the table.
+       */
+      query = "(SELECT * FROM ${schema}.xyz_space_statistics(#{schema}, #{table})) UNION ALL (" + query + ") LIMIT 1";
+
+    return new SQLQuery(query)
         .withVariable(SCHEMA, getSchema())
         .withNamedParameter(SCHEMA, getSchema())
         .withNamedParameter(TABLE, getDefaultTable(event))
@@ -22,11 +22,8 @@ package com.here.xyz.psql.query;
 import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.SCHEMA;
 import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.TABLE;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.here.xyz.connectors.ErrorResponseException;
 import com.here.xyz.events.IterateChangesetsEvent;
-import com.here.xyz.models.geojson.implementation.Feature;
 import com.here.xyz.models.geojson.implementation.FeatureCollection;
 import com.here.xyz.psql.query.helpers.versioning.GetMinAvailableVersion;
 import com.here.xyz.responses.changesets.Changeset;
@@ -35,9 +32,7 @@ import com.here.xyz.util.db.SQLQuery;
 import com.here.xyz.util.db.datasource.DataSourceProvider;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class IterateChangesets extends XyzQueryRunner<IterateChangesetsEvent, ChangesetCollection> {
@@ -70,92 +65,49 @@ public class IterateChangesets extends XyzQueryRunner<IterateChangesetsEvent, Ch
     long numFeatures = 0;
 
     ChangesetCollection ccol = new ChangesetCollection();
-    Map<Long, Changeset> versions = new HashMap<>();
-    Long lastVersion = null;
+    Map<Long, Changeset> versions = new LinkedHashMap<>();
     Long startVersion = null;
-    boolean wroteStart = false;
-    String author = null;
-    long createdAt = 0;
-
-    List<Feature> inserts = new ArrayList<>();
-    List<Feature> updates = new ArrayList<>();
-    List<Feature> deletes = new ArrayList<>();
+    ChangesetBuilder changeset = null;
 
+    //NOTE: The rows are sorted by version, so each changeset is complete once the next version starts
     while (rs.next()) {
       numFeatures++;
       //skip the additional added feature
-      if(!rs.isFirst() && rs.isLast() && numFeatures > limit)
+      if (numFeatures > limit)
         break;
 
-      Feature feature;
-      String operation = rs.getString("operation");
-      Long version = rs.getLong("version");
+      long version = rs.getLong("version");
 
-      if(!wroteStart){
+      if (startVersion == null)
         startVersion = version;
-        wroteStart = true;
-      }
-
-      if(lastVersion !=  null && version > lastVersion) {
-        Changeset cs = new Changeset().withInserted(new FeatureCollection().withFeatures(inserts))
-            .withVersion(lastVersion).withUpdated(new FeatureCollection().withFeatures(updates))
-            .withDeleted(new FeatureCollection().withFeatures(deletes))
-            .withCreatedAt(createdAt)
-            .withAuthor(author);
-
-        versions.put(lastVersion, cs);
-        inserts = new ArrayList<>();
-        updates = new ArrayList<>();
-        deletes = new ArrayList<>();
-      }
-
-      author = rs.getString("author");
 
-      try {
-        feature =  new ObjectMapper().readValue(rs.getString("feature"), Feature.class);
-        createdAt = feature.getProperties().getXyzNamespace().getUpdatedAt();
-      }catch (JsonProcessingException e){
-        throw new SQLException("Cant read json from database!");
+      if (changeset == null || version > changeset.version) {
+        if (changeset != null)
+          versions.put(changeset.version, changeset.build());
+        changeset = new ChangesetBuilder(version);
       }
 
-      switch (operation){
-        case "I":
-        case "H":
-          inserts.add(feature);
-          break;
-        case "U":
-        case "J":
-          updates.add(feature);
-          break;
-        case "D":
-          deletes.add(feature);
-          break;
-      }
+      changeset.author = rs.getString("author");
+      changeset.createdAt = rs.getLong("updated_at");
+      changeset.append(rs.getString("operation"), rs.getString("jsondata"), rs.getString("geo"));
 
       pageToken = rs.getString("vid");
-      lastVersion = version;
     }
 
-    if(wroteStart){
-      Changeset cs = new Changeset().withInserted(new FeatureCollection().withFeatures(inserts))
-          .withVersion(lastVersion)
-          .withUpdated(new FeatureCollection().withFeatures(updates))
-          .withDeleted(new FeatureCollection().withFeatures(deletes))
-          .withCreatedAt(createdAt)
-          .withAuthor(author);
-
-      versions.put(lastVersion, cs);
+    if (changeset != null) {
+      versions.put(changeset.version, changeset.build());
       ccol.setStartVersion(startVersion);
-      ccol.setEndVersion(lastVersion);
-    }else{
+      ccol.setEndVersion(changeset.version);
+    }
+    else {
       ccol.setStartVersion(-1);
       ccol.setEndVersion(-1);
     }
 
     ccol.setVersions(versions);
 
-    //Only add pageToke if we have further results
-    if (numFeatures > 0 && numFeatures == limit + 1 && numFeatures > limit)
+    //Only add pageToken if we have further results
+    if (numFeatures > limit)
       ccol.setNextPageToken(pageToken);
 
     return ccol;
@@ -163,7 +115,7 @@ public class IterateChangesets extends XyzQueryRunner<IterateChangesetsEvent, Ch
 
   public SQLQuery buildIterateChangesets(IterateChangesetsEvent event){
     //TODO: Re-use geo fragment from GetFeatures QR instead of duplicating it here
-    String geo = "REGEXP_REPLACE(ST_AsGeojson(geo, " + GetFeatures.GEOMETRY_DECIMAL_DIGITS + "), 'nan', '0', 'gi')::jsonb";
+    String geo = "REGEXP_REPLACE(ST_AsGeojson(geo, " + GetFeatures.GEOMETRY_DECIMAL_DIGITS + "), 'nan', '0', 'gi')";
 
     SQLQuery query = new SQLQuery(
         "SELECT " +
@@ -172,7 +124,9 @@ public class IterateChangesets extends XyzQueryRunner<IterateChangesetsEvent, Ch
                 " version,"+
                 " author,"+
                 " operation,"+
-                " jsonb_set(jsondata,'{properties, @ns:com:here:xyz, version}',to_jsonb(version)) || jsonb_strip_nulls(jsonb_build_object('geometry',"+ geo +")) As feature "+
+                " (jsondata->'properties'->'@ns:com:here:xyz'->>'updatedAt')::BIGINT as updated_at,"+
+                " jsonb_set(jsondata,'{properties, @ns:com:here:xyz, version}',to_jsonb(version)) as jsondata,"+
+                " " + geo + " as geo"+
                 "   from  ${schema}.${table} "+
                 " WHERE 1=1"+
                 "      ${{page}}"+
@@ -200,4 +154,51 @@ public class IterateChangesets extends XyzQueryRunner<IterateChangesetsEvent, Ch
     return query;
   }
 
+  /**
+   * Collects the features of one version as raw JSON, so that they don't have to be deserialized and serialized again.
+   */
+  private static class ChangesetBuilder {
+    private final long version;
+    private String author;
+    private long createdAt;
+    private final StringBuilder inserted = new StringBuilder("[");
+    private final StringBuilder updated = new StringBuilder("[");
+    private final StringBuilder deleted = new StringBuilder("[");
+
+    private ChangesetBuilder(long version) {
+      this.version = version;
+    }
+
+    private void append(String operation, String jsondata, String geo) {
+      StringBuilder features = switch (operation) {
+        case "I", "H" -> inserted;
+        case "U", "J" -> updated;
+        case "D" -> deleted;
+        default -> null;
+      };
+      if (features != null)
+        GetFeatures.appendFeature(features, jsondata, geo);
+    }
+
+    private Changeset build() {
+      return new Changeset()
+          .withVersion(version)
+          .withInserted(toFeatureCollection(inserted))
+          .withUpdated(toFeatureCollection(updated))
+          .withDeleted(toFeatureCollection(deleted))
+          .withCreatedAt(createdAt)
+          .withAuthor(author);
+    }
+
+    private static FeatureCollection toFeatureCollection(StringBuilder features) {
+      //Remove the trailing comma of the last feature
+      if (features.length() > 1)
+        features.setLength(features.length() - 1);
+      features.append("]");
+
+      FeatureCollection featureCollection = new FeatureCollection();
+      featureCollection._setFeatures(features.toString());
+      return featureCollection;
+    }
+  }
 }
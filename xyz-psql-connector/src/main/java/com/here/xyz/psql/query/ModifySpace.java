@@ -23,15 +23,16 @@ import static com.here.xyz.XyzSerializable.Mappers.DEFAULT_MAPPER;
 import static com.here.xyz.events.ModifySpaceEvent.Operation.CREATE;
 import static com.here.xyz.events.ModifySpaceEvent.Operation.DELETE;
 import static com.here.xyz.events.ModifySpaceEvent.Operation.UPDATE;
+import static com.here.xyz.psql.factory.MaintenanceSQL.XYZ_CONFIG_SPACE_STATISTICS_TABLE;
 import static com.here.xyz.psql.query.helpers.versioning.GetNextVersion.VERSION_SEQUENCE_SUFFIX;
 import static com.here.xyz.responses.XyzError.ILLEGAL_ARGUMENT;
 import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.SCHEMA;
 import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.TABLE;
 import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.buildCreateSpaceTableQueries;
+import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.getHeadPartitionsFromSpaceParams;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.here.xyz.connectors.ErrorResponseException;
 import com.here.xyz.util.runtime.FunctionRuntime;
@@ -135,7 +136,7 @@ public class ModifySpace extends ExtendedSpace<ModifySpaceEvent, SuccessResponse
 
             if (event.getSpaceDefinition() != null && event.getOperation() == CREATE)
                 //Add space table creation queries
-                queries.addAll(buildCreateSpaceTableQueries(getSchema(), table));
+                queries.addAll(buildCreateSpaceTableQueries(getSchema(), table, getHeadPartitionsFromSpaceParams(event.getParams())));
 
             //Write idx related data
             queries.addAll(buildSearchablePropertiesUpsertQueries(event));
@@ -249,7 +250,7 @@ public class ModifySpace extends ExtendedSpace<ModifySpaceEvent, SuccessResponse
         String idx_manual_json;
         SQLQuery idx_q;
         try {
-            idx_manual_json = (new ObjectMapper()).writeValueAsString(new IdxManual(searchableProperties, sortableProperties));
+            idx_manual_json = DEFAULT_MAPPER.get().writeValueAsString(new IdxManual(searchableProperties, sortableProperties));
             idx_q = new SQLQuery("select (#{idx_manual})::jsonb");
             idx_q.setNamedParameter("idx_manual", idx_manual_json);
         } catch (JsonProcessingException e) {
@@ -306,7 +307,8 @@ public class ModifySpace extends ExtendedSpace<ModifySpaceEvent, SuccessResponse
 
     public SQLQuery buildCleanUpQuery(ModifySpaceEvent event) {
         String table = getDefaultTable(event);
-        SQLQuery q = new SQLQuery("${{deleteMetadata}} ${{deleteIndexStatus}} ${{dropTable}} ${{dropISequence}} ${{dropVersionSequence}}")
+        SQLQuery q = new SQLQuery("${{deleteMetadata}} ${{deleteIndexStatus}} ${{deleteStatistics}} ${{dropTable}} ${{dropISequence}} "
+            + "${{dropVersionSequence}}")
             .withQueryFragment(
                 "deleteMetadata",
                 "DELETE FROM ${configSchema}.${spaceMetaTable} WHERE h_id = #{table} AND schem = #{schema};"
@@ -315,6 +317,10 @@ public class ModifySpace extends ExtendedSpace<ModifySpaceEvent, SuccessResponse
                 "deleteIndexStatus",
                 "DELETE FROM ${configSchema}.${idxStatusTable} WHERE spaceid = #{table} AND schem = #{schema};"
             )
+            .withQueryFragment(
+                "deleteStatistics",
+                "DELETE FROM ${configSchema}.${spaceStatisticsTable} WHERE tbl = #{table} AND schem = #{schema};"
+            )
             .withQueryFragment("dropTable", "DROP TABLE IF EXISTS ${schema}.${table};")
             .withQueryFragment("dropISequence", "DROP SEQUENCE IF EXISTS ${schema}.${iSequence};")
             .withQueryFragment("dropVersionSequence", "DROP SEQUENCE IF EXISTS ${schema}.${versionSequence};");
@@ -327,6 +333,7 @@ public class ModifySpace extends ExtendedSpace<ModifySpaceEvent, SuccessResponse
             .withVariable("configSchema", XYZ_CONFIG_SCHEMA)
             .withVariable("idxStatusTable", IDX_STATUS_TABLE)
             .withVariable("spaceMetaTable", SPACE_META_TABLE)
+            .withVariable("spaceStatisticsTable", XYZ_CONFIG_SPACE_STATISTICS_TABLE)
             .withVariable("iSequence", table + I_SEQUENCE_SUFFIX)
             .withVariable("versionSequence", getDefaultTable(event) + VERSION_SEQUENCE_SUFFIX);
     }
@@ -29,9 +29,13 @@ import com.here.xyz.events.PropertyQuery;
 import com.here.xyz.events.PropertyQuery.QueryOperation;
 import com.here.xyz.events.SearchForFeaturesEvent;
 import com.here.xyz.psql.query.helpers.GetIndexList;
+import com.here.xyz.psql.query.helpers.IndexAdvisor;
 import com.here.xyz.responses.XyzResponse;
 import com.here.xyz.util.db.SQLQuery;
 import com.here.xyz.util.db.datasource.DataSourceProvider;
+import com.here.xyz.util.db.pg.PropertyIndex;
+import io.vertx.sqlclient.Row;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -47,6 +51,7 @@ can be renamed to SearchForFeaturesEvent again.
 public class SearchForFeatures<E extends SearchForFeaturesEvent, R extends XyzResponse> extends GetFeatures<E, R> {
   protected boolean hasSearch;
   private SearchForFeaturesEvent tmpEvent; //TODO: Remove after refactoring
+  private long resultCount;
 
   public SearchForFeatures(E event) throws SQLException, ErrorResponseException {
     super(event);
@@ -59,13 +64,35 @@ public class SearchForFeatures<E extends SearchForFeaturesEvent, R extends XyzRe
   protected R run(DataSourceProvider dataSourceProvider) throws SQLException, ErrorResponseException {
     if (tmpEvent.getClass() == SearchForFeaturesEvent.class)
       checkCanSearchFor(tmpEvent);
-    return super.run(dataSourceProvider);
+
+    final long start = System.currentTimeMillis();
+    R response = super.run(dataSourceProvider);
+    final long executionTime = System.currentTimeMillis() - start;
+
+    if (hasSearch && executionTime >= IndexAdvisor.SLOW_SEARCH_THRESHOLD_MS)
+      IndexAdvisor.recordSlowSearch(dataSourceProvider, tmpEvent.getSpace(), readTableFromEvent(tmpEvent),
+          tmpEvent.getPropertiesQuery(), executionTime, resultCount);
+    return response;
   }
 
   protected void checkCanSearchFor(SearchForFeaturesEvent event) throws ErrorResponseException {
-    if (!canSearchFor(event))
+    if (!canSearchFor(event)) {
+      IndexAdvisor.recordRejectedSearch(event.getSpace(), readTableFromEvent(event), event.getPropertiesQuery());
       throw new ErrorResponseException(ILLEGAL_ARGUMENT,
           "Invalid request parameters. Search for the provided properties is not supported for this space.");
+    }
+  }
+
+  @Override
+  protected void handleFeature(ResultSet rs, StringBuilder result) throws SQLException {
+    super.handleFeature(rs, result);
+    resultCount++;
+  }
+
+  @Override
+  protected void handleFeature(Row row, StringBuilder result) {
+    super.handleFeature(row, result);
+    resultCount++;
   }
 
   @Override
@@ -233,15 +260,8 @@ public class SearchForFeatures<E extends SearchForFeaturesEvent, R extends XyzRe
     if (keySegments.length == 2 && keySegments[0].equalsIgnoreCase("geometry") && keySegments[1].equalsIgnoreCase("type"))
       return new SQLQuery("GeometryType(geo) ");
 
-    Map<String, Object> segmentNames = new HashMap<>();
-    String keyPath = "jsondata";
-    for (String keySegment : keySegments) {
-      String segmentParamName = "keySegment_" + keySegment;
-      keyPath += "->#{" + segmentParamName + "}";
-      segmentNames.put(segmentParamName, keySegment);
-    }
-
-    return new SQLQuery(keyPath).withNamedParameters(segmentNames);
+    //The key segments are inlined, so that the key path matches the expression of an according property index also for generic plans
+    return new SQLQuery(PropertyIndex.buildKeyPathExpression(key));
   }
 
   private static String getValue(Object value, PropertyQuery.QueryOperation op, String key, String paramName) {
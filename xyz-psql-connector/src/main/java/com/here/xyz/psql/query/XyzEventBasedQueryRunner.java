@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2017-2023 HERE Europe B.V.
+ * Copyright (C) 2017-2024 HERE Europe B.V.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,18 +21,38 @@ package com.here.xyz.psql.query;
 
 import com.here.xyz.connectors.ErrorResponseException;
 import com.here.xyz.events.Event;
+import com.here.xyz.events.SelectiveEvent;
+import com.here.xyz.models.hub.Ref;
 import com.here.xyz.psql.QueryRunner;
+import com.here.xyz.psql.query.helpers.versioning.ReplicaHeadVersions;
 import com.here.xyz.util.db.ConnectorParameters;
+import com.here.xyz.util.db.datasource.DataSourceProvider;
 import com.here.xyz.util.db.pg.XyzSpaceTableHelper;
 import java.sql.SQLException;
 import java.util.Map;
 
 public abstract class XyzEventBasedQueryRunner<E extends Event, R extends Object> extends QueryRunner<E, R> {
   private boolean preferPrimaryDataSource;
+  private long maxReplicaLag;
+  /**
+   * The table and the (past) version being read by this query, if it is reading a single version other than HEAD
+   */
+  private String versionedTable;
+  private long requestedVersion = -1;
 
   public XyzEventBasedQueryRunner(E event) throws SQLException, ErrorResponseException {
     super(event);
     preferPrimaryDataSource = event.getPreferPrimaryDataSource();
+    maxReplicaLag = ConnectorParameters.fromEvent(event).getMaxReplicaLag();
+    //NOTE: For spaces without history all reads are HEAD reads
+    if (event instanceof SelectiveEvent selectiveEvent && selectiveEvent.getVersionsToKeep() > 1
+        && !ExtendedSpace.isExtendedSpace(event)) {
+      Ref ref = selectiveEvent.getRef();
+      if (ref != null && ref.isSingleVersion() && !ref.isHead() && !ref.isTag()) {
+        versionedTable = readTableFromEvent(event);
+        requestedVersion = ref.getVersion();
+      }
+    }
   }
 
   public static String readTableFromEvent(Event event) {
@@ -59,4 +79,26 @@ public abstract class XyzEventBasedQueryRunner<E extends Event, R extends Object
     //Always use the writer in case of event.preferPrimaryDataSource == true
     return super.isUseReadReplica() && !preferPrimaryDataSource;
   }
+
+  /**
+   * Routes the query by its consistency needs:
+   * <ul>
+   *   <li>Queries which may use the replica are only executed on it, if its replication lag is not exceeding the configured maximum
+   *   (see {@link ConnectorParameters#getMaxReplicaLag()}). If the lag is unknown, the replica is used.</li>
+   *   <li>Reads of a past version are additionally only executed on the replica, if the replica already contains a newer version
+   *   (see {@link ReplicaHeadVersions}).</li>
+   * </ul>
+   */
+  @Override
+  protected boolean chooseReadReplica(DataSourceProvider dataSourceProvider) {
+    if (!isUseReadReplica() || !dataSourceProvider.hasReader())
+      return false;
+
+    long replicaLag = dataSourceProvider.getReplicaLag();
+    if (replicaLag > maxReplicaLag)
+      return false;
+
+    return versionedTable == null || ReplicaHeadVersions.isAvailableOnReplica(dataSourceProvider,
+        dataSourceProvider.getDatabaseSettings().getSchema(), versionedTable, requestedVersion);
+  }
 }
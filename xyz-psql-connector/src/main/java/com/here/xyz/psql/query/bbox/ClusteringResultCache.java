@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql.query.bbox;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An in-process LRU cache for the results of clustering queries.
+ * The result of a clustering query only changes if the content of the space changes. So each entry is stored together with the
+ * version state of the space at the time the result was calculated. Entries are invalidated lazily, once they are requested with a
+ * different version state.
+ * Additionally, each entry expires after {@link #MAX_AGE} to limit the impact of writes which are not reflected by the version state
+ * (e.g., writes which committed after the version state was read).
+ */
+public class ClusteringResultCache {
+
+  /**
+   * The space param which can be set to false to disable the caching of clustering results for a space.
+   */
+  public static final String CLUSTERING_RESULT_CACHE = "clusteringResultCache";
+  /**
+   * The maximum accumulated size of all cached results in bytes.
+   */
+  private static final long MAX_SIZE = 128 * 1024 * 1024;
+  /**
+   * The maximum size of a single cached result in bytes. Larger results are not cached.
+   */
+  private static final long MAX_ENTRY_SIZE = 8 * 1024 * 1024;
+  private static final long MAX_AGE = TimeUnit.MINUTES.toMillis(10);
+
+  private static final Map<String, CachedResult> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private static long size;
+
+  private ClusteringResultCache() {}
+
+  /**
+   * Checks whether clustering results may be cached for a space.
+   * The caching is enabled by default and can be disabled by setting the space param {@value #CLUSTERING_RESULT_CACHE} to false.
+   *
+   * @param spaceParams The params of the space
+   * @return true, if clustering results of the space may be cached
+   */
+  public static boolean isEnabled(Map<String, Object> spaceParams) {
+    return spaceParams == null || !Boolean.FALSE.equals(spaceParams.get(CLUSTERING_RESULT_CACHE));
+  }
+
+  /**
+   * Returns the cached result for the specified key, if it was calculated for the provided version state of the space.
+   * If the cached result belongs to a different version state, it gets removed from the cache.
+   *
+   * @param key The key describing the clustering request
+   * @param versionState The current version state of the space
+   * @return The cached result (a String or a byte array) or null if there is no valid result in the cache
+   */
+  public static synchronized Object get(String key, String versionState) {
+    CachedResult cachedResult = entries.get(key);
+    if (cachedResult == null)
+      return null;
+    if (!Objects.equals(cachedResult.versionState, versionState) || cachedResult.isExpired()) {
+      remove(key);
+      return null;
+    }
+    return cachedResult.result;
+  }
+
+  /**
+   * Adds a serialized feature collection to the cache.
+   *
+   * @param key The key describing the clustering request
+   * @param versionState The version state of the space at the time the result was calculated
+   * @param features The serialized features
+   */
+  public static void put(String key, String versionState, CharSequence features) {
+    long resultSize = 2L * features.length();
+    if (resultSize <= MAX_ENTRY_SIZE)
+      put(key, new CachedResult(versionState, features.toString(), resultSize));
+  }
+
+  /**
+   * Adds a binary result (e.g., an MVT) to the cache.
+   *
+   * @param key The key describing the clustering request
+   * @param versionState The version state of the space at the time the result was calculated
+   * @param bytes The binary result
+   */
+  public static void put(String key, String versionState, byte[] bytes) {
+    if (bytes.length <= MAX_ENTRY_SIZE)
+      put(key, new CachedResult(versionState, bytes, bytes.length));
+  }
+
+  private static synchronized void put(String key, CachedResult cachedResult) {
+    remove(key);
+    entries.put(key, cachedResult);
+    size += cachedResult.size;
+
+    //Evict the least recently used entries
+    for (Iterator<CachedResult> it = entries.values().iterator(); size > MAX_SIZE && it.hasNext(); ) {
+      size -= it.next().size;
+      it.remove();
+    }
+  }
+
+  static synchronized void clear() {
+    entries.clear();
+    size = 0;
+  }
+
+  static synchronized long size() {
+    return size;
+  }
+
+  private static void remove(String key) {
+    CachedResult removed = entries.remove(key);
+    if (removed != null)
+      size -= removed.size;
+  }
+
+  private static class CachedResult {
+
+    private final String versionState;
+    private final Object result;
+    private final long size;
+    private final long createdAt = System.currentTimeMillis();
+
+    private CachedResult(String versionState, Object result, long size) {
+      this.versionState = versionState;
+      this.result = result;
+      this.size = size;
+    }
+
+    private boolean isExpired() {
+      return System.currentTimeMillis() - createdAt > MAX_AGE;
+    }
+  }
+}
@@ -43,13 +43,14 @@ public class GetSamplingStrengthEstimation<E extends GetFeaturesByBBoxEvent> ext
   private static String
    requestedTileBoundsSql = DhString.format("ST_MakeEnvelope(%%.%1$df,%%.%1$df,%%.%1$df,%%.%1$df, 4326)", 14 /*GEOMETRY_DECIMAL_DIGITS*/);
   private static TupleTime tTime = new TupleTime();
+  //NOTE: Only the leaf partitions have statistics, partitioned tables (e.g., a hash partitioned HEAD table) have no reltuples of their own
   private static String estWithPgClass = "   select i.schema, i.space, i.colname, "
      + "          t.tile, t.tid, "
      + "          true as bstats, "
-     + "          coalesce(c2.relname, c1.relname) as tblname, "
-     + "          coalesce( c2.reltuples, c1.reltuples ) reltuples "
-     + "   from indata i, unnest( i.tiles) with ordinality t(tile,tid), pg_class c1 left join pg_inherits pm on ( c1.oid = pm.inhparent ) left join pg_class c2 on ( c2.oid = pm.inhrelid ) "
-     + "   where c1.oid = format('%s.%s',i.schema,i.space)::regclass";
+     + "          c.relname as tblname, "
+     + "          greatest( c.reltuples, 0 ) reltuples "
+     + "   from indata i, unnest( i.tiles) with ordinality t(tile,tid), pg_partition_tree( format('%s.%s',i.schema,i.space)::regclass ) pt join pg_class c on ( c.oid = pt.relid ) "
+     + "   where pt.isleaf";
   private static String estWithoutPgClass = "   select i.schema, i.space, i.colname, "
      + "          t.tile, t.tid, "
      + "          true as bstats, "
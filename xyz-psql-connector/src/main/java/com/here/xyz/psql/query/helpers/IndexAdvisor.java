@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql.query.helpers;
+
+import static com.here.xyz.events.PropertyQuery.QueryOperation.CONTAINS;
+import static com.here.xyz.events.PropertyQuery.QueryOperation.NOT_EQUALS;
+import static com.here.xyz.util.db.pg.PropertyIndex.Method.BTREE;
+import static com.here.xyz.util.db.pg.PropertyIndex.Method.GIN;
+
+import com.here.xyz.events.PropertiesQuery;
+import com.here.xyz.events.PropertyQuery;
+import com.here.xyz.util.db.SQLQuery;
+import com.here.xyz.util.db.datasource.DataSourceProvider;
+import com.here.xyz.util.db.pg.PropertyIndex;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Samples the shapes of slow or rejected property searches and derives candidates for property indices from them.
+ * For each space and property key, the operators being used, the execution times and the selectivity of the searches are recorded.
+ * Candidates are ranked by the execution time they could save, which is estimated from the accumulated execution time of the
+ * searches using the property and the share of rows which could be skipped using an index.
+ * The top candidates can be created using a job with the process {@code PropertyIndexes}, which creates each index with the
+ * CreateIndex step.
+ * NOTE: The samples are kept in memory of the process running the connector only.
+ */
+public class IndexAdvisor {
+
+  private static final Logger logger = LogManager.getLogger();
+  /**
+   * Searches taking longer than this are sampled
+   */
+  public static long SLOW_SEARCH_THRESHOLD_MS = 1_000;
+  /**
+   * Candidates with a higher average selectivity are not suggested, as a sequential scan is the better choice for them anyway
+   */
+  private static final double MAX_SELECTIVITY = 0.2;
+  private static final int MAX_CANDIDATES = 1_000;
+  private static final long TABLE_SIZE_CACHE_INTERVAL_MS = TimeUnit.MINUTES.toMillis(10);
+  private static final Map<String, Candidate> candidates = new ConcurrentHashMap<>();
+  private static final Map<String, TableSize> tableSizes = new ConcurrentHashMap<>();
+
+  private IndexAdvisor() {}
+
+  /**
+   * Records a property search which took longer than {@link #SLOW_SEARCH_THRESHOLD_MS}.
+   *
+   * @param dataSourceProvider The data source provider which was used for the search
+   * @param spaceId The ID of the space which was searched
+   * @param table The space table
+   * @param propertiesQuery The properties query of the search
+   * @param executionTime The execution time of the search in milliseconds
+   * @param matchedRows The number of rows which have been returned, this is a lower bound if the limit of the search was reached
+   */
+  public static void recordSlowSearch(DataSourceProvider dataSourceProvider, String spaceId, String table,
+      PropertiesQuery propertiesQuery, long executionTime, long matchedRows) {
+    long tableRows = getTableSize(dataSourceProvider, table);
+    double selectivity = tableRows > 0 ? Math.min(1d, (double) matchedRows / tableRows) : -1;
+    record(spaceId, table, propertiesQuery, executionTime, selectivity, false);
+  }
+
+  /**
+   * Records a property search which was rejected, because no index was available for one of the searched properties.
+   *
+   * @param spaceId The ID of the space which was searched
+   * @param table The space table
+   * @param propertiesQuery The properties query of the search
+   */
+  public static void recordRejectedSearch(String spaceId, String table, PropertiesQuery propertiesQuery) {
+    //NOTE: A rejected search would have been slow, so it's weighted like a slow search with unknown selectivity
+    record(spaceId, table, propertiesQuery, SLOW_SEARCH_THRESHOLD_MS, -1, true);
+  }
+
+  private static void record(String spaceId, String table, PropertiesQuery propertiesQuery, long executionTime, double selectivity,
+      boolean rejected) {
+    if (propertiesQuery == null)
+      return;
+
+    //Only count each candidate once per search
+    Set<PropertyIndex> indices = new HashSet<>();
+    propertiesQuery.stream().flatMap(List::stream).forEach(propertyQuery -> {
+      PropertyIndex index = toIndex(propertyQuery);
+      if (index != null)
+        indices.add(index);
+    });
+
+    for (PropertyIndex index : indices) {
+      String key = table + ":" + index;
+      Candidate candidate = candidates.get(key);
+      if (candidate == null) {
+        if (candidates.size() >= MAX_CANDIDATES)
+          continue;
+        candidate = candidates.computeIfAbsent(key, k -> new Candidate(spaceId, table, index));
+      }
+      candidate.addSample(executionTime, selectivity, rejected);
+    }
+  }
+
+  /**
+   * Derives the index which could support the specified predicate.
+   * @return The index or null if the predicate can not be supported by a property index
+   */
+  private static PropertyIndex toIndex(PropertyQuery propertyQuery) {
+    String key = propertyQuery.getKey();
+    //The ID and the geometry type are covered by system indices
+    if (key == null || key.isEmpty() || "id".equalsIgnoreCase(key) || "geometry.type".equalsIgnoreCase(key))
+      return null;
+
+    boolean nullCheck = propertyQuery.getValues().stream().anyMatch(value -> value == null);
+    //Only the check for existing values can be supported by the partial index
+    if (nullCheck && propertyQuery.getOperation() != NOT_EQUALS)
+      return null;
+
+    return new PropertyIndex(key, propertyQuery.getOperation() == CONTAINS ? GIN : BTREE);
+  }
+
+  private static long getTableSize(DataSourceProvider dataSourceProvider, String table) {
+    String schema = dataSourceProvider.getDatabaseSettings().getSchema();
+    String key = dataSourceProvider.getDatabaseSettings().getId() + ":" + schema + "." + table;
+    TableSize tableSize = tableSizes.get(key);
+    if (tableSize != null && tableSize.expiry >= System.currentTimeMillis())
+      return tableSize.rows;
+
+    try {
+      long rows = new SQLQuery("SELECT coalesce((count->'value')::BIGINT, 0) FROM xyz_statistic_space(#{schema}, #{table}, false)")
+          .withNamedParameter("schema", schema)
+          .withNamedParameter("table", table)
+          .withTimeout(2)
+          .run(dataSourceProvider, rs -> rs.next() ? rs.getLong(1) : -1L, true);
+      tableSizes.put(key, new TableSize(rows));
+      return rows;
+    }
+    catch (SQLException e) {
+      logger.warn("Unable to read the size of table {}.{} for the index advisor.", schema, table, e);
+      return -1;
+    }
+  }
+
+  /**
+   * Returns the index candidates ranked by their estimated benefit.
+   *
+   * @param limit The maximum number of candidates to return
+   * @return The best candidates, beginning with the most beneficial one
+   */
+  public static List<Candidate> getReport(int limit) {
+    return candidates.values().stream()
+        .filter(candidate -> candidate.getAverageSelectivity() <= MAX_SELECTIVITY)
+        .sorted(Comparator.comparingDouble(Candidate::getScore).reversed())
+        .limit(limit)
+        .toList();
+  }
+
+  /**
+   * Removes all samples, e.g., after the top candidates have been created.
+   */
+  public static void reset() {
+    candidates.clear();
+  }
+
+  public static class Candidate {
+
+    private final String spaceId;
+    private final String table;
+    private final PropertyIndex index;
+    private long samples;
+    private long rejectedSearches;
+    private long totalExecutionTime;
+    private long selectivitySamples;
+    private double selectivitySum;
+
+    private Candidate(String spaceId, String table, PropertyIndex index) {
+      this.spaceId = spaceId;
+      this.table = table;
+      this.index = index;
+    }
+
+    private synchronized void addSample(long executionTime, double selectivity, boolean rejected) {
+      samples++;
+      totalExecutionTime += executionTime;
+      if (rejected)
+        rejectedSearches++;
+      if (selectivity >= 0) {
+        selectivitySamples++;
+        selectivitySum += selectivity;
+      }
+    }
+
+    public String getSpaceId() {
+      return spaceId;
+    }
+
+    public String getTable() {
+      return table;
+    }
+
+    public PropertyIndex getIndex() {
+      return index;
+    }
+
+    public synchronized long getSamples() {
+      return samples;
+    }
+
+    public synchronized long getRejectedSearches() {
+      return rejectedSearches;
+    }
+
+    public synchronized long getTotalExecutionTime() {
+      return totalExecutionTime;
+    }
+
+    /**
+     * @return The average share of the table's rows which were matched by the sampled searches or 0 if it is unknown
+     */
+    public synchronized double getAverageSelectivity() {
+      return selectivitySamples == 0 ? 0 : selectivitySum / selectivitySamples;
+    }
+
+    /**
+     * @return The estimated execution time in milliseconds which could have been saved by the index
+     */
+    public synchronized double getScore() {
+      return totalExecutionTime * (1 - getAverageSelectivity());
+    }
+  }
+
+  private static class TableSize {
+
+    private final long rows;
+    private final long expiry = System.currentTimeMillis() + TABLE_SIZE_CACHE_INTERVAL_MS;
+
+    private TableSize(long rows) {
+      this.rows = rows;
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql.query.helpers.versioning;
+
+import static com.here.xyz.psql.query.helpers.versioning.GetNextVersion.VERSION_SEQUENCE_SUFFIX;
+import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.SCHEMA;
+import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.TABLE;
+
+import com.here.xyz.connectors.ErrorResponseException;
+import com.here.xyz.events.Event;
+import com.here.xyz.psql.query.XyzEventBasedQueryRunner;
+import com.here.xyz.util.db.SQLQuery;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Returns a string which changes whenever the content of a space changes.
+ * It consists of the last value of the version sequence (which also reflects writes which did not increase the HEAD version, e.g.,
+ * hard deletes) and the HEAD version (which only reflects committed writes).
+ */
+public class GetVersionState<E extends Event> extends XyzEventBasedQueryRunner<E, String> {
+
+  public GetVersionState(E input) throws SQLException, ErrorResponseException {
+    super(input);
+  }
+
+  @Override
+  protected SQLQuery buildQuery(E event) throws SQLException, ErrorResponseException {
+    return new SQLQuery("SELECT (SELECT last_value FROM ${schema}.${sequence}) || '_' "
+        + "|| (SELECT coalesce(max(version), -1) FROM ${schema}.${table})")
+        .withVariable(SCHEMA, getSchema())
+        .withVariable(TABLE, getDefaultTable(event))
+        .withVariable("sequence", getDefaultTable(event) + VERSION_SEQUENCE_SUFFIX);
+  }
+
+  @Override
+  public String handle(ResultSet rs) throws SQLException {
+    if (rs.next())
+      return rs.getString(1);
+    throw new SQLException("Unable to retrieve the version state of the space.");
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql.query.helpers.versioning;
+
+import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.SCHEMA;
+import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.TABLE;
+
+import com.here.xyz.util.db.SQLQuery;
+import com.here.xyz.util.db.datasource.DataSourceProvider;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Keeps track of the HEAD versions of the space tables as they have been seen on the read replica.
+ * As the versions of a space are only growing, a version which was seen on the replica once will stay available there.
+ * That allows routing reads of past versions to the replica without having to check the replica for each request.
+ * NOTE: The versions of a space are taken from a sequence before the according write commits. Concurrent writes to the same space can
+ *  therefore commit out of order, so a HEAD version equal to the requested version does not imply that all features of the requested
+ *  version have been replayed on the replica yet. Only a HEAD version greater than the requested version is treated as sufficient.
+ */
+public class ReplicaHeadVersions {
+
+  private static final Logger logger = LogManager.getLogger();
+  static final long MIN_SAMPLING_INTERVAL = 1_000;
+  private static final Map<String, SampledVersion> headVersions = new ConcurrentHashMap<>();
+
+  private ReplicaHeadVersions() {}
+
+  /**
+   * Checks whether the specified version of a space table has already been applied on the read replica.
+   * If the last known HEAD version of the replica is not greater than the requested version, the replica is checked again, but not more
+   * often than every {@link #MIN_SAMPLING_INTERVAL} milliseconds per table.
+   *
+   * @param dataSourceProvider The data source provider of the database
+   * @param schema The schema of the space table
+   * @param table The space table
+   * @param version The version to be read
+   * @return true if the replica contains the requested version
+   */
+  public static boolean isAvailableOnReplica(DataSourceProvider dataSourceProvider, String schema, String table, long version) {
+    return isAvailableOnReplica(dataSourceProvider.getDatabaseSettings().getId() + ":" + schema + "." + table, version,
+        System.currentTimeMillis(), () -> new SQLQuery("SELECT coalesce(max(version), -1) FROM ${schema}.${table}")
+            .withVariable(SCHEMA, schema)
+            .withVariable(TABLE, table)
+            .withTimeout(2)
+            .run(dataSourceProvider, rs -> rs.next() ? rs.getLong(1) : -1L, true));
+  }
+
+  static boolean isAvailableOnReplica(String key, long version, long now, HeadVersionSampler sampler) {
+    SampledVersion sampledVersion = headVersions.get(key);
+    if (sampledVersion != null && (sampledVersion.version > version || now - sampledVersion.sampledAt < MIN_SAMPLING_INTERVAL))
+      return sampledVersion.version > version;
+
+    try {
+      long replicaHeadVersion = sampler.sample();
+      headVersions.put(key, new SampledVersion(replicaHeadVersion, now));
+      return replicaHeadVersion > version;
+    }
+    catch (SQLException e) {
+      logger.warn("Unable to read the HEAD version of {} from the replica.", key, e);
+      return false;
+    }
+  }
+
+  static void clear() {
+    headVersions.clear();
+  }
+
+  @FunctionalInterface
+  interface HeadVersionSampler {
+    long sample() throws SQLException;
+  }
+
+  private static class SampledVersion {
+
+    private final long version;
+    private final long sampledAt;
+
+    private SampledVersion(long version, long sampledAt) {
+      this.version = version;
+      this.sampledAt = sampledAt;
+    }
+  }
+}
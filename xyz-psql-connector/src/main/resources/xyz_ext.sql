@@ -57,6 +57,8 @@
 -- xyz_statistic_xl_space					:	select tablesize,geometrytypes,properties,tags,count,bbox,searchable from xyz_statistic_xl_space('xyz', 'QgQCHStH', 1000);
 -- xyz_statistic_space						:	select tablesize,geometrytypes,properties,tags,count,bbox,searchable from xyz_statistic_space('xyz', 'QgQCHStH');
 -- xyz_statistic_xs_space					:	select tablesize,geometrytypes,properties,tags,count,bbox,searchable from xyz_statistic_xs_space('xyz', 'QgQCHStH');
+-- xyz_enable_space_statistics				:	select xyz_enable_space_statistics('xyz', 'QgQCHStH');
+-- xyz_space_statistics						:	select tablesize,geometrytypes,properties,tags,count,bbox,searchable from xyz_space_statistics('xyz', 'QgQCHStH');
 -- xyz_create_idxs_for_space				:	select xyz_create_idxs_for_space('xyz', 'QgQCHStH');
 -- xyz_remove_unnecessary_idx				:	select xyz_remove_unnecessary_idx('xyz', 10000);
 -- xyz_qk_grird								:	select xyz_qk_grird(3)
@@ -110,7 +112,7 @@
 CREATE OR REPLACE FUNCTION xyz_ext_version()
   RETURNS integer AS
 $BODY$
- select 205
+ select 207
 $BODY$
   LANGUAGE sql IMMUTABLE;
 
@@ -1254,7 +1256,7 @@ $BODY$
 					|| '			GROUP BY propkey ORDER by propkey,count DESC '
 					|| ') C';
 		ELSE
-			SELECT reltuples into estimate_cnt FROM pg_class WHERE oid = concat('"',$1, '"."', $2, '"')::regclass;
+			SELECT xyz_estimate_rows(concat('"',$1, '"."', $2, '"')::regclass) into estimate_cnt;
 
 			RETURN QUERY EXECUTE
 				'SELECT DISTINCT ON(propkey) * FROM (  '
@@ -1658,7 +1660,7 @@ $BODY$
 		auto_tablescan integer := null;
 		semantic_hit boolean;
 	BEGIN
-		SELECT reltuples into cnt FROM pg_class WHERE oid = concat('"',$1, '"."', $2, '"')::regclass;
+		SELECT xyz_estimate_rows(concat('"',$1, '"."', $2, '"')::regclass) into cnt;
 		if cnt is null OR cnt <= 50000 THEN
 			EXECUTE format('SELECT count(*) from %s."%s"', schema,_spaceid)
 				INTO cnt;
@@ -2066,7 +2068,7 @@ $BODY$
 				|| ' 	) a '
 				|| 'WHERE key!=''@ns:com:here:xyz'' GROUP BY key ORDER by count DESC, key';
 		ELSE
-			SELECT reltuples into estimate_cnt FROM pg_class WHERE oid = concat('"',$1, '"."', $2, '"')::regclass;
+			SELECT xyz_estimate_rows(concat('"',$1, '"."', $2, '"')::regclass) into estimate_cnt;
 
 			RETURN QUERY EXECUTE
 				'SELECT  key, '
@@ -2118,7 +2120,7 @@ $BODY$
 				|| ' 	) a '
 				|| 'GROUP BY tag ORDER by count DESC, tag';
 		ELSE
-			SELECT reltuples into estimate_cnt FROM pg_class WHERE oid = concat('"',$1, '"."', $2, '"')::regclass;
+			SELECT xyz_estimate_rows(concat('"',$1, '"."', $2, '"')::regclass) into estimate_cnt;
 
 			RETURN QUERY EXECUTE
 				'SELECT  tag, '
@@ -2280,7 +2282,7 @@ $BODY$
 	DECLARE estimate_cnt bigint;
 
 	BEGIN
-		SELECT reltuples into estimate_cnt FROM pg_class WHERE oid = ( select concat('"',$1, '"."', xyz_get_head_table(schema, spaceid), '"')::regclass);
+		SELECT xyz_estimate_rows(concat('"',$1, '"."', xyz_get_head_table(schema, spaceid), '"')::regclass) into estimate_cnt;
 
 		IF estimate_cnt > big_space_threshold THEN
 			RETURN QUERY EXECUTE 'select * from xyz_statistic_xl_space('''||schema||''', ''' || xyz_get_head_table(schema, spaceid) || ''' , '||tablesamplecnt||')';
@@ -2353,6 +2355,305 @@ end;
 $body$
 language plpgsql volatile;
 
+------------------------------------------------
+------------------------------------------------
+CREATE OR REPLACE FUNCTION xyz_merge_counts(a jsonb, b jsonb)
+  RETURNS jsonb AS
+$BODY$
+	/**
+	* Description: Merges two objects of counts (e.g. {"Point": 3, "Polygon": 1}) by summing up the counts per key.
+	*	Keys with a resulting count of 0 are removed.
+	*/
+	SELECT COALESCE(jsonb_object_agg(key, total), '{}'::jsonb)
+		FROM (
+			SELECT key, sum(value::bigint) AS total
+				FROM (
+					SELECT * FROM jsonb_each_text(COALESCE(a, '{}'::jsonb))
+					UNION ALL
+					SELECT * FROM jsonb_each_text(COALESCE(b, '{}'::jsonb))
+				) c
+			GROUP BY key
+			HAVING sum(value::bigint) <> 0
+		) s;
+$BODY$
+  LANGUAGE sql IMMUTABLE;
+------------------------------------------------
+------------------------------------------------
+CREATE OR REPLACE FUNCTION xyz_merge_boxes(a box2d, b box2d)
+  RETURNS box2d AS
+$BODY$
+	SELECT CASE
+		WHEN a IS NULL THEN b
+		WHEN b IS NULL THEN a
+		ELSE ST_MakeBox2D(
+			ST_MakePoint(least(ST_XMin(a), ST_XMin(b)), least(ST_YMin(a), ST_YMin(b))),
+			ST_MakePoint(greatest(ST_XMax(a), ST_XMax(b)), greatest(ST_YMax(a), ST_YMax(b))))
+	END;
+$BODY$
+  LANGUAGE sql IMMUTABLE;
+------------------------------------------------
+------------------------------------------------
+CREATE OR REPLACE FUNCTION xyz_space_statistics_delta_sql(changes text)
+  RETURNS text AS
+$BODY$
+	/**
+	* Description: Returns the query which calculates the statistics delta of a set of feature changes.
+	*	Only changes of HEAD features which are not deleted are taken into account.
+	*
+	* Parameters:
+	*   @changes		- query returning the columns sign (1 for added rows, -1 for removed rows), jsondata, geo, next_version & operation
+	*
+	* Returns (when executing the query):
+	*   count			- delta of the feature count
+	*   geometrytypes	- delta of the feature count per geometry type
+	*   properties		- delta of the feature count per property key
+	*   bbox			- bbox of the added geometries
+	*   removed			- true if geometries have been removed which are not covered by the bbox of the added geometries
+	*/
+	SELECT format(
+		'WITH changes AS ( '
+		|| '	SELECT sign, jsondata, geo FROM (%s) c '
+		|| '		WHERE next_version = max_bigint() AND operation NOT IN (''D'', ''H'', ''J'') '
+		|| '), '
+		|| 'added_bbox AS (SELECT ST_Extent(geo) AS bbox FROM changes WHERE sign > 0) '
+		|| 'SELECT '
+		|| '	(SELECT COALESCE(sum(sign), 0) FROM changes)::bigint AS count, '
+		|| '	(SELECT COALESCE(jsonb_object_agg(type, cnt), ''{}''::jsonb) FROM ( '
+		|| '		SELECT xyz_geotype(geo) AS type, sum(sign) AS cnt FROM changes GROUP BY 1 HAVING sum(sign) <> 0 '
+		|| '	) g) AS geometrytypes, '
+		|| '	(SELECT COALESCE(jsonb_object_agg(key, cnt), ''{}''::jsonb) FROM ( '
+		|| '		SELECT key, sum(sign) AS cnt '
+		|| '			FROM changes, jsonb_object_keys(CASE WHEN jsonb_typeof(jsondata->''properties'') = ''object'' THEN jsondata->''properties'' END) key '
+		|| '		WHERE key != ''@ns:com:here:xyz'' '
+		|| '		GROUP BY key HAVING sum(sign) <> 0 '
+		|| '	) p) AS properties, '
+		|| '	(SELECT bbox FROM added_bbox) AS bbox, '
+		|| '	EXISTS (SELECT 1 FROM changes, added_bbox '
+		|| '		WHERE sign < 0 AND geo IS NOT NULL AND NOT COALESCE(added_bbox.bbox::geometry ~ geo, false)) AS removed',
+		changes);
+$BODY$
+  LANGUAGE sql IMMUTABLE;
+------------------------------------------------
+------------------------------------------------
+CREATE OR REPLACE FUNCTION xyz_space_statistics_trigger()
+  RETURNS trigger AS
+$BODY$
+	/**
+	* Description: Statement level trigger which maintains the statistics of a space incrementally.
+	*	The delta of each statement is calculated from its transition tables (old_rows / new_rows) and is added to the
+	*	statistics row of the current transaction. That way concurrent transactions never compete for the same row.
+	*	Occasionally the rows of committed transactions are compacted into the baseline row of the space.
+	*/
+	DECLARE
+		changes text;
+		delta record;
+	BEGIN
+		IF TG_OP = 'TRUNCATE' THEN
+			DELETE FROM xyz_config.space_statistics WHERE schem = TG_TABLE_SCHEMA AND tbl = TG_TABLE_NAME AND txid != 0;
+			UPDATE xyz_config.space_statistics
+				SET count = 0, geometrytypes = '{}'::jsonb, properties = '{}'::jsonb, bbox = NULL, bbox_exact = true
+				WHERE schem = TG_TABLE_SCHEMA AND tbl = TG_TABLE_NAME AND txid = 0;
+			RETURN NULL;
+		END IF;
+
+		changes := CASE TG_OP
+			WHEN 'INSERT' THEN 'SELECT 1 AS sign, jsondata, geo, next_version, operation FROM new_rows'
+			WHEN 'UPDATE' THEN 'SELECT 1 AS sign, jsondata, geo, next_version, operation FROM new_rows '
+				|| 'UNION ALL SELECT -1, jsondata, geo, next_version, operation FROM old_rows'
+			ELSE 'SELECT -1 AS sign, jsondata, geo, next_version, operation FROM old_rows'
+		END;
+
+		EXECUTE xyz_space_statistics_delta_sql(changes) INTO delta;
+
+		IF delta.count = 0 AND delta.geometrytypes = '{}'::jsonb AND delta.properties = '{}'::jsonb
+				AND delta.bbox IS NULL AND NOT delta.removed THEN
+			RETURN NULL;
+		END IF;
+
+		INSERT INTO xyz_config.space_statistics AS s (schem, tbl, txid, count, geometrytypes, properties, bbox, bbox_exact)
+			VALUES (TG_TABLE_SCHEMA, TG_TABLE_NAME, txid_current(), delta.count, delta.geometrytypes, delta.properties, delta.bbox,
+				NOT delta.removed)
+		ON CONFLICT (schem, tbl, txid) DO UPDATE SET
+			count = s.count + EXCLUDED.count,
+			geometrytypes = xyz_merge_counts(s.geometrytypes, EXCLUDED.geometrytypes),
+			properties = xyz_merge_counts(s.properties, EXCLUDED.properties),
+			bbox = xyz_merge_boxes(s.bbox, EXCLUDED.bbox),
+			bbox_exact = s.bbox_exact AND EXCLUDED.bbox_exact;
+
+		IF random() < 0.01 THEN
+			PERFORM xyz_compact_space_statistics(TG_TABLE_SCHEMA, TG_TABLE_NAME);
+		END IF;
+
+		RETURN NULL;
+	END;
+$BODY$
+  LANGUAGE plpgsql VOLATILE;
+------------------------------------------------
+------------------------------------------------
+CREATE OR REPLACE FUNCTION xyz_compact_space_statistics(schema text, spaceid text)
+  RETURNS void AS
+$BODY$
+	/**
+	* Description: Merges the statistics rows of all committed transactions into the baseline row of the space.
+	*	Does nothing if another transaction is compacting the statistics of the same space already.
+	*
+	* Parameters:
+	*   @schema			- schema in which the XYZ-spaces are located
+	*   @spaceid		- id of the space (tablename)
+	*/
+	BEGIN
+		IF NOT pg_try_advisory_xact_lock(hashtext('xyz_space_statistics.' || schema || '.' || spaceid)) THEN
+			RETURN;
+		END IF;
+
+		WITH compacted AS (
+			DELETE FROM xyz_config.space_statistics s
+				WHERE s.schem = schema AND s.tbl = spaceid AND s.txid NOT IN (0, txid_current())
+			RETURNING s.*
+		),
+		merged AS (
+			SELECT sum(c.count) AS count,
+				(SELECT COALESCE(jsonb_object_agg(key, total), '{}'::jsonb) FROM (
+					SELECT key, sum(value::bigint) AS total FROM compacted, jsonb_each_text(compacted.geometrytypes) GROUP BY key
+				) g) AS geometrytypes,
+				(SELECT COALESCE(jsonb_object_agg(key, total), '{}'::jsonb) FROM (
+					SELECT key, sum(value::bigint) AS total FROM compacted, jsonb_each_text(compacted.properties) GROUP BY key
+				) p) AS properties,
+				ST_Extent(c.bbox::geometry)::box2d AS bbox,
+				bool_and(c.bbox_exact) AS bbox_exact
+			FROM compacted c
+		)
+		UPDATE xyz_config.space_statistics s
+			SET count = s.count + m.count,
+				geometrytypes = xyz_merge_counts(s.geometrytypes, m.geometrytypes),
+				properties = xyz_merge_counts(s.properties, m.properties),
+				bbox = xyz_merge_boxes(s.bbox, m.bbox),
+				bbox_exact = s.bbox_exact AND m.bbox_exact
+			FROM merged m
+			WHERE s.schem = schema AND s.tbl = spaceid AND s.txid = 0 AND m.count IS NOT NULL;
+	END;
+$BODY$
+  LANGUAGE plpgsql VOLATILE;
+------------------------------------------------
+------------------------------------------------
+CREATE OR REPLACE FUNCTION xyz_enable_space_statistics(schema text, spaceid text)
+  RETURNS void AS
+$BODY$
+	/**
+	* Description: Enables the incremental maintenance of the statistics of a space.
+	*	The baseline statistics are calculated from the current content of the space once (which is cheap for new spaces).
+	*	Afterwards the statistics are kept up to date by the triggers being installed on the space table.
+	*	Does nothing if the statistics table does not exist.
+	*
+	* Parameters:
+	*   @schema			- schema in which the XYZ-spaces are located
+	*   @spaceid		- id of the space (tablename of the root table)
+	*/
+	DECLARE
+		baseline record;
+	BEGIN
+		IF to_regclass('xyz_config.space_statistics') IS NULL THEN
+			RETURN;
+		END IF;
+
+		--Prevent concurrent writes while the baseline is calculated
+		EXECUTE format('LOCK TABLE %I.%I IN SHARE MODE', schema, spaceid);
+
+		EXECUTE xyz_space_statistics_delta_sql(
+			format('SELECT 1 AS sign, jsondata, geo, next_version, operation FROM %I.%I WHERE next_version = max_bigint()', schema, spaceid))
+			INTO baseline;
+
+		DELETE FROM xyz_config.space_statistics s WHERE s.schem = schema AND s.tbl = spaceid;
+		INSERT INTO xyz_config.space_statistics (schem, tbl, txid, count, geometrytypes, properties, bbox, bbox_exact)
+			VALUES (schema, spaceid, 0, baseline.count, baseline.geometrytypes, baseline.properties, baseline.bbox, true);
+
+		EXECUTE format('CREATE OR REPLACE TRIGGER xyz_statistics_insert AFTER INSERT ON %I.%I '
+			|| 'REFERENCING NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION xyz_space_statistics_trigger()', schema, spaceid);
+		EXECUTE format('CREATE OR REPLACE TRIGGER xyz_statistics_update AFTER UPDATE ON %I.%I '
+			|| 'REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION xyz_space_statistics_trigger()',
+			schema, spaceid);
+		EXECUTE format('CREATE OR REPLACE TRIGGER xyz_statistics_delete AFTER DELETE ON %I.%I '
+			|| 'REFERENCING OLD TABLE AS old_rows FOR EACH STATEMENT EXECUTE FUNCTION xyz_space_statistics_trigger()', schema, spaceid);
+		EXECUTE format('CREATE OR REPLACE TRIGGER xyz_statistics_truncate AFTER TRUNCATE ON %I.%I '
+			|| 'FOR EACH STATEMENT EXECUTE FUNCTION xyz_space_statistics_trigger()', schema, spaceid);
+	END;
+$BODY$
+  LANGUAGE plpgsql VOLATILE;
+------------------------------------------------
+------------------------------------------------
+CREATE OR REPLACE FUNCTION xyz_space_statistics(schema text, spaceid text)
+  RETURNS TABLE(tablesize jsonb, geometrytypes jsonb, properties jsonb, tags jsonb, count jsonb, bbox jsonb, searchable text) AS
+$BODY$
+	/**
+	* Description: Returns the incrementally maintained statistics of a space (see xyz_enable_space_statistics).
+	*	The result has the same format as the one of xyz_statistic_space. Except for the tablesize and the tags all values are exact.
+	*	The bbox is only estimated (it might be too large), if geometries have been removed or moved since the baseline was calculated.
+	*	Returns no row, if the statistics are not maintained for the space.
+	*
+	* Parameters:
+	*   @schema			- schema in which the XYZ-spaces are located
+	*   @spaceid		- id of the space (tablename of the root table)
+	*/
+
+	/**  Defines how much records a big table has (see xyz_statistic_space_v1) */
+	DECLARE big_space_threshold integer := 10000;
+
+	/** Defines how many property keys are returned at most */
+	DECLARE max_property_keys integer := 1000;
+
+	DECLARE
+		stats record;
+		idxlist jsonb := '[]'::jsonb;
+	BEGIN
+		IF to_regclass('xyz_config.space_statistics') IS NULL THEN
+			RETURN;
+		END IF;
+
+		SELECT sum(s.count) AS count,
+			(SELECT COALESCE(jsonb_agg(key ORDER BY key), '[]'::jsonb) FROM (
+				SELECT key FROM xyz_config.space_statistics s2, jsonb_each_text(s2.geometrytypes)
+					WHERE s2.schem = schema AND s2.tbl = spaceid GROUP BY key HAVING sum(value::bigint) > 0
+			) g) AS geometrytypes,
+			(SELECT COALESCE(jsonb_object_agg(key, total), '{}'::jsonb) FROM (
+				SELECT key, sum(value::bigint) AS total FROM xyz_config.space_statistics s2, jsonb_each_text(s2.properties)
+					WHERE s2.schem = schema AND s2.tbl = spaceid GROUP BY key HAVING sum(value::bigint) > 0
+					ORDER BY total DESC, key LIMIT max_property_keys
+			) p) AS properties,
+			ST_Extent(s.bbox::geometry)::box2d AS bbox,
+			bool_and(s.bbox_exact) AS bbox_exact,
+			bool_or(s.txid = 0) AS has_baseline
+		INTO stats
+		FROM xyz_config.space_statistics s
+		WHERE s.schem = schema AND s.tbl = spaceid;
+
+		IF stats.has_baseline IS NOT TRUE THEN
+			RETURN;
+		END IF;
+
+		IF stats.count > big_space_threshold THEN
+			SELECT COALESCE(jsonb_agg(DISTINCT split_part(idx_property, ',', 1)), '[]'::jsonb) INTO idxlist
+				FROM xyz_index_list_all_available(schema, xyz_get_head_table(schema, spaceid))
+				WHERE src IN ('a', 'm', 'o');
+		END IF;
+
+		RETURN QUERY SELECT
+			jsonb_build_object('value', (SELECT COALESCE(sum(pg_total_relation_size(inhrelid)), 0)
+				FROM pg_inherits WHERE inhparent = format('%I.%I', schema, spaceid)::regclass), 'estimated', true),
+			jsonb_build_object('value', stats.geometrytypes, 'estimated', false),
+			jsonb_build_object('value', (SELECT COALESCE(jsonb_agg(
+				jsonb_build_object('key', key, 'count', value::bigint)
+					|| CASE WHEN stats.count > big_space_threshold THEN jsonb_build_object('searchable', idxlist ? key) ELSE '{}'::jsonb END
+				ORDER BY value::bigint DESC, key), '[]'::jsonb)
+				FROM jsonb_each_text(stats.properties)), 'estimated', false),
+			jsonb_build_object('value', '[]'::jsonb, 'estimated', true),
+			jsonb_build_object('value', stats.count, 'estimated', false),
+			jsonb_build_object('value', CASE WHEN stats.count > 0 THEN COALESCE(stats.bbox::text, '') ELSE '' END,
+				'estimated', stats.count > 0 AND NOT stats.bbox_exact),
+			CASE WHEN stats.count > big_space_threshold THEN 'PARTIAL' ELSE 'ALL' END;
+	END;
+$BODY$
+  LANGUAGE plpgsql VOLATILE;
+
 ------------------------------------------------
 ------------------------------------------------
 CREATE OR REPLACE FUNCTION xyz_statistic_xs_space(
@@ -3216,6 +3517,17 @@ $BODY$
 LANGUAGE plpgsql VOLATILE;
 ------------------------------------------------
 ------------------------------------------------
+CREATE OR REPLACE FUNCTION xyz_estimate_rows(tbl REGCLASS) RETURNS REAL AS
+$BODY$
+	-- Partitioned tables (e.g., hash partitioned HEAD tables) have no own row estimate, so the estimates of their partitions are summed up
+	SELECT CASE WHEN c.relkind = 'p'
+		THEN (SELECT coalesce(sum(greatest(pc.reltuples, 0)), 0) FROM pg_partition_tree(tbl) pt JOIN pg_class pc ON pc.oid = pt.relid WHERE pt.isleaf)
+		ELSE c.reltuples END
+	FROM pg_class c WHERE c.oid = tbl;
+$BODY$
+LANGUAGE sql STABLE;
+-------------------------------------------------
+-------------------------------------------------
 CREATE OR REPLACE FUNCTION xyz_get_root_table(tableName TEXT) RETURNS TEXT AS
 $BODY$
 BEGIN
@@ -4106,7 +4418,7 @@ begin
                  from pg_class c, (select unnest(tbls) as tbl)
                  r	where c.oid = r.tbl
 			   ),
-    indata as  ( select r.tbl, greatest( c.reltuples::bigint, 1) as reltuples from pg_class c , (select unnest( headtbl ) as tbl from hddata ) r	where c.oid = r.tbl ),
+    indata as  ( select r.tbl, greatest( xyz_estimate_rows(r.tbl)::bigint, 1) as reltuples from (select unnest( headtbl ) as tbl from hddata ) r ),
 	iindata as ( select tbl, x.reltuples, x.reltuples::float/max(x.reltuples) over () as rweight, sum(x.reltuples) over () as total from indata x ),
     qkdata as
     (
@@ -27,9 +27,12 @@ import static org.junit.Assert.assertTrue;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.here.xyz.XyzSerializable;
+import com.here.xyz.events.IterateFeaturesEvent;
 import com.here.xyz.events.ModifyFeaturesEvent;
 import com.here.xyz.events.ModifySpaceEvent;
 import com.here.xyz.models.geojson.implementation.Feature;
+import com.here.xyz.models.geojson.implementation.FeatureCollection;
+import com.here.xyz.models.geojson.implementation.Properties;
 import com.here.xyz.models.geojson.implementation.XyzNamespace;
 import com.here.xyz.models.hub.Space;
 import com.here.xyz.psql.query.ModifySpace;
@@ -40,10 +43,14 @@ import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.junit.After;
+import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -65,9 +72,11 @@ public class PSQLExtendedSpacesIT extends PSQLAbstractIT {
     @BeforeClass
     public static void init() throws Exception {
         initEnv(connectorParams);
-        generateTestSpaces();
     }
 
+    @Before
+    public void prepare() throws Exception { generateTestSpaces(); }
+
     @After
     public void shutdown() throws Exception { invokeDeleteTestSpaces(connectorParams, spaces); }
 
@@ -117,6 +126,107 @@ public class PSQLExtendedSpacesIT extends PSQLAbstractIT {
         checkIDXTable(3, true);
     }
 
+    @Test
+    public void readComposite1LevelExtension() throws Exception {
+        writeFeatures(BASE1, "c-b1", "c-b2", "c-b3", "c-b4", "c-b5");
+        writeFeatures(DELTA1, "c-b1", "c-b5", "c-d1", "c-d2");
+        //c-b2 and c-b5 exist in the base and get hidden, c-d2 only exists in the extension and gets deleted
+        deleteFeatures(DELTA1, "c-b2", "c-b5", "c-d2");
+
+        Map<String, Feature> composite = readComposite(DELTA1);
+        assertEquals(Set.of("c-b1", "c-b3", "c-b4", "c-d1"), composite.keySet());
+        //Overridden by the extension
+        assertEquals(DELTA1, composite.get("c-b1").getProperties().get("layer"));
+        assertEquals(BASE1, composite.get("c-b3").getProperties().get("layer"));
+        assertEquals(DELTA1, composite.get("c-d1").getProperties().get("layer"));
+    }
+
+    @Test
+    public void readComposite2LevelExtension() throws Exception {
+        writeFeatures(BASE1, "c-b1", "c-b2", "c-b3", "c-b4");
+        writeFeatures(DELTA1, "c-b1", "c-d1", "c-d2");
+        deleteFeatures(DELTA1, "c-d2");
+        writeFeatures(DELTA2, "c-b2", "c-d1", "c-e1", "c-e2");
+        //c-b1 is hidden in the base and in the intermediate layer, which overrides it
+        deleteFeatures(DELTA2, "c-b1", "c-b3", "c-e2");
+
+        Map<String, Feature> composite = readComposite(DELTA2);
+        assertEquals(Set.of("c-b2", "c-b4", "c-d1", "c-e1"), composite.keySet());
+        //Overridden by the extension
+        assertEquals(DELTA2, composite.get("c-b2").getProperties().get("layer"));
+        assertEquals(BASE1, composite.get("c-b4").getProperties().get("layer"));
+        //Overridden by the extension, although it also exists in the intermediate layer
+        assertEquals(DELTA2, composite.get("c-d1").getProperties().get("layer"));
+        assertEquals(DELTA2, composite.get("c-e1").getProperties().get("layer"));
+    }
+
+    /**
+     * Reads the composite content of the space within one page and page by page, so that the pages cross the boundaries of the layers.
+     * Both results must contain the same features in the same order.
+     * Returns the features written by the tests (having an ID with the prefix "c-") by their IDs.
+     */
+    private static Map<String, Feature> readComposite(String space) throws Exception {
+        List<Feature> features = iterateComposite(space, 1000);
+        List<Feature> pagedFeatures = iterateComposite(space, 1);
+        assertEquals(ids(features), ids(pagedFeatures));
+        assertEquals(features.size(), new HashSet<>(ids(features)).size());
+
+        return features.stream()
+            .filter(feature -> feature.getId().startsWith("c-"))
+            .collect(Collectors.toMap(Feature::getId, feature -> feature));
+    }
+
+    private static List<Feature> iterateComposite(String space, int limit) throws Exception {
+        List<Feature> features = new ArrayList<>();
+        String handle = null;
+        do {
+            IterateFeaturesEvent event = new IterateFeaturesEvent()
+                .withSpace(space)
+                .withConnectorParams(connectorParams)
+                .withParams(extensionParams(space))
+                .withLimit(limit)
+                .withHandle(handle);
+            FeatureCollection page = XyzSerializable.deserialize(invokeLambda(event));
+            assertTrue(page.getFeatures().size() <= limit);
+            features.addAll(page.getFeatures());
+            handle = page.getNextPageToken();
+        }
+        while (handle != null);
+        return features;
+    }
+
+    private static List<String> ids(List<Feature> features) {
+        return features.stream().map(Feature::getId).collect(Collectors.toList());
+    }
+
+    private static void writeFeatures(String space, String... ids) throws Exception {
+        List<Feature> features = new ArrayList<>();
+        for (String id : ids)
+            features.add(FeatureGenerator.generateFeature(new XyzNamespace(), null)
+                .withId(id)
+                .withProperties(new Properties().with("layer", space)));
+
+        invokeLambda(new ModifyFeaturesEvent()
+            .withSpace(space)
+            .withConnectorParams(connectorParams)
+            .withParams(extensionParams(space))
+            .withTransaction(true)
+            .withUpsertFeatures(features));
+    }
+
+    private static void deleteFeatures(String space, String... ids) throws Exception {
+        Map<String, String> idsMap = new HashMap<>();
+        for (String id : ids)
+            idsMap.put(id, null);
+
+        invokeLambda(new ModifyFeaturesEvent()
+            .withSpace(space)
+            .withConnectorParams(connectorParams)
+            .withParams(extensionParams(space))
+            .withTransaction(true)
+            .withDeleteFeatures(idsMap));
+    }
+
     protected static void generateTestSpaces() throws Exception {
         /** Generate:
          * BASE
@@ -126,8 +236,7 @@ public class PSQLExtendedSpacesIT extends PSQLAbstractIT {
         for (String space : spaces ) {
             Map<String,Boolean> searchableProperties = new HashMap();
             List<List<Object>> sortableProperties = new ArrayList<>();
-            Map<String, Object> params = new HashMap<>();
-            Map<String, Object> extendsL2 = new HashMap<>();
+            Map<String, Object> params = extensionParams(space);
 
             switch (space){
                 case BASE1:
@@ -139,12 +248,6 @@ public class PSQLExtendedSpacesIT extends PSQLAbstractIT {
                     break;
                 case DELTA1:
                     mockAutoIndexing();
-                    params.put("extends",new Space.Extension().withSpaceId(BASE1));
-                    break;
-                case DELTA2:
-                    extendsL2.put("spaceId",DELTA1);
-                    extendsL2.put("extends",new Space.Extension().withSpaceId(BASE1));
-                    params.put("extends",extendsL2);
             }
 
             ModifySpaceEvent modifySpaceEvent = new ModifySpaceEvent()
@@ -174,6 +277,21 @@ public class PSQLExtendedSpacesIT extends PSQLAbstractIT {
         }
     }
 
+    protected static Map<String, Object> extensionParams(String space) {
+        Map<String, Object> params = new HashMap<>();
+        switch (space) {
+            case DELTA1:
+                params.put("extends", new Space.Extension().withSpaceId(BASE1));
+                break;
+            case DELTA2:
+                Map<String, Object> extendsL2 = new HashMap<>();
+                extendsL2.put("spaceId", DELTA1);
+                extendsL2.put("extends", new Space.Extension().withSpaceId(BASE1));
+                params.put("extends", extendsL2);
+        }
+        return params;
+    }
+
     protected static void checkIDXTable(int szenario, boolean baselayerSwitch) throws Exception{
         String q = "SELECT * FROM "+ ModifySpace.IDX_STATUS_TABLE_FQN +" WHERE spaceid IN ('"+ BASE1 +"','"+BASE2+"','"+DELTA1+"','"+DELTA2+"');";
         ObjectNode base1_ref = null;
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql;
+
+import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.HEAD_PARTITIONS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.here.xyz.XyzSerializable;
+import com.here.xyz.events.ModifyFeaturesEvent;
+import com.here.xyz.events.ModifySpaceEvent;
+import com.here.xyz.models.hub.Space;
+import com.here.xyz.psql.tools.FeatureGenerator;
+import com.here.xyz.responses.SuccessResponse;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PSQLPartitionedHeadIT extends PSQLAbstractIT {
+
+    static Map<String, Object> connectorParams = new HashMap<>(){
+        {   put(PSQLAbstractIT.CONNECTOR_ID, "test-connector");
+        }
+    };
+
+    @BeforeClass
+    public static void init() throws Exception { initEnv(connectorParams); }
+
+    @After
+    public void shutdown() throws Exception { invokeDeleteTestSpace(connectorParams); }
+
+    @Test
+    public void testEstimateRowsOfPartitionedHead() throws Exception {
+        ModifySpaceEvent modifySpaceEvent = new ModifySpaceEvent().withSpace(TEST_SPACE_ID)
+            .withOperation(ModifySpaceEvent.Operation.CREATE)
+            .withConnectorParams(connectorParams)
+            .withParams(Map.of(HEAD_PARTITIONS, 4))
+            .withSpaceDefinition(new Space().withId(TEST_SPACE_ID));
+        SuccessResponse response = XyzSerializable.deserialize(invokeLambda(modifySpaceEvent));
+        assertEquals("OK", response.getStatus());
+
+        invokeLambda(new ModifyFeaturesEvent()
+            .withSpace(TEST_SPACE_ID)
+            .withTransaction(true)
+            .withInsertFeatures(FeatureGenerator.get11kFeatureCollection().getFeatures())
+            .withConnectorParams(connectorParams));
+
+        try (final Connection connection = LAMBDA.dataSourceProvider.getWriter().getConnection()) {
+            Statement stmt = connection.createStatement();
+            //Analyzing the partitioned root table also analyzes all its leaf partitions
+            stmt.execute("ANALYZE \"" + TEST_SPACE_ID + "\";");
+
+            ResultSet resultSet = stmt.executeQuery("SELECT c.relkind, c.reltuples, "
+                + "(SELECT count(*) FROM pg_partition_tree(c.oid) WHERE isleaf) AS leaves, "
+                + "xyz_estimate_rows(c.oid) AS estimate, "
+                + "xyz_estimate_rows('\"" + TEST_SPACE_ID + "\"'::regclass) AS rootEstimate "
+                + "FROM pg_class c WHERE c.oid = '\"" + TEST_SPACE_ID + "_head\"'::regclass");
+            assertTrue(resultSet.next());
+            //The partitioned HEAD table has no row estimate of its own
+            assertEquals("p", resultSet.getString("relkind"));
+            assertTrue(resultSet.getFloat("reltuples") <= 0);
+            assertEquals(4, resultSet.getInt("leaves"));
+            assertEquals(11000, resultSet.getLong("estimate"));
+            //The root table sums up all leaves, i.e. the HEAD sub-partitions and the (empty) history partition
+            assertEquals(11000, resultSet.getLong("rootEstimate"));
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql;
+
+import static io.restassured.path.json.JsonPath.with;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.here.xyz.XyzSerializable;
+import com.here.xyz.events.ModifyFeaturesEvent;
+import com.here.xyz.events.ModifySpaceEvent;
+import com.here.xyz.models.geojson.coordinates.PointCoordinates;
+import com.here.xyz.models.geojson.implementation.Feature;
+import com.here.xyz.models.geojson.implementation.Point;
+import com.here.xyz.models.geojson.implementation.Properties;
+import com.here.xyz.models.hub.Space;
+import com.here.xyz.responses.SuccessResponse;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Compares the statistics, which are maintained incrementally by the triggers on the space table, with the statistics being computed
+ * from the content of the space by xyz_statistic_space().
+ */
+public class PSQLSpaceStatisticsIT extends PSQLAbstractIT {
+
+    private static final String SCHEMA = "public";
+
+    @After
+    public void shutdown() throws Exception { invokeDeleteTestSpace(null); }
+
+    @Test
+    public void testInsert() throws Exception {
+        createSpace(1);
+        writeFeatures(createFeatures(0, 100, "a", 0), 1);
+
+        Statistics incremental = assertMatchesComputed();
+        assertEquals(100, incremental.count);
+        assertFalse(incremental.bboxEstimated);
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        createSpace(1);
+        writeFeatures(createFeatures(0, 100, "a", 0), 1);
+        //Move some features and replace one of their properties
+        writeFeatures(createFeatures(0, 30, "b", 10), 1);
+
+        Statistics incremental = assertMatchesComputed();
+        assertEquals(100, incremental.count);
+        assertEquals(70L, (long) incremental.properties.get("a"));
+        assertEquals(30L, (long) incremental.properties.get("b"));
+
+        //Compacting the rows of the committed transactions must not change the statistics
+        execute("SELECT xyz_compact_space_statistics('" + SCHEMA + "', '" + TEST_SPACE_ID + "')");
+        assertEquals(incremental, incrementalStatistics());
+    }
+
+    @Test
+    public void testDelete() throws Exception {
+        createSpace(1);
+        writeFeatures(createFeatures(0, 100, "a", 0), 1);
+        deleteFeatures(0, 40, 1);
+
+        Statistics incremental = assertMatchesComputed();
+        assertEquals(60, incremental.count);
+        //The bbox is not shrunk on deletions
+        assertTrue(incremental.bboxEstimated);
+    }
+
+    @Test
+    public void testHistorySpace() throws Exception {
+        createSpace(10);
+        writeFeatures(createFeatures(0, 100, "a", 0), 10);
+        writeFeatures(createFeatures(0, 30, "b", 10), 10);
+        deleteFeatures(80, 100, 10);
+
+        Statistics incremental = incrementalStatistics();
+        Statistics computed = computedStatistics();
+        assertEquals(80, incremental.count);
+        assertEquals(computed.count, incremental.count);
+        assertBBoxCovers(incremental, computed);
+
+        /*
+        In spaces with history the deleted features stay in the HEAD table. xyz_statistic_space() takes their geometry types and
+        properties into account, so these are compared with the features which actually exist.
+         */
+        Statistics existing = existingFeatureStatistics();
+        assertEquals(existing.geometryTypes, incremental.geometryTypes);
+        assertEquals(existing.properties, incremental.properties);
+        assertEquals(Map.of("a", 50L, "b", 30L), incremental.properties);
+    }
+
+    @Test
+    public void testBulkImport() throws Exception {
+        createSpace(1);
+        writeFeatures(createFeatures(0, 10, "a", 0), 1);
+
+        //Write the features like the import does, that is using a row level trigger and one large statement
+        execute("CREATE OR REPLACE TRIGGER insertTrigger BEFORE INSERT ON " + table()
+            + " FOR EACH ROW EXECUTE PROCEDURE xyz_import_trigger('" + TEST_SPACE_ID + "', false, false, 2, 'ANONYMOUS')");
+        execute("INSERT INTO " + table() + " (jsondata, geo) "
+            + "SELECT jsonb_build_object('properties', jsonb_build_object('name', 'f' || i) "
+            + "    || CASE WHEN i % 2 = 0 THEN jsonb_build_object('even', true) ELSE '{}'::jsonb END), "
+            + "  CASE WHEN i % 10 = 0 THEN NULL ELSE ST_SetSRID(ST_MakePoint(i % 180, i % 90), 4326) END "
+            + "FROM generate_series(1, 1000) i");
+        execute("DROP TRIGGER insertTrigger ON " + table());
+
+        Statistics incremental = assertMatchesComputed();
+        assertEquals(1010, incremental.count);
+        assertEquals(1000L, (long) incremental.properties.get("name"));
+        assertEquals(500L, (long) incremental.properties.get("even"));
+        assertEquals(Set.of("Point", "NULL"), incremental.geometryTypes);
+    }
+
+    private void createSpace(int versionsToKeep) throws Exception {
+        ModifySpaceEvent mse = new ModifySpaceEvent()
+            .withSpace(TEST_SPACE_ID)
+            .withOperation(ModifySpaceEvent.Operation.CREATE)
+            .withConnectorParams(defaultTestConnectorParams)
+            .withSpaceDefinition(new Space().withId(TEST_SPACE_ID).withVersionsToKeep(versionsToKeep));
+        SuccessResponse response = XyzSerializable.deserialize(invokeLambda(mse));
+        assertEquals("OK", response.getStatus());
+    }
+
+    /**
+     * Creates features with the IDs F{from} to F{to - 1}, each having the given property.
+     */
+    private static List<Feature> createFeatures(int from, int to, String propertyKey, double offset) {
+        List<Feature> features = new ArrayList<>();
+        for (int i = from; i < to; i++)
+            features.add(new Feature()
+                .withId("F" + i)
+                .withGeometry(new Point().withCoordinates(new PointCoordinates(i % 100 + offset, i % 50 + offset)))
+                .withProperties(new Properties().with(propertyKey, i)));
+        return features;
+    }
+
+    private static void writeFeatures(List<Feature> features, int versionsToKeep) throws Exception {
+        invokeLambda(new ModifyFeaturesEvent()
+            .withConnectorParams(defaultTestConnectorParams)
+            .withSpace(TEST_SPACE_ID)
+            .withTransaction(true)
+            .withVersionsToKeep(versionsToKeep)
+            .withUpsertFeatures(features));
+    }
+
+    private static void deleteFeatures(int from, int to, int versionsToKeep) throws Exception {
+        Map<String, String> idsMap = new HashMap<>();
+        for (int i = from; i < to; i++)
+            idsMap.put("F" + i, null);
+        invokeLambda(new ModifyFeaturesEvent()
+            .withConnectorParams(defaultTestConnectorParams)
+            .withSpace(TEST_SPACE_ID)
+            .withTransaction(true)
+            .withVersionsToKeep(versionsToKeep)
+            .withDeleteFeatures(idsMap));
+    }
+
+    /**
+     * Asserts that the incremental statistics match the computed ones.
+     * The bbox must be equal, unless it is estimated. In that case it must at least cover the computed one.
+     */
+    private static Statistics assertMatchesComputed() throws Exception {
+        Statistics incremental = incrementalStatistics();
+        Statistics computed = computedStatistics();
+        assertEquals(computed.count, incremental.count);
+        assertEquals(computed.geometryTypes, incremental.geometryTypes);
+        assertEquals(computed.properties, incremental.properties);
+        assertBBoxCovers(incremental, computed);
+        if (!incremental.bboxEstimated)
+            assertEquals(computed.bbox, incremental.bbox);
+        return incremental;
+    }
+
+    private static void assertBBoxCovers(Statistics incremental, Statistics computed) throws Exception {
+        try (Connection connection = LAMBDA.dataSourceProvider.getWriter().getConnection()) {
+            ResultSet rs = connection.createStatement().executeQuery("SELECT '" + incremental.bbox + "'::box2d::geometry ~ '"
+                + computed.bbox + "'::box2d::geometry");
+            assertTrue(rs.next());
+            assertTrue("The bbox " + incremental.bbox + " does not cover " + computed.bbox, rs.getBoolean(1));
+        }
+    }
+
+    private static Statistics incrementalStatistics() throws Exception {
+        return readStatistics("SELECT * FROM xyz_space_statistics('" + SCHEMA + "', '" + TEST_SPACE_ID + "')");
+    }
+
+    private static Statistics computedStatistics() throws Exception {
+        return readStatistics("SELECT * FROM xyz_statistic_space('" + SCHEMA + "', '" + TEST_SPACE_ID + "', false)");
+    }
+
+    private static Statistics existingFeatureStatistics() throws Exception {
+        String existing = "SELECT * FROM " + table() + " WHERE next_version = max_bigint() AND operation NOT IN ('D', 'H', 'J')";
+        return readStatistics("SELECT "
+            + "  jsonb_build_object('value', (SELECT count(*) FROM (" + existing + ") e)) AS count, "
+            + "  jsonb_build_object('value', (SELECT ST_Extent(geo)::text FROM (" + existing + ") e), 'estimated', false) AS bbox, "
+            + "  jsonb_build_object('value', (SELECT jsonb_agg(DISTINCT xyz_geotype(geo)) FROM (" + existing + ") e)) AS geometrytypes, "
+            + "  jsonb_build_object('value', (SELECT COALESCE(jsonb_agg(jsonb_build_object('key', key, 'count', cnt)), '[]'::jsonb) FROM ("
+            + "    SELECT key, count(*) AS cnt FROM (" + existing + ") e, jsonb_object_keys(jsondata->'properties') key "
+            + "      WHERE key != '@ns:com:here:xyz' GROUP BY key) p)) AS properties");
+    }
+
+    private static Statistics readStatistics(String query) throws Exception {
+        try (Connection connection = LAMBDA.dataSourceProvider.getWriter().getConnection()) {
+            ResultSet rs = connection.createStatement().executeQuery(query);
+            assertTrue("No statistics found for the space", rs.next());
+
+            Set<String> geometryTypes = new HashSet<>(with(rs.getString("geometrytypes")).getList("value", String.class));
+            Map<String, Long> properties = new HashMap<>();
+            for (Map<String, Object> property : with(rs.getString("properties")).<Map<String, Object>>getList("value"))
+                properties.put((String) property.get("key"), ((Number) property.get("count")).longValue());
+
+            return new Statistics(with(rs.getString("count")).getLong("value"), with(rs.getString("bbox")).getString("value"),
+                with(rs.getString("bbox")).getBoolean("estimated"), geometryTypes, properties);
+        }
+    }
+
+    private static void execute(String query) throws Exception {
+        try (Connection connection = LAMBDA.dataSourceProvider.getWriter().getConnection()) {
+            Statement stmt = connection.createStatement();
+            stmt.execute(query);
+        }
+    }
+
+    private static String table() {
+        return SCHEMA + ".\"" + TEST_SPACE_ID + "\"";
+    }
+
+    private record Statistics(long count, String bbox, boolean bboxEstimated, Set<String> geometryTypes, Map<String, Long> properties) {}
+}
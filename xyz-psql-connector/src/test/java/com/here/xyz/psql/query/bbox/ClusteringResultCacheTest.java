@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql.query.bbox;
+
+import static com.here.xyz.psql.query.bbox.ClusteringResultCache.CLUSTERING_RESULT_CACHE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClusteringResultCacheTest {
+
+  private static final String KEY = "public.space1|hexbin|{}|null|null|false|null|false|-1";
+
+  @Before
+  public void clearCache() {
+    ClusteringResultCache.clear();
+  }
+
+  @Test
+  public void miss() {
+    assertNull(ClusteringResultCache.get(KEY, "5_3"));
+  }
+
+  @Test
+  public void hit() {
+    ClusteringResultCache.put(KEY, "5_3", new StringBuilder("[{\"type\":\"Feature\"}]"));
+    assertEquals("[{\"type\":\"Feature\"}]", ClusteringResultCache.get(KEY, "5_3"));
+
+    byte[] mvt = {1, 2, 3};
+    ClusteringResultCache.put(KEY + "|mvt", "5_3", mvt);
+    assertArrayEquals(mvt, (byte[]) ClusteringResultCache.get(KEY + "|mvt", "5_3"));
+  }
+
+  @Test
+  public void invalidateOnVersionChange() {
+    ClusteringResultCache.put(KEY, "5_3", "[]");
+    assertNull(ClusteringResultCache.get(KEY, "6_4"));
+    //The outdated entry was removed
+    assertNull(ClusteringResultCache.get(KEY, "5_3"));
+    assertEquals(0, ClusteringResultCache.size());
+  }
+
+  @Test
+  public void replaceEntry() {
+    ClusteringResultCache.put(KEY, "5_3", new byte[10]);
+    ClusteringResultCache.put(KEY, "6_4", new byte[20]);
+    assertEquals(20, ClusteringResultCache.size());
+    assertEquals(20, ((byte[]) ClusteringResultCache.get(KEY, "6_4")).length);
+  }
+
+  @Test
+  public void skipOversizedEntries() {
+    ClusteringResultCache.put(KEY, "5_3", new byte[8 * 1024 * 1024 + 1]);
+    assertNull(ClusteringResultCache.get(KEY, "5_3"));
+    assertEquals(0, ClusteringResultCache.size());
+  }
+
+  @Test
+  public void evictLeastRecentlyUsed() {
+    int entrySize = 8 * 1024 * 1024;
+    for (int i = 0; i < 16; i++)
+      ClusteringResultCache.put(KEY + i, "5_3", new byte[entrySize]);
+    //Access the oldest entry to make it the most recently used one
+    assertTrue(ClusteringResultCache.get(KEY + 0, "5_3") instanceof byte[]);
+
+    ClusteringResultCache.put(KEY + 16, "5_3", new byte[entrySize]);
+    assertEquals(16L * entrySize, ClusteringResultCache.size());
+    assertTrue(ClusteringResultCache.get(KEY + 0, "5_3") instanceof byte[]);
+    assertNull(ClusteringResultCache.get(KEY + 1, "5_3"));
+  }
+
+  @Test
+  public void enabledBySpaceParams() {
+    assertTrue(ClusteringResultCache.isEnabled(null));
+    assertTrue(ClusteringResultCache.isEnabled(Map.of()));
+    assertTrue(ClusteringResultCache.isEnabled(Map.of(CLUSTERING_RESULT_CACHE, true)));
+    assertFalse(ClusteringResultCache.isEnabled(Map.of(CLUSTERING_RESULT_CACHE, false)));
+  }
+}
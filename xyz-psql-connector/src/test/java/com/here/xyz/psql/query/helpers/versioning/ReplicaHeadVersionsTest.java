@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql.query.helpers.versioning;
+
+import static com.here.xyz.psql.query.helpers.versioning.ReplicaHeadVersions.MIN_SAMPLING_INTERVAL;
+import static com.here.xyz.psql.query.helpers.versioning.ReplicaHeadVersions.isAvailableOnReplica;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.here.xyz.psql.query.helpers.versioning.ReplicaHeadVersions.HeadVersionSampler;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReplicaHeadVersionsTest {
+
+  private static final String KEY = "db:public.space1";
+  private final AtomicInteger samples = new AtomicInteger();
+
+  @Before
+  public void clear() {
+    ReplicaHeadVersions.clear();
+    samples.set(0);
+  }
+
+  private HeadVersionSampler replicaAt(long headVersion) {
+    return () -> {
+      samples.incrementAndGet();
+      return headVersion;
+    };
+  }
+
+  @Test
+  public void requireNewerHeadVersion() {
+    assertTrue(isAvailableOnReplica(KEY, 4, 0, replicaAt(5)));
+    //The HEAD version itself might not be fully replayed yet, as writes can commit out of order
+    assertFalse(isAvailableOnReplica(KEY + "2", 5, 0, replicaAt(5)));
+  }
+
+  @Test
+  public void useCachedHeadVersion() {
+    assertTrue(isAvailableOnReplica(KEY, 3, 0, replicaAt(5)));
+    //Older versions are answered from the cache, even after the sampling interval
+    assertTrue(isAvailableOnReplica(KEY, 4, 10 * MIN_SAMPLING_INTERVAL, replicaAt(5)));
+    assertTrue(isAvailableOnReplica(KEY, 1, 10 * MIN_SAMPLING_INTERVAL, replicaAt(5)));
+    assertEquals(1, samples.get());
+  }
+
+  @Test
+  public void resampleAfterInterval() {
+    assertFalse(isAvailableOnReplica(KEY, 5, 0, replicaAt(5)));
+    //Within the sampling interval the replica is not checked again
+    assertFalse(isAvailableOnReplica(KEY, 5, MIN_SAMPLING_INTERVAL - 1, replicaAt(6)));
+    assertEquals(1, samples.get());
+
+    assertTrue(isAvailableOnReplica(KEY, 5, MIN_SAMPLING_INTERVAL, replicaAt(6)));
+    assertEquals(2, samples.get());
+  }
+
+  @Test
+  public void fallbackToPrimaryOnFailure() {
+    assertFalse(isAvailableOnReplica(KEY, 1, 0, () -> {
+      throw new SQLException("Replica not reachable");
+    }));
+    //Failures are not cached
+    assertTrue(isAvailableOnReplica(KEY, 1, 0, replicaAt(5)));
+  }
+
+  @Test
+  public void emptyTable() {
+    assertFalse(isAvailableOnReplica(KEY, 0, 0, replicaAt(-1)));
+  }
+}
@@ -37,6 +37,7 @@ public class ConnectorParameters {
   private boolean enableHashedSpaceId = false;
   private int onDemandIdxLimit = 4;
   private boolean readOnly;
+  private long maxReplicaLag = 10_000;
 
   public ConnectorParameters() {}
 
@@ -68,6 +69,14 @@ public class ConnectorParameters {
     return onDemandIdxLimit;
   }
 
+  /**
+   * The maximum replication lag in milliseconds which is accepted for queries running on the read replica.
+   * If the replica is lagging behind further, the queries are executed on the primary instead.
+   */
+  public long getMaxReplicaLag() {
+    return maxReplicaLag;
+  }
+
   public boolean isReadOnly() {
     return readOnly;
   }
@@ -89,6 +98,7 @@ public class ConnectorParameters {
             ", autoIndexing=" + autoIndexing +
             ", enableHashedSpaceId=" + enableHashedSpaceId +
             ", onDemandIdxLimit=" + onDemandIdxLimit +
+            ", maxReplicaLag=" + maxReplicaLag +
             ", ecps='" + ecps + '\'' +
             '}';
   }
@@ -19,7 +19,8 @@
 
 package com.here.xyz.util.db;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import static com.here.xyz.XyzSerializable.Mappers.DEFAULT_MAPPER;
+
 import com.google.common.io.BaseEncoding;
 import java.io.UnsupportedEncodingException;
 import java.security.GeneralSecurityException;
@@ -93,7 +94,7 @@ public class ECPSTool {
   @SuppressWarnings("unchecked")
   public static Map<String, Object> decryptToMap(String phrase, String data) {
     try {
-      return new ObjectMapper().readValue(decrypt(phrase, data), Map.class);
+      return DEFAULT_MAPPER.get().readValue(decrypt(phrase, data), Map.class);
     }
     catch (Exception e) {
       logger.error("Unable to decrypt data to map.");
@@ -19,11 +19,14 @@
 
 package com.here.xyz.util.db;
 
+import com.here.xyz.util.db.datasource.ConcurrencyLimiter;
 import com.here.xyz.util.db.datasource.DataSourceProvider;
+import com.here.xyz.util.service.Core;
 import com.mchange.v2.resourcepool.TimeoutException;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import java.sql.SQLException;
+import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -34,7 +37,12 @@ import java.util.function.Supplier;
 import org.apache.commons.dbutils.ResultSetHandler;
 
 public class JdbcClient implements AutoCloseable {
-  private static final ExecutorService sharedExec = Executors.newCachedThreadPool();
+  /**
+   * Runs the blocking JDBC tasks. If enabled, virtual threads are used (see {@link Core#newVirtualThreadExecutor()}). The number of concurrent tasks (and thereby the number
+   * of threads) is limited by the {@link ConcurrencyLimiter} of the data source provider.
+   */
+  private static final ExecutorService sharedExec = Optional.ofNullable(Core.newVirtualThreadExecutor())
+      .orElseGet(() -> Executors.newCachedThreadPool(Core.newThreadFactory("jdbcClient")));
 
   private DataSourceProvider dataSourceProvider;
   private ExecutorService exec = sharedExec;
@@ -75,7 +83,8 @@ public class JdbcClient implements AutoCloseable {
   }
 
   private <R> Future<R> runTaskWithoutQueueing(ThrowingSupplier<R> task) {
-    return Future.fromCompletionStage(CompletableFuture.supplyAsync(task, exec))
+    ConcurrencyLimiter limiter = dataSourceProvider.getConcurrencyLimiter();
+    return Future.fromCompletionStage(limiter != null ? limiter.submit(task, exec) : CompletableFuture.supplyAsync(task, exec))
         .recover(t -> Future.failedFuture(unpackExcecutionException(t)));
   }
 
@@ -48,6 +48,12 @@ public class CachedPooledDataSources extends PooledDataSources {
     return getCachedDataSources().getWriter();
   }
 
+  @Override
+  public long getReplicaLag() {
+    //Use the cached data sources to keep the sampled lag across instances
+    return getCachedDataSources().getReplicaLag();
+  }
+
   public static void invalidateCache() {
     Map<String, Map<String, StaticDataSources>> oldCache = new HashMap<>(cache);
     logger.info("Clearing data sources cache. Current cache size: {}, Closing old data sources ...", cache.size());
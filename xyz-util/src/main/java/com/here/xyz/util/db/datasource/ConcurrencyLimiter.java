@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.util.db.datasource;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of blocking tasks which are running concurrently against the data sources of one {@link DataSourceProvider}.
+ * Tasks exceeding the limit are queued without occupying any thread until a permit becomes available.
+ * That way a slow database leads to growing queues rather than to a growing number of threads.
+ */
+public class ConcurrencyLimiter {
+
+  private static final LongAdder globalInflight = new LongAdder();
+  private static final LongAdder globalQueued = new LongAdder();
+  private static final AtomicLong queueWaitTimeSum = new AtomicLong();
+  private static final AtomicLong queueWaitTimeCount = new AtomicLong();
+
+  private final Semaphore permits;
+  private final Queue<Runnable> waitingTasks = new ConcurrentLinkedQueue<>();
+
+  public ConcurrencyLimiter(int maxConcurrency) {
+    if (maxConcurrency < 1)
+      throw new IllegalArgumentException("The maximum concurrency must be at least 1.");
+    permits = new Semaphore(maxConcurrency);
+  }
+
+  /**
+   * Submits a task to be executed by the provided executor as soon as a permit is available.
+   *
+   * @param task The (blocking) task to be executed
+   * @param executor The executor to run the task
+   * @return A future which will be completed with the result of the task
+   */
+  public <R> CompletableFuture<R> submit(Supplier<R> task, Executor executor) {
+    CompletableFuture<R> result = new CompletableFuture<>();
+    final long enqueuedAt = System.nanoTime();
+    globalQueued.increment();
+    waitingTasks.add(() -> {
+      globalQueued.decrement();
+      globalInflight.increment();
+      recordQueueWaitTime(System.nanoTime() - enqueuedAt);
+      try {
+        CompletableFuture.supplyAsync(task, executor).whenComplete((r, t) -> {
+          release();
+          if (t != null)
+            result.completeExceptionally(t);
+          else
+            result.complete(r);
+        });
+      }
+      catch (Exception e) {
+        //The executor rejected the task
+        release();
+        result.completeExceptionally(e);
+      }
+    });
+    startWaitingTasks();
+    return result;
+  }
+
+  private void release() {
+    globalInflight.decrement();
+    permits.release();
+    startWaitingTasks();
+  }
+
+  private void startWaitingTasks() {
+    while (!waitingTasks.isEmpty() && permits.tryAcquire()) {
+      Runnable waitingTask = waitingTasks.poll();
+      if (waitingTask == null) {
+        //Another thread took the task in the meantime
+        permits.release();
+        continue;
+      }
+      waitingTask.run();
+    }
+  }
+
+  public int getAvailablePermits() {
+    return permits.availablePermits();
+  }
+
+  public int getQueueLength() {
+    return waitingTasks.size();
+  }
+
+  private static void recordQueueWaitTime(long nanos) {
+    queueWaitTimeSum.addAndGet(nanos);
+    queueWaitTimeCount.incrementAndGet();
+  }
+
+  /**
+   * @return The number of tasks currently running across all limiters
+   */
+  public static long getGlobalInflightCount() {
+    return globalInflight.sum();
+  }
+
+  /**
+   * @return The number of tasks currently waiting for a permit across all limiters
+   */
+  public static long getGlobalQueuedCount() {
+    return globalQueued.sum();
+  }
+
+  /**
+   * Returns the average time in milliseconds which the tasks, that have been started since the last call of this method, had to
+   * wait for a permit.
+   * Calling this method resets the measurement.
+   *
+   * @return The average queue wait time in milliseconds or -1 if no task was started since the last call
+   */
+  public static double pollAverageQueueWaitTime() {
+    long count = queueWaitTimeCount.getAndSet(0);
+    long sum = queueWaitTimeSum.getAndSet(0);
+    return count == 0 ? -1 : sum / (double) count / 1_000_000d;
+  }
+}
@@ -19,11 +19,33 @@
 
 package com.here.xyz.util.db.datasource;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.sql.DataSource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 public abstract class DataSourceProvider implements AutoCloseable {
+  private static final Logger logger = LogManager.getLogger();
+  private static final long REPLICA_LAG_SAMPLING_INTERVAL = TimeUnit.SECONDS.toMillis(5);
+  private static final int REPLICA_LAG_QUERY_TIMEOUT = 2;
+  /*
+  The replica is considered to be up-to-date if it has replayed all the WAL it received, otherwise the lag is the age of the latest
+  replayed transaction. NULL values (e.g., on DBs which do not support these functions) lead to an unknown lag (-1).
+   */
+  private static final String REPLICA_LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+      + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+      + "ELSE coalesce((extract(epoch FROM now() - pg_last_xact_replay_timestamp()) * 1000)::BIGINT, -1) END";
   static DataSourceProvider defaultProvider;
   protected DatabaseSettings dbSettings;
+  private volatile ConcurrencyLimiter concurrencyLimiter;
+  private volatile long replicaLag = -1;
+  private volatile long replicaLagSampledAt;
+  private final AtomicBoolean samplingReplicaLag = new AtomicBoolean();
 
   public DataSourceProvider(DatabaseSettings dbSettings) {
     this.dbSettings = dbSettings;
@@ -39,6 +61,40 @@ public abstract class DataSourceProvider implements AutoCloseable {
     return getReader() != null && getReader() != getWriter();
   }
 
+  /**
+   * Returns the replication lag of the read replica in milliseconds.
+   * The lag is sampled at most every {@link #REPLICA_LAG_SAMPLING_INTERVAL} milliseconds. While a thread is sampling the lag, other
+   * threads get the previously sampled value.
+   *
+   * @return The replication lag in milliseconds or -1 if it is unknown or if there is no read replica
+   */
+  public long getReplicaLag() {
+    if (!hasReader())
+      return -1;
+    if (System.currentTimeMillis() - replicaLagSampledAt > REPLICA_LAG_SAMPLING_INTERVAL && samplingReplicaLag.compareAndSet(false, true)) {
+      try {
+        replicaLag = sampleReplicaLag();
+      }
+      finally {
+        replicaLagSampledAt = System.currentTimeMillis();
+        samplingReplicaLag.set(false);
+      }
+    }
+    return replicaLag;
+  }
+
+  private long sampleReplicaLag() {
+    try (Connection connection = getReader().getConnection(); Statement stmt = connection.createStatement()) {
+      stmt.setQueryTimeout(REPLICA_LAG_QUERY_TIMEOUT);
+      ResultSet rs = stmt.executeQuery(REPLICA_LAG_QUERY);
+      return rs.next() ? rs.getLong(1) : -1;
+    }
+    catch (SQLException e) {
+      logger.warn("Unable to sample the replication lag of the read replica.", e);
+      return -1;
+    }
+  }
+
   public static DataSourceProvider getDefaultProvider() {
     return defaultProvider;
   }
@@ -50,4 +106,25 @@ public abstract class DataSourceProvider implements AutoCloseable {
   public DatabaseSettings getDatabaseSettings() {
     return dbSettings;
   }
+
+  /**
+   * Returns the maximum number of tasks which may use the data sources of this provider concurrently.
+   * A value lower than 1 means that the number of concurrent tasks is not limited.
+   */
+  protected int getMaxConcurrency() {
+    return 0;
+  }
+
+  /**
+   * @return The limiter for the tasks using the data sources of this provider or null if the number of concurrent tasks is not limited
+   */
+  public ConcurrencyLimiter getConcurrencyLimiter() {
+    if (concurrencyLimiter == null && getMaxConcurrency() > 0) {
+      synchronized (this) {
+        if (concurrencyLimiter == null)
+          concurrencyLimiter = new ConcurrencyLimiter(getMaxConcurrency());
+      }
+    }
+    return concurrencyLimiter;
+  }
 }
\ No newline at end of file
@@ -121,6 +121,9 @@ public class DatabaseSettings extends Payload {
     private int dbCheckoutTimeout = 7_000;
     private boolean dbTestConnectionOnCheckout = true;
     private int dbMaxIdleTime;
+    private int dbMaxStatementsPerConnection = 64;
+    private int dbPrepareThreshold = 2;
+    private boolean dbLabelReadQueries = true;
     private int statementTimeoutSeconds = 23;
 
     private DatabaseSettings() {}
@@ -419,6 +422,59 @@ public class DatabaseSettings extends Payload {
         return this;
     }
 
+    public int getDbMaxStatementsPerConnection() {
+        return dbMaxStatementsPerConnection;
+    }
+
+    /**
+     * The maximum number of prepared statements which are kept open per pooled connection.
+     * A value of 0 disables the statement cache of the pool.
+     */
+    public void setDbMaxStatementsPerConnection(int dbMaxStatementsPerConnection) {
+        this.dbMaxStatementsPerConnection = dbMaxStatementsPerConnection;
+    }
+
+    public DatabaseSettings withDbMaxStatementsPerConnection(int dbMaxStatementsPerConnection) {
+        setDbMaxStatementsPerConnection(dbMaxStatementsPerConnection);
+        return this;
+    }
+
+    public int getDbPrepareThreshold() {
+        return dbPrepareThreshold;
+    }
+
+    /**
+     * The number of executions of the same statement on one connection after which the JDBC driver switches to a
+     * server-side prepared statement. That allows the database to re-use the (generic) plan of the statement.
+     */
+    public void setDbPrepareThreshold(int dbPrepareThreshold) {
+        this.dbPrepareThreshold = dbPrepareThreshold;
+    }
+
+    public DatabaseSettings withDbPrepareThreshold(int dbPrepareThreshold) {
+        setDbPrepareThreshold(dbPrepareThreshold);
+        return this;
+    }
+
+    public boolean isDbLabelReadQueries() {
+        return dbLabelReadQueries;
+    }
+
+    /**
+     * Whether the request specific labels (e.g., the query ID) are injected into the texts of read queries.
+     * Labeled queries can be found and cancelled by their labels, but as each request produces a different statement text, their
+     * prepared statements (and plans) are never re-used. Disabling the labels allows re-using the prepared statements of read
+     * queries across requests, but running read queries can not be cancelled by their labels anymore.
+     */
+    public void setDbLabelReadQueries(boolean dbLabelReadQueries) {
+        this.dbLabelReadQueries = dbLabelReadQueries;
+    }
+
+    public DatabaseSettings withDbLabelReadQueries(boolean dbLabelReadQueries) {
+        setDbLabelReadQueries(dbLabelReadQueries);
+        return this;
+    }
+
     public int getStatementTimeoutSeconds() {
         return statementTimeoutSeconds;
     }
@@ -439,7 +495,7 @@ public class DatabaseSettings extends Payload {
 
     public String getJdbcUrl(boolean useReplica) {
         return "jdbc:postgresql://" + (useReplica ? getReplicaHost() : getHost()) + ":" + getPort() + "/" + getDb() + "?ApplicationName="
-            + getApplicationNameForJdbcUrl() + "&tcpKeepAlive=true";
+            + getApplicationNameForJdbcUrl() + "&tcpKeepAlive=true&prepareThreshold=" + getDbPrepareThreshold();
     }
 
     @Deprecated
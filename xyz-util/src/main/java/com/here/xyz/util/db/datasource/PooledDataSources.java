@@ -58,6 +58,12 @@ public class PooledDataSources extends DataSourceProvider {
     return writer;
   }
 
+  @Override
+  protected int getMaxConcurrency() {
+    //Each task occupies one connection of either the writer or the reader pool
+    return dbSettings.getDbMaxPoolSize() * (dbSettings.hasReplica() ? 2 : 1);
+  }
+
   private static ComboPooledDataSource getComboPooledDataSource(DatabaseSettings dbSettings, boolean useReplica) {
     final ComboPooledDataSource cpds = new ComboPooledDataSource();
     cpds.setJdbcUrl(dbSettings.getJdbcUrl(useReplica));
@@ -71,6 +77,9 @@ public class PooledDataSources extends DataSourceProvider {
     cpds.setCheckoutTimeout(dbSettings.getDbCheckoutTimeout());
     cpds.setMaxIdleTime(dbSettings.getDbMaxIdleTime());
     cpds.setTestConnectionOnCheckout(dbSettings.isDbTestConnectionOnCheckout());
+    cpds.setMaxStatementsPerConnection(dbSettings.getDbMaxStatementsPerConnection());
+    //Close evicted statements asynchronously, as they might still be in use by the connection
+    cpds.setStatementCacheNumDeferredCloseThreads(1);
 
     cpds.setConnectionCustomizerClassName(XyzConnectionCustomizer.class.getName());
     cpds.setExtensions(Map.of(EXTENDED_CONNECTION_SETTINGS, new ExtendedConnectionSettings(dbSettings.getSchema(),
@@ -48,7 +48,7 @@ public class IndexHelper {
     return buildCreateIndexQuery(schema, table, columnNamesOrExpressions, method, indexName, null);
   }
 
-  private static SQLQuery buildCreateIndexQuery(String schema, String table, List<String> columnNamesOrExpressions, String method,
+  public static SQLQuery buildCreateIndexQuery(String schema, String table, List<String> columnNamesOrExpressions, String method,
       String indexName, String predicate) {
       return new SQLQuery("CREATE INDEX ${{queryComment}} IF NOT EXISTS ${indexName} ON ${schema}.${table} USING " + method
           + " (" + String.join(", ", columnNamesOrExpressions) + ") ${{predicate}}")
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.util.db.pg;
+
+import static com.here.xyz.util.db.pg.IndexHelper.buildCreateIndexQuery;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.here.xyz.util.db.SQLQuery;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * An expression index on a property of the features of a space table.
+ * The indexed expression matches the key path which is used by property searches (e.g., {@code jsondata->'properties'->'foo'}),
+ * so that the planner can use the index for according predicates.
+ * B-tree indices are created as partial indices which only contain the rows having a value for the property, as all supported
+ * comparisons imply that the property is not null. That keeps indices on sparse properties small.
+ * The index is named and commented the same way as the on-demand indices of the space (see xyz_index_name_for_property()),
+ * so it is listed as on-demand index of the property and the maintenance does not create a second one for it.
+ */
+public class PropertyIndex {
+
+  public enum Method {
+    /**
+     * Supports equality and range comparisons
+     */
+    BTREE,
+    /**
+     * Supports containment checks
+     */
+    GIN
+  }
+
+  private String propertyPath;
+  private Method method = Method.BTREE;
+
+  public PropertyIndex() {}
+
+  public PropertyIndex(String propertyPath, Method method) {
+    this.propertyPath = propertyPath;
+    this.method = method;
+  }
+
+  public String getPropertyPath() {
+    return propertyPath;
+  }
+
+  public void setPropertyPath(String propertyPath) {
+    this.propertyPath = propertyPath;
+  }
+
+  public PropertyIndex withPropertyPath(String propertyPath) {
+    setPropertyPath(propertyPath);
+    return this;
+  }
+
+  public Method getMethod() {
+    return method;
+  }
+
+  public void setMethod(Method method) {
+    this.method = method;
+  }
+
+  public PropertyIndex withMethod(Method method) {
+    setMethod(method);
+    return this;
+  }
+
+  /**
+   * Returns the key path expression of the property within the jsondata column.
+   * E.g., "properties.foo.bar" results in {@code jsondata->'properties'->'foo'->'bar'}
+   */
+  @JsonIgnore
+  public String getKeyPathExpression() {
+    return buildKeyPathExpression(propertyPath);
+  }
+
+  /**
+   * Builds the key path expression for a (dot-separated) property path with the key segments inlined as literals.
+   * Property searches have to use the same expression, otherwise the planner can not match it against the index expression.
+   */
+  public static String buildKeyPathExpression(String propertyPath) {
+    return "jsondata" + Arrays.stream(propertyPath.split("\\."))
+        .map(keySegment -> "->'" + keySegment.replace("'", "''") + "'")
+        .collect(Collectors.joining());
+  }
+
+  /**
+   * Returns the property key as it is used for on-demand indices.
+   * E.g., "properties.foo.bar" results in "foo.bar" and the root level property "bar" results in "f.bar".
+   */
+  @JsonIgnore
+  public String getPropertyKey() {
+    return propertyPath.startsWith("properties.") ? propertyPath.substring("properties.".length()) : "f." + propertyPath;
+  }
+
+  /**
+   * Returns the name of the on-demand index of the property, e.g. {@code idx_<table>_a306a6c_m}.
+   */
+  public String getIndexName(String table) {
+    //NOTE: substring(md5(propkey), 0, 8) in xyz_index_name_for_property() returns the first 7 characters
+    return "idx_" + table + "_" + md5(getPropertyKey()).substring(0, 7) + "_m";
+  }
+
+  public SQLQuery buildCreateQuery(String schema, String table) {
+    String expression = "(" + getKeyPathExpression() + ")";
+    SQLQuery createQuery = buildCreateIndexQuery(schema, table, List.of(expression), method.name(), getIndexName(table),
+        method == Method.BTREE ? expression + " IS NOT NULL" : null);
+    //NOTE: COMMENT does not support parameters, so the comment has to be inlined as literal
+    SQLQuery commentQuery = new SQLQuery("COMMENT ON INDEX ${schema}.${indexName} IS 'p.name="
+        + getPropertyKey().replace("'", "''") + "'")
+        .withVariable("schema", schema)
+        .withVariable("indexName", getIndexName(table));
+    return SQLQuery.join(List.of(createQuery, commentQuery), ";");
+  }
+
+  private static String md5(String value) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(value.getBytes(UTF_8)));
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o)
+      return true;
+    if (o == null || getClass() != o.getClass())
+      return false;
+    PropertyIndex that = (PropertyIndex) o;
+    return Objects.equals(propertyPath, that.propertyPath) && method == that.method;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(propertyPath, method);
+  }
+
+  @Override
+  public String toString() {
+    return method + "(" + propertyPath + ")";
+  }
+}
@@ -44,6 +44,18 @@ public class XyzSpaceTableHelper {
   public static final String TABLE = "table";
   public static final String HEAD_TABLE_SUFFIX = "_head";
   public static final long PARTITION_SIZE = 100_000;
+  /**
+   * The space parameter defining the number of hash partitions of the HEAD table.
+   * Partitioning the HEAD table of very large spaces keeps the indices of each partition small,
+   * which speeds up VACUUM, ANALYZE and index creation.
+   * Only reads and writes by feature id are pruned to a single partition. Spatial (bbox / tile) and property reads are not pruned,
+   * they scan the indices of all partitions and are therefore not faster than on an unpartitioned HEAD table.
+   * Partitioning by a spatial key is not possible, as the unique constraint (id, next_version) of the FeatureWriter must contain the
+   * partition key.
+   * The parameter is only taken into account when the space table is created.
+   */
+  public static final String HEAD_PARTITIONS = "headPartitions";
+  public static final int MAX_HEAD_PARTITIONS = 64;
 
   public enum Index {
     GEO,
@@ -101,14 +113,27 @@ public class XyzSpaceTableHelper {
   }
 
   public static List<SQLQuery> buildCreateSpaceTableQueries(String schema, String table) {
+    return buildCreateSpaceTableQueries(schema, table, 1);
+  }
+
+  /**
+   * Creates the queries to create a space table with all its partitions, indices and sequences.
+   *
+   * @param headPartitions The number of hash partitions (by id) of the HEAD table, a value <= 1 creates a HEAD table without partitions.
+   *  Only the access by id gets pruned to single partitions, see {@link #HEAD_PARTITIONS}.
+   */
+  public static List<SQLQuery> buildCreateSpaceTableQueries(String schema, String table, int headPartitions) {
     List<SQLQuery> queries = new ArrayList<>();
 
     queries.add(buildCreateSpaceTableQuery(schema, table));
     queries.add(buildColumnStorageAttributesQuery(schema, table));
     queries.addAll(buildSpaceTableIndexQueries(schema, table));
-    queries.add(buildCreateHeadPartitionQuery(schema, table));
+    queries.add(buildCreateHeadPartitionQuery(schema, table, headPartitions > 1));
+    for (int i = 0; headPartitions > 1 && i < headPartitions; i++)
+      queries.add(buildCreateHeadSubPartitionQuery(schema, table, headPartitions, i));
     queries.add(buildCreateHistoryPartitionQuery(schema, table, 0L));
     queries.add(buildCreateSequenceQuery(schema, table, "version"));
+    queries.add(buildEnableStatisticsQuery(schema, table));
 
     return queries;
   }
@@ -148,11 +173,24 @@ public class XyzSpaceTableHelper {
   }
 
   public static SQLQuery buildCreateHeadPartitionQuery(String schema, String rootTable) {
+      return buildCreateHeadPartitionQuery(schema, rootTable, false);
+  }
+
+  private static SQLQuery buildCreateHeadPartitionQuery(String schema, String rootTable, boolean hashPartitioned) {
       return new SQLQuery("CREATE TABLE IF NOT EXISTS ${schema}.${partitionTable} "
-          + "PARTITION OF ${schema}.${rootTable} FOR VALUES FROM (max_bigint()) TO (MAXVALUE)")
+          + "PARTITION OF ${schema}.${rootTable} FOR VALUES FROM (max_bigint()) TO (MAXVALUE) ${{subPartitioning}}")
           .withVariable(SCHEMA, schema)
           .withVariable("rootTable", rootTable)
-          .withVariable("partitionTable", rootTable + HEAD_TABLE_SUFFIX);
+          .withVariable("partitionTable", rootTable + HEAD_TABLE_SUFFIX)
+          .withQueryFragment("subPartitioning", hashPartitioned ? "PARTITION BY HASH (id)" : "");
+  }
+
+  private static SQLQuery buildCreateHeadSubPartitionQuery(String schema, String rootTable, int partitionCount, int partitionNo) {
+      return new SQLQuery("CREATE TABLE IF NOT EXISTS ${schema}.${subPartitionTable} "
+          + "PARTITION OF ${schema}.${partitionTable} FOR VALUES WITH (MODULUS " + partitionCount + ", REMAINDER " + partitionNo + ")")
+          .withVariable(SCHEMA, schema)
+          .withVariable("partitionTable", rootTable + HEAD_TABLE_SUFFIX)
+          .withVariable("subPartitionTable", rootTable + HEAD_TABLE_SUFFIX + "_p" + partitionNo);
   }
 
   public static SQLQuery buildCreateHistoryPartitionQuery(String schema, String rootTable, long partitionNo) {
@@ -189,6 +227,16 @@ public class XyzSpaceTableHelper {
           .withVariable("columnName", columnName);
   }
 
+  /**
+   * Enables the incremental maintenance of the space statistics by installing the according triggers on the space table.
+   * See: xyz_enable_space_statistics()
+   */
+  public static SQLQuery buildEnableStatisticsQuery(String schema, String table) {
+      return new SQLQuery("SELECT xyz_enable_space_statistics(#{schema}, #{table})")
+          .withNamedParameter(SCHEMA, schema)
+          .withNamedParameter(TABLE, table);
+  }
+
   public static String getTableNameForSpaceId(String spaceId, boolean hashed) {
     if (spaceId == null || spaceId.length() == 0)
       return null;
@@ -196,6 +244,16 @@ public class XyzSpaceTableHelper {
     return hashed ? Hasher.getHash(spaceId) : spaceId;
   }
 
+  /**
+   * Reads the number of HEAD partitions from the space parameters.
+   * @return The number of hash partitions of the HEAD table or 1 if the HEAD table should not be partitioned
+   */
+  public static int getHeadPartitionsFromSpaceParams(Map<String, Object> spaceParams) {
+    if (spaceParams != null && spaceParams.get(HEAD_PARTITIONS) instanceof Number headPartitions)
+      return Math.max(1, Math.min(headPartitions.intValue(), MAX_HEAD_PARTITIONS));
+    return 1;
+  }
+
   public static String getTableNameFromSpaceParamsOrSpaceId(Map<String, Object> spaceParams, String spaceId, boolean hashed) {
     if (spaceParams != null) {
       Object tableName = spaceParams.get(TABLE_NAME);
@@ -652,8 +652,9 @@ public class OpenApiGenerator {
    * Results are saved into the output file.
    * e.g. <code>java com.here.xyz.hub.utilOpenApiGenerator &lt;source&gt; &lt;recipe&gt; &lt;recipe&gt;</code>
    * @param args source, recipe and output file names
+   * @throws Exception if the specification could not be generated, so that a build running the generator fails
    */
-  public static void main(String... args) {
+  public static void main(String... args) throws Exception {
     try {
       if (args.length < 3 || args.length > 5) throw new Exception("Invalid number of parameters.");
 
@@ -670,12 +671,8 @@ public class OpenApiGenerator {
 
       Files.write(result, new File(args[args.length-1]));
     } catch (Exception e) {
-      if (debug) {
-        e.printStackTrace();
-      }
-
-      System.out.println(e.getMessage());
       System.out.println("Usage: java OpenApiGenerator [-d|--debug] <source> <recipe> [name] <output>");
+      throw e;
     }
   }
 }
@@ -34,6 +34,8 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -78,6 +80,11 @@ public class Core {
    */
   protected static final String VERTX_WORKER_POOL_SIZE = "VERTX_WORKER_POOL_SIZE";
 
+  /**
+   * The environment variable to enable the usage of virtual threads for blocking tasks.
+   */
+  protected static final String USE_VIRTUAL_THREADS = "USE_VIRTUAL_THREADS";
+
   /**
    * The resource file that contains the build info properties
    */
@@ -192,6 +199,28 @@ public class Core {
     return encryptedSecret;
   }
 
+  /**
+   * Creates an executor which runs each task on a new virtual thread.
+   * Virtual threads are only available when running on Java 21 or later. Their usage has to be enabled explicitly by setting the
+   * environment variable {@link #USE_VIRTUAL_THREADS} to "true".
+   * NOTE: c3p0 synchronizes on the pooled connections and statements, which pins the virtual threads to their carrier threads while they
+   *  are blocked on JDBC calls. Virtual threads therefore don't increase the number of concurrent JDBC tasks beyond the number of
+   *  carrier threads (by default, the number of cores).
+   *
+   * @return The executor or null, if virtual threads are not available or not enabled
+   */
+  public static ExecutorService newVirtualThreadExecutor() {
+    if (!Boolean.parseBoolean(System.getenv(USE_VIRTUAL_THREADS)))
+      return null;
+    try {
+      //Not using the API directly to stay compatible with Java 17
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+    catch (ReflectiveOperationException | UnsupportedOperationException e) {
+      return null;
+    }
+  }
+
   public static final ThreadFactory newThreadFactory(String groupName) {
     return new DefaultThreadFactory(groupName);
   }
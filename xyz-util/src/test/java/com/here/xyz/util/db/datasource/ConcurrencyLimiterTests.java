@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.util.db.datasource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrencyLimiterTests {
+
+  @Test
+  public void testConcurrencyIsLimited() throws Exception {
+    ExecutorService exec = Executors.newCachedThreadPool();
+    try {
+      ConcurrencyLimiter limiter = new ConcurrencyLimiter(2);
+      CountDownLatch release = new CountDownLatch(1);
+      AtomicInteger running = new AtomicInteger();
+      AtomicInteger maxRunning = new AtomicInteger();
+
+      List<CompletableFuture<Integer>> results = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        final int value = i;
+        results.add(limiter.submit(() -> {
+          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+          try {
+            release.await();
+          }
+          catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          running.decrementAndGet();
+          return value;
+        }, exec));
+      }
+
+      Thread.sleep(100);
+      assertEquals(0, limiter.getAvailablePermits());
+      assertEquals(8, limiter.getQueueLength());
+      assertFalse(results.get(9).isDone());
+
+      release.countDown();
+      for (int i = 0; i < 10; i++)
+        assertEquals(i, (int) results.get(i).get(10, TimeUnit.SECONDS));
+      assertEquals(2, maxRunning.get());
+      assertEquals(2, limiter.getAvailablePermits());
+      assertEquals(0, limiter.getQueueLength());
+    }
+    finally {
+      exec.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testFailureReleasesPermit() throws Exception {
+    ExecutorService exec = Executors.newCachedThreadPool();
+    try {
+      ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+      CompletableFuture<Object> failed = limiter.submit(() -> {
+        throw new IllegalStateException("failure");
+      }, exec);
+      CompletableFuture<String> next = limiter.submit(() -> "ok", exec);
+
+      assertEquals("ok", next.get(10, TimeUnit.SECONDS));
+      assertTrue(failed.isCompletedExceptionally());
+      assertEquals(1, limiter.getAvailablePermits());
+    }
+    finally {
+      exec.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.util.db.pg;
+
+import static com.here.xyz.util.db.pg.PropertyIndex.Method.BTREE;
+import static com.here.xyz.util.db.pg.PropertyIndex.Method.GIN;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class PropertyIndexTest {
+
+  @Test
+  public void testKeyPathExpression() {
+    assertEquals("jsondata->'properties'->'foo'->'bar'", new PropertyIndex("properties.foo.bar", BTREE).getKeyPathExpression());
+    assertEquals("jsondata->'properties'->'it''s'", new PropertyIndex("properties.it's", BTREE).getKeyPathExpression());
+  }
+
+  @Test
+  public void testPartialBTreeIndex() {
+    String query = new PropertyIndex("properties.foo", BTREE).buildCreateQuery("someSchema", "someTable")
+        .withLabelsEnabled(false).substitute().text();
+    assertTrue(query.contains("USING BTREE ((jsondata->'properties'->'foo'))"));
+    assertTrue(query.contains("WHERE (jsondata->'properties'->'foo') IS NOT NULL;"));
+  }
+
+  @Test
+  public void testGinIndex() {
+    String query = new PropertyIndex("properties.tags", GIN).buildCreateQuery("someSchema", "someTable")
+        .withLabelsEnabled(false).substitute().text();
+    assertTrue(query.contains("USING GIN ((jsondata->'properties'->'tags'))"));
+    assertFalse(query.contains("WHERE"));
+  }
+
+  @Test
+  public void testPropertyKey() {
+    assertEquals("foo.bar", new PropertyIndex("properties.foo.bar", BTREE).getPropertyKey());
+    assertEquals("f.foo", new PropertyIndex("foo", BTREE).getPropertyKey());
+  }
+
+  @Test
+  public void testIndexName() {
+    //Same as xyz_index_name_for_property('someTable', 'foo', 'm') with md5('foo') = 'acbd18db4cc2f85cedef654fccc4a4d8'
+    assertEquals("idx_someTable_acbd18d_m", new PropertyIndex("properties.foo", BTREE).getIndexName("someTable"));
+    //There is only one on-demand index per property
+    assertEquals(new PropertyIndex("properties.foo", BTREE).getIndexName("someTable"),
+        new PropertyIndex("properties.foo", GIN).getIndexName("someTable"));
+    assertNotEquals(new PropertyIndex("properties.foo", BTREE).getIndexName("someTable"),
+        new PropertyIndex("foo", BTREE).getIndexName("someTable"));
+  }
+
+  @Test
+  public void testIndexComment() {
+    String query = new PropertyIndex("properties.it's", BTREE).buildCreateQuery("someSchema", "someTable")
+        .withLabelsEnabled(false).substitute().text();
+    assertTrue(query.endsWith("COMMENT ON INDEX \"someSchema\".\"" + new PropertyIndex("properties.it's", BTREE).getIndexName("someTable")
+        + "\" IS 'p.name=it''s'"));
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.util.db.pg;
+
+import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.HEAD_PARTITIONS;
+import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.MAX_HEAD_PARTITIONS;
+import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.buildCreateSpaceTableQueries;
+import static com.here.xyz.util.db.pg.XyzSpaceTableHelper.getHeadPartitionsFromSpaceParams;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.here.xyz.util.db.SQLQuery;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+public class XyzSpaceTableHelperTest {
+
+  private static List<String> createSpaceTableQueries(int headPartitions) {
+    return buildCreateSpaceTableQueries("someSchema", "someTable", headPartitions).stream()
+        .map(query -> query.withLabelsEnabled(false).substitute().text())
+        .collect(Collectors.toList());
+  }
+
+  private static List<String> headPartitionQueries(List<String> queries) {
+    return queries.stream()
+        .filter(query -> query.contains("PARTITION OF \"someSchema\".\"someTable_head\""))
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testUnpartitionedHead() {
+    List<String> queries = createSpaceTableQueries(1);
+    assertTrue(queries.stream().anyMatch(query -> query.contains("CREATE TABLE IF NOT EXISTS \"someSchema\".\"someTable_head\"")));
+    assertFalse(queries.stream().anyMatch(query -> query.contains("PARTITION BY HASH")));
+    assertTrue(headPartitionQueries(queries).isEmpty());
+    assertEquals(queries, createSpaceTableQueries(0));
+    assertEquals(queries.size(), buildCreateSpaceTableQueries("someSchema", "someTable").size());
+  }
+
+  @Test
+  public void testHashPartitionedHead() {
+    List<String> queries = createSpaceTableQueries(4);
+    assertTrue(queries.stream().anyMatch(query -> query.contains("CREATE TABLE IF NOT EXISTS \"someSchema\".\"someTable_head\"")
+        && query.contains("PARTITION BY HASH (id)")));
+
+    List<String> subPartitionQueries = headPartitionQueries(queries);
+    assertEquals(4, subPartitionQueries.size());
+    for (int i = 0; i < 4; i++) {
+      assertTrue(subPartitionQueries.get(i).contains("\"someTable_head_p" + i + "\""));
+      assertTrue(subPartitionQueries.get(i).contains("FOR VALUES WITH (MODULUS 4, REMAINDER " + i + ")"));
+    }
+    //The sub-partitions have to be created after their parent and before the history partition
+    int headIndex = queries.indexOf(queries.stream().filter(query -> query.contains("PARTITION BY HASH")).findFirst().get());
+    assertEquals(headIndex + 1, queries.indexOf(subPartitionQueries.get(0)));
+    assertEquals(createSpaceTableQueries(1).size() + 4, queries.size());
+  }
+
+  @Test
+  public void testHeadPartitionsFromSpaceParams() {
+    assertEquals(1, getHeadPartitionsFromSpaceParams(null));
+    assertEquals(1, getHeadPartitionsFromSpaceParams(Map.of()));
+    assertEquals(1, getHeadPartitionsFromSpaceParams(Map.of(HEAD_PARTITIONS, "8")));
+    assertEquals(1, getHeadPartitionsFromSpaceParams(Map.of(HEAD_PARTITIONS, -3)));
+    assertEquals(8, getHeadPartitionsFromSpaceParams(Map.of(HEAD_PARTITIONS, 8)));
+    assertEquals(MAX_HEAD_PARTITIONS, getHeadPartitionsFromSpaceParams(Map.of(HEAD_PARTITIONS, 1000)));
+  }
+}